@@ -0,0 +1,81 @@
+package org.jbei.auth;
+
+import java.security.Key;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * KeyTable that caches the keys found by another (typically file or database backed) KeyTable.
+ * Found keys are cached for a configurable time, and missing keys for a shorter time so that
+ * requests using unknown key IDs do not each hit the underlying table. The cache may be reloaded
+ * at any time with {@link #reload()} or {@link #reload(String)}.
+ *
+ * @author Hector Plahar
+ */
+public class CachingKeyTable implements KeyTable {
+
+    private static final long DEFAULT_TTL = TimeUnit.MINUTES.toMillis(5);
+    private static final long DEFAULT_MISSING_TTL = TimeUnit.SECONDS.toMillis(30);
+
+    private final KeyTable delegate;
+    private final long ttl;
+    private final long missingTtl;
+    private final ConcurrentHashMap<String, Entry> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate the table used to look up keys not in the cache
+     */
+    public CachingKeyTable(final KeyTable delegate) {
+        this(delegate, DEFAULT_TTL, DEFAULT_MISSING_TTL);
+    }
+
+    /**
+     * @param delegate   the table used to look up keys not in the cache
+     * @param ttl        milliseconds to cache a found key
+     * @param missingTtl milliseconds to cache the absence of a key
+     */
+    public CachingKeyTable(final KeyTable delegate, final long ttl, final long missingTtl) {
+        this.delegate = delegate;
+        this.ttl = ttl;
+        this.missingTtl = missingTtl;
+    }
+
+    @Override
+    public Key getKey(final String keyId) {
+        if (keyId == null) {
+            return null;
+        }
+        final long now = System.currentTimeMillis();
+        Entry entry = cache.get(keyId);
+        if (entry == null || entry.expires < now) {
+            final Key key = delegate.getKey(keyId);
+            entry = new Entry(key, now + (key == null ? missingTtl : ttl));
+            cache.put(keyId, entry);
+        }
+        return entry.key;
+    }
+
+    /**
+     * Removes all cached keys, so they are looked up again on next use.
+     */
+    public void reload() {
+        cache.clear();
+    }
+
+    /**
+     * @param keyId the key to remove from the cache, so it is looked up again on next use
+     */
+    public void reload(final String keyId) {
+        cache.remove(keyId);
+    }
+
+    private static final class Entry {
+        private final Key key;
+        private final long expires;
+
+        private Entry(final Key key, final long expires) {
+            this.key = key;
+            this.expires = expires;
+        }
+    }
+}
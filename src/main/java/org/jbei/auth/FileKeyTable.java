@@ -0,0 +1,57 @@
+package org.jbei.auth;
+
+import org.jbei.auth.hmac.HmacSignatureFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.security.Key;
+
+/**
+ * KeyTable that reads Base64 encoded keys from files in a directory, where the file name is the
+ * key ID. Keys are read on every lookup; wrap in a {@link CachingKeyTable} to avoid that.
+ *
+ * @author Hector Plahar
+ */
+public class FileKeyTable implements KeyTable {
+
+    private static final Logger log = LoggerFactory.getLogger(FileKeyTable.class);
+
+    private final File directory;
+
+    /**
+     * @param directory the directory containing key files
+     */
+    public FileKeyTable(final File directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public Key getKey(final String keyId) {
+        // do not allow key IDs to refer to files outside the directory
+        if (keyId == null || keyId.isEmpty() || keyId.contains("/") || keyId.contains("\\")
+                || keyId.startsWith(".")) {
+            return null;
+        }
+        final File keyFile = new File(directory, keyId);
+        if (!keyFile.isFile()) {
+            return null;
+        }
+        // collect all lines in the file to a buffer
+        final StringBuilder encoded = new StringBuilder();
+        try (final FileReader reader = new FileReader(keyFile);
+                final BufferedReader buffered = new BufferedReader(reader);) {
+            String line;
+            while ((line = buffered.readLine()) != null) {
+                encoded.append(line);
+            }
+            // after reading all lines, decode value into a Key object
+            return HmacSignatureFactory.decodeKey(encoded.toString());
+        } catch (final Throwable t) {
+            log.error("Failed to load rest-auth key " + keyId);
+        }
+        return null;
+    }
+}
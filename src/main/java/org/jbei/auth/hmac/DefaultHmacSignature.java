@@ -16,6 +16,7 @@ public final class DefaultHmacSignature implements HmacSignature {
 
     private final Mac mac;
     private final String userId;
+    private final Runnable onComplete;
 
     private String signature = null;
 
@@ -24,8 +25,19 @@ public final class DefaultHmacSignature implements HmacSignature {
      * @param userId
      */
     public DefaultHmacSignature(final Mac mac, final String userId) {
+        this(mac, userId, null);
+    }
+
+    /**
+     * @param mac
+     * @param userId
+     * @param onComplete action run once the signature is generated, after which the {@code mac}
+     *                   is no longer used (e.g. to return it to a {@link MacPool})
+     */
+    public DefaultHmacSignature(final Mac mac, final String userId, final Runnable onComplete) {
         this.mac = mac;
         this.userId = userId;
+        this.onComplete = onComplete;
     }
 
     @Override
@@ -43,6 +55,9 @@ public final class DefaultHmacSignature implements HmacSignature {
         if (signature == null) {
             final byte[] rawSignature = mac.doFinal();
             signature = Base64.encodeBase64String(rawSignature);
+            if (onComplete != null) {
+                onComplete.run();
+            }
         }
         return signature;
     }
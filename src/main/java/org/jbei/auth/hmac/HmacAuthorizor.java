@@ -10,6 +10,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.SignatureException;
 import java.util.Map;
 
@@ -84,7 +86,8 @@ public class HmacAuthorizor {
             final HmacSignature hmac = factory.buildSignature(request, keyId, userId);
             if (hmac == null) {
                 // no valid keyId
-            } else if (signature.equals(hmac.generateSignature())) {
+            } else if (MessageDigest.isEqual(signature.getBytes(StandardCharsets.UTF_8),
+                    hmac.generateSignature().getBytes(StandardCharsets.UTF_8))) {
                 return new Authorization() {
                     @Override
                     public boolean isValid() {
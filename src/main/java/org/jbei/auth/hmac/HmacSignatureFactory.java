@@ -66,6 +66,7 @@ public class HmacSignatureFactory {
     private static final PercentEscaper ESCAPER = new PercentEscaper("-_.~", false);
     private static final String HMAC = "HmacSHA1";
     private static final String NEWLINE = "\n";
+    private static final MacPool MAC_POOL = new MacPool(HMAC);
 
     private final KeyTable table;
 
@@ -121,18 +122,11 @@ public class HmacSignatureFactory {
      */
     public HmacSignature buildSignature(final HttpServletRequest request, final String keyId,
                                         final String userId) throws SignatureException {
-        try {
-            final Mac mac = Mac.getInstance(HMAC);
-            final Key key = table.getKey(keyId);
-            if (key != null) {
-                mac.init(key);
-                mac.update((buildRequestString(userId, request)).getBytes(UTF8));
-                return new DefaultHmacSignature(mac, userId);
-            }
+        final Key key = table.getKey(keyId);
+        if (key == null) {
             return null;
-        } catch (final InvalidKeyException | NoSuchAlgorithmException e) {
-            throw new SignatureException("Failed to initialize signature");
         }
+        return initSignature(key, userId, buildRequestString(userId, request));
     }
 
     /**
@@ -146,18 +140,11 @@ public class HmacSignatureFactory {
      */
     public HmacSignature buildSignature(final HttpRequestBase request, final String keyId,
                                         final String userId) throws SignatureException {
-        try {
-            final Mac mac = Mac.getInstance(HMAC);
-            final Key key = table.getKey(keyId);
-            if (key != null) {
-                mac.init(key);
-                mac.update((buildRequestString(userId, request)).getBytes(UTF8));
-                return new DefaultHmacSignature(mac, userId);
-            }
+        final Key key = table.getKey(keyId);
+        if (key == null) {
             return null;
-        } catch (final InvalidKeyException | NoSuchAlgorithmException e) {
-            throw new SignatureException("Failed to initialize signature");
         }
+        return initSignature(key, userId, buildRequestString(userId, request));
     }
 
     /**
@@ -177,20 +164,27 @@ public class HmacSignatureFactory {
     public HmacSignature buildSignature(final String keyId, final String userId,
                                         final String method, final String host, final String path,
                                         final Map<String, ? extends Iterable<String>> params) throws SignatureException {
-        try {
-            final Mac mac = Mac.getInstance(HMAC);
-            final Key key = table.getKey(keyId);
-            if (key != null) {
-                mac.init(key);
-                mac.update((buildRequestString(userId, method, host, path,
-                        extractAndSortParams(params))).getBytes(UTF8));
-                return new DefaultHmacSignature(mac, userId);
-            }
+        final Key key = table.getKey(keyId);
+        if (key == null) {
             return null;
+        }
+        return initSignature(key, userId, buildRequestString(userId, method, host, path,
+                extractAndSortParams(params)));
+    }
+
+    /**
+     * Signs the request string with a pooled {@link Mac}, which is returned to the pool once the
+     * signature is generated.
+     */
+    private HmacSignature initSignature(final Key key, final String userId, final String requestString)
+            throws SignatureException {
+        try {
+            final Mac mac = MAC_POOL.acquire(key);
+            mac.update(requestString.getBytes(UTF8));
+            return new DefaultHmacSignature(mac, userId, () -> MAC_POOL.release(key, mac));
         } catch (final InvalidKeyException | NoSuchAlgorithmException e) {
             throw new SignatureException("Failed to initialize signature");
         }
-
     }
 
     private List<String> extractAndSortParams(final Map<String, ? extends Iterable<String>> params) {
@@ -0,0 +1,74 @@
+package org.jbei.auth.hmac;
+
+import javax.crypto.Mac;
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.NoSuchAlgorithmException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Pool of initialized {@link Mac} instances for each signing key, so that signing and verifying a
+ * request does not need to look up the algorithm provider and initialize a new {@link Mac}.
+ * Instances are {@link Mac#reset() reset} when returned to the pool.
+ *
+ * @author Hector Plahar
+ */
+public class MacPool {
+
+    private static final int MAX_IDLE_PER_KEY = 32;
+
+    private final String algorithm;
+    private final ConcurrentHashMap<Key, Queue<Mac>> pools = new ConcurrentHashMap<>();
+
+    /**
+     * @param algorithm the MAC algorithm (e.g. {@code HmacSHA1})
+     */
+    public MacPool(final String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * @param key the signing key
+     * @return a {@link Mac} initialized with the key; either from the pool or newly created
+     * @throws NoSuchAlgorithmException if no provider supports the algorithm
+     * @throws InvalidKeyException if the key cannot be used with the algorithm
+     */
+    public Mac acquire(final Key key) throws NoSuchAlgorithmException, InvalidKeyException {
+        final Queue<Mac> pool = pools.get(key);
+        if (pool != null) {
+            final Mac mac = pool.poll();
+            if (mac != null) {
+                return mac;
+            }
+        }
+        final Mac mac = Mac.getInstance(algorithm);
+        mac.init(key);
+        return mac;
+    }
+
+    /**
+     * Returns a {@link Mac} to the pool. It must not be used by the caller afterwards.
+     *
+     * @param key the key used to initialize the {@link Mac}
+     * @param mac the instance to return
+     */
+    public void release(final Key key, final Mac mac) {
+        mac.reset();
+        final Queue<Mac> pool = pools.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>());
+        // size() is O(n) on ConcurrentLinkedQueue but the pool is small
+        if (pool.size() < MAX_IDLE_PER_KEY) {
+            pool.offer(mac);
+        }
+    }
+
+    /**
+     * Removes idle instances for a key, e.g. after the key is replaced.
+     *
+     * @param key the signing key
+     */
+    public void evict(final Key key) {
+        pools.remove(key);
+    }
+}
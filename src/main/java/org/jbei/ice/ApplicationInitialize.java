@@ -1,11 +1,23 @@
 package org.jbei.ice;
 
+import org.jbei.ice.lib.access.EntryReadAccessBuildTask;
 import org.jbei.ice.lib.account.AccountController;
+import org.jbei.ice.lib.account.UserSessions;
+import org.jbei.ice.lib.account.session.DatabaseSessionStore;
+import org.jbei.ice.lib.admission.AdmissionController;
+import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.lib.config.ConfigurationCache;
 import org.jbei.ice.lib.config.ConfigurationController;
+import org.jbei.ice.lib.dto.ConfigurationKey;
+import org.jbei.ice.lib.entry.sequence.SequenceMetadataTask;
 import org.jbei.ice.lib.entry.sequence.annotation.AutoAnnotationBlastDbBuildTask;
-import org.jbei.ice.lib.executor.IceExecutorService;
+import org.jbei.ice.lib.executor.JobQueue;
+import org.jbei.ice.lib.executor.MaintenanceTask;
 import org.jbei.ice.lib.group.GroupController;
 import org.jbei.ice.lib.search.blast.BlastPlus;
+import org.jbei.ice.lib.utils.Utils;
+import org.jbei.ice.storage.DAOException;
+import org.jbei.ice.storage.DAOFactory;
 
 /**
  * Responsible for initializing the ICE application
@@ -31,11 +43,45 @@ public class ApplicationInitialize {
         // check for and create default settings
         ConfigurationController configurationController = new ConfigurationController();
         configurationController.initPropertyValues();
+        ConfigurationCache.getInstance().reload();
+        AdmissionController.getInstance().configure();
 
-        // check blast
-        BlastPlus.scheduleBlastIndexRebuildTask(false);
+        // sessions are kept in memory unless configured to be stored in the database
+        if ("DATABASE".equalsIgnoreCase(Utils.getConfigValue(ConfigurationKey.SESSION_STORE)))
+            UserSessions.setSessionStore(new DatabaseSessionStore());
 
-        AutoAnnotationBlastDbBuildTask autoAnnotationBlastDbBuildTask = new AutoAnnotationBlastDbBuildTask();
-        IceExecutorService.getInstance().runTask(autoAnnotationBlastDbBuildTask);
+        // sequence text is stored separately from sequences; move it for sequences saved before. Each chunk is
+        // committed separately; on failure the rest is moved on the next start
+        boolean contentMigrated = true;
+        try {
+            int migrated = DAOFactory.getSequenceDAO().migrateContent();
+            if (migrated > 0)
+                Logger.info("Moved text of " + migrated + " sequences to sequence_content");
+        } catch (DAOException e) {
+            Logger.error("Could not move text of all sequences to sequence_content", e);
+            contentMigrated = false;
+        }
+
+        // resume any background jobs that did not complete before the last shutdown
+        JobQueue.getInstance().start();
+
+        // check blast (an interrupted rebuild is resumed by the job queue)
+        if (!BlastPlus.blastDatabaseExists())
+            BlastPlus.scheduleBlastIndexRebuildTask(false);
+
+        // build features database for auto annotation if needed; periodic rebuilds are scheduled below
+        if (!BlastPlus.featuresBlastDatabaseExists(BlastPlus.AUTO_ANNOTATION_FOLDER_NAME))
+            JobQueue.getInstance().submit(new AutoAnnotationBlastDbBuildTask());
+
+        // populate the entry read access table for existing entries (once)
+        if (!DAOFactory.getEntryReadAccessDAO().isBuilt())
+            JobQueue.getInstance().submit(new EntryReadAccessBuildTask());
+
+        // compute metadata for sequences saved before it was stored with them (once). Needs the sequence text
+        if (contentMigrated && DAOFactory.getSequenceDAO().hasMissingMetadata())
+            JobQueue.getInstance().submit(new SequenceMetadataTask());
+
+        // schedule periodic maintenance
+        MaintenanceTask.scheduleAll();
     }
 }
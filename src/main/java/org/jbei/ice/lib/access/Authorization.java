@@ -24,7 +24,9 @@ public class Authorization<T extends DataModel> {
         if (userId == null)
             return null;
 
-        Account account = DAOFactory.getAccountDAO().getByEmail(userId);
+        AuthorizationContext context = AuthorizationContext.current();
+        Account account = context == null ? DAOFactory.getAccountDAO().getByEmail(userId)
+                : context.getAccount(userId, DAOFactory.getAccountDAO()::getByEmail);
         if (account == null)
             throw new IllegalArgumentException("Could not retrieve account information for user " + userId);
         return account;
@@ -0,0 +1,173 @@
+package org.jbei.ice.lib.access;
+
+import org.jbei.ice.storage.model.Account;
+import org.jbei.ice.storage.model.Group;
+
+import java.util.*;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Request scoped memo of the information used for authorization checks; accounts looked up by user id,
+ * the (transitive) groups of each account and the read/write decisions made for each entry. A request that
+ * checks the same entry several times (e.g. when retrieving its details, links and parents) or checks many
+ * entries for the same user only looks each of these up once.
+ * <p>
+ * A context is active on the current thread between {@link #begin()} and {@link #end()} (see
+ * {@link org.jbei.ice.servlet.filter.IceFilter} and the REST request/response filters); outside of one (e.g. in
+ * background tasks) nothing is memoised. Memoised groups and decisions are discarded by {@link #invalidate()}
+ * whenever permissions, folder contents, group membership or entry ownership change during the request
+ *
+ * @author Hector Plahar
+ */
+public class AuthorizationContext {
+
+    private static final ThreadLocal<AuthorizationContext> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Account> accounts = new HashMap<>();
+    private final Map<Long, Set<Group>> groups = new HashMap<>();
+    private final Map<Decision, Boolean> decisions = new HashMap<>();
+
+    private AuthorizationContext() {
+    }
+
+    /**
+     * Starts a new (empty) context for the current thread
+     */
+    public static void begin() {
+        CURRENT.set(new AuthorizationContext());
+    }
+
+    /**
+     * Discards the context for the current thread, if any
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return context active on the current thread or null if there is none
+     */
+    public static AuthorizationContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Discards the memoised groups and decisions of the context active on the current thread (if any).
+     * Account lookups are retained
+     */
+    public static void invalidate() {
+        AuthorizationContext context = CURRENT.get();
+        if (context == null)
+            return;
+
+        context.groups.clear();
+        context.decisions.clear();
+    }
+
+    /**
+     * @param userId unique user identifier
+     * @param loader function to look up the account if it has not been memoised
+     * @return account for user id or null if the loader does not find one. Missing accounts are not memoised
+     */
+    public Account getAccount(String userId, Function<String, Account> loader) {
+        Account account = accounts.get(userId);
+        if (account != null)
+            return account;
+
+        account = loader.apply(userId);
+        if (account != null)
+            accounts.put(userId, account);
+        return account;
+    }
+
+    /**
+     * @param account account whose groups are being retrieved
+     * @param loader  supplier of the account's groups (including parent groups) if they have not been memoised
+     * @return copy of the groups of the account
+     */
+    public Set<Group> getGroups(Account account, Supplier<Set<Group>> loader) {
+        Set<Group> accountGroups = groups.computeIfAbsent(account.getId(), id -> loader.get());
+        return new HashSet<>(accountGroups);
+    }
+
+    /**
+     * @param userId  unique user identifier. Null for anonymous users
+     * @param entryId unique entry identifier
+     * @param type    type of access being checked
+     * @param check   performs the check if no decision has been memoised
+     * @return true if the user has the specified type of access to the entry
+     */
+    public boolean isAllowed(String userId, long entryId, AccessType type, BooleanSupplier check) {
+        Decision decision = new Decision(userId, entryId, type);
+        Boolean allowed = decisions.get(decision);
+        if (allowed == null) {
+            allowed = check.getAsBoolean();
+            decisions.put(decision, allowed);
+        }
+        return allowed;
+    }
+
+    /**
+     * Set based variant of {@link #isAllowed(String, long, AccessType, BooleanSupplier)}. Only the entries
+     * without a memoised decision are passed to the check
+     *
+     * @param userId   unique user identifier. Null for anonymous users
+     * @param entryIds unique entry identifiers
+     * @param type     type of access being checked
+     * @param check    returns the subset of the entries it is passed that the user has access to
+     * @return subset of <code>entryIds</code> that the user has the specified type of access to
+     */
+    public Set<Long> getAllowed(String userId, Collection<Long> entryIds, AccessType type,
+                                Function<Collection<Long>, Set<Long>> check) {
+        Set<Long> allowed = new HashSet<>();
+        Set<Long> unknown = new HashSet<>();
+        for (Long entryId : entryIds) {
+            Boolean decision = decisions.get(new Decision(userId, entryId, type));
+            if (decision == null)
+                unknown.add(entryId);
+            else if (decision)
+                allowed.add(entryId);
+        }
+
+        if (unknown.isEmpty())
+            return allowed;
+
+        Set<Long> checked = check.apply(unknown);
+        for (Long entryId : unknown) {
+            boolean isAllowed = checked.contains(entryId);
+            decisions.put(new Decision(userId, entryId, type), isAllowed);
+            if (isAllowed)
+                allowed.add(entryId);
+        }
+        return allowed;
+    }
+
+    private static class Decision {
+        private final String userId;
+        private final long entryId;
+        private final AccessType type;
+
+        Decision(String userId, long entryId, AccessType type) {
+            this.userId = userId;
+            this.entryId = entryId;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Decision))
+                return false;
+            Decision other = (Decision) o;
+            return entryId == other.entryId && type == other.type && Objects.equals(userId, other.userId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, entryId, type);
+        }
+    }
+}
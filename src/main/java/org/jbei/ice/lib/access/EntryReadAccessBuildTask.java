@@ -0,0 +1,29 @@
+package org.jbei.ice.lib.access;
+
+import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.lib.executor.DurableTask;
+import org.jbei.ice.storage.DAOFactory;
+import org.jbei.ice.storage.hibernate.dao.EntryReadAccessDAO;
+
+/**
+ * Task to populate the materialised entry read access table for all existing entries. Submitted on startup
+ * until it has completed; read checks use the permissions directly until then
+ *
+ * @author Hector Plahar
+ */
+public class EntryReadAccessBuildTask extends DurableTask {
+
+    @Override
+    public String getKey() {
+        return "build-entry-read-access";
+    }
+
+    @Override
+    public void execute() {
+        Logger.info("Building entry read access table");
+        EntryReadAccessDAO dao = DAOFactory.getEntryReadAccessDAO();
+        int count = dao.rebuildAll();
+        dao.setBuilt();
+        Logger.info("Entry read access table built for " + count + " entries");
+    }
+}
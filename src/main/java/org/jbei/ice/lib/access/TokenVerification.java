@@ -17,9 +17,27 @@ import org.jbei.ice.storage.model.RemotePartner;
 public class TokenVerification {
 
     private final TokenHash tokenHash;
+    private final VerifiedTokenCache verifiedTokens;
 
     public TokenVerification() {
         this.tokenHash = new TokenHash();
+        this.verifiedTokens = VerifiedTokenCache.getInstance();
+    }
+
+    /**
+     * @param clientId api key client id
+     * @return identifier for api key verifications in the {@link VerifiedTokenCache}
+     */
+    public static String apiKeyIdentifier(String clientId) {
+        return "api:" + clientId;
+    }
+
+    /**
+     * @param url web of registries partner url
+     * @return identifier for partner token verifications in the {@link VerifiedTokenCache}
+     */
+    public static String partnerIdentifier(String url) {
+        return "partner:" + url;
     }
 
     public String verifyAPIKey(String token, String clientId, String userId) {
@@ -29,9 +47,13 @@ public class TokenVerification {
         if (key == null)
             throw new PermissionException("Invalid client Id " + clientId);
 
-        String hash_token = tokenHash.encrypt(token, clientId + key.getSecret() + clientId);
-        if (!hash_token.equalsIgnoreCase(key.getHashedToken()))
-            throw new PermissionException("Invalid token");
+        String identifier = apiKeyIdentifier(clientId);
+        if (!verifiedTokens.isVerified(identifier, token, key.getHashedToken())) {
+            String hash_token = tokenHash.encrypt(token, clientId + key.getSecret() + clientId);
+            if (!hash_token.equalsIgnoreCase(key.getHashedToken()))
+                throw new PermissionException("Invalid token");
+            verifiedTokens.verified(identifier, token, key.getHashedToken());
+        }
 
         // if the api belongs to an admin, accept whatever user id they present
         Account account = DAOFactory.getAccountDAO().getByEmail(key.getOwnerEmail());
@@ -49,9 +71,13 @@ public class TokenVerification {
         if (remotePartner == null)
             return null;
 
-        String hash = this.tokenHash.encrypt(token + url, remotePartner.getSalt());
-        if (!hash.equals(remotePartner.getAuthenticationToken()))
-            return null;
+        String identifier = partnerIdentifier(url);
+        if (!verifiedTokens.isVerified(identifier, token, remotePartner.getAuthenticationToken())) {
+            String hash = this.tokenHash.encrypt(token + url, remotePartner.getSalt());
+            if (!hash.equals(remotePartner.getAuthenticationToken()))
+                return null;
+            verifiedTokens.verified(identifier, token, remotePartner.getAuthenticationToken());
+        }
         return remotePartner.toDataTransferObject();
     }
 }
@@ -0,0 +1,154 @@
+package org.jbei.ice.lib.access;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.xml.bind.DatatypeConverter;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded, time limited cache of successfully verified tokens used to avoid re-deriving the (deliberately
+ * expensive) PBKDF2 hash for every request presenting the same credentials.
+ * <p>
+ * Tokens are never stored. Entries are keyed by an HMAC of the presented credentials using a random key generated
+ * when the cache is created, and record the stored hash that the token was verified against. A cached verification
+ * is only accepted if that hash is still the one stored for the credential so rotated or deleted credentials are
+ * rejected even before they are explicitly invalidated
+ *
+ * @author Hector Plahar
+ */
+public class VerifiedTokenCache {
+
+    private static final VerifiedTokenCache INSTANCE = new VerifiedTokenCache(10000, TimeUnit.MINUTES.toMillis(10));
+
+    private final int maxEntries;
+    private final long ttlMs;
+    private final SecretKey secretKey;
+    private final ThreadLocal<Mac> macs;
+    private final LinkedHashMap<String, Entry> entries;
+
+    VerifiedTokenCache(int maxEntries, long ttlMs) {
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+        try {
+            this.secretKey = KeyGenerator.getInstance("HmacSHA256").generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(secretKey);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // access ordered so that the least recently used entry is evicted when full
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > VerifiedTokenCache.this.maxEntries;
+            }
+        };
+    }
+
+    public static VerifiedTokenCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param identifier credential identifier (e.g. api client id or partner url)
+     * @param token      token presented for the credential
+     * @param storedHash hash currently stored for the credential
+     * @return true if the token was previously verified against <code>storedHash</code> and the verification has
+     * not expired
+     */
+    public boolean isVerified(String identifier, String token, String storedHash) {
+        if (identifier == null || token == null || storedHash == null)
+            return false;
+
+        String cacheKey = cacheKey(identifier, token);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(cacheKey);
+            if (entry != null && entry.expires < System.currentTimeMillis()) {
+                entries.remove(cacheKey);
+                entry = null;
+            }
+        }
+
+        return entry != null && MessageDigest.isEqual(entry.hash, storedHash.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Records a successful verification
+     *
+     * @param identifier credential identifier (e.g. api client id or partner url)
+     * @param token      token presented for the credential
+     * @param storedHash hash stored for the credential that the token was verified against
+     */
+    public void verified(String identifier, String token, String storedHash) {
+        if (identifier == null || token == null || storedHash == null)
+            return;
+
+        Entry entry = new Entry(identifier, storedHash.getBytes(StandardCharsets.UTF_8),
+                System.currentTimeMillis() + ttlMs);
+        String cacheKey = cacheKey(identifier, token);
+        synchronized (entries) {
+            entries.put(cacheKey, entry);
+        }
+    }
+
+    /**
+     * Removes all cached verifications for the specified credential. Should be called when the
+     * credential is deleted or its token changes
+     *
+     * @param identifier credential identifier (e.g. api client id or partner url)
+     */
+    public void invalidate(String identifier) {
+        if (identifier == null)
+            return;
+
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (identifier.equals(iterator.next().identifier))
+                    iterator.remove();
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private String cacheKey(String identifier, String token) {
+        Mac mac = macs.get();
+        mac.update(identifier.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return DatatypeConverter.printBase64Binary(mac.doFinal(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static class Entry {
+        private final String identifier;
+        private final byte[] hash;
+        private final long expires;
+
+        Entry(String identifier, byte[] hash, long expires) {
+            this.identifier = identifier;
+            this.hash = hash;
+            this.expires = expires;
+        }
+    }
+}
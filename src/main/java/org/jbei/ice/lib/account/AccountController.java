@@ -411,7 +411,6 @@ public class AccountController {
         account.setIp(ip);
         account.setLastLoginTime(Calendar.getInstance().getTime());
         account = save(account);
-        UserSessions.createNewSessionForUser(account.getEmail());
         return account;
     }
 
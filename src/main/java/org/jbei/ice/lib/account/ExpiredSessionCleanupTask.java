@@ -0,0 +1,24 @@
+package org.jbei.ice.lib.account;
+
+import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.lib.executor.Task;
+
+/**
+ * Task to remove expired user sessions
+ *
+ * @author Hector Plahar
+ */
+public class ExpiredSessionCleanupTask extends Task {
+
+    @Override
+    public String getKey() {
+        return "expired-session-cleanup";
+    }
+
+    @Override
+    public void execute() {
+        int count = UserSessions.removeExpiredSessions();
+        if (count > 0)
+            Logger.info("Removed " + count + " expired session(s)");
+    }
+}
@@ -2,6 +2,8 @@ package org.jbei.ice.lib.account;
 
 import org.jbei.ice.lib.access.AccessStatus;
 import org.jbei.ice.lib.access.PermissionException;
+import org.jbei.ice.lib.access.TokenVerification;
+import org.jbei.ice.lib.access.VerifiedTokenCache;
 import org.jbei.ice.lib.dto.access.AccessKey;
 import org.jbei.ice.lib.dto.common.Results;
 import org.jbei.ice.storage.DAOFactory;
@@ -122,6 +124,7 @@ public class UserApiKeys {
         }
 
         apiKeyDAO.delete(key);
+        VerifiedTokenCache.getInstance().invalidate(TokenVerification.apiKeyIdentifier(key.getClientId()));
         return true;
     }
 }
@@ -2,32 +2,62 @@ package org.jbei.ice.lib.account;
 
 import org.apache.commons.lang3.StringUtils;
 import org.jbei.ice.lib.access.PermissionException;
+import org.jbei.ice.lib.account.session.InMemorySessionStore;
+import org.jbei.ice.lib.account.session.SessionStore;
+import org.jbei.ice.lib.account.session.UserSession;
 import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.lib.config.ConfigurationCache;
+import org.jbei.ice.lib.dto.ConfigurationKey;
 import org.jbei.ice.storage.DAOFactory;
 import org.jbei.ice.storage.model.Account;
 
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Creates and maintains the web application sessions for users who have successfully authenticated
+ * Creates and maintains the web application sessions for users who have successfully authenticated.
+ * <p>
+ * Sessions expire once they have not been used for the configured timeout
+ * ({@link ConfigurationKey#SESSION_TIMEOUT_MINUTES}) and the least recently used sessions for a user are removed when
+ * the user exceeds {@link ConfigurationKey#MAX_SESSIONS_PER_USER}. Expired sessions are also periodically removed by
+ * the {@link org.jbei.ice.lib.executor.MaintenanceTask#SESSION_CLEANUP} task.
  *
  * @author Hector Plahar
  */
 public class UserSessions {
 
-    private final static ConcurrentHashMap<String, Set<String>> userSessionMap = new ConcurrentHashMap<>();
+    // minimum time between recording access to a session
+    private static final long TOUCH_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private static volatile SessionStore store = new InMemorySessionStore();
+
+    /**
+     * Sets the store used for sessions. Existing sessions are not transferred
+     *
+     * @param sessionStore store for sessions
+     */
+    public static void setSessionStore(SessionStore sessionStore) {
+        store = sessionStore;
+    }
 
     public static String getUserIdBySession(String sessionId) {
-        for (Map.Entry<String, Set<String>> entrySet : userSessionMap.entrySet()) {
-            if (entrySet.getValue().contains(sessionId)) {
-                return entrySet.getKey();
-            }
+        if (StringUtils.isEmpty(sessionId))
+            return null;
+
+        UserSession session = store.get(sessionId);
+        if (session == null)
+            return null;
+
+        long now = System.currentTimeMillis();
+        long idle = now - session.getLastAccessTime();
+        if (idle > getTimeout()) {
+            store.remove(sessionId);
+            return null;
         }
-        return null;
+
+        if (idle > TOUCH_INTERVAL_MS)
+            store.touch(session, now);
+        return session.getUserId();
     }
 
     /**
@@ -44,12 +74,9 @@ public class UserSessions {
     }
 
     protected static void putSession(String userId, String sessionId) {
-        Set<String> sessionIds = userSessionMap.get(userId);
-        if (sessionIds == null) {
-            sessionIds = new HashSet<>();
-            userSessionMap.put(userId, sessionIds);
-        }
-        sessionIds.add(sessionId);
+        long now = System.currentTimeMillis();
+        int maxSessions = Math.max(1, ConfigurationCache.getInstance().getInt(ConfigurationKey.MAX_SESSIONS_PER_USER, 20));
+        store.put(new UserSession(sessionId, userId, now, now), maxSessions);
     }
 
     /**
@@ -70,15 +97,47 @@ public class UserSessions {
     }
 
     /**
-     * Invalidates the session id for the specified user
-     * by removing the stored session id
+     * Invalidates the specified session
+     *
+     * @param sessionId unique session identifier
+     */
+    public static void invalidateSession(String sessionId) {
+        if (sessionId == null)
+            return;
+        store.remove(sessionId);
+    }
+
+    /**
+     * Invalidates all the sessions for the specified user
      *
      * @param userId unique user id
      */
-    public static void invalidateSession(String userId) {
+    public static void invalidateUserSessions(String userId) {
         if (userId == null)
             return;
-        userSessionMap.remove(userId);
+        store.removeUserSessions(userId);
+    }
+
+    /**
+     * @param userId unique user id
+     * @return number of sessions for the specified user
+     */
+    public static int getSessionCount(String userId) {
+        return store.getUserSessionCount(userId);
+    }
+
+    /**
+     * Removes sessions that have expired
+     *
+     * @return number of sessions removed
+     */
+    public static int removeExpiredSessions() {
+        return store.removeExpired(System.currentTimeMillis() - getTimeout());
+    }
+
+    private static long getTimeout() {
+        int minutes = ConfigurationCache.getInstance().getInt(ConfigurationKey.SESSION_TIMEOUT_MINUTES, 720);
+        return TimeUnit.MINUTES.toMillis(minutes);
     }
 
     /**
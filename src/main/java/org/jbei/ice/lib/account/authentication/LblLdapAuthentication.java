@@ -2,6 +2,8 @@ package org.jbei.ice.lib.account.authentication;
 
 import org.jbei.ice.lib.account.AccountController;
 import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.lib.config.ConfigurationCache;
+import org.jbei.ice.lib.dto.ConfigurationKey;
 import org.jbei.ice.storage.DAOFactory;
 import org.jbei.ice.storage.model.Account;
 
@@ -9,11 +11,8 @@ import javax.naming.Context;
 import javax.naming.NamingEnumeration;
 import javax.naming.NamingException;
 import javax.naming.directory.*;
-import java.text.MessageFormat;
-import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Date;
-import java.util.Hashtable;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -24,7 +23,16 @@ import java.util.Hashtable;
  */
 public class LblLdapAuthentication implements IAuthentication {
 
-    protected DirContext dirContext;
+    private static final String USER_BASE_DN = "ou=People,dc=lbl,dc=gov";
+    private static final String USER_QUERY = "(&(objectclass=lblPerson)(uid={0})(lblAccountStatus=Active))";
+    private static final String[] USER_ATTRIBUTES = {"lblempnum", "givenName", "sn", "mail", "description"};
+    private static final String GROUP_BASE_DN = "ou=JBEI-Groups,ou=Groups,dc=lbl,dc=gov";
+    private static final String GROUP_QUERY = "(&(objectClass=groupOfUniqueNames)(uniqueMember={0}))";
+    private static final Set<String> WHITELIST_GROUPS = new HashSet<>(Arrays.asList(
+            "JBEI", "Keasling Lab", "DNA DIVA", "BIOFAB", "Mukhopadhyay GTL", "Cell Wall Synthesis"));
+
+    private static boolean poolConfigured;
+
     protected String searchURL;
     protected String authenticationURL;
     protected boolean initialized;
@@ -54,6 +62,7 @@ public class LblLdapAuthentication implements IAuthentication {
         loginId = loginId.toLowerCase().trim();
         String authenticatedEmail;
 
+        // directory lookups are cached so a login is usually a single bind as the user
         if (isWikiUser(loginId)) {
             try {
                 authenticatedEmail = authenticateWithLDAP(loginId, password);
@@ -108,72 +117,40 @@ public class LblLdapAuthentication implements IAuthentication {
     }
 
     /**
-     * Authenticate user to the ldap server.
+     * Authenticate user to the ldap server. The user's directory information is resolved using
+     * {@link #lookup(String)} so that (unless the cache has expired) the only directory operation is the bind
+     * as the user
      *
      * @param userName
      * @param passWord
-     * @return valid email if successfully authenticated, null otherwise
+     * @return valid email if successfully authenticated, null if the user is not a member of the allowed groups
+     * @throws AuthenticationException if the credentials are not valid or on error communicating with the directory
      */
     public String authenticateWithLDAP(String userName, String passWord) throws AuthenticationException {
-        DirContext authContext = null;
+        authenticated = false;
+        LdapUser user = lookup(userName);
+        if (!user.isMember())
+            return null;
 
+        DirContext authContext = null;
         try {
-            authenticated = false;
-            String employeeNumber = "";
-
-            //has to look up employee number for binding
-            int idx = userName.indexOf("@lbl.gov");
-            if (idx > 0)
-                userName = userName.substring(0, idx);
-            String filter = "(uid=" + userName + ")";
-            SearchControls cons = new SearchControls();
-            cons.setSearchScope(SearchControls.SUBTREE_SCOPE);
-            cons.setCountLimit(0);
-
-            if (dirContext == null) {
-                dirContext = getContext();
-            }
-            String LDAP_QUERY = "dc=lbl,dc=gov";
-            SearchResult searchResult = dirContext.search(LDAP_QUERY, filter, cons).nextElement();
-
-            Attributes attributes = searchResult.getAttributes();
-            employeeNumber = (String) attributes.get("lblempnum").get();
-
-            if (attributes.get("givenName") != null) {
-                givenName = (String) attributes.get("givenName").get();
-            }
-            if (attributes.get("sn") != null) {
-                sirName = (String) attributes.get("sn").get();
-            }
-            if (attributes.get("mail") != null) {
-                email = (String) attributes.get("mail").get();
-            }
-            email = email.toLowerCase();
-            organization = "Lawrence Berkeley Laboratory";
-            if (attributes.get("description") != null) {
-                description = (String) attributes.get("description").get();
-            }
-            authContext = getAuthenticatedContext(employeeNumber, passWord);
-
-            authContext.close();
-            dirContext.close(); //because authentication should be the last step
+            authContext = getAuthenticatedContext(user.getBindDn(), passWord);
+        } catch (javax.naming.AuthenticationException e) {
+            throw new AuthenticationException("Invalid credentials for " + userName, e);
         } catch (NamingException e) {
+            // resolved dn may be stale
+            LdapUserCache.getInstance().invalidate(getUid(userName));
             throw new AuthenticationException("Got LDAP NamingException", e);
         } finally {
-            if (authContext != null) {
-                try {
-                    authContext.close();
-                } catch (NamingException e) {
-                    throw new AuthenticationException("Got LDAP NamingException", e);
-                }
-            }
-            try {
-                dirContext.close();
-            } catch (NamingException e) {
-                throw new AuthenticationException("Got LDAP NamingException", e);
-            }
+            close(authContext);
         }
 
+        authenticated = true;
+        givenName = user.getGivenName();
+        sirName = user.getSirName();
+        email = user.getEmail();
+        organization = "Lawrence Berkeley Laboratory";
+        description = user.getDescription();
         return email;
     }
 
@@ -184,66 +161,129 @@ public class LblLdapAuthentication implements IAuthentication {
      * @return True if user is in the specified ldap group.
      */
     public boolean isWikiUser(String loginName) throws AuthenticationException {
-        boolean result = false;
-        ArrayList<String> whitelistGroups = new ArrayList<String>();
-        String whitelistString = "JBEI,Keasling Lab,DNA DIVA, BIOFAB, Mukhopadhyay GTL, Cell Wall Synthesis";
-        String[] whiteListArray = whitelistString.split(",");
-        for (String element : whiteListArray) {
-            whitelistGroups.add(element);
-        }
-
-        String groupDn = "ou=JBEI-Groups,ou=Groups,dc=lbl,dc=gov";
-        String groupQueryString = "(&(objectClass=groupOfUniqueNames)(uniqueMember={0}))";
-        String userDn = "ou=People,dc=lbl,dc=gov";
-        String userQueryString = "(&(objectclass=lblPerson)(uid={0})(lblAccountStatus=Active))";
+        return lookup(loginName).isMember();
+    }
 
-        SearchControls searchControls = new SearchControls();
-        searchControls.setSearchScope(SearchControls.SUBTREE_SCOPE);
-        searchControls.setCountLimit(0);
+    /**
+     * Resolves the directory information for a login id using a single (pooled) search context for the user
+     * and group searches. Results, including users that are not found or are not members of any of the allowed
+     * groups, are cached for a short time in the {@link LdapUserCache}
+     *
+     * @param loginName login id
+     * @return resolved directory information
+     * @throws AuthenticationException on error communicating with the directory
+     */
+    protected LdapUser lookup(String loginName) throws AuthenticationException {
+        String uid = getUid(loginName);
+        LdapUserCache cache = LdapUserCache.getInstance();
+        LdapUser user = cache.get(uid);
+        if (user != null)
+            return user;
+
+        DirContext searchContext = null;
         try {
-            if (dirContext == null) {
-                dirContext = getContext();
-            }
-
-            // find user
-            NamingEnumeration<SearchResult> userResults;
-            int idx = loginName.indexOf("@lbl.gov");
-            String queryName;
-            if (idx > 0)
-                queryName = loginName.substring(0, idx);
-            else
-                queryName = loginName;
-
-            String userQuery = MessageFormat.format(userQueryString, queryName);
-            userResults = dirContext.search(userDn, userQuery, searchControls);
-            if (userResults.hasMore()) {
-                // find user groups
-                NamingEnumeration<SearchResult> groupResults;
-                SearchResult user = userResults.next();
-                String query = MessageFormat.format(groupQueryString, user.getNameInNamespace());
-                groupResults = dirContext.search(groupDn, query, searchControls);
-                while (groupResults.hasMore()) {
-                    String name = groupResults.next().getAttributes().get("cn").get().toString();
-                    if (whitelistGroups.contains(name)) {
-                        result = true;
-                    }
-                }
-                groupResults.close();
-            }
-            userResults.close();
+            searchContext = getContext();
+            user = search(searchContext, uid);
         } catch (NamingException e) {
             throw new AuthenticationException("Error authenticating with LDAP", e);
+        } finally {
+            close(searchContext);
         }
 
+        ConfigurationKey ttlKey;
+        int defaultTtl;
+        if (user.isMember()) {
+            ttlKey = ConfigurationKey.LDAP_USER_CACHE_SECONDS;
+            defaultTtl = 300;
+        } else {
+            ttlKey = ConfigurationKey.LDAP_NEGATIVE_CACHE_SECONDS;
+            defaultTtl = 60;
+        }
+        cache.put(uid, user, TimeUnit.SECONDS.toMillis(ConfigurationCache.getInstance().getInt(ttlKey, defaultTtl)));
+
         String msg;
-        if (result) {
-            msg = loginName.toLowerCase() + " is in wiki.";
+        if (user.isMember()) {
+            msg = uid + " is in wiki.";
         } else {
-            msg = loginName.toLowerCase() + " is not in wiki.";
+            msg = uid + " is not in wiki.";
         }
 
         Logger.info(msg);
-        return result;
+        return user;
+    }
+
+    private LdapUser search(DirContext context, String uid) throws NamingException {
+        SearchControls userControls = new SearchControls();
+        userControls.setSearchScope(SearchControls.SUBTREE_SCOPE);
+        userControls.setCountLimit(1);
+        userControls.setReturningAttributes(USER_ATTRIBUTES);
+
+        // find user
+        NamingEnumeration<SearchResult> userResults = context.search(USER_BASE_DN, USER_QUERY, new Object[]{uid},
+                userControls);
+        try {
+            if (!userResults.hasMore())
+                return LdapUser.notMember();
+
+            SearchResult userResult = userResults.next();
+            Attributes attributes = userResult.getAttributes();
+            String employeeNumber = getAttribute(attributes, "lblempnum");
+            if (employeeNumber.isEmpty())
+                return LdapUser.notMember();
+
+            // find user groups
+            SearchControls groupControls = new SearchControls();
+            groupControls.setSearchScope(SearchControls.SUBTREE_SCOPE);
+            groupControls.setCountLimit(0);
+            groupControls.setReturningAttributes(new String[]{"cn"});
+
+            boolean member = false;
+            NamingEnumeration<SearchResult> groupResults = context.search(GROUP_BASE_DN, GROUP_QUERY,
+                    new Object[]{userResult.getNameInNamespace()}, groupControls);
+            try {
+                while (groupResults.hasMore() && !member) {
+                    String name = getAttribute(groupResults.next().getAttributes(), "cn");
+                    member = WHITELIST_GROUPS.contains(name);
+                }
+            } finally {
+                groupResults.close();
+            }
+
+            if (!member)
+                return LdapUser.notMember();
+
+            String bindDn = "lblempnum=" + employeeNumber + "," + USER_BASE_DN;
+            return new LdapUser(bindDn, getAttribute(attributes, "givenName"), getAttribute(attributes, "sn"),
+                    getAttribute(attributes, "mail").toLowerCase(), getAttribute(attributes, "description"), true);
+        } finally {
+            userResults.close();
+        }
+    }
+
+    private String getAttribute(Attributes attributes, String name) throws NamingException {
+        Attribute attribute = attributes.get(name);
+        if (attribute == null || attribute.get() == null)
+            return "";
+        return attribute.get().toString();
+    }
+
+    private String getUid(String loginName) {
+        String uid = loginName.toLowerCase().trim();
+        int idx = uid.indexOf("@lbl.gov");
+        if (idx > 0)
+            uid = uid.substring(0, idx);
+        return uid;
+    }
+
+    private void close(DirContext context) {
+        if (context == null)
+            return;
+
+        try {
+            context.close();
+        } catch (NamingException e) {
+            Logger.warn("Error closing LDAP context: " + e.getMessage());
+        }
     }
 
     public boolean isAuthenticated() {
@@ -271,60 +311,70 @@ public class LblLdapAuthentication implements IAuthentication {
     }
 
     /**
-     * Get unauthenticated ldap context.
+     * Get unauthenticated ldap context. Connections for these contexts are pooled (unless disabled using
+     * {@link ConfigurationKey#LDAP_CONNECTION_POOL}) so closing the context returns the connection to the pool
+     * instead of closing it
      *
      * @return {@link javax.naming.directory.DirContext} object.
      * @throws javax.naming.NamingException
      */
     protected DirContext getContext() throws NamingException {
-        Hashtable<String, String> env = new Hashtable<String, String>();
-        env.put(Context.INITIAL_CONTEXT_FACTORY, "com.sun.jndi.ldap.LdapCtxFactory");
-        env.put("com.sun.jndi.ldap.connect.pool", "true");
-        env.put("com.sun.jndi.ldap.connect.pool.timeout", "10000");
-
-        env.put("com.sun.jndi.ldap.read.timeout", "5000");
-        env.put("com.sun.jndi.ldap.connect.timeout", "10000");
+        boolean pool = ConfigurationCache.getInstance().getBoolean(ConfigurationKey.LDAP_CONNECTION_POOL);
+        if (pool)
+            configurePool();
 
-        env.put(Context.PROVIDER_URL, searchURL);
+        Hashtable<String, String> env = createEnvironment(searchURL, pool);
         env.put(Context.SECURITY_AUTHENTICATION, "none");
-
-        InitialDirContext result = null;
-        try {
-            result = new InitialDirContext(env);
-        } catch (NamingException e) {
-            e.printStackTrace();
-            throw e;
-        }
-
-        return result;
+        return new InitialDirContext(env);
     }
 
     /**
      * Get authenticated context from the ldap server. Failure means bad user or password.
+     * Connections bound as a user are not pooled.
      *
-     * @param lblEmployeeNumber
+     * @param bindDn   distinguished name of the user
      * @param passWord
      * @return {@link javax.naming.directory.DirContext} object.
      * @throws javax.naming.NamingException
      */
-    protected DirContext getAuthenticatedContext(String lblEmployeeNumber, String passWord) throws NamingException {
-        String baseDN = "dc=lbl,dc=gov";
-        Hashtable<String, String> env = new Hashtable<String, String>();
-        env.put(Context.INITIAL_CONTEXT_FACTORY, "com.sun.jndi.ldap.LdapCtxFactory");
-        env.put("com.sun.jndi.ldap.connect.pool", "true");
-        env.put("com.sun.jndi.ldap.connect.pool.timeout", "10000");
+    protected DirContext getAuthenticatedContext(String bindDn, String passWord) throws NamingException {
+        Hashtable<String, String> env = createEnvironment(authenticationURL, false);
+        env.put(Context.SECURITY_AUTHENTICATION, "simple");
+        env.put(Context.SECURITY_PRINCIPAL, bindDn);
+        env.put(Context.SECURITY_CREDENTIALS, passWord);
+        return new InitialDirContext(env);
+    }
 
+    private Hashtable<String, String> createEnvironment(String url, boolean pool) {
+        Hashtable<String, String> env = new Hashtable<>();
+        env.put(Context.INITIAL_CONTEXT_FACTORY, "com.sun.jndi.ldap.LdapCtxFactory");
+        env.put("com.sun.jndi.ldap.connect.pool", Boolean.toString(pool));
         env.put("com.sun.jndi.ldap.read.timeout", "5000");
         env.put("com.sun.jndi.ldap.connect.timeout", "10000");
+        env.put(Context.PROVIDER_URL, url);
+        return env;
+    }
 
-        env.put(Context.PROVIDER_URL, authenticationURL);
-        env.put(Context.SECURITY_AUTHENTICATION, "simple");
-        env.put(Context.SECURITY_PRINCIPAL, "lblempnum=" + lblEmployeeNumber + ",ou=People," + baseDN);
-        env.put(Context.SECURITY_CREDENTIALS, passWord);
-
-        InitialDirContext result = new InitialDirContext(env);
+    /**
+     * The JNDI connection pool is configured using system properties that are read once when the pool is first
+     * used. Sets them from the configured values unless they have been explicitly set for the JVM
+     */
+    private static synchronized void configurePool() {
+        if (poolConfigured)
+            return;
+
+        ConfigurationCache cache = ConfigurationCache.getInstance();
+        int maxSize = cache.getInt(ConfigurationKey.LDAP_POOL_MAX_SIZE, 20);
+        long timeout = TimeUnit.SECONDS.toMillis(cache.getInt(ConfigurationKey.LDAP_POOL_IDLE_TIMEOUT_SECONDS, 300));
+        setPoolProperty("com.sun.jndi.ldap.connect.pool.maxsize", Integer.toString(maxSize));
+        setPoolProperty("com.sun.jndi.ldap.connect.pool.prefsize", Integer.toString(Math.min(maxSize, 5)));
+        setPoolProperty("com.sun.jndi.ldap.connect.pool.timeout", Long.toString(timeout));
+        poolConfigured = true;
+    }
 
-        return result;
+    private static void setPoolProperty(String name, String value) {
+        if (System.getProperty(name) == null)
+            System.setProperty(name, value);
     }
 
     private void initialize() {
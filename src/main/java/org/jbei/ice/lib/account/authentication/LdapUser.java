@@ -0,0 +1,62 @@
+package org.jbei.ice.lib.account.authentication;
+
+/**
+ * Directory information resolved for a login id; the distinguished name used to bind as the user and the
+ * attributes used to create the local account
+ *
+ * @author Hector Plahar
+ */
+public class LdapUser {
+
+    private final String bindDn;
+    private final String givenName;
+    private final String sirName;
+    private final String email;
+    private final String description;
+    private final boolean member;
+
+    public LdapUser(String bindDn, String givenName, String sirName, String email, String description,
+                    boolean member) {
+        this.bindDn = bindDn;
+        this.givenName = givenName;
+        this.sirName = sirName;
+        this.email = email;
+        this.description = description;
+        this.member = member;
+    }
+
+    /**
+     * @return entry for a login id that either does not exist in the directory or is not a member of
+     * any of the allowed groups
+     */
+    public static LdapUser notMember() {
+        return new LdapUser(null, "", "", "", "", false);
+    }
+
+    public String getBindDn() {
+        return bindDn;
+    }
+
+    public String getGivenName() {
+        return givenName;
+    }
+
+    public String getSirName() {
+        return sirName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * @return true if the user exists and is a member of one of the allowed groups
+     */
+    public boolean isMember() {
+        return member;
+    }
+}
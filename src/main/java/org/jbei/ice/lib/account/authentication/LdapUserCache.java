@@ -0,0 +1,106 @@
+package org.jbei.ice.lib.account.authentication;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, short lived cache of directory lookups keyed by login id. Avoids searching the directory for
+ * the user and their groups on every login so that a login costs only the bind as the user.
+ * <p>
+ * Both users that were found (positive) and users that were not found or are not members of an allowed
+ * group (negative) are cached, each with its own time to live. Passwords and bind results are never cached
+ *
+ * @author Hector Plahar
+ */
+public class LdapUserCache {
+
+    private static final LdapUserCache INSTANCE = new LdapUserCache(5000);
+
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry> entries;
+
+    LdapUserCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+
+        // access ordered so that the least recently used entry is evicted when full
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > LdapUserCache.this.maxEntries;
+            }
+        };
+    }
+
+    public static LdapUserCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param loginId login id
+     * @return cached directory information for login id or null if there is none or it has expired
+     */
+    public LdapUser get(String loginId) {
+        if (loginId == null)
+            return null;
+
+        synchronized (entries) {
+            Entry entry = entries.get(loginId);
+            if (entry == null)
+                return null;
+
+            if (entry.expires < System.currentTimeMillis()) {
+                entries.remove(loginId);
+                return null;
+            }
+            return entry.user;
+        }
+    }
+
+    /**
+     * Caches directory information for a login id
+     *
+     * @param loginId login id
+     * @param user    resolved directory information
+     * @param ttlMs   time to live in milliseconds. Entries with a non-positive value are not cached
+     */
+    public void put(String loginId, LdapUser user, long ttlMs) {
+        if (loginId == null || user == null || ttlMs <= 0)
+            return;
+
+        Entry entry = new Entry(user, System.currentTimeMillis() + ttlMs);
+        synchronized (entries) {
+            entries.put(loginId, entry);
+        }
+    }
+
+    /**
+     * Removes the cached directory information for a login id. Should be called when it is found to be stale
+     * (e.g. the bind dn no longer exists)
+     *
+     * @param loginId login id
+     */
+    public void invalidate(String loginId) {
+        if (loginId == null)
+            return;
+
+        synchronized (entries) {
+            entries.remove(loginId);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private static class Entry {
+        private final LdapUser user;
+        private final long expires;
+
+        Entry(LdapUser user, long expires) {
+            this.user = user;
+            this.expires = expires;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.jbei.ice.lib.account.session;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.jbei.ice.storage.DAOFactory;
+import org.jbei.ice.storage.hibernate.dao.UserSessionDAO;
+import org.jbei.ice.storage.model.UserSessionModel;
+
+import java.util.Date;
+
+/**
+ * Session store backed by the database so that sessions survive restarts and can be shared by instances using the
+ * same database. Session identifiers are stored as SHA-256 hashes. Operations do not use the current transaction;
+ * each is committed to the primary database immediately (see {@link UserSessionDAO})
+ *
+ * @author Hector Plahar
+ */
+public class DatabaseSessionStore implements SessionStore {
+
+    private final UserSessionDAO dao;
+
+    public DatabaseSessionStore() {
+        this.dao = DAOFactory.getUserSessionDAO();
+    }
+
+    @Override
+    public UserSession get(String sessionId) {
+        UserSessionModel model = dao.getBySessionHash(hash(sessionId));
+        if (model == null)
+            return null;
+        return new UserSession(sessionId, model.getUserId(), model.getCreationTime().getTime(),
+                model.getLastAccess().getTime());
+    }
+
+    @Override
+    public void put(UserSession session, int maxUserSessions) {
+        UserSessionModel model = new UserSessionModel();
+        model.setSessionHash(hash(session.getSessionId()));
+        model.setUserId(session.getUserId());
+        model.setCreationTime(new Date(session.getCreationTime()));
+        model.setLastAccess(new Date(session.getLastAccessTime()));
+        dao.create(model, maxUserSessions);
+    }
+
+    @Override
+    public void touch(UserSession session, long lastAccessTime) {
+        session.setLastAccessTime(lastAccessTime);
+        dao.updateLastAccess(hash(session.getSessionId()), new Date(lastAccessTime));
+    }
+
+    @Override
+    public void remove(String sessionId) {
+        dao.deleteBySessionHash(hash(sessionId));
+    }
+
+    @Override
+    public void removeUserSessions(String userId) {
+        dao.deleteByUserId(userId);
+    }
+
+    @Override
+    public int getUserSessionCount(String userId) {
+        return dao.getCountByUserId(userId);
+    }
+
+    @Override
+    public int removeExpired(long lastAccessTime) {
+        return dao.deleteExpired(new Date(lastAccessTime));
+    }
+
+    private String hash(String sessionId) {
+        return DigestUtils.sha256Hex(sessionId);
+    }
+}
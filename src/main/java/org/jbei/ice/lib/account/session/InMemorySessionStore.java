@@ -0,0 +1,108 @@
+package org.jbei.ice.lib.account.session;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Session store that keeps sessions in memory. Sessions are lost on restart
+ *
+ * @author Hector Plahar
+ */
+public class InMemorySessionStore implements SessionStore {
+
+    private final ConcurrentHashMap<String, UserSession> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> userSessions = new ConcurrentHashMap<>();
+
+    @Override
+    public UserSession get(String sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    @Override
+    public void put(UserSession session, int maxUserSessions) {
+        remove(session.getSessionId());
+
+        // the check, eviction and insert are done while holding the user's entry so that concurrent logins
+        // cannot exceed the limit
+        userSessions.compute(session.getUserId(), (userId, sessionIds) -> {
+            Set<String> ids = sessionIds == null ? ConcurrentHashMap.newKeySet() : sessionIds;
+            List<UserSession> existing = getSessions(ids);
+            if (existing.size() >= maxUserSessions) {
+                existing.sort(Comparator.comparingLong(UserSession::getLastAccessTime));
+                for (UserSession evicted : existing.subList(0, existing.size() - maxUserSessions + 1)) {
+                    sessions.remove(evicted.getSessionId());
+                    ids.remove(evicted.getSessionId());
+                }
+            }
+
+            sessions.put(session.getSessionId(), session);
+            ids.add(session.getSessionId());
+            return ids;
+        });
+    }
+
+    @Override
+    public void touch(UserSession session, long lastAccessTime) {
+        session.setLastAccessTime(lastAccessTime);
+    }
+
+    @Override
+    public void remove(String sessionId) {
+        UserSession session = sessions.remove(sessionId);
+        if (session != null)
+            removeFromUser(session);
+    }
+
+    @Override
+    public void removeUserSessions(String userId) {
+        Set<String> sessionIds = userSessions.remove(userId);
+        if (sessionIds == null)
+            return;
+
+        for (String sessionId : sessionIds) {
+            sessions.remove(sessionId);
+        }
+    }
+
+    @Override
+    public int getUserSessionCount(String userId) {
+        Set<String> sessionIds = userSessions.get(userId);
+        return sessionIds == null ? 0 : sessionIds.size();
+    }
+
+    private List<UserSession> getSessions(Set<String> sessionIds) {
+        List<UserSession> result = new ArrayList<>();
+        for (String sessionId : sessionIds) {
+            UserSession session = sessions.get(sessionId);
+            if (session != null)
+                result.add(session);
+        }
+        return result;
+    }
+
+    @Override
+    public int removeExpired(long lastAccessTime) {
+        int count = 0;
+        Iterator<UserSession> iterator = sessions.values().iterator();
+        while (iterator.hasNext()) {
+            UserSession session = iterator.next();
+            if (session.getLastAccessTime() < lastAccessTime) {
+                iterator.remove();
+                removeFromUser(session);
+                count += 1;
+            }
+        }
+        return count;
+    }
+
+    private void removeFromUser(UserSession session) {
+        userSessions.computeIfPresent(session.getUserId(), (userId, sessionIds) -> {
+            sessionIds.remove(session.getSessionId());
+            return sessionIds.isEmpty() ? null : sessionIds;
+        });
+    }
+}
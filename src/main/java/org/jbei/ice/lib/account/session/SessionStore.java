@@ -0,0 +1,58 @@
+package org.jbei.ice.lib.account.session;
+
+/**
+ * Storage for user sessions, indexed both by session id and by user
+ *
+ * @author Hector Plahar
+ */
+public interface SessionStore {
+
+    /**
+     * @param sessionId unique session identifier
+     * @return session with the specified identifier or null if none is found
+     */
+    UserSession get(String sessionId);
+
+    /**
+     * Stores the session, replacing any existing session with the same identifier. If the user
+     * already has the maximum number of sessions, the least recently accessed ones are removed
+     *
+     * @param session         session to store
+     * @param maxUserSessions maximum number of sessions allowed for the user
+     */
+    void put(UserSession session, int maxUserSessions);
+
+    /**
+     * Records access to a session
+     *
+     * @param session        session being accessed
+     * @param lastAccessTime time of access
+     */
+    void touch(UserSession session, long lastAccessTime);
+
+    /**
+     * @param sessionId unique identifier for session to remove
+     */
+    void remove(String sessionId);
+
+    /**
+     * Removes all sessions for the specified user
+     *
+     * @param userId unique user identifier
+     */
+    void removeUserSessions(String userId);
+
+    /**
+     * @param userId unique user identifier
+     * @return number of sessions for the specified user
+     */
+    int getUserSessionCount(String userId);
+
+    /**
+     * Removes sessions that have not been accessed since the specified time
+     *
+     * @param lastAccessTime sessions last accessed before this time are removed
+     * @return number of sessions removed
+     */
+    int removeExpired(long lastAccessTime);
+}
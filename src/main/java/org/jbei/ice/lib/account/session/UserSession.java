@@ -0,0 +1,43 @@
+package org.jbei.ice.lib.account.session;
+
+import org.jbei.ice.storage.IDataTransferModel;
+
+/**
+ * Web application session for a user who has successfully authenticated
+ *
+ * @author Hector Plahar
+ */
+public class UserSession implements IDataTransferModel {
+
+    private final String sessionId;
+    private final String userId;
+    private final long creationTime;
+    private volatile long lastAccessTime;
+
+    public UserSession(String sessionId, String userId, long creationTime, long lastAccessTime) {
+        this.sessionId = sessionId;
+        this.userId = userId;
+        this.creationTime = creationTime;
+        this.lastAccessTime = lastAccessTime;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    public long getLastAccessTime() {
+        return lastAccessTime;
+    }
+
+    public void setLastAccessTime(long lastAccessTime) {
+        this.lastAccessTime = lastAccessTime;
+    }
+}
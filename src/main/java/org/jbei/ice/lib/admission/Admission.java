@@ -0,0 +1,50 @@
+package org.jbei.ice.lib.admission;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Result of a request for admission. An admitted request must call {@link #release()} when it completes
+ *
+ * @author Hector Plahar
+ */
+public class Admission {
+
+    private final boolean admitted;
+    private final long retryAfterSeconds;
+    private final Semaphore permit;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    private Admission(boolean admitted, long retryAfterSeconds, Semaphore permit) {
+        this.admitted = admitted;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.permit = permit;
+    }
+
+    static Admission admitted(Semaphore permit) {
+        return new Admission(true, 0, permit);
+    }
+
+    static Admission rejected(long retryAfterSeconds) {
+        return new Admission(false, Math.max(1, retryAfterSeconds), null);
+    }
+
+    public boolean isAdmitted() {
+        return admitted;
+    }
+
+    /**
+     * @return number of seconds the client should wait before retrying a rejected request
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Releases the concurrency permit held by an admitted request. Subsequent calls have no effect
+     */
+    public void release() {
+        if (permit != null && released.compareAndSet(false, true))
+            permit.release();
+    }
+}
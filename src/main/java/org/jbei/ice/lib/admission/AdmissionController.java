@@ -0,0 +1,251 @@
+package org.jbei.ice.lib.admission;
+
+import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.lib.config.ConfigurationCache;
+import org.jbei.ice.lib.dto.ConfigurationKey;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Decides whether requests are processed. Applies a token bucket rate limit to each client (by
+ * {@link ClientType}) and a limit on the number of concurrent requests for each {@link EndpointClass}. Requests
+ * are expected to be checked before a database connection is acquired for them.
+ * <p>
+ * Credentials cannot be verified that early, so only anonymous requests are rate limited (by address) on admission
+ * ({@link #admit(ClientType, String, EndpointClass)}). Requests that present credentials are admitted unless their
+ * address has recently presented too many credentials that failed verification
+ * ({@link #admitUnverified(String, EndpointClass)}); once verified, they are rate limited by the identity of the
+ * client ({@link #acquire(ClientType, String)}), and failures are recorded against the address
+ * ({@link #verificationFailed(String)}).
+ * <p>
+ * Limits are read from the configuration by {@link #configure()}. Until then the default values are used. A
+ * rate or concurrency limit of 0 disables that limit
+ *
+ * @author Hector Plahar
+ */
+public class AdmissionController {
+
+    private static final AdmissionController INSTANCE = new AdmissionController();
+
+    // how long a request waits for a concurrency permit before it is rejected
+    private static final long PERMIT_WAIT_MS = 1000;
+
+    // buckets of clients that have not made requests recently are periodically removed
+    private static final long CLEANUP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<ClientType, ConcurrentHashMap<String, TokenBucket>> buckets;
+    private volatile boolean enabled;
+    private volatile Map<ClientType, Integer> rates;
+    private volatile Map<EndpointClass, Semaphore> permits;
+    private volatile String clientAddressHeader;
+    private volatile long lastCleanup;
+
+    /**
+     * Creates a controller with the default limits. The application uses the shared {@link #getInstance()}
+     */
+    public AdmissionController() {
+        buckets = new EnumMap<>(ClientType.class);
+        for (ClientType type : ClientType.values()) {
+            buckets.put(type, new ConcurrentHashMap<>());
+        }
+        lastCleanup = System.nanoTime();
+        configure(ConfigurationKey::getDefaultValue);
+    }
+
+    public static AdmissionController getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param key configuration key
+     * @return true if key is one of the values used to configure admission
+     */
+    public static boolean isAdmissionKey(ConfigurationKey key) {
+        if (key == ConfigurationKey.RATE_LIMIT_ENABLED || key == ConfigurationKey.CLIENT_ADDRESS_HEADER)
+            return true;
+
+        for (ClientType type : ClientType.values()) {
+            if (type.getRateKey() == key)
+                return true;
+        }
+
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            if (endpointClass.getConcurrencyKey() == key)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * (Re)loads the limits from the configuration. Requests that are currently being processed complete
+     * using the previous limits.
+     */
+    public void configure() {
+        ConfigurationCache cache = ConfigurationCache.getInstance();
+        configure(cache::getString);
+    }
+
+    /**
+     * (Re)loads the limits from the specified values
+     *
+     * @param values configuration value for each key
+     */
+    public synchronized void configure(Function<ConfigurationKey, String> values) {
+        enabled = "yes".equalsIgnoreCase(values.apply(ConfigurationKey.RATE_LIMIT_ENABLED))
+                || "true".equalsIgnoreCase(values.apply(ConfigurationKey.RATE_LIMIT_ENABLED));
+
+        Map<ClientType, Integer> newRates = new EnumMap<>(ClientType.class);
+        for (ClientType type : ClientType.values()) {
+            int rate = parse(values.apply(type.getRateKey()));
+            if (rates == null || rates.get(type) != rate)
+                buckets.get(type).clear();
+            newRates.put(type, rate);
+        }
+        rates = newRates;
+
+        Map<EndpointClass, Semaphore> newPermits = new EnumMap<>(EndpointClass.class);
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            int limit = parse(values.apply(endpointClass.getConcurrencyKey()));
+            if (limit > 0)
+                newPermits.put(endpointClass, new Semaphore(limit, true));
+        }
+        permits = newPermits;
+
+        String header = values.apply(ConfigurationKey.CLIENT_ADDRESS_HEADER);
+        clientAddressHeader = header == null || header.trim().isEmpty() ? null : header.trim();
+    }
+
+    /**
+     * @return name of the header in which a trusted reverse proxy passes the address of the client; null if the
+     * address of the connection is that of the client
+     */
+    public String getClientAddressHeader() {
+        return clientAddressHeader;
+    }
+
+    /**
+     * Determines whether a request is admitted
+     *
+     * @param type          type of client making the request
+     * @param clientKey     identifies the client amongst others of the same type. Should not be derived from
+     *                      credentials that have not been verified
+     * @param endpointClass class of the endpoint the request is for
+     * @return result. If admitted, {@link Admission#release()} must be called when the request completes
+     */
+    public Admission admit(ClientType type, String clientKey, EndpointClass endpointClass) {
+        if (!enabled)
+            return Admission.admitted(null);
+
+        long wait = acquireNanos(type, clientKey);
+        if (wait > 0)
+            return Admission.rejected(toRetrySeconds(wait));
+        return acquirePermit(endpointClass);
+    }
+
+    /**
+     * Determines whether a request that presents (not yet verified) credentials is admitted. It is rejected if
+     * too many requests from the same address have recently failed verification
+     *
+     * @param address       address of the client
+     * @param endpointClass class of the endpoint the request is for
+     * @return result. If admitted, {@link Admission#release()} must be called when the request completes
+     */
+    public Admission admitUnverified(String address, EndpointClass endpointClass) {
+        if (!enabled)
+            return Admission.admitted(null);
+
+        TokenBucket bucket = address == null ? null : buckets.get(ClientType.UNVERIFIED).get(address);
+        if (bucket != null) {
+            long wait = bucket.peek(System.nanoTime());
+            if (wait > 0)
+                return Admission.rejected(toRetrySeconds(wait));
+        }
+        return acquirePermit(endpointClass);
+    }
+
+    /**
+     * Applies the rate limit of a client whose credentials have been verified
+     *
+     * @param type     type of client
+     * @param identity verified identity of the client (e.g. user id, api key client id or partner id)
+     * @return 0 if the request is within the limit, otherwise the number of seconds the client should wait
+     */
+    public long acquire(ClientType type, String identity) {
+        if (!enabled)
+            return 0;
+
+        long wait = acquireNanos(type, identity);
+        return wait > 0 ? toRetrySeconds(wait) : 0;
+    }
+
+    /**
+     * Records that the credentials presented by a request from the address failed verification
+     *
+     * @param address address of the client
+     */
+    public void verificationFailed(String address) {
+        if (enabled)
+            acquireNanos(ClientType.UNVERIFIED, address);
+    }
+
+    // takes a token from the client's bucket; returns 0 if one was available, otherwise the nanoseconds to wait
+    private long acquireNanos(ClientType type, String clientKey) {
+        long now = System.nanoTime();
+        cleanup(now);
+
+        int rate = rates.get(type);
+        if (rate <= 0 || clientKey == null)
+            return 0;
+
+        TokenBucket bucket = buckets.get(type).computeIfAbsent(clientKey,
+                k -> new TokenBucket(Math.max(1, rate / 6), rate, now));
+        long wait = bucket.tryAcquire(now);
+        if (wait > 0)
+            Logger.debug("Rate limit exceeded for " + type.name() + " client");
+        return wait;
+    }
+
+    // concurrency limit for endpoint
+    private Admission acquirePermit(EndpointClass endpointClass) {
+        Semaphore semaphore = permits.get(endpointClass);
+        if (semaphore == null)
+            return Admission.admitted(null);
+
+        try {
+            if (semaphore.tryAcquire(PERMIT_WAIT_MS, TimeUnit.MILLISECONDS))
+                return Admission.admitted(semaphore);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Logger.warn("Concurrent request limit reached for " + endpointClass.name() + " endpoints");
+        return Admission.rejected(1);
+    }
+
+    private long toRetrySeconds(long waitNanos) {
+        return TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1;
+    }
+
+    private void cleanup(long now) {
+        if (now - lastCleanup < CLEANUP_INTERVAL_NANOS)
+            return;
+
+        lastCleanup = now;
+        for (ConcurrentHashMap<String, TokenBucket> map : buckets.values()) {
+            map.values().removeIf(bucket -> bucket.isFull(now));
+        }
+    }
+
+    private int parse(String value) {
+        try {
+            return Math.max(0, Integer.parseInt(value.trim()));
+        } catch (NullPointerException | NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.jbei.ice.lib.admission;
+
+import org.jbei.ice.lib.dto.ConfigurationKey;
+
+/**
+ * Types of clients that requests are rate limited by. Each has its own configured rate, in requests per minute.
+ * Verified clients are limited by identity, anonymous clients by address. {@link #UNVERIFIED} limits, by address,
+ * requests that present credentials which fail verification
+ *
+ * @author Hector Plahar
+ */
+public enum ClientType {
+
+    API_KEY(ConfigurationKey.RATE_LIMIT_API_KEY),
+    SESSION(ConfigurationKey.RATE_LIMIT_SESSION),
+    PARTNER(ConfigurationKey.RATE_LIMIT_PARTNER),
+    ANONYMOUS(ConfigurationKey.RATE_LIMIT_ANONYMOUS),
+    UNVERIFIED(ConfigurationKey.RATE_LIMIT_UNVERIFIED);
+
+    private final ConfigurationKey rateKey;
+
+    ClientType(ConfigurationKey rateKey) {
+        this.rateKey = rateKey;
+    }
+
+    public ConfigurationKey getRateKey() {
+        return rateKey;
+    }
+}
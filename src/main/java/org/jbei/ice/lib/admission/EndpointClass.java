@@ -0,0 +1,58 @@
+package org.jbei.ice.lib.admission;
+
+import org.jbei.ice.lib.dto.ConfigurationKey;
+
+import java.util.regex.Pattern;
+
+/**
+ * Classes of endpoints with separate limits on the number of requests processed concurrently. Since each
+ * request holds a database connection for its duration, the sum of the limits should be less than the size of
+ * the connection pool so that expensive requests cannot exhaust it
+ *
+ * @author Hector Plahar
+ */
+public enum EndpointClass {
+
+    // searches, sequence retrieval/conversion and rendering
+    HEAVY(ConfigurationKey.MAX_CONCURRENT_HEAVY_REQUESTS,
+            "^/rest/search(/.*)?$",
+            "^/rest/parts/[^/]+/sequence(/.*)?$",
+            "^/rest/file/sbolVisual/.*$",
+            "^/rest/file/[^/]+/sequence/.*$",
+            "^/rest/file/(sequence|csv)$",
+            "^/download$"),
+
+    STANDARD(ConfigurationKey.MAX_CONCURRENT_STANDARD_REQUESTS);
+
+    private final ConfigurationKey concurrencyKey;
+    private final Pattern[] patterns;
+
+    EndpointClass(ConfigurationKey concurrencyKey, String... patterns) {
+        this.concurrencyKey = concurrencyKey;
+        this.patterns = new Pattern[patterns.length];
+        for (int i = 0; i < patterns.length; i += 1) {
+            this.patterns[i] = Pattern.compile(patterns[i]);
+        }
+    }
+
+    public ConfigurationKey getConcurrencyKey() {
+        return concurrencyKey;
+    }
+
+    /**
+     * @param path request path relative to the application context (e.g. <code>/rest/search</code>)
+     * @return class of the endpoint for path
+     */
+    public static EndpointClass forPath(String path) {
+        if (path == null)
+            return STANDARD;
+
+        for (EndpointClass endpointClass : values()) {
+            for (Pattern pattern : endpointClass.patterns) {
+                if (pattern.matcher(path).matches())
+                    return endpointClass;
+            }
+        }
+        return STANDARD;
+    }
+}
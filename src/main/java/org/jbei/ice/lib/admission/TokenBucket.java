@@ -0,0 +1,75 @@
+package org.jbei.ice.lib.admission;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiter. Tokens are added continuously at a fixed rate up to the capacity of the bucket
+ * (the largest burst allowed) and each admitted request takes one
+ *
+ * @author Hector Plahar
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * @param capacity        maximum number of tokens (burst size)
+     * @param tokensPerMinute rate at which tokens are added
+     * @param now             current time in nanoseconds (see {@link System#nanoTime()})
+     */
+    public TokenBucket(int capacity, int tokensPerMinute, long now) {
+        this.capacity = Math.max(1, capacity);
+        this.tokensPerNano = (double) tokensPerMinute / TimeUnit.MINUTES.toNanos(1);
+        this.tokens = this.capacity;
+        this.lastRefill = now;
+    }
+
+    /**
+     * Attempts to take a token from the bucket
+     *
+     * @param now current time in nanoseconds (see {@link System#nanoTime()})
+     * @return 0 if a token was available, otherwise the number of nanoseconds until one will be
+     */
+    public synchronized long tryAcquire(long now) {
+        refill(now);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /**
+     * Checks whether a token is available without taking it
+     *
+     * @param now current time in nanoseconds (see {@link System#nanoTime()})
+     * @return 0 if a token is available, otherwise the number of nanoseconds until one will be
+     */
+    public synchronized long peek(long now) {
+        refill(now);
+        if (tokens >= 1)
+            return 0;
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /**
+     * @param now current time in nanoseconds (see {@link System#nanoTime()})
+     * @return true if the bucket is full, in which case it is indistinguishable from a newly created one
+     */
+    public synchronized boolean isFull(long now) {
+        refill(now);
+        return tokens >= capacity;
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefill;
+        if (elapsed <= 0)
+            return;
+
+        tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+        lastRefill = now;
+    }
+}
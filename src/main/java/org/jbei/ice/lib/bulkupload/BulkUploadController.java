@@ -14,7 +14,7 @@ import org.jbei.ice.lib.dto.entry.*;
 import org.jbei.ice.lib.entry.EntryController;
 import org.jbei.ice.lib.entry.attachment.AttachmentController;
 import org.jbei.ice.lib.entry.sequence.SequenceController;
-import org.jbei.ice.lib.executor.IceExecutorService;
+import org.jbei.ice.lib.executor.JobQueue;
 import org.jbei.ice.lib.group.GroupController;
 import org.jbei.ice.lib.utils.Utils;
 import org.jbei.ice.storage.DAOFactory;
@@ -302,7 +302,7 @@ public class BulkUploadController {
             throw new PermissionException("No permissions to delete draft " + draftId);
 
         BulkUploadDeleteTask task = new BulkUploadDeleteTask(userId, draftId);
-        IceExecutorService.getInstance().runTask(task);
+        JobQueue.getInstance().submit(task);
 
         BulkUploadInfo draftInfo = draft.toDataTransferObject();
         AccountTransfer accountTransfer = draft.getAccount().toDataTransferObject();
@@ -1,8 +1,10 @@
 package org.jbei.ice.lib.bulkupload;
 
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import org.jbei.ice.lib.common.logging.Logger;
 import org.jbei.ice.lib.dto.entry.Visibility;
-import org.jbei.ice.lib.executor.Task;
+import org.jbei.ice.lib.executor.DurableTask;
 import org.jbei.ice.storage.DAOFactory;
 import org.jbei.ice.storage.hibernate.dao.BulkUploadDAO;
 import org.jbei.ice.storage.model.BulkUpload;
@@ -14,7 +16,7 @@ import org.jbei.ice.storage.model.Entry;
  *
  * @author Hector Plahar
  */
-public class BulkUploadDeleteTask extends Task {
+public class BulkUploadDeleteTask extends DurableTask {
 
     private final long bulkUploadId;
     private final String userId;
@@ -24,6 +26,20 @@ public class BulkUploadDeleteTask extends Task {
         this.userId = userId;
     }
 
+    public BulkUploadDeleteTask(String parameters) {
+        JsonObject object = new JsonParser().parse(parameters).getAsJsonObject();
+        this.userId = object.get("userId").getAsString();
+        this.bulkUploadId = object.get("bulkUploadId").getAsLong();
+    }
+
+    @Override
+    public String getParameters() {
+        JsonObject object = new JsonObject();
+        object.addProperty("userId", userId);
+        object.addProperty("bulkUploadId", bulkUploadId);
+        return object.toString();
+    }
+
     @Override
     public void execute() {
         BulkUploadDAO dao = DAOFactory.getBulkUploadDAO();
@@ -0,0 +1,152 @@
+package org.jbei.ice.lib.config;
+
+import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.lib.dto.ConfigurationKey;
+import org.jbei.ice.storage.DAOFactory;
+import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.jbei.ice.storage.model.Configuration;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * In-memory copy of the system configuration values. Reads are lock-free against an immutable snapshot;
+ * changes made through {@link ConfigurationController#setPropertyValue(ConfigurationKey, String)} are visible to
+ * the transaction that made them right away and replace the snapshot once that transaction commits. A snapshot
+ * is loaded on first access (which must be in a transaction).
+ * <p>
+ * Values changed directly in the database (or by another instance sharing it) are picked up when the cache is
+ * refreshed by the {@link org.jbei.ice.lib.executor.MaintenanceTask#CACHE_REFRESH} maintenance task
+ *
+ * @author Hector Plahar
+ */
+public class ConfigurationCache {
+
+    private static final ConfigurationCache INSTANCE = new ConfigurationCache();
+
+    private volatile Map<ConfigurationKey, String> values;
+
+    // values set in the current thread's transaction that has not yet committed
+    private final ThreadLocal<Map<ConfigurationKey, String>> pending = new ThreadLocal<>();
+
+    private ConfigurationCache() {
+    }
+
+    public static ConfigurationCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param key configuration key
+     * @return configured value for key, or the key's default value if one has not been set
+     */
+    public String getString(ConfigurationKey key) {
+        Map<ConfigurationKey, String> changes = pending.get();
+        if (changes != null && changes.containsKey(key))
+            return changes.get(key);
+
+        Map<ConfigurationKey, String> snapshot = this.values;
+        if (snapshot == null)
+            snapshot = reload();
+        return snapshot.get(key);
+    }
+
+    /**
+     * @param key configuration key
+     * @return true if the configured value is "yes" or "true" (case insensitive), false otherwise
+     */
+    public boolean getBoolean(ConfigurationKey key) {
+        String value = getString(key);
+        return "yes".equalsIgnoreCase(value) || "true".equalsIgnoreCase(value);
+    }
+
+    /**
+     * @param key          configuration key
+     * @param defaultValue value to return if the configured value is not a valid integer
+     * @return configured value as an integer
+     */
+    public int getInt(ConfigurationKey key, int defaultValue) {
+        try {
+            return Integer.parseInt(getString(key).trim());
+        } catch (NullPointerException | NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Loads all configuration values from the database
+     *
+     * @return the loaded values
+     */
+    public synchronized Map<ConfigurationKey, String> reload() {
+        Map<ConfigurationKey, String> loaded = new EnumMap<>(ConfigurationKey.class);
+        for (ConfigurationKey key : ConfigurationKey.values()) {
+            loaded.put(key, key.getDefaultValue());
+        }
+
+        for (Configuration configuration : DAOFactory.getConfigurationDAO().getAll()) {
+            if (configuration.getValue() == null)
+                continue;
+
+            try {
+                loaded.put(ConfigurationKey.valueOf(configuration.getKey()), configuration.getValue());
+            } catch (IllegalArgumentException e) {
+                // not a system configuration key
+            }
+        }
+
+        Map<ConfigurationKey, String> snapshot = Collections.unmodifiableMap(loaded);
+        this.values = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * Records a value set in the current transaction. The value is only visible to the current thread until the
+     * transaction commits, when it is published to all; it is discarded if the transaction is rolled back
+     *
+     * @param key   configuration key
+     * @param value new value
+     */
+    void put(ConfigurationKey key, String value) {
+        Map<ConfigurationKey, String> changes = pending.get();
+        boolean first = changes == null;
+        if (first) {
+            changes = new EnumMap<>(ConfigurationKey.class);
+            pending.set(changes);
+        }
+        changes.put(key, value == null ? key.getDefaultValue() : value);
+        if (!first)
+            return;
+
+        // run immediately if there is no transaction
+        Map<ConfigurationKey, String> committed = changes;
+        HibernateUtil.afterCommit(() -> {
+            pending.remove();
+            publish(committed);
+        });
+        HibernateUtil.afterRollback(() -> {
+            Logger.info("Configuration changes to " + committed.keySet() + " rolled back");
+            pending.remove();
+        });
+    }
+
+    // applies committed changes to the snapshot. Serialized with reload() so a refresh that read the database
+    // before the commit cannot replace the snapshot afterwards
+    private synchronized void publish(Map<ConfigurationKey, String> changes) {
+        Map<ConfigurationKey, String> snapshot = this.values;
+        if (snapshot == null)
+            return;
+
+        Map<ConfigurationKey, String> updated = new EnumMap<>(snapshot);
+        updated.putAll(changes);
+        this.values = Collections.unmodifiableMap(updated);
+    }
+
+    /**
+     * Clears the cached values. They are re-loaded on next access
+     */
+    public synchronized void clear() {
+        this.values = null;
+    }
+}
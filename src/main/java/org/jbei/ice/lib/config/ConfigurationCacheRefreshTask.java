@@ -0,0 +1,21 @@
+package org.jbei.ice.lib.config;
+
+import org.jbei.ice.lib.executor.Task;
+
+/**
+ * Task to re-load the configuration cache from the database
+ *
+ * @author Hector Plahar
+ */
+public class ConfigurationCacheRefreshTask extends Task {
+
+    @Override
+    public String getKey() {
+        return "configuration-cache-refresh";
+    }
+
+    @Override
+    public void execute() {
+        ConfigurationCache.getInstance().reload();
+    }
+}
@@ -3,9 +3,13 @@ package org.jbei.ice.lib.config;
 import org.apache.commons.lang3.StringUtils;
 import org.jbei.ice.lib.access.PermissionException;
 import org.jbei.ice.lib.account.AccountController;
+import org.jbei.ice.lib.account.TokenHash;
+import org.jbei.ice.lib.admission.AdmissionController;
 import org.jbei.ice.lib.common.logging.Logger;
 import org.jbei.ice.lib.dto.ConfigurationKey;
 import org.jbei.ice.lib.dto.Setting;
+import org.jbei.ice.lib.executor.CronExpression;
+import org.jbei.ice.lib.executor.MaintenanceTask;
 import org.jbei.ice.lib.net.WoRController;
 import org.jbei.ice.lib.utils.Utils;
 import org.jbei.ice.storage.DAOFactory;
@@ -37,10 +41,7 @@ public class ConfigurationController {
     }
 
     public String getPropertyValue(ConfigurationKey key) {
-        Configuration config = dao.get(key);
-        if (config == null)
-            return key.getDefaultValue();
-        return config.getValue();
+        return ConfigurationCache.getInstance().getString(key);
     }
 
     public Setting getPropertyValue(String key) {
@@ -74,11 +75,14 @@ public class ConfigurationController {
             configuration = new Configuration();
             configuration.setKey(key.name());
             configuration.setValue(value);
-            return dao.create(configuration);
+            configuration = dao.create(configuration);
+        } else {
+            configuration.setValue(value);
+            configuration = dao.update(configuration);
         }
 
-        configuration.setValue(value);
-        return dao.update(configuration);
+        ConfigurationCache.getInstance().put(key, value);
+        return configuration;
     }
 
     public Setting updateSetting(String userId, Setting setting, String url) {
@@ -90,8 +94,23 @@ public class ConfigurationController {
         if (key == null)
             throw new IllegalArgumentException("Invalid system key " + setting.getKey());
 
+        // validate maintenance schedules before saving
+        MaintenanceTask maintenanceTask = MaintenanceTask.forScheduleKey(key);
+        if (maintenanceTask != null && !StringUtils.isBlank(setting.getValue()))
+            new CronExpression(setting.getValue());
+
         Configuration configuration = setPropertyValue(key, setting.getValue());
 
+        // reschedule maintenance task(s) affected by the change
+        if (maintenanceTask != null)
+            maintenanceTask.schedule(setting.getValue());
+        else if (key == ConfigurationKey.MAINTENANCE_JITTER_SECONDS)
+            MaintenanceTask.scheduleAll();
+
+        // apply changes to request rate and concurrency limits
+        if (AdmissionController.isAdmissionKey(key))
+            AdmissionController.getInstance().configure();
+
         // check if the setting being updated is related to the web of registries
         if (key == ConfigurationKey.JOIN_WEB_OF_REGISTRIES) {
             WoRController woRController = new WoRController();
@@ -114,6 +133,9 @@ public class ConfigurationController {
             Logger.info("Setting value for " + key.name() + " to " + key.getDefaultValue());
             setPropertyValue(key, key.getDefaultValue());
         }
+
+        if (dao.get(ConfigurationKey.PAGE_CURSOR_KEY) == null)
+            setPropertyValue(ConfigurationKey.PAGE_CURSOR_KEY, new TokenHash().generateRandomToken(32));
     }
 
     public SiteSettings getSiteSettings() {
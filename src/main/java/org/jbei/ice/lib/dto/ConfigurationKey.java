@@ -35,7 +35,48 @@ public enum ConfigurationKey implements IDataTransferModel {
     RESTRICT_PUBLIC_ENABLE("NO"),
     EMAILER(Type.CUSTOM.name()),
     GMAIL_APPLICATION_PASSWORD(""),
-    WEB_OF_REGISTRIES_MASTER("registry.jbei.org");
+    WEB_OF_REGISTRIES_MASTER("registry.jbei.org"),
+
+    // user sessions. SESSION_STORE is one of MEMORY or DATABASE (takes effect on restart)
+    SESSION_STORE("MEMORY"),
+    SESSION_TIMEOUT_MINUTES("720"),
+    MAX_SESSIONS_PER_USER("20"),
+
+    // ldap authentication. pool settings apply to the directory search connections and take effect on restart
+    LDAP_CONNECTION_POOL("YES"),
+    LDAP_POOL_MAX_SIZE("20"),
+    LDAP_POOL_IDLE_TIMEOUT_SECONDS("300"),
+    LDAP_USER_CACHE_SECONDS("300"),
+    LDAP_NEGATIVE_CACHE_SECONDS("60"),
+
+    // request admission. rates are requests per minute for each client; concurrency limits are per endpoint class
+    // and should add up to less than the database connection pool size. 0 disables a limit. the unverified rate
+    // applies to requests from an address whose credentials fail verification. CLIENT_ADDRESS_HEADER names the
+    // header (e.g. X-Forwarded-For) in which a trusted reverse proxy passes the client address; empty if none
+    RATE_LIMIT_ENABLED("YES"),
+    RATE_LIMIT_API_KEY("600"),
+    RATE_LIMIT_SESSION("600"),
+    RATE_LIMIT_PARTNER("1200"),
+    RATE_LIMIT_ANONYMOUS("300"),
+    RATE_LIMIT_UNVERIFIED("60"),
+    CLIENT_ADDRESS_HEADER(""),
+    MAX_CONCURRENT_HEAVY_REQUESTS("4"),
+    MAX_CONCURRENT_STANDARD_REQUESTS("14"),
+
+    // key for signing page cursors; generated on first start and shared by instances using the same database
+    PAGE_CURSOR_KEY(""),
+
+    // sequences saved (or updated) while YES store their bases 2-bit packed instead of as text
+    PACKED_SEQUENCE_STORAGE("NO"),
+
+    // cron schedules ("minute hour day-of-month month day-of-week") for maintenance tasks; empty disables
+    FEATURES_DB_REBUILD_SCHEDULE("0 1 * * *"),
+    BLAST_DB_REBUILD_SCHEDULE("0 2 * * 0"),
+    SEARCH_INDEX_OPTIMIZE_SCHEDULE("0 3 * * 0"),
+    TEMPORARY_FILE_CLEANUP_SCHEDULE("30 * * * *"),
+    CONFIGURATION_REFRESH_SCHEDULE("*/10 * * * *"),
+    SESSION_CLEANUP_SCHEDULE("*/15 * * * *"),
+    MAINTENANCE_JITTER_SECONDS("300");
 
     private String defaultValue;
 
@@ -0,0 +1,112 @@
+package org.jbei.ice.lib.dto;
+
+import org.jbei.ice.storage.IDataTransferModel;
+
+/**
+ * Execution statistics for a class of background task run by the ice executor service.
+ * Times are in milliseconds
+ *
+ * @author Hector Plahar
+ */
+public class TaskStatistics implements IDataTransferModel {
+
+    private String taskName;
+    private String category;
+    private long queued;
+    private long running;
+    private long completed;
+    private long failed;
+    private long coalesced;
+    private long totalWaitTime;
+    private long maxWaitTime;
+    private long totalRunTime;
+    private long maxRunTime;
+
+    public String getTaskName() {
+        return taskName;
+    }
+
+    public void setTaskName(String taskName) {
+        this.taskName = taskName;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public long getQueued() {
+        return queued;
+    }
+
+    public void setQueued(long queued) {
+        this.queued = queued;
+    }
+
+    public long getRunning() {
+        return running;
+    }
+
+    public void setRunning(long running) {
+        this.running = running;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(long completed) {
+        this.completed = completed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    public void setCoalesced(long coalesced) {
+        this.coalesced = coalesced;
+    }
+
+    public long getTotalWaitTime() {
+        return totalWaitTime;
+    }
+
+    public void setTotalWaitTime(long totalWaitTime) {
+        this.totalWaitTime = totalWaitTime;
+    }
+
+    public long getMaxWaitTime() {
+        return maxWaitTime;
+    }
+
+    public void setMaxWaitTime(long maxWaitTime) {
+        this.maxWaitTime = maxWaitTime;
+    }
+
+    public long getTotalRunTime() {
+        return totalRunTime;
+    }
+
+    public void setTotalRunTime(long totalRunTime) {
+        this.totalRunTime = totalRunTime;
+    }
+
+    public long getMaxRunTime() {
+        return maxRunTime;
+    }
+
+    public void setMaxRunTime(long maxRunTime) {
+        this.maxRunTime = maxRunTime;
+    }
+}
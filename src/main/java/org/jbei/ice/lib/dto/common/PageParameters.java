@@ -11,6 +11,8 @@ import org.jbei.ice.lib.shared.ColumnField;
  * <li><code>asc</code>      sort order for folder content retrieval; ascending if true</li>
  * <li><code>start</code>    index of first item in retrieval</li>
  * <li><code>limit</code>    upper limit count of items to be retrieval</li>
+ * <li><code>cursor</code>   opaque cursor returned with the previous page; takes precedence over <code>start</code>
+ * when set</li>
  * </ul>
  *
  * @author Hector Plahar
@@ -22,6 +24,11 @@ public class PageParameters {
     private ColumnField sortField;
     private boolean ascending;
     private String filter;
+    private String cursor;
+
+    // entity type and property the page is sorted by; recorded when the page is retrieved
+    private transient Class<?> keysetType;
+    private transient String keysetProperty;
 
     public PageParameters() {
     }
@@ -73,4 +80,32 @@ public class PageParameters {
     public void setFilter(String filter) {
         this.filter = filter;
     }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public Class<?> getKeysetType() {
+        return keysetType;
+    }
+
+    public String getKeysetProperty() {
+        return keysetProperty;
+    }
+
+    /**
+     * Records the entity property that the page is sorted by so that the cursor for the next page can be created
+     * (see {@link org.jbei.ice.storage.hibernate.KeysetPage})
+     *
+     * @param type     entity type
+     * @param property name of property
+     */
+    public void setKeyset(Class<?> type, String property) {
+        this.keysetType = type;
+        this.keysetProperty = property;
+    }
 }
@@ -14,6 +14,7 @@ public class Results<T extends IDataTransferModel> implements IDataTransferModel
 
     private long resultCount;
     private List<T> data;
+    private String nextCursor;
 
     public Results() {
         this.data = new LinkedList<>();
@@ -37,4 +38,15 @@ public class Results<T extends IDataTransferModel> implements IDataTransferModel
     public void setData(List<T> data) {
         this.data = data;
     }
+
+    /**
+     * @return opaque cursor for retrieving the page that follows this one, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
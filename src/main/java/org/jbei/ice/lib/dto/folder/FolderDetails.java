@@ -22,6 +22,7 @@ public class FolderDetails extends AbstractFolder {
     private boolean canEdit;
     private FolderDetails parent;
     private RegistryPartner remotePartner;
+    private String nextCursor;
 
     public FolderDetails() {
         super();
@@ -48,6 +49,17 @@ public class FolderDetails extends AbstractFolder {
         this.count = count;
     }
 
+    /**
+     * @return opaque cursor for retrieving the next page of entries, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     public String getDescription() {
         return this.description;
     }
@@ -1,17 +1,25 @@
 package org.jbei.ice.lib.entry;
 
+import org.jbei.ice.lib.access.AccessType;
 import org.jbei.ice.lib.access.Authorization;
+import org.jbei.ice.lib.access.AuthorizationContext;
 import org.jbei.ice.lib.access.PermissionsController;
+import org.jbei.ice.lib.account.AccountType;
 import org.jbei.ice.lib.dto.folder.FolderType;
 import org.jbei.ice.lib.group.GroupController;
 import org.jbei.ice.storage.DAOFactory;
+import org.jbei.ice.storage.hibernate.dao.EntryReadAccessDAO;
 import org.jbei.ice.storage.hibernate.dao.PermissionDAO;
 import org.jbei.ice.storage.model.Account;
 import org.jbei.ice.storage.model.Entry;
 import org.jbei.ice.storage.model.Folder;
 import org.jbei.ice.storage.model.Group;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * @author Hector Plahar
@@ -28,6 +36,21 @@ public class EntryAuthorization extends Authorization<Entry> {
     }
 
     public boolean canRead(String userId, Entry entry) {
+        AuthorizationContext context = AuthorizationContext.current();
+        if (context == null)
+            return isReadable(userId, entry);
+        return context.isAllowed(userId, entry.getId(), AccessType.READ, () -> isReadable(userId, entry));
+    }
+
+    @Override
+    public boolean canWrite(String userId, Entry entry) {
+        AuthorizationContext context = AuthorizationContext.current();
+        if (context == null)
+            return isWritable(userId, entry);
+        return context.isAllowed(userId, entry.getId(), AccessType.WRITE, () -> isWritable(userId, entry));
+    }
+
+    private boolean isReadable(String userId, Entry entry) {
         // super checks for owner or admin
         if (userId == null) {
             return new PermissionsController().isPubliclyVisible(entry);
@@ -41,6 +64,13 @@ public class EntryAuthorization extends Authorization<Entry> {
         // get groups for account. if account is null, this will return everyone group
         Set<Group> accountGroups = groupController.getAllGroups(account);
 
+        // permissions on the entry and its folders are materialised in the read access table once it is built
+        EntryReadAccessDAO readAccessDAO = DAOFactory.getEntryReadAccessDAO();
+        if (account != null && readAccessDAO.isBuilt()) {
+            Set<Long> groupIds = accountGroups.stream().map(Group::getId).collect(Collectors.toSet());
+            return readAccessDAO.hasAccess(entry.getId(), account.getId(), groupIds);
+        }
+
         // check read permission through group membership
         // ie. belongs to group that has read privileges for entry (or a group whose parent group does)
         if (permissionDAO.hasPermissionMulti(entry, null, null, accountGroups, true, false))
@@ -72,8 +102,7 @@ public class EntryAuthorization extends Authorization<Entry> {
         return canWrite(userId, entry);
     }
 
-    @Override
-    public boolean canWrite(String userId, Entry entry) {
+    private boolean isWritable(String userId, Entry entry) {
         if (super.canWrite(userId, entry))
             return true;
 
@@ -119,6 +148,69 @@ public class EntryAuthorization extends Authorization<Entry> {
         return permissionDAO.hasPermissionMulti(null, entryFolders, account, null, false, true);
     }
 
+    /**
+     * Set based equivalent of {@link #canRead(String, Entry)}. Resolves all sources of read access using a
+     * fixed number of queries (per chunk of entries) instead of several queries per entry
+     *
+     * @param userId   unique user identifier. Null for anonymous users
+     * @param entryIds identifiers of entries to check
+     * @return subset of <code>entryIds</code> that the user can read
+     */
+    public Set<Long> getReadableEntries(String userId, Collection<Long> entryIds) {
+        if (entryIds == null || entryIds.isEmpty())
+            return new HashSet<>();
+
+        AuthorizationContext context = AuthorizationContext.current();
+        if (context == null)
+            return findReadable(userId, entryIds);
+        return context.getAllowed(userId, entryIds, AccessType.READ, ids -> findReadable(userId, ids));
+    }
+
+    private Set<Long> findReadable(String userId, Collection<Long> entryIds) {
+        if (userId == null) {
+            Group publicGroup = groupController.createOrRetrievePublicGroup();
+            return permissionDAO.getPubliclyReadableEntries(publicGroup, entryIds);
+        }
+
+        Account account = getAccount(userId);
+        if (account.getType() == AccountType.ADMIN)
+            return new HashSet<>(entryIds);
+
+        Set<Group> accountGroups = groupController.getAllGroups(account);
+        EntryReadAccessDAO readAccessDAO = DAOFactory.getEntryReadAccessDAO();
+        if (readAccessDAO.isBuilt()) {
+            Set<Long> groupIds = accountGroups.stream().map(Group::getId).collect(Collectors.toSet());
+            return new HashSet<>(readAccessDAO.getReadableEntries(account.getId(), account.getEmail(), groupIds,
+                    new ArrayList<>(entryIds), false));
+        }
+        return permissionDAO.getReadableEntries(account, accountGroups, entryIds);
+    }
+
+    /**
+     * Set based equivalent of {@link #canWrite(String, Entry)}
+     *
+     * @param userId   unique user identifier
+     * @param entryIds identifiers of entries to check
+     * @return subset of <code>entryIds</code> that the user can write
+     */
+    public Set<Long> getWritableEntries(String userId, Collection<Long> entryIds) {
+        if (userId == null || entryIds == null || entryIds.isEmpty())
+            return new HashSet<>();
+
+        AuthorizationContext context = AuthorizationContext.current();
+        if (context == null)
+            return findWritable(userId, entryIds);
+        return context.getAllowed(userId, entryIds, AccessType.WRITE, ids -> findWritable(userId, ids));
+    }
+
+    private Set<Long> findWritable(String userId, Collection<Long> entryIds) {
+        Account account = getAccount(userId);
+        if (account.getType() == AccountType.ADMIN)
+            return new HashSet<>(entryIds);
+
+        return permissionDAO.getWritableEntries(account, entryIds);
+    }
+
     @Override
     public String getOwner(Entry entry) {
         return entry.getOwnerEmail();
@@ -23,6 +23,7 @@ import org.jbei.ice.storage.model.*;
 
 import java.io.*;
 import java.util.*;
+import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -35,7 +36,6 @@ public class EntryController extends HasEntry {
 
     private EntryDAO dao;
     private CommentDAO commentDAO;
-    private SequenceDAO sequenceDAO;
     private PermissionsController permissionsController;
     private AccountController accountController;
     private final EntryAuthorization authorization;
@@ -48,7 +48,6 @@ public class EntryController extends HasEntry {
         sequenceAnalysisController = new SequenceAnalysisController();
         accountController = new AccountController();
         authorization = new EntryAuthorization();
-        sequenceDAO = DAOFactory.getSequenceDAO();
     }
 
     /**
@@ -345,15 +344,7 @@ public class EntryController extends HasEntry {
             return null;
 
         // retrieve sequence information
-        boolean hasSequence = sequenceDAO.hasSequence(entry.getId());
-        partData.setHasSequence(hasSequence);
-        boolean hasOriginalSequence = sequenceDAO.hasOriginalSequence(entry.getId());
-        partData.setHasOriginalSequence(hasOriginalSequence);
-        String sequenceString = sequenceDAO.getSequenceString(entry);
-        if (StringUtils.isEmpty(sequenceString))
-            partData.setBasePairCount(0);
-        else
-            partData.setBasePairCount(sequenceString.trim().length());
+        ModelToInfoFactory.setSequenceSummary(partData, entry);
 
         // create audit event if not owner
         // todo : remote access check
@@ -365,19 +356,18 @@ public class EntryController extends HasEntry {
         // retrieve more information about linked entries if any (default only contains id)
         if (partData.getLinkedParts() != null) {
             ArrayList<PartData> newLinks = new ArrayList<>();
+            List<Long> linkIds = partData.getLinkedParts().stream().map(PartData::getId).collect(Collectors.toList());
+            Set<Long> readableLinks = authorization.getReadableEntries(userId, linkIds);
             for (PartData link : partData.getLinkedParts()) {
+                if (!readableLinks.contains(link.getId()))
+                    continue;
+
                 Entry linkedEntry = dao.get(link.getId());
-                if (!authorization.canRead(userId, linkedEntry))
+                if (linkedEntry == null)
                     continue;
 
                 link = ModelToInfoFactory.createTipView(linkedEntry);
-                String linkedSequenceString = sequenceDAO.getSequenceString(linkedEntry);
-
-                if (!StringUtils.isEmpty(linkedSequenceString)) {
-                    link.setBasePairCount(linkedSequenceString.length());
-                    link.setFeatureCount(DAOFactory.getSequenceFeatureDAO().getFeatureCount(linkedEntry));
-                }
-
+                ModelToInfoFactory.setSequenceSummary(link, linkedEntry);
                 newLinks.add(link);
             }
             partData.getLinkedParts().clear();
@@ -389,8 +379,10 @@ public class EntryController extends HasEntry {
         if (parents == null)
             return partData;
 
+        List<Long> parentIds = parents.stream().map(Entry::getId).collect(Collectors.toList());
+        Set<Long> readableParents = authorization.getReadableEntries(userId, parentIds);
         for (Entry parent : parents) {
-            if (!authorization.canRead(userId, parent))
+            if (!readableParents.contains(parent.getId()))
                 continue;
 
             if (parent.getVisibility() != Visibility.OK.getValue() && !authorization.canWriteThoroughCheck(userId, entry))
@@ -1,16 +1,18 @@
 package org.jbei.ice.lib.entry;
 
-import org.apache.commons.lang3.StringUtils;
 import org.jbei.ice.lib.common.logging.Logger;
 import org.jbei.ice.lib.dto.entry.EntryType;
 import org.jbei.ice.lib.dto.entry.PartData;
 import org.jbei.ice.storage.DAOFactory;
+import org.jbei.ice.storage.ModelToInfoFactory;
 import org.jbei.ice.storage.hibernate.dao.EntryDAO;
-import org.jbei.ice.storage.hibernate.dao.SequenceDAO;
 import org.jbei.ice.storage.model.Entry;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Represents a main part and the hierarchical links that it is involved in.
@@ -22,7 +24,6 @@ import java.util.List;
 public class EntryLinks {
 
     private final EntryDAO entryDAO;
-    private final SequenceDAO sequenceDAO;
     private final Entry entry;
     private final EntryAuthorization entryAuthorization;
     private final String userId;
@@ -33,7 +34,6 @@ public class EntryLinks {
         if (this.entry == null)
             throw new IllegalArgumentException("Could not retrieve part with id " + partId);
         this.userId = userId;
-        this.sequenceDAO = DAOFactory.getSequenceDAO();
         this.entryAuthorization = new EntryAuthorization();
         this.entryAuthorization.expectRead(userId, this.entry);
     }
@@ -150,8 +150,9 @@ public class EntryLinks {
      */
     public List<PartData> getChildren() {
         List<PartData> children = new ArrayList<>(this.entry.getLinkedEntries().size());
+        Set<Long> readable = getReadable(this.entry.getLinkedEntries());
         for (Entry childEntry : this.entry.getLinkedEntries()) {
-            if (!entryAuthorization.canRead(this.userId, childEntry))
+            if (!readable.contains(childEntry.getId()))
                 continue;
             children.add(childEntry.toDataTransferObject());
         }
@@ -166,8 +167,9 @@ public class EntryLinks {
     public List<PartData> getParents() {
         List<Entry> parents = this.entryDAO.getParents(this.entry.getId());
         List<PartData> parentData = new ArrayList<>(parents.size());
+        Set<Long> readable = getReadable(parents);
         for (Entry parent : parents) {
-            if (!entryAuthorization.canRead(this.userId, parent))
+            if (!readable.contains(parent.getId()))
                 continue;
             parentData.add(parent.toDataTransferObject());
         }
@@ -190,8 +192,9 @@ public class EntryLinks {
 
         // get sequence and other summary information
         List<PartData> results = new ArrayList<>(entries.size());
+        Set<Long> readable = getReadable(entries);
         for (Entry entry : entries) {
-            if (!this.entryAuthorization.canRead(this.userId, entry))
+            if (!readable.contains(entry.getId()))
                 continue;
 
             PartData partData = new PartData(EntryType.nameToType(entry.getRecordType()));
@@ -200,23 +203,16 @@ public class EntryLinks {
             partData.setPartId(entry.getPartNumber());
             partData.setShortDescription(entry.getShortDescription());
 
-            boolean hasSequence = sequenceDAO.hasSequence(entry.getId());
-            partData.setHasSequence(hasSequence);
-            boolean hasOriginalSequence = sequenceDAO.hasOriginalSequence(entry.getId());
-            partData.setHasOriginalSequence(hasOriginalSequence);
-            String sequenceString = sequenceDAO.getSequenceString(entry);
-            if (StringUtils.isEmpty(sequenceString))
-                partData.setBasePairCount(0);
-            else
-                partData.setBasePairCount(sequenceString.trim().length());
-
-            if (!StringUtils.isEmpty(sequenceString)) {
-                partData.setFeatureCount(DAOFactory.getSequenceFeatureDAO().getFeatureCount(entry));
-            }
-
+            ModelToInfoFactory.setSequenceSummary(partData, entry);
             results.add(partData);
         }
 
         return results;
     }
+
+    // ids of the entries that the user can read, determined for all of them at once
+    private Set<Long> getReadable(Collection<Entry> entries) {
+        List<Long> ids = entries.stream().map(Entry::getId).collect(Collectors.toList());
+        return entryAuthorization.getReadableEntries(this.userId, ids);
+    }
 }
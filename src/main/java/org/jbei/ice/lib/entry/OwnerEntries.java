@@ -1,5 +1,6 @@
 package org.jbei.ice.lib.entry;
 
+import org.jbei.ice.lib.dto.common.PageParameters;
 import org.jbei.ice.lib.dto.entry.PartData;
 import org.jbei.ice.lib.group.GroupController;
 import org.jbei.ice.lib.shared.ColumnField;
@@ -59,25 +60,28 @@ public class OwnerEntries {
     }
 
     public List<PartData> retrieveOwnerEntries(ColumnField sort, boolean asc, int start, int limit, String filter) {
+        return retrieveOwnerEntries(new PageParameters(start, limit, sort, asc, filter));
+    }
+
+    public List<PartData> retrieveOwnerEntries(PageParameters pageParameters) {
         List<Entry> entries;
 
         if (this.isAdmin || this.isSelf) {
-            entries = entryDAO.retrieveOwnerEntries(this.ownerAccount.getEmail(), sort, asc, start, limit, filter);
+            entries = entryDAO.retrieveOwnerEntries(this.ownerAccount.getEmail(), pageParameters);
         } else {
             Set<Group> accountGroups = new HashSet<>(account.getGroups());
             GroupController controller = new GroupController();
             Group everybodyGroup = controller.createOrRetrievePublicGroup();
             accountGroups.add(everybodyGroup);
             // retrieve entries for user that can be read by others
-            entries = entryDAO.retrieveUserEntries(account, this.ownerAccount.getEmail(),
-                    accountGroups, sort, asc, start, limit, filter);
+            entries = entryDAO.retrieveUserEntries(account, this.ownerAccount.getEmail(), accountGroups,
+                    pageParameters);
         }
 
-        ArrayList<PartData> data = new ArrayList<>();
-        for (Entry entry : entries) {
-            PartData info = ModelToInfoFactory.createTableViewData(account.getEmail(), entry, false);
-            info.setViewCount(DAOFactory.getAuditDAO().getHistoryCount(entry));
-            data.add(info);
+        ArrayList<PartData> data = new ArrayList<>(
+                ModelToInfoFactory.createTableViewData(account.getEmail(), entries, false));
+        for (int i = 0; i < data.size(); i += 1) {
+            data.get(i).setViewCount(DAOFactory.getAuditDAO().getHistoryCount(entries.get(i)));
         }
         return data;
     }
@@ -0,0 +1,49 @@
+package org.jbei.ice.lib.entry;
+
+import org.jbei.ice.storage.DAOFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Allocates unique numbers for generated names (prefix followed by a number; e.g. strain names). Blocks of
+ * numbers are reserved from the database (see {@link org.jbei.ice.storage.hibernate.dao.PartNumberSequenceDAO})
+ * and handed out from memory so that only one in every {@link #BLOCK_SIZE} allocations accesses the
+ * database. Allocations for different prefixes do not contend with each other and multiple nodes sharing the
+ * same database get distinct blocks.
+ * <p>
+ * Numbers are unique but not necessarily consecutive; numbers left in a block when the application stops,
+ * or allocated by a transaction that is rolled back, are not reused
+ *
+ * @author Hector Plahar
+ */
+public class PartNumberAllocator {
+
+    public static final int BLOCK_SIZE = 20;
+
+    private static final Map<String, Block> BLOCKS = new ConcurrentHashMap<>();
+
+    private PartNumberAllocator() {
+    }
+
+    /**
+     * @param prefix name prefix
+     * @return next number for the prefix
+     */
+    public static long next(String prefix) {
+        Block block = BLOCKS.computeIfAbsent(prefix, key -> new Block());
+        synchronized (block) {
+            if (block.next >= block.end) {
+                long start = DAOFactory.getPartNumberSequenceDAO().reserve(prefix, BLOCK_SIZE);
+                block.next = start;
+                block.end = start + BLOCK_SIZE;
+            }
+            return block.next++;
+        }
+    }
+
+    private static class Block {
+        private long next;
+        private long end;
+    }
+}
@@ -1,5 +1,6 @@
 package org.jbei.ice.lib.entry;
 
+import org.jbei.ice.lib.dto.common.PageParameters;
 import org.jbei.ice.lib.dto.entry.PartData;
 import org.jbei.ice.lib.group.GroupController;
 import org.jbei.ice.lib.shared.ColumnField;
@@ -41,17 +42,20 @@ public class SharedEntries {
     }
 
     public List<PartData> getEntries(ColumnField field, boolean asc, int start, int limit, String filter) {
+        return getEntries(new PageParameters(start, limit, field, asc, filter));
+    }
+
+    public List<PartData> getEntries(PageParameters pageParameters) {
         GroupController groupController = new GroupController();
         Group publicGroup = groupController.createOrRetrievePublicGroup();
         Set<Group> accountGroups = account.getGroups();
         accountGroups.remove(publicGroup);
-        List<Entry> entries = this.entryDAO.sharedWithUserEntries(account, accountGroups, field, asc, start, limit, filter);
+        List<Entry> entries = this.entryDAO.sharedWithUserEntries(account, accountGroups, pageParameters);
 
-        ArrayList<PartData> data = new ArrayList<>();
-        for (Entry entry : entries) {
-            PartData info = ModelToInfoFactory.createTableViewData(account.getEmail(), entry, false);
-            info.setViewCount(DAOFactory.getAuditDAO().getHistoryCount(entry));
-            data.add(info);
+        ArrayList<PartData> data = new ArrayList<>(
+                ModelToInfoFactory.createTableViewData(account.getEmail(), entries, false));
+        for (int i = 0; i < data.size(); i += 1) {
+            data.get(i).setViewCount(DAOFactory.getAuditDAO().getHistoryCount(entries.get(i)));
         }
         return data;
     }
@@ -1,5 +1,6 @@
 package org.jbei.ice.lib.entry;
 
+import org.jbei.ice.lib.dto.common.PageParameters;
 import org.jbei.ice.lib.dto.entry.PartData;
 import org.jbei.ice.lib.group.GroupController;
 import org.jbei.ice.lib.shared.ColumnField;
@@ -38,25 +39,34 @@ public class VisibleEntries {
     }
 
     public List<PartData> getEntries(ColumnField field, boolean asc, int start, int limit, String filter) {
+        return getEntries(new PageParameters(start, limit, field, asc, filter));
+    }
+
+    /**
+     * @param pageParameters paging parameters. Pages following the first one can be retrieved using the cursor
+     *                       returned with the previous one
+     * @return page of entries visible to the user
+     */
+    public List<PartData> getEntries(PageParameters pageParameters) {
         Set<Entry> results;
 
         if (isAdmin) {
             // no filters
-            results = dao.retrieveAllEntries(field, asc, start, limit, filter);
+            results = dao.retrieveAllEntries(pageParameters);
         } else {
             // retrieve groups for account and filter by permission
             Set<Group> accountGroups = new HashSet<>(account.getGroups());
             GroupController controller = new GroupController();
             Group everybodyGroup = controller.createOrRetrievePublicGroup();
             accountGroups.add(everybodyGroup);
-            results = dao.retrieveVisibleEntries(account, accountGroups, field, asc, start, limit, filter);
+            results = dao.retrieveVisibleEntries(account, accountGroups, pageParameters);
         }
 
-        ArrayList<PartData> data = new ArrayList<>();
-        for (Entry entry : results) {
-            PartData info = ModelToInfoFactory.createTableViewData(account.getEmail(), entry, false);
-            info.setViewCount(DAOFactory.getAuditDAO().getHistoryCount(entry));
-            data.add(info);
+        List<Entry> entries = new ArrayList<>(results);
+        ArrayList<PartData> data = new ArrayList<>(
+                ModelToInfoFactory.createTableViewData(account.getEmail(), entries, false));
+        for (int i = 0; i < data.size(); i += 1) {
+            data.get(i).setViewCount(DAOFactory.getAuditDAO().getHistoryCount(entries.get(i)));
         }
 
         return data;
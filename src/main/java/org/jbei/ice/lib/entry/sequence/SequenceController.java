@@ -85,52 +85,59 @@ public class SequenceController extends HasEntry {
             sequence = dnaSequenceToSequence(dnaSequence);
         }
         sequence.setEntry(entry);
-        if (!deleteSequence(userId, entryId))
-            return null;
-
-//        sequence = update(userId, sequence);
-        sequence = save(userId, sequence);
+        sequence = update(userId, sequence);
         if (sequence != null)
             return sequenceToDNASequence(sequence);
         return null;
     }
 
     /**
-     * Update the {@link Sequence} in the database, with the option to rebuild the search index.
+     * Updates the existing {@link Sequence} of an entry in place. Only the feature differences are written (see
+     * {@link SequenceDAO#updateSequence(Sequence, Set)}); if the bases are unchanged, the entry is not
+     * modified and neither the blast nor the search index is rebuilt.
      *
      * @param userId   unique identifier for user performing action
-     * @param sequence sequence to be updated
-     * @return Saved Sequence.
+     * @param sequence sequence with the new bases and features. Must be associated with an entry
+     * @return updated sequence, or the saved sequence if the entry does not have one
      */
     protected Sequence update(String userId, Sequence sequence) {
         authorization.expectWrite(userId, sequence.getEntry());
-        Sequence result;
 
         Entry entry = sequence.getEntry();
-        entry.setModificationTime(Calendar.getInstance().getTime());
         Sequence oldSequence = dao.getByEntry(entry);
+        if (oldSequence == null)
+            return save(userId, sequence);
 
-        if (oldSequence == null) {
-            result = dao.create(sequence);
-        } else {
-            String tmpDir = new ConfigurationController().getPropertyValue(ConfigurationKey.TEMPORARY_DIRECTORY);
-            if (!StringUtils.isEmpty(tmpDir)) {
-                String hash = oldSequence.getFwdHash();
-                try {
-                    Files.deleteIfExists(Paths.get(tmpDir, hash + ".png"));
-                } catch (IOException e) {
-                    Logger.warn(e.getMessage());
-                }
+        // cached image shows the features
+        String tmpDir = new ConfigurationController().getPropertyValue(ConfigurationKey.TEMPORARY_DIRECTORY);
+        if (!StringUtils.isEmpty(tmpDir)) {
+            String hash = oldSequence.getFwdHash();
+            try {
+                Files.deleteIfExists(Paths.get(tmpDir, hash + ".png"));
+            } catch (IOException e) {
+                Logger.warn(e.getMessage());
             }
+        }
 
-            oldSequence.setSequenceUser(sequence.getSequenceUser());
+        boolean basesChanged = !StringUtils.equals(oldSequence.getFwdHash(), sequence.getFwdHash());
+        if (basesChanged) {
+            entry.setModificationTime(Calendar.getInstance().getTime());
             oldSequence.setSequence(sequence.getSequence());
             oldSequence.setFwdHash(sequence.getFwdHash());
             oldSequence.setRevHash(sequence.getRevHash());
-            result = dao.updateSequence(oldSequence, sequence.getSequenceFeatures());
         }
 
-        BlastPlus.scheduleBlastIndexRebuildTask(true);
+        // the update replaces the original upload (if any), as re-creating the sequence did
+        oldSequence.setSequenceUser(sequence.getSequenceUser());
+        oldSequence.setFileName(sequence.getFileName());
+        oldSequence.setFormat(sequence.getFormat());
+        oldSequence.setUri(sequence.getUri());
+        oldSequence.setComponentUri(sequence.getComponentUri());
+        oldSequence.setIdentifier(sequence.getIdentifier());
+
+        Sequence result = dao.updateSequence(oldSequence, sequence.getSequenceFeatures());
+        if (basesChanged)
+            BlastPlus.scheduleBlastIndexRebuildTask(true);
         return result;
     }
 
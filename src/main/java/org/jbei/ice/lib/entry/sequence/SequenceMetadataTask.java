@@ -0,0 +1,27 @@
+package org.jbei.ice.lib.entry.sequence;
+
+import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.lib.executor.DurableTask;
+import org.jbei.ice.storage.DAOFactory;
+
+/**
+ * Task to compute the metadata (length, gc content, feature count and original upload marker) for sequences
+ * saved before those columns were introduced. Submitted on startup while there are such sequences; summaries
+ * read the sequence itself for them until then
+ *
+ * @author Hector Plahar
+ */
+public class SequenceMetadataTask extends DurableTask {
+
+    @Override
+    public String getKey() {
+        return "backfill-sequence-metadata";
+    }
+
+    @Override
+    public void execute() {
+        Logger.info("Computing missing sequence metadata");
+        int count = DAOFactory.getSequenceDAO().backfillMetadata();
+        Logger.info("Sequence metadata computed for " + count + " sequences");
+    }
+}
@@ -8,7 +8,7 @@ import org.jbei.ice.lib.dto.DNAFeatures;
 import org.jbei.ice.lib.dto.FeaturedDNASequence;
 import org.jbei.ice.lib.dto.common.Results;
 import org.jbei.ice.lib.dto.search.BlastQuery;
-import org.jbei.ice.lib.executor.IceExecutorService;
+import org.jbei.ice.lib.executor.JobQueue;
 import org.jbei.ice.lib.search.blast.BlastException;
 import org.jbei.ice.lib.search.blast.BlastPlus;
 import org.jbei.ice.storage.DAOFactory;
@@ -175,8 +175,8 @@ public class Annotations {
         if (!isAdministrator())
             throw new PermissionException("Administrative privileges required to rebuild blast features");
 
-        AutoAnnotationBlastDbBuildTask autoAnnotationBlastDbBuildTask = new AutoAnnotationBlastDbBuildTask(true);
-        IceExecutorService.getInstance().runTask(autoAnnotationBlastDbBuildTask);
+        AutoAnnotationBlastDbBuildTask autoAnnotationBlastDbBuildTask = new AutoAnnotationBlastDbBuildTask();
+        JobQueue.getInstance().submit(autoAnnotationBlastDbBuildTask);
     }
 
     protected boolean isAdministrator() {
@@ -1,14 +1,10 @@
 package org.jbei.ice.lib.entry.sequence.composers.formatters;
 
-import org.biojava.bio.seq.DNATools;
-import org.biojava.bio.symbol.IllegalSymbolException;
-import org.biojava.utils.ChangeVetoException;
-import org.biojavax.bio.seq.RichSequence;
-import org.biojavax.bio.seq.SimpleRichSequence;
+import org.jbei.ice.lib.utils.PackedSequence;
 import org.jbei.ice.storage.model.Sequence;
 
-import java.io.IOException;
-import java.io.OutputStream;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 
 /*
  * >gi|<identifier>|<namespace>|<accession>.<version>|<name> <description>
@@ -22,10 +18,10 @@ import java.io.OutputStream;
  * @author Zinovii Dmytriv
  */
 public class FastaFormatter extends AbstractFormatter {
-    private final String name;
+    private static final int LINE_WIDTH = 80;
+
     private final String accessionNumber;
-    private int version = 1;
-    private double seqVersion = 1.0;
+    private final int version;
 
     /**
      * Constructor using only the name. Uses the name as the accession number.
@@ -33,40 +29,84 @@ public class FastaFormatter extends AbstractFormatter {
      * @param name
      */
     public FastaFormatter(String name) {
-        this(name, name, 1, 1.0);
+        this(name, 1);
     }
 
     /**
-     * Constructor using all required fields for FASTA format.
+     * Constructor using all fields written in the FASTA header.
      *
-     * @param name
      * @param accessionNumber
      * @param version
-     * @param seqVersion
      */
-    public FastaFormatter(String name, String accessionNumber, int version, double seqVersion) {
+    public FastaFormatter(String accessionNumber, int version) {
         super();
 
-        this.name = name;
         this.accessionNumber = accessionNumber;
         this.version = version;
-        this.seqVersion = seqVersion;
     }
 
+    /**
+     * Writes the sequence in lines of {@value #LINE_WIDTH} bases, in the same format as BioJava's FASTA writer. The
+     * bases are read from the packed form of the sequence a line at a time, so the text of the sequence is not
+     * held in memory.
+     */
     @Override
     public void format(Sequence sequence, OutputStream outputStream) throws FormatterException,
             IOException {
-        SimpleRichSequence simpleRichSequence = null;
-        try {
-            simpleRichSequence = new SimpleRichSequence(getNamespace(), name, accessionNumber,
-                    version, DNATools.createDNA(sequence.getSequence()),
-                    seqVersion);
-        } catch (IllegalSymbolException e) {
-            throw new FormatterException("Failed to create generate fasta file", e);
-        } catch (ChangeVetoException e) {
-            throw new FormatterException("Failed to create generate fasta file", e);
+        PackedSequence bases = sequence.getPackedSequence();
+        if (bases == null)
+            bases = PackedSequence.pack("");
+
+        // only symbols other than acgt need checking
+        for (char symbol : bases.getExceptionSymbols()) {
+            if (fastaSymbol(symbol) == 0)
+                throw new FormatterException("Failed to create generate fasta file",
+                        new IllegalArgumentException("Invalid symbol '" + symbol + "'"));
         }
 
-        RichSequence.IOTools.writeFasta(outputStream, simpleRichSequence, getNamespace());
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(">" + getNamespaceName() + "|" + accessionNumber + "." + version + "| \n");
+        char[] line = new char[LINE_WIDTH];
+        for (int start = 0; start < bases.length(); start += LINE_WIDTH) {
+            int end = Math.min(bases.length(), start + LINE_WIDTH);
+            bases.getChars(start, end, line, 0);
+            for (int i = 0; i < end - start; i += 1) {
+                line[i] = fastaSymbol(line[i]);
+            }
+            writer.write(line, 0, end - start);
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    // symbol written for a sequence symbol (lower case; gaps as '-'); 0 if the symbol is not a nucleotide
+    private static char fastaSymbol(char symbol) {
+        char lower = Character.toLowerCase(symbol);
+        switch (lower) {
+            case 'a':
+            case 'c':
+            case 'g':
+            case 't':
+            case 'b':
+            case 'd':
+            case 'h':
+            case 'k':
+            case 'm':
+            case 'n':
+            case 'r':
+            case 's':
+            case 'v':
+            case 'w':
+            case 'y':
+                return lower;
+            case 'x':
+                return 'n';
+            case '-':
+            case '.':
+            case ' ':
+                return '-';
+            default:
+                return 0;
+        }
     }
 }
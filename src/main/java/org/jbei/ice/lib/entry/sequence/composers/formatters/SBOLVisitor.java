@@ -48,8 +48,6 @@ public class SBOLVisitor {
         dnaComponent.setDescription(entry.getShortDescription());
 
         DnaSequence dnaSequence = SBOLFactory.createDnaSequence();
-        dnaSequence.setNucleotides(sequence.getSequence());
-
         String dsUri = sequence.getUri();
         if (dsUri == null || dsUri.isEmpty()) {
             dsUri = sequence.getFwdHash();
@@ -0,0 +1,163 @@
+package org.jbei.ice.lib.executor;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * Minimal cron expression with the standard five fields:
+ * <code>minute hour day-of-month month day-of-week</code>.
+ * <p>
+ * Each field accepts <code>*</code>, single values, ranges (<code>1-5</code>), lists (<code>1,3,5</code>) and
+ * steps (<code>*&#47;15</code> or <code>0-30/10</code>). Day of week is 0-7 with both 0 and 7 being Sunday.
+ * As with standard cron, if both day of month and day of week are restricted, a day matching either is used.
+ *
+ * @author Hector Plahar
+ */
+public class CronExpression {
+
+    // upper bound on the number of days searched for the next matching time
+    private static final int MAX_DAYS_SEARCHED = 366 * 5;
+
+    private final String expression;
+    private final BitSet minutes;
+    private final BitSet hours;
+    private final BitSet daysOfMonth;
+    private final BitSet months;
+    private final BitSet daysOfWeek;
+    private final boolean dayOfMonthRestricted;
+    private final boolean dayOfWeekRestricted;
+
+    /**
+     * @param expression cron expression
+     * @throws IllegalArgumentException if the expression is not valid
+     */
+    public CronExpression(String expression) {
+        if (StringUtils.isBlank(expression))
+            throw new IllegalArgumentException("Empty cron expression");
+
+        String[] fields = expression.trim().split("\\s+");
+        if (fields.length != 5)
+            throw new IllegalArgumentException("Cron expression \"" + expression + "\" must have 5 fields");
+
+        this.expression = expression.trim();
+        this.minutes = parseField(fields[0], 0, 59);
+        this.hours = parseField(fields[1], 0, 23);
+        this.daysOfMonth = parseField(fields[2], 1, 31);
+        this.months = parseField(fields[3], 1, 12);
+        this.daysOfWeek = parseField(fields[4], 0, 7);
+        if (this.daysOfWeek.get(7))
+            this.daysOfWeek.set(0);
+        this.dayOfMonthRestricted = !fields[2].startsWith("*");
+        this.dayOfWeekRestricted = !fields[4].startsWith("*");
+    }
+
+    /**
+     * @param after time after which to find the next match
+     * @return the next time (to the minute) after the specified time that matches this expression,
+     * or null if there is no match in the next five years
+     */
+    public Date next(Date after) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(after);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        calendar.add(Calendar.MINUTE, 1);
+
+        Calendar limit = (Calendar) calendar.clone();
+        limit.add(Calendar.DAY_OF_MONTH, MAX_DAYS_SEARCHED);
+
+        while (calendar.before(limit)) {
+            if (!months.get(calendar.get(Calendar.MONTH) + 1)) {
+                calendar.add(Calendar.MONTH, 1);
+                calendar.set(Calendar.DAY_OF_MONTH, 1);
+                calendar.set(Calendar.HOUR_OF_DAY, 0);
+                calendar.set(Calendar.MINUTE, 0);
+                continue;
+            }
+
+            if (!matchesDay(calendar)) {
+                calendar.add(Calendar.DAY_OF_MONTH, 1);
+                calendar.set(Calendar.HOUR_OF_DAY, 0);
+                calendar.set(Calendar.MINUTE, 0);
+                continue;
+            }
+
+            if (!hours.get(calendar.get(Calendar.HOUR_OF_DAY))) {
+                calendar.add(Calendar.HOUR_OF_DAY, 1);
+                calendar.set(Calendar.MINUTE, 0);
+                continue;
+            }
+
+            if (!minutes.get(calendar.get(Calendar.MINUTE))) {
+                calendar.add(Calendar.MINUTE, 1);
+                continue;
+            }
+
+            return calendar.getTime();
+        }
+        return null;
+    }
+
+    private boolean matchesDay(Calendar calendar) {
+        boolean dayOfMonth = daysOfMonth.get(calendar.get(Calendar.DAY_OF_MONTH));
+        boolean dayOfWeek = daysOfWeek.get(calendar.get(Calendar.DAY_OF_WEEK) - 1);
+        if (dayOfMonthRestricted && dayOfWeekRestricted)
+            return dayOfMonth || dayOfWeek;
+        return dayOfMonth && dayOfWeek;
+    }
+
+    private static BitSet parseField(String field, int min, int max) {
+        BitSet bits = new BitSet(max + 1);
+        for (String part : field.split(",")) {
+            int step = 1;
+            int slash = part.indexOf('/');
+            if (slash != -1) {
+                step = parseValue(part.substring(slash + 1), 1, max);
+                part = part.substring(0, slash);
+            }
+
+            int start;
+            int end;
+            if ("*".equals(part)) {
+                start = min;
+                end = max;
+            } else {
+                int dash = part.indexOf('-');
+                if (dash == -1) {
+                    start = parseValue(part, min, max);
+                    end = slash == -1 ? start : max;
+                } else {
+                    start = parseValue(part.substring(0, dash), min, max);
+                    end = parseValue(part.substring(dash + 1), min, max);
+                }
+            }
+
+            if (start > end)
+                throw new IllegalArgumentException("Invalid range \"" + part + "\" in cron expression");
+
+            for (int i = start; i <= end; i += step) {
+                bits.set(i);
+            }
+        }
+        return bits;
+    }
+
+    private static int parseValue(String value, int min, int max) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number < min || number > max)
+                throw new IllegalArgumentException("Value " + value + " out of range [" + min + "-" + max + "]");
+            return number;
+        } catch (NumberFormatException nfe) {
+            throw new IllegalArgumentException("Invalid value \"" + value + "\" in cron expression");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
@@ -0,0 +1,28 @@
+package org.jbei.ice.lib.executor;
+
+/**
+ * Task that is persisted as a job when submitted to the {@link JobQueue} so that it survives restarts
+ * and is retried on failure.
+ * <p>
+ * A task is re-created from the job table using either a public constructor that accepts the
+ * value returned by {@link #getParameters()} or, if that value is null, a public no-argument constructor.
+ * Durable tasks are expected to throw an exception when they fail so that they can be retried
+ *
+ * @author Hector Plahar
+ */
+public abstract class DurableTask extends Task {
+
+    /**
+     * @return serialized parameters needed to re-create this task, or null if it has none
+     */
+    public String getParameters() {
+        return null;
+    }
+
+    /**
+     * @return maximum number of times this task is attempted before it is marked as failed
+     */
+    public int getMaxAttempts() {
+        return 5;
+    }
+}
@@ -1,25 +1,44 @@
 package org.jbei.ice.lib.executor;
 
 import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.lib.dto.TaskStatistics;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * Executor for background tasks. Tasks are run in a separate pool for each {@link TaskCategory}
+ * and within a pool, higher priority tasks are run first.
+ *
  * @author Hector Plahar
  */
 public class IceExecutorService {
 
     private static final IceExecutorService INSTANCE = new IceExecutorService();
-    private final ExecutorService pool;
+    private final Map<TaskCategory, ThreadPoolExecutor> pools;
+    private final ConcurrentHashMap<Class<?>, TaskMetrics> metrics;
+    private final TaskCoalescer coalescer;
 
     private IceExecutorService() {
-        pool = Executors.newFixedThreadPool(5, r -> {
-            Thread thread = new Thread(r);
-            thread.setPriority(Thread.MIN_PRIORITY);
-            return thread;
-        });
+        pools = new EnumMap<>(TaskCategory.class);
+        metrics = new ConcurrentHashMap<>();
+        coalescer = new TaskCoalescer();
+
+        for (TaskCategory category : TaskCategory.values()) {
+            int size = category.getPoolSize();
+            AtomicInteger count = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                    new PriorityBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "ice-" + category.name().toLowerCase() + "-" + count.incrementAndGet());
+                thread.setPriority(category.getThreadPriority());
+                return thread;
+            });
+            pools.put(category, pool);
+        }
     }
 
     public static IceExecutorService getInstance() {
@@ -28,28 +47,81 @@ public class IceExecutorService {
 
     public void stopService() {
         Logger.info("Shutting down executor service");
-        pool.shutdown(); // Disable new tasks from being submitted
+        for (ExecutorService pool : pools.values())
+            pool.shutdown(); // Disable new tasks from being submitted
+
         try {
-            // Wait a while for existing tasks to terminate
-            if (!pool.awaitTermination(10, TimeUnit.SECONDS)) {
-                pool.shutdownNow(); // Cancel currently executing tasks
-                // Wait a while for tasks to respond to being cancelled
-                if (!pool.awaitTermination(10, TimeUnit.SECONDS))
-                    Logger.info("Executor service did not terminate");
+            for (ExecutorService pool : pools.values()) {
+                // Wait a while for existing tasks to terminate
+                if (!pool.awaitTermination(10, TimeUnit.SECONDS)) {
+                    pool.shutdownNow(); // Cancel currently executing tasks
+                    // Wait a while for tasks to respond to being cancelled
+                    if (!pool.awaitTermination(10, TimeUnit.SECONDS))
+                        Logger.info("Executor service did not terminate");
+                }
             }
         } catch (InterruptedException ie) {
             // (Re-)Cancel if current thread also interrupted
-            pool.shutdownNow();
+            for (ExecutorService pool : pools.values())
+                pool.shutdownNow();
             // Preserve interrupt status
             Thread.currentThread().interrupt();
         }
     }
 
-    public void runTask(Task task) {
+    /**
+     * Schedules the specified task to be run in the pool for its category. If the task has a key
+     * (see {@link Task#getKey()}) and another task with the same key is already waiting, the two are merged
+     *
+     * @param task task to run
+     * @return future that completes when the task has been run, or <code>null</code> if task is null
+     */
+    public CompletableFuture<Task> runTask(Task task) {
         if (task == null)
-            return;
+            return null;
+
+        TaskCategory category = task.getCategory();
+        TaskMetrics taskMetrics = metrics.computeIfAbsent(task.getClass(),
+                k -> new TaskMetrics(k.getSimpleName(), category));
+
+        // tasks with the same key as one already waiting or running are merged or deferred
+        if (!coalescer.submit(task)) {
+            if (task.getStatus() == TaskStatus.NEW)
+                task.setStatus(TaskStatus.PENDING);
+            taskMetrics.taskCoalesced();
+            return task.getFuture();
+        }
+
+        Logger.info("Adding task " + task.getClass().getSimpleName() + " to executor service");
+        task.setStatus(TaskStatus.PENDING);
+        taskMetrics.taskQueued();
+        try {
+            pools.get(category).execute(new TaskHandler(task, taskMetrics, coalescer));
+        } catch (RejectedExecutionException e) {
+            Logger.error("Task rejected by executor service: " + e.getMessage());
+            coalescer.discard(task);
+            taskMetrics.taskRejected();
+            task.setStatus(TaskStatus.EXCEPTION);
+            task.getFuture().completeExceptionally(e);
+        }
+        return task.getFuture();
+    }
+
+    /**
+     * @return statistics for each class of task that has been submitted since start up
+     */
+    public List<TaskStatistics> getStatistics() {
+        List<TaskStatistics> list = new ArrayList<>();
+        for (TaskMetrics taskMetrics : metrics.values())
+            list.add(taskMetrics.toStatistics());
+        return list;
+    }
 
-        Logger.info("Adding task to executor service");
-        pool.execute(new TaskHandler(task));
+    /**
+     * @param category task category
+     * @return number of tasks waiting to be run in the pool for the category
+     */
+    public int getQueueDepth(TaskCategory category) {
+        return pools.get(category).getQueue().size();
     }
 }
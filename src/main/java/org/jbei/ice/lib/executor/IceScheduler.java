@@ -0,0 +1,176 @@
+package org.jbei.ice.lib.executor;
+
+import org.jbei.ice.lib.common.logging.Logger;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Runs tasks periodically according to a {@link CronExpression}. The scheduler only keeps track of
+ * the time; when a schedule fires, the task is submitted to the {@link IceExecutorService} so no executor
+ * thread is held while waiting.
+ * <p>
+ * A random delay of up to the specified jitter is added to each run so that scheduled work on instances sharing
+ * the same configuration does not start at the same time. A run is skipped if the task submitted by the
+ * previous run for the same schedule has not completed.
+ *
+ * @author Hector Plahar
+ */
+public class IceScheduler {
+
+    private static final IceScheduler INSTANCE = new IceScheduler();
+
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, ScheduledJob> jobs;
+
+    // for tests; the application uses the shared getInstance()
+    IceScheduler() {
+        jobs = new ConcurrentHashMap<>();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ice-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static IceScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Schedules a task to run periodically. Replaces any existing schedule with the same name
+     *
+     * @param name       unique name for the schedule
+     * @param expression schedule
+     * @param jitterMs   maximum random delay (in ms) added to each run
+     * @param supplier   creates the task to run each time the schedule fires
+     */
+    public void schedule(String name, CronExpression expression, long jitterMs, Supplier<? extends Task> supplier) {
+        ScheduledJob job = new ScheduledJob(name, expression, Math.max(0, jitterMs), supplier);
+        ScheduledJob previous = jobs.put(name, job);
+        if (previous != null)
+            previous.cancel();
+
+        Logger.info("Scheduling \"" + name + "\" with \"" + expression + "\"");
+        scheduleNext(job);
+    }
+
+    /**
+     * Cancels the schedule with the specified name. A task already submitted is not affected
+     *
+     * @param name unique name for the schedule
+     */
+    public void cancel(String name) {
+        ScheduledJob job = jobs.remove(name);
+        if (job != null) {
+            Logger.info("Cancelling schedule \"" + name + "\"");
+            job.cancel();
+        }
+    }
+
+    /**
+     * @param name unique name for the schedule
+     * @return time of the next run for the named schedule (excluding jitter), or null if it is not scheduled
+     */
+    public Date getNextRun(String name) {
+        ScheduledJob job = jobs.get(name);
+        return job == null ? null : job.nextRun;
+    }
+
+    public void stop() {
+        Logger.info("Stopping scheduler");
+        for (ScheduledJob job : jobs.values()) {
+            job.cancel();
+        }
+        jobs.clear();
+        scheduler.shutdownNow();
+    }
+
+    private void scheduleNext(ScheduledJob job) {
+        if (job.cancelled || scheduler.isShutdown())
+            return;
+
+        Date now = new Date();
+        Date next = job.expression.next(now);
+        job.nextRun = next;
+        if (next == null) {
+            Logger.warn("Schedule \"" + job.name + "\" has no upcoming runs");
+            return;
+        }
+
+        long delay = getDelay(now, next, job.jitterMs);
+        try {
+            job.future = scheduler.schedule(() -> run(job), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ree) {
+            // scheduler stopped
+        }
+    }
+
+    /**
+     * @return delay (in ms) from now until the next run, with a random jitter of up to the specified amount
+     */
+    static long getDelay(Date now, Date next, long jitterMs) {
+        long delay = next.getTime() - now.getTime();
+        if (jitterMs > 0)
+            delay += ThreadLocalRandom.current().nextLong(jitterMs + 1);
+        return delay;
+    }
+
+    // for tests: fires the named schedule now, on the scheduler thread, without affecting the next scheduled run
+    Future<?> runNow(String name) {
+        ScheduledJob job = jobs.get(name);
+        return scheduler.submit(() -> fire(job));
+    }
+
+    private void run(ScheduledJob job) {
+        try {
+            fire(job);
+        } finally {
+            scheduleNext(job);
+        }
+    }
+
+    // submits the task for the schedule unless the one submitted by the previous run is still pending or running
+    private void fire(ScheduledJob job) {
+        if (job.cancelled)
+            return;
+
+        try {
+            if (job.lastRun != null && !job.lastRun.isDone()) {
+                Logger.info("Skipping \"" + job.name + "\". Previous run has not completed");
+            } else {
+                Task task = job.supplier.get();
+                job.lastRun = IceExecutorService.getInstance().runTask(task);
+            }
+        } catch (Exception e) {
+            Logger.error("Exception running scheduled task \"" + job.name + "\"", e);
+        }
+    }
+
+    private static class ScheduledJob {
+        private final String name;
+        private final CronExpression expression;
+        private final long jitterMs;
+        private final Supplier<? extends Task> supplier;
+        private volatile boolean cancelled;
+        private volatile Date nextRun;
+        private volatile ScheduledFuture<?> future;
+        private volatile CompletableFuture<Task> lastRun;
+
+        ScheduledJob(String name, CronExpression expression, long jitterMs, Supplier<? extends Task> supplier) {
+            this.name = name;
+            this.expression = expression;
+            this.jitterMs = jitterMs;
+            this.supplier = supplier;
+        }
+
+        void cancel() {
+            cancelled = true;
+            ScheduledFuture<?> scheduled = this.future;
+            if (scheduled != null)
+                scheduled.cancel(false);
+        }
+    }
+}
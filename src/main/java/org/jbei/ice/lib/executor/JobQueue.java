@@ -0,0 +1,244 @@
+package org.jbei.ice.lib.executor;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.storage.DAOFactory;
+import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.jbei.ice.storage.hibernate.dao.JobDAO;
+import org.jbei.ice.storage.model.JobModel;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database backed queue for {@link DurableTask}s. Submitted tasks are stored in the job table as part of
+ * the submitting transaction and are run by the {@link IceExecutorService} once they have been leased
+ * by this instance.
+ * <p>
+ * A poller periodically
+ * <ul>
+ * <li>renews the leases for the jobs running on this instance</li>
+ * <li>leases and runs pending jobs, including those retried after a failure, as well as jobs whose leases
+ * have expired (e.g. were running when the instance holding the lease was stopped)</li>
+ * <li>removes old completed and failed jobs</li>
+ * </ul>
+ * Failed jobs are retried with an exponential backoff until they reach their maximum number of attempts.
+ *
+ * @author Hector Plahar
+ */
+public class JobQueue {
+
+    private static final JobQueue INSTANCE = new JobQueue();
+
+    private static final long POLL_INTERVAL_SECONDS = 30;
+    private static final long LEASE_DURATION_MS = TimeUnit.MINUTES.toMillis(2);
+    private static final long RETRY_DELAY_MS = TimeUnit.SECONDS.toMillis(30);
+    private static final long MAX_RETRY_DELAY_MS = TimeUnit.HOURS.toMillis(1);
+    private static final long RETENTION_MS = TimeUnit.DAYS.toMillis(7);
+    private static final int POLL_BATCH_SIZE = 20;
+
+    private final String owner;
+    private final Set<Long> active;
+    private final ScheduledExecutorService poller;
+    private volatile boolean started;
+    private long lastCleanup;
+
+    private JobQueue() {
+        owner = UUID.randomUUID().toString();
+        active = ConcurrentHashMap.newKeySet();
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ice-job-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static JobQueue getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts polling the job table. This also resumes jobs left over from a previous run
+     */
+    public synchronized void start() {
+        if (started)
+            return;
+
+        Logger.info("Starting job queue");
+        started = true;
+        poller.scheduleWithFixedDelay(this::poll, 5, POLL_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stop() {
+        Logger.info("Stopping job queue");
+        started = false;
+        poller.shutdownNow();
+    }
+
+    /**
+     * Adds the task to the job table in the current transaction. If the task has a key and a job with
+     * the same key and parameters is still pending then no new job is created.
+     *
+     * @param task task to persist and run
+     */
+    public void submit(DurableTask task) {
+        if (task == null)
+            return;
+
+        JobDAO dao = DAOFactory.getJobDAO();
+        if (task.getKey() != null) {
+            for (JobModel pending : dao.getPendingJobs(task.getKey())) {
+                if (Objects.equals(pending.getParameters(), task.getParameters())) {
+                    Logger.info("Job with key \"" + task.getKey() + "\" already pending");
+                    return;
+                }
+            }
+        }
+
+        Date now = new Date();
+        JobModel job = new JobModel();
+        job.setType(task.getClass().getName());
+        job.setKey(task.getKey());
+        job.setParameters(task.getParameters());
+        job.setStatus(JobStatus.PENDING);
+        job.setMaxAttempts(task.getMaxAttempts());
+        job.setNextAttempt(now);
+        job.setCreationTime(now);
+        job.setLastModified(now);
+        dao.create(job);
+
+        // run as soon as the job is visible to the poller
+        HibernateUtil.afterCommit(() -> {
+            if (started)
+                poller.execute(this::poll);
+        });
+    }
+
+    protected void poll() {
+        if (!started)
+            return;
+
+        poll(null);
+    }
+
+    /**
+     * Claims and runs the claimable jobs
+     *
+     * @param key if not null, only jobs with this key are claimed (for tests)
+     * @return future that completes once the claimed jobs have run and their outcome has been recorded
+     */
+    CompletableFuture<Void> poll(String key) {
+        List<JobModel> claimed = new ArrayList<>();
+        try {
+            HibernateUtil.beginTransaction();
+            JobDAO dao = DAOFactory.getJobDAO();
+            Date now = new Date();
+            Date leaseExpires = new Date(now.getTime() + LEASE_DURATION_MS);
+
+            dao.renewLeases(new ArrayList<>(active), owner, leaseExpires);
+
+            for (JobModel job : dao.getClaimableJobs(now, POLL_BATCH_SIZE)) {
+                if (active.contains(job.getId()) || (key != null && !key.equals(job.getKey())))
+                    continue;
+
+                if (dao.claim(job.getId(), owner, leaseExpires, now))
+                    claimed.add(job);
+            }
+
+            if (now.getTime() - lastCleanup > TimeUnit.HOURS.toMillis(1)) {
+                int count = dao.deleteFinishedJobs(new Date(now.getTime() - RETENTION_MS));
+                if (count > 0)
+                    Logger.info("Removed " + count + " finished job(s)");
+                lastCleanup = now.getTime();
+            }
+            HibernateUtil.commitTransaction();
+        } catch (Throwable e) {
+            Logger.error("Exception polling job queue", e);
+            HibernateUtil.rollbackTransaction();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<?>[] runs = new CompletableFuture<?>[claimed.size()];
+        for (int i = 0; i < claimed.size(); i += 1) {
+            runs[i] = run(claimed.get(i));
+        }
+        return CompletableFuture.allOf(runs);
+    }
+
+    private CompletableFuture<Void> run(JobModel job) {
+        final long jobId = job.getId();
+        DurableTask task;
+        try {
+            task = createTask(job);
+        } catch (Exception e) {
+            Logger.error("Could not create task for job " + jobId + " of type " + job.getType(), e);
+            finished(jobId, e, true);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Logger.info("Running job " + jobId + " (" + job.getType() + ")");
+        active.add(jobId);
+        return IceExecutorService.getInstance().runTask(task).handle((result, throwable) -> {
+            finished(jobId, throwable, false);
+            return null;
+        });
+    }
+
+    private DurableTask createTask(JobModel job) throws ReflectiveOperationException {
+        Class<? extends DurableTask> clazz = Class.forName(job.getType()).asSubclass(DurableTask.class);
+        if (job.getParameters() == null)
+            return clazz.getConstructor().newInstance();
+        return clazz.getConstructor(String.class).newInstance(job.getParameters());
+    }
+
+    /**
+     * Records the outcome of a job run
+     *
+     * @param jobId     job identifier
+     * @param throwable cause of failure or null if the job ran successfully
+     * @param permanent true if the job should not be retried on failure
+     */
+    private void finished(long jobId, Throwable throwable, boolean permanent) {
+        active.remove(jobId);
+
+        try {
+            HibernateUtil.beginTransaction();
+            JobDAO dao = DAOFactory.getJobDAO();
+            JobModel job = dao.get(jobId);
+            if (job == null || !owner.equals(job.getLeaseOwner())) {
+                Logger.warn("Lease for job " + jobId + " lost before it completed");
+                HibernateUtil.commitTransaction();
+                return;
+            }
+
+            Date now = new Date();
+            job.setLeaseOwner(null);
+            job.setLeaseExpires(null);
+            job.setLastModified(now);
+
+            if (throwable == null) {
+                job.setStatus(JobStatus.COMPLETED);
+            } else {
+                job.setLastError(StringUtils.abbreviate(String.valueOf(throwable.getMessage()), 1024));
+                if (permanent || job.getAttempts() >= job.getMaxAttempts()) {
+                    Logger.error("Job " + jobId + " failed after " + job.getAttempts() + " attempt(s)");
+                    job.setStatus(JobStatus.FAILED);
+                } else {
+                    long delay = Math.min(MAX_RETRY_DELAY_MS, RETRY_DELAY_MS << Math.min(job.getAttempts() - 1, 16));
+                    job.setStatus(JobStatus.PENDING);
+                    job.setNextAttempt(new Date(now.getTime() + delay));
+                    Logger.warn("Job " + jobId + " failed. Retrying in " + (delay / 1000) + "s");
+                }
+            }
+            dao.update(job);
+            HibernateUtil.commitTransaction();
+        } catch (Throwable e) {
+            Logger.error("Exception updating status of job " + jobId, e);
+            HibernateUtil.rollbackTransaction();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.jbei.ice.lib.executor;
+
+/**
+ * Status of a persisted background job
+ *
+ * @author Hector Plahar
+ */
+public enum JobStatus {
+    PENDING,        // waiting to be run (or re-run after a failed attempt)
+    RUNNING,        // leased by an ice instance that is running it
+
+    // terminal states
+    COMPLETED,      // job ran successfully
+    FAILED          // job failed on all attempts
+}
@@ -0,0 +1,95 @@
+package org.jbei.ice.lib.executor;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jbei.ice.lib.account.ExpiredSessionCleanupTask;
+import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.lib.config.ConfigurationCacheRefreshTask;
+import org.jbei.ice.lib.dto.ConfigurationKey;
+import org.jbei.ice.lib.entry.sequence.annotation.AutoAnnotationBlastDbBuildTask;
+import org.jbei.ice.lib.search.OptimizeLuceneIndexTask;
+import org.jbei.ice.lib.search.blast.RebuildBlastIndexTask;
+import org.jbei.ice.lib.utils.TemporaryFileCleanupTask;
+import org.jbei.ice.lib.utils.Utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Periodic maintenance tasks run by the {@link IceScheduler}. The schedule for each is a cron expression
+ * stored in the associated configuration key; an empty value disables the task
+ *
+ * @author Hector Plahar
+ */
+public enum MaintenanceTask {
+
+    FEATURES_DB_REBUILD(ConfigurationKey.FEATURES_DB_REBUILD_SCHEDULE, AutoAnnotationBlastDbBuildTask::new),
+    // BLAST+ databases cannot be compacted in place; the sequence database is periodically rebuilt in full
+    // to drop the data of deleted and changed sequences
+    BLAST_DB_REBUILD(ConfigurationKey.BLAST_DB_REBUILD_SCHEDULE, () -> new RebuildBlastIndexTask(true)),
+    SEARCH_INDEX_OPTIMIZE(ConfigurationKey.SEARCH_INDEX_OPTIMIZE_SCHEDULE, OptimizeLuceneIndexTask::new),
+    TEMPORARY_FILE_CLEANUP(ConfigurationKey.TEMPORARY_FILE_CLEANUP_SCHEDULE, TemporaryFileCleanupTask::new),
+    CACHE_REFRESH(ConfigurationKey.CONFIGURATION_REFRESH_SCHEDULE, ConfigurationCacheRefreshTask::new),
+    SESSION_CLEANUP(ConfigurationKey.SESSION_CLEANUP_SCHEDULE, ExpiredSessionCleanupTask::new);
+
+    private final ConfigurationKey scheduleKey;
+    private final Supplier<? extends Task> supplier;
+
+    MaintenanceTask(ConfigurationKey scheduleKey, Supplier<? extends Task> supplier) {
+        this.scheduleKey = scheduleKey;
+        this.supplier = supplier;
+    }
+
+    public ConfigurationKey getScheduleKey() {
+        return scheduleKey;
+    }
+
+    /**
+     * Schedules (or cancels) this task using the specified cron expression
+     *
+     * @param schedule cron expression. Empty to cancel
+     * @throws IllegalArgumentException if the schedule is not a valid cron expression
+     */
+    public void schedule(String schedule) {
+        IceScheduler scheduler = IceScheduler.getInstance();
+        if (StringUtils.isBlank(schedule)) {
+            scheduler.cancel(name());
+            return;
+        }
+
+        CronExpression expression = new CronExpression(schedule);
+        scheduler.schedule(name(), expression, getJitter(), supplier);
+    }
+
+    /**
+     * Schedules all maintenance tasks using the configured values. Invalid schedules are logged and skipped
+     */
+    public static void scheduleAll() {
+        for (MaintenanceTask task : values()) {
+            try {
+                task.schedule(Utils.getConfigValue(task.scheduleKey));
+            } catch (IllegalArgumentException e) {
+                Logger.error("Invalid schedule for " + task.name() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @param key configuration key
+     * @return maintenance task whose schedule is stored with the specified key or null if none
+     */
+    public static MaintenanceTask forScheduleKey(ConfigurationKey key) {
+        for (MaintenanceTask task : values()) {
+            if (task.scheduleKey == key)
+                return task;
+        }
+        return null;
+    }
+
+    private static long getJitter() {
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(Utils.getConfigValue(ConfigurationKey.MAINTENANCE_JITTER_SECONDS)));
+        } catch (NumberFormatException nfe) {
+            return 0;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.jbei.ice.lib.executor;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Abstract class representing tasks that are run by the ice executor service
  *
@@ -7,10 +9,46 @@ package org.jbei.ice.lib.executor;
  */
 public abstract class Task {
 
-    private TaskStatus status = TaskStatus.NEW;
+    private volatile TaskStatus status = TaskStatus.NEW;
+    private final CompletableFuture<Task> future = new CompletableFuture<>();
 
     public abstract void execute();
 
+    /**
+     * @return category of this task, used to determine the pool it is run in
+     */
+    public TaskCategory getCategory() {
+        return TaskCategory.DEFAULT;
+    }
+
+    /**
+     * @return priority of this task relative to other tasks in the same category.
+     * Tasks with higher values are run first; tasks of equal priority are run in the order submitted
+     */
+    public int getPriority() {
+        return 0;
+    }
+
+    /**
+     * Tasks that perform the same idempotent work (e.g. rebuilding an index) can return the same key.
+     * A task submitted while another with the same key is waiting to be run is merged into the waiting
+     * one, and a task submitted while another with the same key is running is run once, after it completes
+     *
+     * @return key identifying the work done by this task or null (default) if the task should always be run
+     */
+    public String getKey() {
+        return null;
+    }
+
+    /**
+     * Called when a task with the same key as this one is submitted while this one is waiting to be run.
+     * Subclasses can override to combine the parameters of the duplicate with their own
+     *
+     * @param duplicate task that is being merged into this one and will not be run
+     */
+    protected void merge(Task duplicate) {
+    }
+
     void setStatus(TaskStatus status) {
         this.status = status;
     }
@@ -18,4 +56,12 @@ public abstract class Task {
     public TaskStatus getStatus() {
         return this.status;
     }
+
+    /**
+     * @return future that completes with this task when it is run, or exceptionally with the
+     * cause if the run fails
+     */
+    public CompletableFuture<Task> getFuture() {
+        return this.future;
+    }
 }
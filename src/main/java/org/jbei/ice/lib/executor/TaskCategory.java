@@ -0,0 +1,38 @@
+package org.jbei.ice.lib.executor;
+
+/**
+ * Categories of tasks run by the ice executor service. Each category is backed by its own pool
+ * so that long running maintenance work (e.g. index rebuilds) cannot starve user facing tasks.
+ * <p>
+ * The number of threads for a pool can be overridden with the system property
+ * <code>ice.executor.[category].threads</code> e.g. <code>-Dice.executor.search.threads=8</code>
+ *
+ * @author Hector Plahar
+ */
+public enum TaskCategory {
+
+    SEARCH(5, Thread.NORM_PRIORITY),        // user facing tasks such as web of registries search
+    TRANSFER(2, Thread.NORM_PRIORITY),      // contact with and transfers to other registries
+    INDEX(2, Thread.MIN_PRIORITY),          // blast, lucene and feature database rebuilds
+    DEFAULT(2, Thread.MIN_PRIORITY);        // everything else (e.g. bulk deletes)
+
+    private final int defaultPoolSize;
+    private final int threadPriority;
+
+    TaskCategory(int defaultPoolSize, int threadPriority) {
+        this.defaultPoolSize = defaultPoolSize;
+        this.threadPriority = threadPriority;
+    }
+
+    /**
+     * @return number of threads to use for the pool backing this category
+     */
+    public int getPoolSize() {
+        int size = Integer.getInteger("ice.executor." + name().toLowerCase() + ".threads", defaultPoolSize);
+        return size < 1 ? defaultPoolSize : size;
+    }
+
+    public int getThreadPriority() {
+        return threadPriority;
+    }
+}
@@ -0,0 +1,107 @@
+package org.jbei.ice.lib.executor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tracks keyed tasks (see {@link Task#getKey()}) so that at most one task per key is waiting to be
+ * run and at most one is running at any time.
+ * <ul>
+ * <li>A task submitted while another with the same key is waiting is merged into the waiting task</li>
+ * <li>A task submitted while another with the same key is running is held back (marking the running
+ * task as dirty) and released to the executor once the running task finishes</li>
+ * </ul>
+ *
+ * @author Hector Plahar
+ */
+class TaskCoalescer {
+
+    private final Map<String, Slot> slots = new HashMap<>();
+
+    /**
+     * @param task task being submitted
+     * @return true if the task should be queued for execution, false if it was merged with a waiting
+     * task or deferred until a running one completes
+     */
+    synchronized boolean submit(Task task) {
+        String key = task.getKey();
+        if (key == null)
+            return true;
+
+        Slot slot = slots.get(key);
+        if (slot == null) {
+            slot = new Slot();
+            slot.pending = task;
+            slots.put(key, slot);
+            return true;
+        }
+
+        if (slot.pending != null) {
+            merge(slot.pending, task);
+            return false;
+        }
+
+        // running: defer until it completes
+        slot.pending = task;
+        slot.deferred = true;
+        return false;
+    }
+
+    /**
+     * Records that the task has started running
+     */
+    synchronized void started(Task task) {
+        Slot slot = task.getKey() == null ? null : slots.get(task.getKey());
+        if (slot == null || slot.pending != task)
+            return;
+
+        slot.pending = null;
+        slot.running = task;
+    }
+
+    /**
+     * Records that the task has finished running
+     *
+     * @return task with the same key that was submitted while this one was running and should now
+     * be queued, or null if there is none
+     */
+    synchronized Task finished(Task task) {
+        String key = task.getKey();
+        Slot slot = key == null ? null : slots.get(key);
+        if (slot == null || slot.running != task)
+            return null;
+
+        slots.remove(key);
+        return slot.deferred ? slot.pending : null;
+    }
+
+    /**
+     * Removes the task if it is waiting to be run. Used when the executor rejects it
+     */
+    synchronized void discard(Task task) {
+        String key = task.getKey();
+        Slot slot = key == null ? null : slots.get(key);
+        if (slot != null && slot.pending == task && slot.running == null)
+            slots.remove(key);
+    }
+
+    private void merge(Task pending, Task duplicate) {
+        pending.merge(duplicate);
+        duplicate.setStatus(TaskStatus.PENDING);
+        pending.getFuture().whenComplete((result, throwable) -> {
+            if (throwable == null) {
+                duplicate.setStatus(TaskStatus.COMPLETED);
+                duplicate.getFuture().complete(duplicate);
+            } else {
+                duplicate.setStatus(TaskStatus.EXCEPTION);
+                duplicate.getFuture().completeExceptionally(throwable);
+            }
+        });
+    }
+
+    private static class Slot {
+        Task pending;       // waiting to be run (or deferred if running is not null)
+        Task running;
+        boolean deferred;
+    }
+}
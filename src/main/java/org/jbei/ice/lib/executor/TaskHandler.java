@@ -3,31 +3,72 @@ package org.jbei.ice.lib.executor;
 import org.jbei.ice.lib.common.logging.Logger;
 import org.jbei.ice.storage.hibernate.HibernateUtil;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
- * Runnable for running tasks
+ * Runnable for running tasks. Handlers are ordered by task priority (highest first) and then
+ * by submission order so they can be queued in a priority queue
  *
  * @author Hector Plahar
  */
-class TaskHandler implements Runnable {
+class TaskHandler implements Runnable, Comparable<TaskHandler> {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
 
     private final Task task;
+    private final TaskMetrics metrics;
+    private final TaskCoalescer coalescer;
+    private final long sequence;
+    private final long submitTime;
 
-    public TaskHandler(Task task) {
+    public TaskHandler(Task task, TaskMetrics metrics, TaskCoalescer coalescer) {
         this.task = task;
+        this.metrics = metrics;
+        this.coalescer = coalescer;
+        this.sequence = SEQUENCE.getAndIncrement();
+        this.submitTime = System.currentTimeMillis();
     }
 
     @Override
     public void run() {
+        long startTime = System.currentTimeMillis();
+        metrics.taskStarted(startTime - submitTime);
+        if (coalescer != null)
+            coalescer.started(task);
+        boolean success = false;
+        Throwable cause = null;
+
         try {
             this.task.setStatus(TaskStatus.IN_PROGRESS);
             HibernateUtil.beginTransaction();
             task.execute();
             HibernateUtil.commitTransaction();
             this.task.setStatus(TaskStatus.COMPLETED);
+            success = true;
         } catch (Throwable caught) {
             Logger.error(caught);
             HibernateUtil.rollbackTransaction();
             this.task.setStatus(TaskStatus.EXCEPTION);
+            cause = caught;
+        } finally {
+            metrics.taskFinished(System.currentTimeMillis() - startTime, success);
         }
+
+        // run any task with the same key that was submitted while this one was running
+        if (coalescer != null)
+            IceExecutorService.getInstance().runTask(coalescer.finished(task));
+
+        if (success)
+            task.getFuture().complete(task);
+        else
+            task.getFuture().completeExceptionally(cause);
+    }
+
+    @Override
+    public int compareTo(TaskHandler other) {
+        int compare = Integer.compare(other.task.getPriority(), this.task.getPriority());
+        if (compare != 0)
+            return compare;
+        return Long.compare(this.sequence, other.sequence);
     }
 }
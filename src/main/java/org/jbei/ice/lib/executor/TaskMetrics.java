@@ -0,0 +1,78 @@
+package org.jbei.ice.lib.executor;
+
+import org.jbei.ice.lib.dto.TaskStatistics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running counters for a single class of task. Updated by the task handlers without locking
+ *
+ * @author Hector Plahar
+ */
+class TaskMetrics {
+
+    private final String taskName;
+    private final TaskCategory category;
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong running = new AtomicLong();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder totalWaitTime = new LongAdder();
+    private final LongAccumulator maxWaitTime = new LongAccumulator(Long::max, 0);
+    private final LongAdder totalRunTime = new LongAdder();
+    private final LongAccumulator maxRunTime = new LongAccumulator(Long::max, 0);
+
+    TaskMetrics(String taskName, TaskCategory category) {
+        this.taskName = taskName;
+        this.category = category;
+    }
+
+    void taskQueued() {
+        queued.incrementAndGet();
+    }
+
+    void taskStarted(long waitTime) {
+        queued.decrementAndGet();
+        running.incrementAndGet();
+        totalWaitTime.add(waitTime);
+        maxWaitTime.accumulate(waitTime);
+    }
+
+    void taskFinished(long runTime, boolean success) {
+        running.decrementAndGet();
+        totalRunTime.add(runTime);
+        maxRunTime.accumulate(runTime);
+        if (success)
+            completed.increment();
+        else
+            failed.increment();
+    }
+
+    void taskCoalesced() {
+        coalesced.increment();
+    }
+
+    void taskRejected() {
+        queued.decrementAndGet();
+        failed.increment();
+    }
+
+    TaskStatistics toStatistics() {
+        TaskStatistics statistics = new TaskStatistics();
+        statistics.setTaskName(taskName);
+        statistics.setCategory(category.name());
+        statistics.setQueued(queued.get());
+        statistics.setRunning(running.get());
+        statistics.setCompleted(completed.sum());
+        statistics.setFailed(failed.sum());
+        statistics.setCoalesced(coalesced.sum());
+        statistics.setTotalWaitTime(totalWaitTime.sum());
+        statistics.setMaxWaitTime(maxWaitTime.get());
+        statistics.setTotalRunTime(totalRunTime.sum());
+        statistics.setMaxRunTime(maxRunTime.get());
+        return statistics;
+    }
+}
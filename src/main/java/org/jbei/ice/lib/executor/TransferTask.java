@@ -1,5 +1,8 @@
 package org.jbei.ice.lib.executor;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import org.apache.commons.lang3.StringUtils;
 import org.jbei.ice.lib.account.AccountType;
 import org.jbei.ice.lib.common.logging.Logger;
@@ -18,7 +21,7 @@ import java.util.List;
  *
  * @author Hector Plahar
  */
-public class TransferTask extends Task {
+public class TransferTask extends DurableTask {
 
     private final String userId;
     private final long remoteId;
@@ -30,6 +33,27 @@ public class TransferTask extends Task {
         this.entrySelection = entrySelection;
     }
 
+    public TransferTask(String parameters) {
+        JsonObject object = new JsonParser().parse(parameters).getAsJsonObject();
+        this.userId = object.get("userId").getAsString();
+        this.remoteId = object.get("remoteId").getAsLong();
+        this.entrySelection = new Gson().fromJson(object.get("selection"), EntrySelection.class);
+    }
+
+    @Override
+    public String getParameters() {
+        JsonObject object = new JsonObject();
+        object.addProperty("userId", userId);
+        object.addProperty("remoteId", remoteId);
+        object.add("selection", new Gson().toJsonTree(entrySelection));
+        return object.toString();
+    }
+
+    @Override
+    public TaskCategory getCategory() {
+        return TaskCategory.TRANSFER;
+    }
+
     public void execute() {
         RemoteTransfer transfer = new RemoteTransfer();
         Account account = DAOFactory.getAccountDAO().getByEmail(userId);
@@ -24,6 +24,7 @@ import org.jbei.ice.lib.net.RemoteContact;
 import org.jbei.ice.lib.net.RemoteTransfer;
 import org.jbei.ice.storage.DAOFactory;
 import org.jbei.ice.storage.ModelToInfoFactory;
+import org.jbei.ice.storage.hibernate.KeysetPage;
 import org.jbei.ice.storage.hibernate.dao.FolderDAO;
 import org.jbei.ice.storage.hibernate.dao.PermissionDAO;
 import org.jbei.ice.storage.hibernate.dao.RemoteAccessModelDAO;
@@ -279,10 +280,8 @@ public class FolderContents {
 
         // retrieve folder contents
         List<Entry> results = folderDAO.retrieveFolderContents(folderId, pageParameters, visibleOnly);
-        for (Entry entry : results) {
-            PartData info = ModelToInfoFactory.createTableViewData(userId, entry, false);
-            details.getEntries().add(info);
-        }
+        details.getEntries().addAll(ModelToInfoFactory.createTableViewData(userId, results, false));
+        setNextCursor(details, pageParameters, results);
         return details;
     }
 
@@ -329,6 +328,7 @@ public class FolderContents {
         }
         details.setCount(remoteDetails.getCount());
         details.setEntries(remoteDetails.getEntries());
+        details.setNextCursor(remoteDetails.getNextCursor());
         return details;
     }
 
@@ -377,9 +377,18 @@ public class FolderContents {
             info.setCanEdit(canEdit);
             details.getEntries().add(info);
         }
+        setNextCursor(details, pageParameters, results);
         return details;
     }
 
+    // cursor for the page of folder contents that follows the retrieved one
+    private void setNextCursor(FolderDetails details, PageParameters pageParameters, List<Entry> results) {
+        if (results.isEmpty())
+            return;
+        long lastId = results.get(results.size() - 1).getId();
+        details.setNextCursor(KeysetPage.nextCursor(pageParameters, lastId, results.size()));
+    }
+
     /**
      * The permission(s) enabling the share for user
      * is(are) included. If the user is an admin then all the permissions are included, otherwise only those pertaining
@@ -251,8 +251,8 @@ public class FolderController {
                 long folderSize = dao.getFolderSize(folderId, null, true);
                 details.setCount(folderSize);
 
-                dao.delete(folder);
                 permissionDAO.clearPermissions(folder);
+                dao.delete(folder);
                 return details;
 
             default:
@@ -383,7 +383,9 @@ public class FolderController {
 
         folder.setType(FolderType.PUBLIC);
         folder.setModificationTime(new Date());
-        return dao.update(folder).toDataTransferObject();
+        folder = dao.update(folder);
+        DAOFactory.getEntryReadAccessDAO().rebuild(folder);
+        return folder.toDataTransferObject();
     }
 
     /**
@@ -404,6 +406,8 @@ public class FolderController {
         folder.setModificationTime(new Date());
         if (StringUtils.isBlank(folder.getOwnerEmail()))
             folder.setOwnerEmail(userId);
-        return dao.update(folder).toDataTransferObject();
+        folder = dao.update(folder);
+        DAOFactory.getEntryReadAccessDAO().rebuild(folder);
+        return folder.toDataTransferObject();
     }
 }
@@ -1,6 +1,7 @@
 package org.jbei.ice.lib.folder.collection;
 
 import org.jbei.ice.lib.access.PermissionException;
+import org.jbei.ice.lib.dto.common.PageParameters;
 import org.jbei.ice.lib.dto.common.Results;
 import org.jbei.ice.lib.dto.entry.PartData;
 import org.jbei.ice.lib.dto.entry.Visibility;
@@ -10,6 +11,7 @@ import org.jbei.ice.lib.entry.VisibleEntries;
 import org.jbei.ice.lib.shared.ColumnField;
 import org.jbei.ice.storage.DAOFactory;
 import org.jbei.ice.storage.ModelToInfoFactory;
+import org.jbei.ice.storage.hibernate.KeysetPage;
 import org.jbei.ice.storage.hibernate.dao.EntryDAO;
 import org.jbei.ice.storage.model.Entry;
 
@@ -60,49 +62,72 @@ public class CollectionEntries {
      * of such entries that are available
      */
     public Results<PartData> getEntries(ColumnField field, boolean asc, int offset, int limit, String filter) {
+        return this.getEntries(new PageParameters(offset, limit, field, asc, filter));
+    }
+
+    /**
+     * Retrieves parts (paged and sorted by the specified parameter values) based on the type of collection.
+     * The results include a cursor for retrieving the next page, which is more efficient than the offset for
+     * pages deep into the collection
+     *
+     * @param pageParameters paging parameters
+     * @return wrapper around list of parts that conform to the parameters, the maximum number
+     * of such entries that are available and the cursor for the next page
+     */
+    public Results<PartData> getEntries(PageParameters pageParameters) {
+        Results<PartData> results;
         switch (this.type) {
             case PERSONAL:
             default:
-                return this.getPersonalEntries(field, asc, offset, limit, filter);
+                results = this.getPersonalEntries(pageParameters);
+                break;
 
             case AVAILABLE:
-                return this.getAvailableEntries(field, asc, offset, limit, filter);
+                results = this.getAvailableEntries(pageParameters);
+                break;
 
             case SHARED:
-                return this.getSharedEntries(field, asc, offset, limit, filter);
+                results = this.getSharedEntries(pageParameters);
+                break;
 
             case DELETED:
-                return this.getEntriesByVisibility(Visibility.DELETED, field, asc, offset, limit, this.userId, filter);
+                results = this.getEntriesByVisibility(Visibility.DELETED, pageParameters, this.userId);
+                break;
 
             case DRAFTS:
-                return this.getEntriesByVisibility(Visibility.DRAFT, field, asc, offset, limit, this.userId, filter);
+                results = this.getEntriesByVisibility(Visibility.DRAFT, pageParameters, this.userId);
+                break;
 
             case PENDING:
-                return this.getEntriesByVisibility(Visibility.PENDING, field, asc, offset, limit, null, filter);
+                results = this.getEntriesByVisibility(Visibility.PENDING, pageParameters, null);
+                break;
 
             case TRANSFERRED:
-                return this.getEntriesByVisibility(Visibility.TRANSFERRED, field, asc, offset, limit, null, filter);
+                results = this.getEntriesByVisibility(Visibility.TRANSFERRED, pageParameters, null);
+                break;
+        }
+
+        List<PartData> data = results.getData();
+        if (!data.isEmpty()) {
+            long lastId = data.get(data.size() - 1).getId();
+            results.setNextCursor(KeysetPage.nextCursor(pageParameters, lastId, data.size()));
         }
+        return results;
     }
 
     /**
      * Retrieves entries owned by user
      *
-     * @param field  sort field
-     * @param asc    sort order
-     * @param offset paging start
-     * @param limit  maximum number of entries to retrieve
-     * @param filter optional text to filter entries by
+     * @param pageParameters paging parameters
      * @return wrapper around list of parts that conform to the parameters and the maximum number
      * of such entries that are available
      * @throws PermissionException on null user id which is required for owner entries
      */
-    protected Results<PartData> getPersonalEntries(ColumnField field, boolean asc, int offset, int limit,
-                                                   String filter) {
+    protected Results<PartData> getPersonalEntries(PageParameters pageParameters) {
         if (userId == null || userId.isEmpty())
             throw new PermissionException("User id is required to retrieve owner entries");
         OwnerEntries ownerEntries = new OwnerEntries(userId, userId);
-        final List<PartData> entries = ownerEntries.retrieveOwnerEntries(field, asc, offset, limit, filter);
+        final List<PartData> entries = ownerEntries.retrieveOwnerEntries(pageParameters);
         final long count = ownerEntries.getNumberOfOwnerEntries();
         Results<PartData> results = new Results<>();
         results.setResultCount(count);
@@ -113,19 +138,14 @@ public class CollectionEntries {
     /**
      * Retrieves entries available to user. "Availability" is determined by any permissions set on the entries
      *
-     * @param field  sort field
-     * @param asc    sort order
-     * @param offset paging start
-     * @param limit  maximum number of entries to retrieve
-     * @param filter optional text to filter entries by
+     * @param pageParameters paging parameters
      * @return wrapper around list of parts that conform to the parameters and the maximum number
      * of such entries that are available
      */
-    protected Results<PartData> getAvailableEntries(ColumnField field, boolean asc, int offset, int limit,
-                                                    String filter) {
+    protected Results<PartData> getAvailableEntries(PageParameters pageParameters) {
         VisibleEntries visibleEntries = new VisibleEntries(userId);
-        List<PartData> entries = visibleEntries.getEntries(field, asc, offset, limit, filter);
-        long count = visibleEntries.getEntryCount(filter);
+        List<PartData> entries = visibleEntries.getEntries(pageParameters);
+        long count = visibleEntries.getEntryCount(pageParameters.getFilter());
         Results<PartData> results = new Results<>();
         results.setResultCount(count);
         results.setData(entries);
@@ -135,18 +155,14 @@ public class CollectionEntries {
     /**
      * Retrieves entries shared with user.
      *
-     * @param field  sort field
-     * @param asc    sort order ascending if true, descending if false
-     * @param offset paging parameter start
-     * @param limit  maximum number of entries to retrieve
-     * @param filter optional text to filter entries by
+     * @param pageParameters paging parameters
      * @return wrapper around list of parts matching the parameters along with the maximum number of entries
      * available
      */
-    protected Results<PartData> getSharedEntries(ColumnField field, boolean asc, int offset, int limit, String filter) {
+    protected Results<PartData> getSharedEntries(PageParameters pageParameters) {
         SharedEntries sharedEntries = new SharedEntries(this.userId);
-        List<PartData> entries = sharedEntries.getEntries(field, asc, offset, limit, filter);
-        final long count = sharedEntries.getNumberOfEntries(filter);
+        List<PartData> entries = sharedEntries.getEntries(pageParameters);
+        final long count = sharedEntries.getNumberOfEntries(pageParameters.getFilter());
         Results<PartData> results = new Results<>();
         results.setResultCount(count);
         results.setData(entries);
@@ -157,25 +173,18 @@ public class CollectionEntries {
      * Retrieves entries by the specified visibility. {@link Visibility} is used to create
      * collections of entries
      *
-     * @param visibility visibility to retrieve entries by
-     * @param field      sort field
-     * @param asc        sort order
-     * @param offset     paging start
-     * @param limit      maximum number of entries to retrieve
-     * @param user       additional user filter
-     * @param filter     optional text to filter entries by
+     * @param visibility     visibility to retrieve entries by
+     * @param pageParameters paging parameters
+     * @param user           additional user filter
      * @return wrapper around list of parts that conform to the parameters and the maximum number
      * of such entries that are available
      */
-    protected Results<PartData> getEntriesByVisibility(Visibility visibility, ColumnField field, boolean asc,
-                                                       int offset, int limit, String user, String filter) {
-        List<Entry> entries = entryDAO.getByVisibility(user, visibility, field, asc, offset, limit, filter);
+    protected Results<PartData> getEntriesByVisibility(Visibility visibility, PageParameters pageParameters,
+                                                       String user) {
+        List<Entry> entries = entryDAO.getByVisibility(user, visibility, pageParameters);
         Results<PartData> results = new Results<>();
-        for (Entry entry : entries) {
-            PartData info = ModelToInfoFactory.createTableViewData(userId, entry, false);
-            results.getData().add(info);
-        }
-        results.setResultCount(entryDAO.getByVisibilityCount(user, visibility, filter));
+        results.getData().addAll(ModelToInfoFactory.createTableViewData(userId, entries, false));
+        results.setResultCount(entryDAO.getByVisibilityCount(user, visibility, pageParameters.getFilter()));
         return results;
     }
 }
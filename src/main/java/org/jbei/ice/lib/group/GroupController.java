@@ -1,5 +1,6 @@
 package org.jbei.ice.lib.group;
 
+import org.jbei.ice.lib.access.AuthorizationContext;
 import org.jbei.ice.lib.access.PermissionException;
 import org.jbei.ice.lib.account.AccountController;
 import org.jbei.ice.lib.account.AccountTransfer;
@@ -55,7 +56,7 @@ public class GroupController {
         Account account = accountController.getByEmail(userId);
         Set<String> uuids = new HashSet<>();
         if (account != null) {
-            uuids.addAll(dao.getMemberGroupUUIDs(account));
+            uuids.addAll(GroupHierarchy.getUUIDs(GroupHierarchy.getClosure(dao.getMemberGroupIds(account))));
         }
         uuids.add(PUBLIC_GROUP_UUID);
         return uuids;
@@ -162,6 +163,10 @@ public class GroupController {
             return groups;
         }
 
+        AuthorizationContext context = AuthorizationContext.current();
+        if (context != null)
+            return context.getGroups(account, () -> dao.getByIdList(getAllAccountGroups(account)));
+
         Set<Long> groupIds = getAllAccountGroups(account);
         return dao.getByIdList(groupIds);
     }
@@ -173,11 +178,11 @@ public class GroupController {
      * @return Set of Group ids.
      */
     protected Set<Long> getAllAccountGroups(Account account) {
-        HashSet<Long> accountGroups = new HashSet<>();
-
+        Set<Long> groupIds = new HashSet<>();
         for (Group group : account.getGroups()) {
-            accountGroups = getParentGroups(group, accountGroups);
+            groupIds.add(group.getId());
         }
+        Set<Long> accountGroups = GroupHierarchy.getClosure(groupIds);
 
         // Everyone belongs to the everyone group
         Group everybodyGroup = createOrRetrievePublicGroup();
@@ -193,25 +198,4 @@ public class GroupController {
         }
         return groups;
     }
-
-    /**
-     * Retrieve all parent {@link Group}s of a given group.
-     *
-     * @param group    Group to query on.
-     * @param groupIds optional set of group ids. Can be empty.
-     * @return Set of Parent group ids.
-     */
-    protected HashSet<Long> getParentGroups(Group group, HashSet<Long> groupIds) {
-        if (groupIds.contains(group.getId())) {
-            return groupIds;
-        } else {
-            groupIds.add(group.getId());
-            Group parentGroup = group.getParent();
-            if (parentGroup != null) {
-                getParentGroups(parentGroup, groupIds);
-            }
-        }
-
-        return groupIds;
-    }
 }
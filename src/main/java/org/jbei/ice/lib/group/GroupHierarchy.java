@@ -0,0 +1,107 @@
+package org.jbei.ice.lib.group;
+
+import org.jbei.ice.storage.DAOFactory;
+import org.jbei.ice.storage.hibernate.HibernateUtil;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In memory snapshot of the group hierarchy (the parent of each group) used to resolve the transitive closure
+ * of groups, i.e. a set of groups together with all their parent groups, without walking up the parents
+ * one query per level.
+ * <p>
+ * The snapshot is versioned. Any change to groups (see {@link org.jbei.ice.storage.hibernate.dao.GroupDAO})
+ * bumps the version and the next lookup reloads the hierarchy using a single query. Account membership is not
+ * part of the snapshot and is read from the account
+ *
+ * @author Hector Plahar
+ */
+public class GroupHierarchy {
+
+    private static final AtomicLong VERSION = new AtomicLong();
+    private static volatile Snapshot snapshot;
+
+    private GroupHierarchy() {
+    }
+
+    /**
+     * Discards the current snapshot, immediately and again once the current transaction completes (whether
+     * it commits or rolls back) so that a snapshot loaded while the change was pending is not retained
+     */
+    public static void invalidate() {
+        VERSION.incrementAndGet();
+        HibernateUtil.afterCommit(VERSION::incrementAndGet);
+        HibernateUtil.afterRollback(VERSION::incrementAndGet);
+    }
+
+    /**
+     * @param groupIds unique identifiers for groups
+     * @return identifiers for the specified groups and all their (transitive) parent groups
+     */
+    public static Set<Long> getClosure(Collection<Long> groupIds) {
+        Snapshot current = getSnapshot();
+        Set<Long> closure = new HashSet<>();
+        for (Long groupId : groupIds) {
+            closure.addAll(current.getAncestors(groupId));
+        }
+        return closure;
+    }
+
+    /**
+     * @param groupIds unique identifiers for groups
+     * @return universally unique identifiers for the specified groups. Unknown groups are ignored
+     */
+    public static Set<String> getUUIDs(Collection<Long> groupIds) {
+        Snapshot current = getSnapshot();
+        Set<String> uuids = new HashSet<>();
+        for (Long groupId : groupIds) {
+            String uuid = current.uuids.get(groupId);
+            if (uuid != null)
+                uuids.add(uuid);
+        }
+        return uuids;
+    }
+
+    private static Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        long version = VERSION.get();
+        if (current != null && current.version == version)
+            return current;
+
+        // tagged with the version read before loading; a change during the load causes another reload
+        current = new Snapshot(version, DAOFactory.getGroupDAO().getHierarchy());
+        snapshot = current;
+        return current;
+    }
+
+    private static class Snapshot {
+        private final long version;
+        private final Map<Long, Long> parents = new HashMap<>();
+        private final Map<Long, String> uuids = new HashMap<>();
+        private final Map<Long, Set<Long>> ancestors = new ConcurrentHashMap<>();
+
+        Snapshot(long version, List<Object[]> rows) {
+            this.version = version;
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                if (row[1] != null)
+                    parents.put(id, (Long) row[1]);
+                uuids.put(id, (String) row[2]);
+            }
+        }
+
+        // the group and all its parents; guards against cycles
+        Set<Long> getAncestors(Long groupId) {
+            return ancestors.computeIfAbsent(groupId, id -> {
+                Set<Long> result = new HashSet<>();
+                Long current = id;
+                while (current != null && result.add(current)) {
+                    current = parents.get(current);
+                }
+                return Collections.unmodifiableSet(result);
+            });
+        }
+    }
+}
@@ -126,5 +126,6 @@ public class Manuscripts {
         folder.setType(type);
         folder.setModificationTime(new Date());
         DAOFactory.getFolderDAO().update(folder);
+        DAOFactory.getEntryReadAccessDAO().rebuild(folder);
     }
 }
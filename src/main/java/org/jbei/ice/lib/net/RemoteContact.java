@@ -142,6 +142,8 @@ public class RemoteContact {
             queryParams.put("asc", Boolean.toString(pageParameters.isAscending()));
             queryParams.put("offset", pageParameters.getOffset());
             queryParams.put("limit", pageParameters.getLimit());
+            if (pageParameters.getCursor() != null)
+                queryParams.put("cursor", pageParameters.getCursor());
             return restClient.getWor(url, "rest/folders/" + folderId + "/entries", FolderDetails.class, queryParams, worToken);
         } catch (Exception e) {
             Logger.error(e);
@@ -12,7 +12,7 @@ import org.jbei.ice.lib.dto.folder.FolderDetails;
 import org.jbei.ice.lib.dto.web.RemotePartnerStatus;
 import org.jbei.ice.lib.dto.web.WebEntries;
 import org.jbei.ice.lib.entry.EntrySelection;
-import org.jbei.ice.lib.executor.IceExecutorService;
+import org.jbei.ice.lib.executor.JobQueue;
 import org.jbei.ice.lib.executor.TransferTask;
 import org.jbei.ice.lib.utils.Utils;
 import org.jbei.ice.storage.DAOFactory;
@@ -159,7 +159,7 @@ public class RemoteEntries {
         if (!accountController.isAdministrator(userId))
             throw new PermissionException("Administrative privileges required to transfer entries");
         TransferTask task = new TransferTask(userId, remoteId, selection);
-        IceExecutorService.getInstance().runTask(task);
+        JobQueue.getInstance().submit(task);
     }
 
     public PartData getPublicEntry(String userId, long remoteId, long entryId) {
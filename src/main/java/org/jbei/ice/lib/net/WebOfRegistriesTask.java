@@ -6,6 +6,7 @@ import org.jbei.ice.lib.common.logging.Logger;
 import org.jbei.ice.lib.dto.ConfigurationKey;
 import org.jbei.ice.lib.dto.web.RegistryPartner;
 import org.jbei.ice.lib.executor.Task;
+import org.jbei.ice.lib.executor.TaskCategory;
 import org.jbei.ice.lib.utils.Utils;
 import org.jbei.ice.storage.DAOFactory;
 import org.jbei.ice.storage.model.RemotePartner;
@@ -32,6 +33,11 @@ public class WebOfRegistriesTask extends Task {
         this.remoteContact = new RemoteContact();
     }
 
+    @Override
+    public TaskCategory getCategory() {
+        return TaskCategory.TRANSFER;
+    }
+
     @Override
     public void execute() {
         if (!UrlValidator.getInstance().isValid("https://" + this.myUrl)) {
@@ -5,6 +5,7 @@ import org.apache.commons.validator.routines.UrlValidator;
 import org.jbei.ice.lib.access.AccessTokens;
 import org.jbei.ice.lib.access.PermissionException;
 import org.jbei.ice.lib.access.TokenVerification;
+import org.jbei.ice.lib.access.VerifiedTokenCache;
 import org.jbei.ice.lib.account.AccountController;
 import org.jbei.ice.lib.account.TokenHash;
 import org.jbei.ice.lib.common.logging.Logger;
@@ -224,6 +225,7 @@ public class WebPartners {
             return false;
 
         dao.delete(partner);
+        VerifiedTokenCache.getInstance().invalidate(TokenVerification.partnerIdentifier(partner.getUrl()));
         // todo : contact deleted partner since they cannot contact anymore?
         return true;
     }
@@ -245,6 +247,7 @@ public class WebPartners {
         }
 
         dao.delete(requester);
+        VerifiedTokenCache.getInstance().invalidate(TokenVerification.partnerIdentifier(requester.getUrl()));
         return true;
     }
 
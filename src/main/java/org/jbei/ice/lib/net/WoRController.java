@@ -1,5 +1,7 @@
 package org.jbei.ice.lib.net;
 
+import org.jbei.ice.lib.access.TokenVerification;
+import org.jbei.ice.lib.access.VerifiedTokenCache;
 import org.jbei.ice.lib.account.AccountController;
 import org.jbei.ice.lib.common.logging.Logger;
 import org.jbei.ice.lib.config.ConfigurationController;
@@ -71,6 +73,7 @@ public class WoRController {
             return true;
 
         dao.delete(partner);
+        VerifiedTokenCache.getInstance().invalidate(TokenVerification.partnerIdentifier(partner.getUrl()));
         return true;
     }
 
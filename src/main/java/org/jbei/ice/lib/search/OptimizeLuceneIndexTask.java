@@ -0,0 +1,42 @@
+package org.jbei.ice.lib.search;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.search.FullTextSession;
+import org.hibernate.search.Search;
+import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.lib.executor.Task;
+import org.jbei.ice.lib.executor.TaskCategory;
+import org.jbei.ice.storage.hibernate.HibernateUtil;
+
+/**
+ * Task to optimize (merge the segments of) the lucene indexes
+ *
+ * @author Hector Plahar
+ */
+public class OptimizeLuceneIndexTask extends Task {
+
+    @Override
+    public TaskCategory getCategory() {
+        return TaskCategory.INDEX;
+    }
+
+    @Override
+    public String getKey() {
+        return "optimize-lucene-index";
+    }
+
+    @Override
+    public void execute() {
+        Logger.info("Optimizing lucene index");
+        Session session = HibernateUtil.newSession();
+        try {
+            FullTextSession fullTextSession = Search.getFullTextSession(session);
+            fullTextSession.getSearchFactory().optimize();
+        } catch (HibernateException he) {
+            Logger.error(he);
+        } finally {
+            session.close();
+        }
+    }
+}
@@ -5,7 +5,8 @@ import org.hibernate.Session;
 import org.hibernate.search.FullTextSession;
 import org.hibernate.search.Search;
 import org.jbei.ice.lib.common.logging.Logger;
-import org.jbei.ice.lib.executor.Task;
+import org.jbei.ice.lib.executor.DurableTask;
+import org.jbei.ice.lib.executor.TaskCategory;
 import org.jbei.ice.storage.hibernate.HibernateUtil;
 
 /**
@@ -13,21 +14,37 @@ import org.jbei.ice.storage.hibernate.HibernateUtil;
  *
  * @author Hector Plahar
  */
-public class RebuildLuceneIndexTask extends Task {
+public class RebuildLuceneIndexTask extends DurableTask {
 
     @Override
+    public TaskCategory getCategory() {
+        return TaskCategory.INDEX;
+    }
+
+    @Override
+    public String getKey() {
+        return "rebuild-lucene-index";
+    }
+
+    /**
+     * @throws IllegalStateException if the rebuild is interrupted (e.g. on shutdown), so that it is retried
+     */
+    @Override
     public void execute() {
         Logger.info("Rebuilding lucene index in background");
+        Session session = HibernateUtil.newSession();
         try {
-            Session session = HibernateUtil.newSession();
             FullTextSession fullTextSession = Search.getFullTextSession(session);
-            fullTextSession.createIndexer().idFetchSize(20);
-            fullTextSession.createIndexer().startAndWait();
+            fullTextSession.createIndexer().idFetchSize(20).startAndWait();
         } catch (HibernateException he) {
             Logger.error(he);
+            throw he;
         } catch (InterruptedException e) {
-            Thread.interrupted();
+            Thread.currentThread().interrupt();
             Logger.warn("Indexing incomplete");
+            throw new IllegalStateException("Lucene index rebuild interrupted", e);
+        } finally {
+            session.close();
         }
     }
 }
@@ -5,7 +5,7 @@ import org.jbei.ice.lib.access.PermissionException;
 import org.jbei.ice.lib.account.AccountController;
 import org.jbei.ice.lib.common.logging.Logger;
 import org.jbei.ice.lib.dto.search.*;
-import org.jbei.ice.lib.executor.IceExecutorService;
+import org.jbei.ice.lib.executor.JobQueue;
 import org.jbei.ice.lib.search.blast.BlastException;
 import org.jbei.ice.lib.search.blast.BlastPlus;
 import org.jbei.ice.storage.hibernate.search.HibernateSearch;
@@ -84,7 +84,7 @@ public class SearchController {
         Logger.info(userId + ": rebuilding search index " + type);
         switch (type) {
             case LUCENE:
-                IceExecutorService.getInstance().runTask(new RebuildLuceneIndexTask());
+                JobQueue.getInstance().submit(new RebuildLuceneIndexTask());
                 break;
 
             case BLAST:
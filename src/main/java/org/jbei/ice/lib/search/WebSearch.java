@@ -8,16 +8,16 @@ import org.jbei.ice.lib.dto.web.RegistryPartner;
 import org.jbei.ice.lib.dto.web.RemotePartnerStatus;
 import org.jbei.ice.lib.executor.IceExecutorService;
 import org.jbei.ice.lib.executor.Task;
-import org.jbei.ice.lib.executor.TaskStatus;
+import org.jbei.ice.lib.executor.TaskCategory;
 import org.jbei.ice.services.rest.IceRestClient;
 import org.jbei.ice.storage.DAOFactory;
 import org.jbei.ice.storage.hibernate.dao.RemotePartnerDAO;
 import org.jbei.ice.storage.model.RemotePartner;
 
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CompletionException;
 
 /**
  * Search for other ICE instances
@@ -102,12 +102,12 @@ public class WebSearch {
             searchTasks.add(runSearchThread(partner, query, searchResults, partnerCounts));
         }
 
-        while (!searchTasks.isEmpty()) {
-            Iterator<Task> iterator = searchTasks.iterator();
-            while (iterator.hasNext()) {
-                TaskStatus status = iterator.next().getStatus();
-                if (status == TaskStatus.COMPLETED || status == TaskStatus.EXCEPTION)
-                    iterator.remove();
+        // wait for all partners to respond (or fail)
+        for (Task task : searchTasks) {
+            try {
+                task.getFuture().join();
+            } catch (CompletionException ce) {
+                Logger.warn("Search task failed: " + ce.getMessage());
             }
         }
 
@@ -140,6 +140,11 @@ public class WebSearch {
             this.counts = counts;
         }
 
+        @Override
+        public TaskCategory getCategory() {
+            return TaskCategory.SEARCH;
+        }
+
         @Override
         public void execute() {
             try {
@@ -18,7 +18,7 @@ import org.jbei.ice.lib.dto.entry.PartData;
 import org.jbei.ice.lib.dto.search.BlastProgram;
 import org.jbei.ice.lib.dto.search.BlastQuery;
 import org.jbei.ice.lib.dto.search.SearchResult;
-import org.jbei.ice.lib.executor.IceExecutorService;
+import org.jbei.ice.lib.executor.JobQueue;
 import org.jbei.ice.lib.parsers.bl2seq.Bl2SeqResult;
 import org.jbei.ice.lib.utils.SequenceUtils;
 import org.jbei.ice.lib.utils.Utils;
@@ -52,7 +52,7 @@ public class BlastPlus {
     private static final String BLAST_DB_NAME = "ice";
     private static final String DELIMITER = ",";
     private static final String LOCK_FILE_NAME = "write.lock";
-    private static final String AUTO_ANNOTATION_FOLDER_NAME = "auto-annotation";
+    public static final String AUTO_ANNOTATION_FOLDER_NAME = "auto-annotation";
 
     /**
      * Runs a blast query in the specified database folder
@@ -286,9 +286,23 @@ public class BlastPlus {
      *
      * @return true is a blast database is found, false otherwise
      */
-    private static boolean blastDatabaseExists() {
+    public static boolean blastDatabaseExists() {
+        return databaseExists(BLAST_DB_FOLDER);
+    }
+
+    /**
+     * Checks if a features database has been built in the specified folder
+     *
+     * @param featureFolder name of folder (in the data directory) containing the features database
+     * @return true if a features blast database is found, false otherwise
+     */
+    public static boolean featuresBlastDatabaseExists(String featureFolder) {
+        return databaseExists(featureFolder);
+    }
+
+    private static boolean databaseExists(String folder) {
         String dataDir = Utils.getConfigValue(ConfigurationKey.DATA_DIRECTORY);
-        Path path = FileSystems.getDefault().getPath(dataDir, BLAST_DB_FOLDER, BLAST_DB_NAME + ".nsq");
+        Path path = FileSystems.getDefault().getPath(dataDir, folder, BLAST_DB_NAME + ".nsq");
         return Files.exists(path, LinkOption.NOFOLLOW_LINKS);
     }
 
@@ -484,7 +498,7 @@ public class BlastPlus {
      */
     public static void scheduleBlastIndexRebuildTask(boolean force) {
         RebuildBlastIndexTask task = new RebuildBlastIndexTask(force);
-        IceExecutorService.getInstance().runTask(task);
+        JobQueue.getInstance().submit(task);
     }
 
     /**
@@ -1,21 +1,51 @@
 package org.jbei.ice.lib.search.blast;
 
 import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.lib.executor.DurableTask;
 import org.jbei.ice.lib.executor.Task;
+import org.jbei.ice.lib.executor.TaskCategory;
 
 /**
  * Task to rebuild the blast index
  *
  * @author Hector Plahar
  */
-public class RebuildBlastIndexTask extends Task {
+public class RebuildBlastIndexTask extends DurableTask {
 
-    private final boolean force;
+    private boolean force;
 
     public RebuildBlastIndexTask(boolean force) {
         this.force = force;
     }
 
+    public RebuildBlastIndexTask(String parameters) {
+        this(Boolean.parseBoolean(parameters));
+    }
+
+    @Override
+    public String getParameters() {
+        return Boolean.toString(force);
+    }
+
+    @Override
+    public TaskCategory getCategory() {
+        return TaskCategory.INDEX;
+    }
+
+    @Override
+    public String getKey() {
+        return "rebuild-blast-index";
+    }
+
+    /**
+     * A forced rebuild is performed if any of the merged requests was forced
+     */
+    @Override
+    protected void merge(Task duplicate) {
+        if (duplicate instanceof RebuildBlastIndexTask && ((RebuildBlastIndexTask) duplicate).force)
+            this.force = true;
+    }
+
     @Override
     public void execute() {
         Logger.info("Running blast rebuild task");
@@ -23,6 +53,7 @@ public class RebuildBlastIndexTask extends Task {
             BlastPlus.rebuildDatabase(force);
         } catch (BlastException e) {
             Logger.error(e);
+            throw new IllegalStateException("Blast index rebuild failed", e);
         }
     }
 }
@@ -0,0 +1,371 @@
+package org.jbei.ice.lib.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Nucleotide sequence stored with 2 bits per base (<code>a</code>, <code>c</code>, <code>g</code> and
+ * <code>t</code>; four bases per byte, first base in the high order bits) instead of a character per base. Any
+ * other symbol (IUPAC ambiguity codes, gaps, upper case bases etc) is kept in a sparse list of runs of the same
+ * symbol, so the representation is lossless for any text and about a quarter of the size of the (single byte
+ * encoded) text for sequences that are mostly <code>acgt</code>.
+ * <p>
+ * Sequences are immutable. They can be built from text without holding it all in memory ({@link #read(Reader)})
+ * and written out without materializing a <code>String</code> ({@link #write(Writer)}). {@link #toBytes()} and
+ * {@link #fromBytes(byte[])} convert to and from the stored form, which is
+ * <pre>
+ * version (1 byte) | length (int) | run count (int) | runs: start (int), length (int), symbol (char) | bases
+ * </pre>
+ *
+ * @author Hector Plahar
+ */
+public final class PackedSequence implements CharSequence {
+
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 9;
+    private static final int RUN_SIZE = 10;
+    private static final int CHUNK_SIZE = 8192;
+    private static final char[] BASES = {'a', 'c', 'g', 't'};
+
+    private final int length;
+    private final byte[] bases;
+    private final int offset;           // of the bases in the array
+    private final int[] runStarts;      // ascending
+    private final int[] runLengths;
+    private final char[] runSymbols;
+
+    private PackedSequence(int length, byte[] bases, int offset, int[] runStarts, int[] runLengths,
+                           char[] runSymbols) {
+        this.length = length;
+        this.bases = bases;
+        this.offset = offset;
+        this.runStarts = runStarts;
+        this.runLengths = runLengths;
+        this.runSymbols = runSymbols;
+    }
+
+    /**
+     * @param sequence sequence text
+     * @return packed form of the text
+     */
+    public static PackedSequence pack(CharSequence sequence) {
+        Builder builder = new Builder(sequence.length());
+        for (int i = 0; i < sequence.length(); i += 1) {
+            builder.append(sequence.charAt(i));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Packs text as it is read. Only the packed form is held in memory
+     *
+     * @param reader source of the sequence text. Read to the end but not closed
+     * @return packed form of the text
+     * @throws IOException on exception reading the text
+     */
+    public static PackedSequence read(Reader reader) throws IOException {
+        Builder builder = new Builder(CHUNK_SIZE);
+        char[] buffer = new char[CHUNK_SIZE];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i += 1) {
+                builder.append(buffer[i]);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Wraps the stored form of a sequence. The array is not copied and must not be modified afterwards
+     *
+     * @param bytes stored form, as returned by {@link #toBytes()}
+     * @return sequence
+     * @throws IllegalArgumentException if the bytes are not a packed sequence
+     */
+    public static PackedSequence fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length < HEADER_SIZE || bytes[0] != VERSION)
+            throw new IllegalArgumentException("Not a packed sequence");
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.get();
+        int length = buffer.getInt();
+        int runCount = buffer.getInt();
+        if (length < 0 || runCount < 0 || (long) HEADER_SIZE + (long) runCount * RUN_SIZE + packedSize(length)
+                != bytes.length)
+            throw new IllegalArgumentException("Invalid packed sequence");
+
+        int[] runStarts = new int[runCount];
+        int[] runLengths = new int[runCount];
+        char[] runSymbols = new char[runCount];
+        for (int i = 0; i < runCount; i += 1) {
+            runStarts[i] = buffer.getInt();
+            runLengths[i] = buffer.getInt();
+            runSymbols[i] = buffer.getChar();
+        }
+        return new PackedSequence(length, bytes, buffer.position(), runStarts, runLengths, runSymbols);
+    }
+
+    /**
+     * @return the stored form of the sequence
+     */
+    public byte[] toBytes() {
+        int packedSize = packedSize(length);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + runStarts.length * RUN_SIZE + packedSize);
+        buffer.put(VERSION);
+        buffer.putInt(length);
+        buffer.putInt(runStarts.length);
+        for (int i = 0; i < runStarts.length; i += 1) {
+            buffer.putInt(runStarts[i]);
+            buffer.putInt(runLengths[i]);
+            buffer.putChar(runSymbols[i]);
+        }
+        buffer.put(bases, offset, packedSize);
+        return buffer.array();
+    }
+
+    /**
+     * @return number of runs of symbols other than <code>acgt</code>
+     */
+    public int getExceptionCount() {
+        return runStarts.length;
+    }
+
+    /**
+     * @return symbol of each run of symbols other than <code>acgt</code>, in order
+     */
+    public char[] getExceptionSymbols() {
+        return runSymbols.clone();
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length)
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+
+        int run = runAtOrBefore(index);
+        if (run >= 0 && index < runStarts[run] + runLengths[run])
+            return runSymbols[run];
+        return base(index);
+    }
+
+    @Override
+    public String subSequence(int start, int end) {
+        char[] chars = new char[end - start];
+        getChars(start, end, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * Copies symbols of the sequence into an array
+     *
+     * @param start    index of the first symbol to copy
+     * @param end      index after the last symbol to copy
+     * @param dst      destination array
+     * @param dstBegin start offset in the destination array
+     */
+    public void getChars(int start, int end, char[] dst, int dstBegin) {
+        if (start < 0 || end > length || start > end)
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+
+        for (int i = start; i < end; i += 1) {
+            dst[dstBegin + i - start] = base(i);
+        }
+
+        // overlay runs that overlap the range
+        int run = Math.max(runAtOrBefore(start), 0);
+        for (; run < runStarts.length && runStarts[run] < end; run += 1) {
+            int from = Math.max(runStarts[run], start);
+            int to = Math.min(runStarts[run] + runLengths[run], end);
+            for (int i = from; i < to; i += 1) {
+                dst[dstBegin + i - start] = runSymbols[run];
+            }
+        }
+    }
+
+    /**
+     * Writes the sequence text in chunks
+     *
+     * @param writer destination. Not flushed or closed
+     * @throws IOException on exception writing
+     */
+    public void write(Writer writer) throws IOException {
+        char[] buffer = new char[Math.min(length, CHUNK_SIZE)];
+        for (int start = 0; start < length; start += buffer.length) {
+            int end = Math.min(length, start + buffer.length);
+            getChars(start, end, buffer, 0);
+            writer.write(buffer, 0, end - start);
+        }
+    }
+
+    /**
+     * Reverse complement of this sequence. IUPAC ambiguity codes are complemented, gaps are kept and
+     * the result is lower case
+     *
+     * @return reverse complement
+     * @throws IllegalArgumentException if the sequence contains a symbol that is not a nucleotide, ambiguity code
+     *                                  or gap
+     */
+    public PackedSequence reverseComplement() {
+        Builder builder = new Builder(length);
+        char[] buffer = new char[Math.min(length, CHUNK_SIZE)];
+        for (int end = length; end > 0; end -= buffer.length) {
+            int start = Math.max(0, end - buffer.length);
+            getChars(start, end, buffer, 0);
+            for (int i = end - start - 1; i >= 0; i -= 1) {
+                builder.append(complement(buffer[i]));
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(0, length);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof PackedSequence))
+            return false;
+        PackedSequence other = (PackedSequence) o;
+        return length == other.length && Arrays.equals(toBytes(), other.toBytes());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toBytes());
+    }
+
+    private char base(int index) {
+        int shift = 6 - 2 * (index & 3);
+        return BASES[(bases[offset + (index >> 2)] >> shift) & 3];
+    }
+
+    // index of the last run that starts at or before the index; -1 if there is none
+    private int runAtOrBefore(int index) {
+        int found = Arrays.binarySearch(runStarts, index);
+        return found >= 0 ? found : -found - 2;
+    }
+
+    private static int packedSize(int length) {
+        return (length + 3) / 4;
+    }
+
+    private static char complement(char symbol) {
+        switch (Character.toLowerCase(symbol)) {
+            case 'a':
+                return 't';
+            case 'c':
+                return 'g';
+            case 'g':
+                return 'c';
+            case 't':
+                return 'a';
+            case 'r':
+                return 'y';
+            case 'y':
+                return 'r';
+            case 'k':
+                return 'm';
+            case 'm':
+                return 'k';
+            case 'b':
+                return 'v';
+            case 'v':
+                return 'b';
+            case 'd':
+                return 'h';
+            case 'h':
+                return 'd';
+            case 's':
+            case 'w':
+            case 'n':
+                return Character.toLowerCase(symbol);
+            case 'x':
+                return 'n';
+            case '-':
+            case '.':
+            case ' ':
+                return '-';
+            default:
+                throw new IllegalArgumentException("Invalid nucleotide symbol '" + symbol + "'");
+        }
+    }
+
+    /**
+     * Packs symbols as they are appended
+     */
+    private static class Builder {
+        private byte[] bases;
+        private int length;
+        private int[] runStarts = new int[16];
+        private int[] runLengths = new int[16];
+        private char[] runSymbols = new char[16];
+        private int runCount;
+
+        Builder(int capacity) {
+            bases = new byte[Math.max(packedSize(capacity), 16)];
+        }
+
+        void append(char symbol) {
+            if (packedSize(length + 1) > bases.length)
+                bases = Arrays.copyOf(bases, bases.length * 2);
+
+            int code;
+            switch (symbol) {
+                case 'a':
+                    code = 0;
+                    break;
+                case 'c':
+                    code = 1;
+                    break;
+                case 'g':
+                    code = 2;
+                    break;
+                case 't':
+                    code = 3;
+                    break;
+                default:
+                    code = 0;
+                    addToRun(symbol);
+            }
+
+            bases[length >> 2] |= code << (6 - 2 * (length & 3));
+            length += 1;
+        }
+
+        private void addToRun(char symbol) {
+            int last = runCount - 1;
+            if (last >= 0 && runSymbols[last] == symbol && runStarts[last] + runLengths[last] == length) {
+                runLengths[last] += 1;
+                return;
+            }
+
+            if (runCount == runStarts.length) {
+                runStarts = Arrays.copyOf(runStarts, runCount * 2);
+                runLengths = Arrays.copyOf(runLengths, runCount * 2);
+                runSymbols = Arrays.copyOf(runSymbols, runCount * 2);
+            }
+            runStarts[runCount] = length;
+            runLengths[runCount] = 1;
+            runSymbols[runCount] = symbol;
+            runCount += 1;
+        }
+
+        PackedSequence build() {
+            return new PackedSequence(length, Arrays.copyOf(bases, packedSize(length)), 0,
+                    Arrays.copyOf(runStarts, runCount), Arrays.copyOf(runLengths, runCount),
+                    Arrays.copyOf(runSymbols, runCount));
+        }
+    }
+}
@@ -23,6 +23,34 @@ public class SequenceUtils {
         return Utils.encryptSHA(sequence.trim().toLowerCase());
     }
 
+    /**
+     * Calculate the fraction of G and C bases in the given sequence.
+     * <p/>
+     * Normalize by trimming. Case insensitive; symbols other than G and C count as other bases. Works on
+     * {@link PackedSequence}s without unpacking them.
+     *
+     * @param sequence DNA sequence
+     * @return fraction (between 0 and 1) of bases that are either G or C; 0 for an empty sequence
+     */
+    public static double calculateGCContent(CharSequence sequence) {
+        int start = 0;
+        int end = sequence.length();
+        while (start < end && sequence.charAt(start) <= ' ')
+            start += 1;
+        while (end > start && sequence.charAt(end - 1) <= ' ')
+            end -= 1;
+        if (start == end)
+            return 0;
+
+        int count = 0;
+        for (int i = start; i < end; i += 1) {
+            char c = sequence.charAt(i);
+            if (c == 'g' || c == 'c' || c == 'G' || c == 'C')
+                count += 1;
+        }
+        return (double) count / (end - start);
+    }
+
     /**
      * Calculate the SHA-1 sequence hash of the reverse complement of the given sequence.
      * <p/>
@@ -57,6 +85,21 @@ public class SequenceUtils {
         return symL.seqString();
     }
 
+    /**
+     * Calculate the reverse complement of the given packed DNA sequence without unpacking it.
+     *
+     * @param sequence DNA sequence to reverse complement.
+     * @return Reversed, complemented sequence.
+     * @throws UtilityException if the sequence contains symbols that are not nucleotides
+     */
+    public static PackedSequence reverseComplement(PackedSequence sequence) throws UtilityException {
+        try {
+            return sequence.reverseComplement();
+        } catch (IllegalArgumentException e) {
+            throw new UtilityException(e);
+        }
+    }
+
     /**
      * Calculate the amino acid translation of the given dnaSequence string.
      *
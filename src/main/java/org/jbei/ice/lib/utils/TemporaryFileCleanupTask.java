@@ -0,0 +1,54 @@
+package org.jbei.ice.lib.utils;
+
+import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.lib.dto.ConfigurationKey;
+import org.jbei.ice.lib.executor.Task;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Task to remove stale files created by ICE in the temporary directory (e.g. csv and zip exports).
+ * Only files matching the names used by ICE are removed, since the temporary directory may be shared
+ *
+ * @author Hector Plahar
+ */
+public class TemporaryFileCleanupTask extends Task {
+
+    private static final String[] FILE_PATTERNS = {"ice-*.csv", "remote-ice-*.csv", "zip-*.zip"};
+    private static final long MAX_AGE_MS = TimeUnit.DAYS.toMillis(1);
+
+    @Override
+    public String getKey() {
+        return "temporary-file-cleanup";
+    }
+
+    @Override
+    public void execute() {
+        Path tmpDir = Paths.get(Utils.getConfigValue(ConfigurationKey.TEMPORARY_DIRECTORY));
+        if (!Files.isDirectory(tmpDir))
+            return;
+
+        long cutoff = System.currentTimeMillis() - MAX_AGE_MS;
+        int count = 0;
+        for (String pattern : FILE_PATTERNS) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(tmpDir, pattern)) {
+                for (Path path : stream) {
+                    try {
+                        if (Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS)
+                                && Files.getLastModifiedTime(path).toMillis() < cutoff && Files.deleteIfExists(path))
+                            count += 1;
+                    } catch (IOException e) {
+                        Logger.warn("Could not delete " + path + ": " + e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                Logger.error(e);
+            }
+        }
+
+        if (count > 0)
+            Logger.info("Removed " + count + " temporary file(s) from " + tmpDir);
+    }
+}
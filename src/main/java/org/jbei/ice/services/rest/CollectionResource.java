@@ -2,6 +2,7 @@ package org.jbei.ice.services.rest;
 
 import org.jbei.ice.lib.access.PermissionException;
 import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.lib.dto.common.PageParameters;
 import org.jbei.ice.lib.folder.collection.Collection;
 import org.jbei.ice.lib.folder.collection.CollectionEntries;
 import org.jbei.ice.lib.folder.collection.CollectionType;
@@ -79,7 +80,8 @@ public class CollectionResource extends RestResource {
     }
 
     /**
-     * Retrieve entries by collection type using paging parameters, including a filter
+     * Retrieve entries by collection type using paging parameters, including a filter. The results include
+     * a cursor which, if passed as <code>cursor</code>, retrieves the next page more efficiently than the offset
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
@@ -90,6 +92,7 @@ public class CollectionResource extends RestResource {
                          @DefaultValue("created") @QueryParam("sort") final String sort,
                          @DefaultValue("false") @QueryParam("asc") final boolean asc,
                          @DefaultValue("") @QueryParam("filter") String filter,
+                         @QueryParam("cursor") String cursor,
                          @QueryParam("fields") List<String> queryParam) {
         try {
             CollectionType type = CollectionType.valueOf(collectionType.toUpperCase());
@@ -99,7 +102,9 @@ public class CollectionResource extends RestResource {
             log(userId, "retrieving entries for collection " + type);
             CollectionEntries entries = new CollectionEntries(userId, type);
 
-            return super.respond(entries.getEntries(sortField, asc, offset, limit, filter));
+            PageParameters pageParameters = new PageParameters(offset, limit, sortField, asc, filter);
+            pageParameters.setCursor(cursor);
+            return super.respond(entries.getEntries(pageParameters));
         } catch (PermissionException pe) {
             return super.respond(Response.Status.FORBIDDEN);
         } catch (IllegalArgumentException ie) {
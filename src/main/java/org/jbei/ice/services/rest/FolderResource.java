@@ -190,7 +190,8 @@ public class FolderResource extends RestResource {
 
     /**
      * Retrieves the entries for specified folder. Handles request
-     * from a local client (ui) or from a remote ice instance
+     * from a local client (ui) or from a remote ice instance. The next page can be retrieved by passing
+     * the returned <code>nextCursor</code> as <code>cursor</code>
      *
      * @return list of retrieved entries wrapped in folder object
      */
@@ -203,6 +204,7 @@ public class FolderResource extends RestResource {
                               @DefaultValue("created") @QueryParam("sort") final String sort,
                               @DefaultValue("false") @QueryParam("asc") final boolean asc,
                               @DefaultValue("") @QueryParam("filter") String filter,
+                              @QueryParam("cursor") String cursor,
                               @QueryParam("token") String token,   // todo: move to headers
                               @QueryParam("userId") String remoteUserId,                   // todo : ditto
                               @QueryParam("fields") List<String> queryParam) {
@@ -223,6 +225,7 @@ public class FolderResource extends RestResource {
                 message += " filtered by \"" + filter + "\"";
             FolderContents folderContents = new FolderContents();
             PageParameters pageParameters = new PageParameters(offset, limit, field, asc, filter);
+            pageParameters.setCursor(cursor);
 
             if (StringUtils.isEmpty(userId)) {
                 if (StringUtils.isEmpty(token))  // todo :verify partner?
@@ -239,6 +242,9 @@ public class FolderResource extends RestResource {
         } catch (final NumberFormatException nfe) {
             Logger.error("Passed folder id " + folderId + " is not a number");
             return null;
+        } catch (IllegalArgumentException ie) {
+            // invalid or forged cursor
+            throw new WebApplicationException(Response.Status.BAD_REQUEST);
         }
     }
 
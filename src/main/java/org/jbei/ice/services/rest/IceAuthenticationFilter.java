@@ -1,12 +1,19 @@
 package org.jbei.ice.services.rest;
 
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.glassfish.jersey.server.ContainerRequest;
+import org.jbei.ice.lib.access.AuthorizationContext;
 import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.jbei.ice.storage.hibernate.ReplicaRouting;
 
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.ext.Provider;
 import java.io.IOException;
+import java.lang.reflect.Method;
 
 /**
  * @author Hector Plahar
@@ -14,6 +21,9 @@ import java.io.IOException;
 @Provider
 public class IceAuthenticationFilter implements ContainerRequestFilter {
 
+    @Context
+    private ResourceInfo resourceInfo;
+
     @Override
     public void filter(ContainerRequestContext requestContext) throws IOException {
         ContainerRequest request = (ContainerRequest) requestContext;
@@ -29,6 +39,28 @@ public class IceAuthenticationFilter implements ContainerRequestFilter {
 //            }
 //        }
 
-        HibernateUtil.beginTransaction();
+        // identify client so that it reads its own writes when read-only transactions use replicas
+        ReplicaRouting.setClient(getClientKey(requestContext));
+
+        // started when first used so requests that do not access the database do not hold a connection
+        Method resourceMethod = resourceInfo.getResourceMethod();
+        HibernateUtil.beginTransaction(resourceMethod != null
+                && resourceMethod.isAnnotationPresent(ReadOnlyTransaction.class));
+
+        // memoises authorization lookups and decisions for the rest of the request
+        AuthorizationContext.begin();
+    }
+
+    private String getClientKey(ContainerRequestContext requestContext) {
+        String credentials = requestContext.getHeaderString(Headers.AUTHENTICATION_PARAM_NAME);
+        if (StringUtils.isBlank(credentials))
+            credentials = requestContext.getUriInfo().getQueryParameters().getFirst("sid");
+        if (StringUtils.isBlank(credentials))
+            credentials = requestContext.getHeaderString(Headers.API_KEY_TOKEN);
+        if (StringUtils.isBlank(credentials))
+            credentials = requestContext.getHeaderString(Headers.WOR_PARTNER_TOKEN);
+        if (StringUtils.isBlank(credentials))
+            return null;
+        return DigestUtils.sha256Hex(credentials);
     }
 }
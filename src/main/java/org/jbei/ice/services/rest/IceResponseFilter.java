@@ -1,6 +1,8 @@
 package org.jbei.ice.services.rest;
 
+import org.jbei.ice.lib.access.AuthorizationContext;
 import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.jbei.ice.storage.hibernate.ReplicaRouting;
 
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerResponseContext;
@@ -38,5 +40,7 @@ public class IceResponseFilter implements ContainerResponseFilter {
                 }
             }
         }
+        ReplicaRouting.clearClient();
+        AuthorizationContext.end();
     }
 }
@@ -519,6 +519,7 @@ public class PartResource extends RestResource {
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @Path("/{id}/sequence")
+    @ReadOnlyTransaction
     public Response getSequence(@PathParam("id") final String partId,
                                 @DefaultValue("false") @QueryParam("remote") boolean isRemote,
                                 @QueryParam("token") String remoteUserToken,
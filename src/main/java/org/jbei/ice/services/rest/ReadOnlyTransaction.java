@@ -0,0 +1,19 @@
+package org.jbei.ice.services.rest;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks resource methods that do not write to the database. The transactions for requests handled by these
+ * methods are started read-only (see {@link org.jbei.ice.storage.hibernate.HibernateUtil#beginTransaction(boolean)})
+ * and any changes made while handling them are discarded, so this should not be used on methods that record
+ * history or create, update or delete anything
+ *
+ * @author Hector Plahar
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnlyTransaction {
+}
@@ -4,9 +4,12 @@ import org.apache.commons.lang3.StringUtils;
 import org.jbei.auth.hmac.HmacSignature;
 import org.jbei.ice.lib.access.PermissionException;
 import org.jbei.ice.lib.access.TokenVerification;
+import org.jbei.ice.lib.admission.AdmissionController;
+import org.jbei.ice.lib.admission.ClientType;
 import org.jbei.ice.lib.account.UserSessions;
 import org.jbei.ice.lib.common.logging.Logger;
 import org.jbei.ice.lib.dto.web.RegistryPartner;
+import org.jbei.ice.servlet.filter.AdmissionControlFilter;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.HeaderParam;
@@ -31,6 +34,8 @@ public class RestResource {
     protected final String REMOTE_USER_TOKEN = Headers.REMOTE_USER_TOKEN;   // token for remote user
     protected final String REMOTE_USER_ID = Headers.REMOTE_USER_ID;         // id for remote user
 
+    private static final String RATE_LIMIT_APPLIED = RestResource.class.getName() + ".rateLimitApplied";
+
     @HeaderParam(value = WOR_PARTNER_TOKEN)
     protected String worPartnerToken;
 
@@ -109,8 +114,10 @@ public class RestResource {
             sessionId = querySessionId;
 
         String userId = UserSessions.getUserIdBySession(sessionId);
-        if (!StringUtils.isEmpty(userId))
+        if (!StringUtils.isEmpty(userId)) {
+            admitVerified(ClientType.SESSION, userId);
             return userId;
+        }
 
         // check api key
         if (!StringUtils.isEmpty(apiToken)) {
@@ -120,12 +127,15 @@ public class RestResource {
                 TokenVerification tokenVerification = new TokenVerification();
                 userId = tokenVerification.verifyAPIKey(apiToken, clientId, apiUser);
             } catch (PermissionException pe) {
+                verificationFailed();
                 throw new WebApplicationException(Response.Status.UNAUTHORIZED);
             }
 
             // being a bit generous in terms of allowing other auth methods to be attempted even though apiToken is set
-            if (userId != null)
+            if (userId != null) {
+                admitVerified(ClientType.API_KEY, clientId);
                 return userId;
+            }
         }
 
         // check hmac signature
@@ -140,6 +150,10 @@ public class RestResource {
             }
         }
 
+        if (userId != null)
+            admitVerified(ClientType.API_KEY, userId);
+        else if (!StringUtils.isEmpty(sessionId) || !StringUtils.isEmpty(apiToken) || hmac != null)
+            verificationFailed();
         return userId;
     }
 
@@ -153,7 +167,42 @@ public class RestResource {
     protected RegistryPartner getWebPartner() {
         String clientId = !StringUtils.isEmpty(apiClientId) ? apiClientId : request.getRemoteHost();
         TokenVerification tokenVerification = new TokenVerification();
-        return tokenVerification.verifyPartnerToken(clientId, worPartnerToken);
+        RegistryPartner partner = tokenVerification.verifyPartnerToken(clientId, worPartnerToken);
+        if (partner != null)
+            admitVerified(ClientType.PARTNER, Long.toString(partner.getId()));
+        else if (!StringUtils.isEmpty(worPartnerToken))
+            verificationFailed();
+        return partner;
+    }
+
+    /**
+     * Applies the rate limit of the client whose credentials have been verified, once per request (requests are
+     * only limited by address before their credentials are verified; see {@link AdmissionControlFilter})
+     *
+     * @param type     type of client
+     * @param identity verified identity of client
+     * @throws WebApplicationException with status 429 if the client has exceeded its limit
+     */
+    private void admitVerified(ClientType type, String identity) {
+        if (request == null || request.getAttribute(RATE_LIMIT_APPLIED) != null)
+            return;
+
+        request.setAttribute(RATE_LIMIT_APPLIED, Boolean.TRUE);
+        long retryAfter = AdmissionController.getInstance().acquire(type, identity);
+        if (retryAfter > 0) {
+            throw new WebApplicationException(Response.status(AdmissionControlFilter.TOO_MANY_REQUESTS)
+                    .header("Retry-After", Long.toString(retryAfter)).build());
+        }
+    }
+
+    // counts towards the limit on failed verifications for the client's address, once per request
+    private void verificationFailed() {
+        if (request == null || request.getAttribute(RATE_LIMIT_APPLIED) != null)
+            return;
+
+        request.setAttribute(RATE_LIMIT_APPLIED, Boolean.TRUE);
+        AdmissionController controller = AdmissionController.getInstance();
+        controller.verificationFailed(AdmissionControlFilter.getClientAddress(request, controller));
     }
 
     /**
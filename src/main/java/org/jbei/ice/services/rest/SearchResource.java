@@ -34,6 +34,7 @@ public class SearchResource extends RestResource {
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
     @Path("/filter")
+    @ReadOnlyTransaction
     public Response searchPartFields(
             @DefaultValue("") @QueryParam("token") String token,
             @DefaultValue("SELECTION_MARKERS") @QueryParam("field") String field,
@@ -54,6 +55,7 @@ public class SearchResource extends RestResource {
     @POST
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
+    @ReadOnlyTransaction
     public Response search(@DefaultValue("false") @QueryParam("webSearch") final boolean searchWeb,
                            final SearchQuery query) {
         String userId = getUserId();
@@ -86,6 +88,7 @@ public class SearchResource extends RestResource {
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
+    @ReadOnlyTransaction
     public Response search(@QueryParam("q") final String queryString,
                            @DefaultValue("false") @QueryParam("webSearch") final boolean searchWeb,
                            @DefaultValue("0") @QueryParam("offset") final int offset,
@@ -0,0 +1,38 @@
+package org.jbei.ice.services.rest;
+
+import org.jbei.ice.lib.account.AccountController;
+import org.jbei.ice.lib.executor.IceExecutorService;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * REST resource for monitoring the background tasks run by the executor service
+ *
+ * @author Hector Plahar
+ */
+@Path("/tasks")
+public class TaskResource extends RestResource {
+
+    private final AccountController accountController = new AccountController();
+
+    /**
+     * Retrieves queue depth, wait time and run time statistics for each class of task.
+     * Admin privileges required
+     *
+     * @return list of statistics for each task class that has been submitted since start up
+     */
+    @GET
+    @Path("/statistics")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getStatistics() {
+        String userId = requireUserId();
+        if (!accountController.isAdministrator(userId))
+            throw new WebApplicationException(Response.Status.FORBIDDEN);
+        return super.respond(IceExecutorService.getInstance().getStatistics());
+    }
+}
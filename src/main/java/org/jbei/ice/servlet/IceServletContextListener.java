@@ -4,6 +4,8 @@ import org.hibernate.SessionFactory;
 import org.jbei.ice.ApplicationInitialize;
 import org.jbei.ice.lib.common.logging.Logger;
 import org.jbei.ice.lib.executor.IceExecutorService;
+import org.jbei.ice.lib.executor.IceScheduler;
+import org.jbei.ice.lib.executor.JobQueue;
 import org.jbei.ice.storage.hibernate.HibernateUtil;
 
 import javax.servlet.ServletContextEvent;
@@ -28,7 +30,9 @@ public class IceServletContextListener implements ServletContextListener {
     public void contextDestroyed(ServletContextEvent event) {
         Logger.info("Destroying Servlet Context");
 
-        // shutdown executor service
+        // stop scheduled maintenance, stop leasing jobs and shutdown executor service
+        IceScheduler.getInstance().stop();
+        JobQueue.getInstance().stop();
         IceExecutorService.getInstance().stopService();
 
         closeSessionFactory(HibernateUtil.getSessionFactory());
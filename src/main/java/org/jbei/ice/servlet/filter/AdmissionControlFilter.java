@@ -0,0 +1,128 @@
+package org.jbei.ice.servlet.filter;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jbei.ice.lib.admission.Admission;
+import org.jbei.ice.lib.admission.AdmissionController;
+import org.jbei.ice.lib.admission.ClientType;
+import org.jbei.ice.lib.admission.EndpointClass;
+import org.jbei.ice.services.rest.Headers;
+
+import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Applies the {@link AdmissionController} limits to incoming requests before any other processing (in particular,
+ * before a database connection is acquired). Rejected requests receive a <code>429</code> response with a
+ * <code>Retry-After</code> header.
+ * <p>
+ * Credentials are not verified at this point. Requests without credentials are rate limited by client address.
+ * Requests with credentials are only rejected here if their address has recently presented too many credentials
+ * that failed verification; they are rate limited by identity once their credentials are verified (see
+ * {@link org.jbei.ice.services.rest.RestResource}). The client address is that of the connection unless a header
+ * set by a trusted reverse proxy is configured ({@link org.jbei.ice.lib.dto.ConfigurationKey#CLIENT_ADDRESS_HEADER})
+ *
+ * @author Hector Plahar
+ */
+public class AdmissionControlFilter implements Filter {
+
+    public static final int TOO_MANY_REQUESTS = 429;
+
+    private final AdmissionController controller;
+
+    public AdmissionControlFilter() {
+        this(AdmissionController.getInstance());
+    }
+
+    // for tests
+    AdmissionControlFilter(AdmissionController controller) {
+        this.controller = controller;
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (!(request instanceof HttpServletRequest) || !(response instanceof HttpServletResponse)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        String path = httpRequest.getRequestURI().substring(httpRequest.getContextPath().length());
+        EndpointClass endpointClass = EndpointClass.forPath(path);
+        String address = getClientAddress(httpRequest, controller);
+
+        Admission admission;
+        if (hasCredentials(httpRequest))
+            admission = controller.admitUnverified(address, endpointClass);
+        else
+            admission = controller.admit(ClientType.ANONYMOUS, address, endpointClass);
+
+        if (!admission.isAdmitted()) {
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setHeader("Retry-After", Long.toString(admission.getRetryAfterSeconds()));
+            httpResponse.sendError(TOO_MANY_REQUESTS, "Too many requests");
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            admission.release();
+        }
+    }
+
+    /**
+     * @param request    request
+     * @param controller controller that determines which header (if any) contains the client address
+     * @return address of the client that made the request. If a trusted proxy header is configured, this is the
+     * last address in it (the one the proxy received the request from), otherwise the address of the connection
+     */
+    public static String getClientAddress(HttpServletRequest request, AdmissionController controller) {
+        String header = controller.getClientAddressHeader();
+        if (header != null) {
+            String value = request.getHeader(header);
+            if (!StringUtils.isBlank(value)) {
+                String[] addresses = value.split(",");
+                String last = addresses[addresses.length - 1].trim();
+                if (!last.isEmpty())
+                    return last;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private boolean hasCredentials(HttpServletRequest request) {
+        String hmac = request.getHeader("Authorization");
+        return !StringUtils.isBlank(request.getHeader(Headers.API_KEY_TOKEN))
+                || !StringUtils.isBlank(request.getHeader(Headers.WOR_PARTNER_TOKEN))
+                || !StringUtils.isBlank(request.getHeader(Headers.AUTHENTICATION_PARAM_NAME))
+                || !StringUtils.isBlank(getQuerySessionId(request))
+                || (!StringUtils.isBlank(hmac) && StringUtils.split(hmac, ':').length == 4);
+    }
+
+    /**
+     * Reads the session id (<code>sid</code>) from the query string. Does not use
+     * {@link ServletRequest#getParameter(String)} since that may consume the body of form posts
+     */
+    private String getQuerySessionId(HttpServletRequest request) {
+        String query = request.getQueryString();
+        if (query == null)
+            return null;
+
+        for (String param : query.split("&")) {
+            if (param.startsWith("sid="))
+                return param.substring(4);
+        }
+        return null;
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
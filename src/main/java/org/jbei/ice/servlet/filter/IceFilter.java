@@ -1,5 +1,6 @@
 package org.jbei.ice.servlet.filter;
 
+import org.jbei.ice.lib.access.AuthorizationContext;
 import org.jbei.ice.lib.common.logging.Logger;
 import org.jbei.ice.storage.hibernate.HibernateUtil;
 
@@ -24,6 +25,7 @@ public class IceFilter implements Filter {
             return;
 
         try {
+            AuthorizationContext.begin();
             HibernateUtil.beginTransaction();
             chain.doFilter(request, response);
             HibernateUtil.commitTransaction();
@@ -37,6 +39,8 @@ public class IceFilter implements Filter {
                 HibernateUtil.rollbackTransaction();
                 Logger.warn("Could not log error " + e.getMessage());
             }
+        } finally {
+            AuthorizationContext.end();
         }
     }
 
@@ -14,9 +14,11 @@ public class DAOFactory {
     private static CommentDAO commentDAO;
     private static ConfigurationDAO configurationDAO;
     private static EntryDAO entryDAO;
+    private static EntryReadAccessDAO entryReadAccessDAO;
     private static FolderDAO folderDAO;
     private static GroupDAO groupDAO;
     private static MessageDAO messageDAO;
+    private static PartNumberSequenceDAO partNumberSequenceDAO;
     private static PermissionDAO permissionDAO;
     private static PreferencesDAO preferencesDAO;
     private static RemotePartnerDAO remotePartnerDAO;
@@ -37,6 +39,8 @@ public class DAOFactory {
     private static SequenceFeatureDAO sequenceFeatureDAO;
     private static FeatureDAO featureDAO;
     private static FeatureCurationModelDAO featureCurationModelDAO;
+    private static JobDAO jobDAO;
+    private static UserSessionDAO userSessionDAO;
 
     public static AccountDAO getAccountDAO() {
         if (accountDAO == null)
@@ -86,6 +90,12 @@ public class DAOFactory {
         return entryDAO;
     }
 
+    public static EntryReadAccessDAO getEntryReadAccessDAO() {
+        if (entryReadAccessDAO == null)
+            entryReadAccessDAO = new EntryReadAccessDAO();
+        return entryReadAccessDAO;
+    }
+
     public static FolderDAO getFolderDAO() {
         if (folderDAO == null)
             folderDAO = new FolderDAO();
@@ -104,6 +114,12 @@ public class DAOFactory {
         return messageDAO;
     }
 
+    public static PartNumberSequenceDAO getPartNumberSequenceDAO() {
+        if (partNumberSequenceDAO == null)
+            partNumberSequenceDAO = new PartNumberSequenceDAO();
+        return partNumberSequenceDAO;
+    }
+
     public static PermissionDAO getPermissionDAO() {
         if (permissionDAO == null)
             permissionDAO = new PermissionDAO();
@@ -217,4 +233,16 @@ public class DAOFactory {
             featureCurationModelDAO = new FeatureCurationModelDAO();
         return featureCurationModelDAO;
     }
+
+    public static JobDAO getJobDAO() {
+        if (jobDAO == null)
+            jobDAO = new JobDAO();
+        return jobDAO;
+    }
+
+    public static UserSessionDAO getUserSessionDAO() {
+        if (userSessionDAO == null)
+            userSessionDAO = new UserSessionDAO();
+        return userSessionDAO;
+    }
 }
@@ -13,6 +13,8 @@ import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Factory for converting {@link Entry}s to a {@link org.jbei.ice.lib.dto.entry.PartData}
@@ -260,10 +262,45 @@ public class ModelToInfoFactory {
         return account.getId();
     }
 
+    /**
+     * Creates the table views for a list of entries. Whether the user can edit each entry is determined for all
+     * of them at once
+     *
+     * @param userId           unique identifier for user viewing the entries. Optional
+     * @param entries          entries to create views for
+     * @param includeOwnerInfo whether to include owner and creator information
+     * @return views in the same order as <code>entries</code>
+     */
+    public static List<PartData> createTableViewData(String userId, List<Entry> entries, boolean includeOwnerInfo) {
+        Set<Long> writable = null;
+        if (userId != null) {
+            List<Long> ids = entries.stream().map(Entry::getId).collect(Collectors.toList());
+            writable = new EntryAuthorization().getWritableEntries(userId, ids);
+        }
+
+        List<PartData> views = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            PartData view = createTableView(entry, includeOwnerInfo);
+            if (writable != null)
+                view.setCanEdit(writable.contains(entry.getId()));
+            views.add(view);
+        }
+        return views;
+    }
+
     public static PartData createTableViewData(String userId, Entry entry, boolean includeOwnerInfo) {
         if (entry == null)
             return null;
 
+        PartData view = createTableView(entry, includeOwnerInfo);
+        if (userId != null) {
+            EntryAuthorization authorization = new EntryAuthorization();
+            view.setCanEdit(authorization.canWrite(userId, entry));
+        }
+        return view;
+    }
+
+    private static PartData createTableView(Entry entry, boolean includeOwnerInfo) {
         EntryType type = EntryType.nameToType(entry.getRecordType());
         PartData view = new PartData(type);
         view.setId(entry.getId());
@@ -277,11 +314,6 @@ public class ModelToInfoFactory {
         view.setOwnerEmail(entry.getOwnerEmail());
         view.setVisibility(Visibility.valueToEnum(entry.getVisibility()));
 
-        if (userId != null) {
-            EntryAuthorization authorization = new EntryAuthorization();
-            view.setCanEdit(authorization.canWrite(userId, entry));
-        }
-
         // information about the owner and creator
         if (includeOwnerInfo) {
             view.setOwner(entry.getOwner());
@@ -297,11 +329,44 @@ public class ModelToInfoFactory {
         view.setHasSample(DAOFactory.getSampleDAO().hasSample(entry));
 
         // has sequence
+        setSequenceSummary(view, entry);
+        return view;
+    }
+
+    /**
+     * Sets whether the entry has a sequence (and original upload), the number of base pairs and the number of
+     * features using the sequence metadata, without loading the sequence itself unless the metadata has
+     * not been computed yet
+     *
+     * @param part  data transfer object for entry
+     * @param entry entry whose sequence summary is being set
+     */
+    public static void setSequenceSummary(PartData part, Entry entry) {
         SequenceDAO sequenceDAO = DAOFactory.getSequenceDAO();
-        view.setHasSequence(sequenceDAO.hasSequence(entry.getId()));
-        view.setHasOriginalSequence(sequenceDAO.hasOriginalSequence(entry.getId()));
+        Object[] metadata = sequenceDAO.getMetadata(entry.getId());
+        part.setHasSequence(metadata != null);
+        if (metadata == null) {
+            part.setHasOriginalSequence(false);
+            part.setBasePairCount(0);
+            return;
+        }
 
-        return view;
+        Integer length = (Integer) metadata[0];
+        if (length == null) {
+            // saved before the metadata was introduced and not yet backfilled
+            part.setHasOriginalSequence(sequenceDAO.hasOriginalSequence(entry.getId()));
+            String sequenceString = sequenceDAO.getSequenceString(entry);
+            length = StringUtils.isEmpty(sequenceString) ? 0 : sequenceString.trim().length();
+            part.setBasePairCount(length);
+            if (length > 0)
+                part.setFeatureCount(DAOFactory.getSequenceFeatureDAO().getFeatureCount(entry));
+            return;
+        }
+
+        part.setHasOriginalSequence(Boolean.TRUE.equals(metadata[2]));
+        part.setBasePairCount(length);
+        if (length > 0 && metadata[1] != null)
+            part.setFeatureCount((Integer) metadata[1]);
     }
 
     public static PartData createTipView(Entry entry) {
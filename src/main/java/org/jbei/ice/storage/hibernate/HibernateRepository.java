@@ -2,11 +2,14 @@ package org.jbei.ice.storage.hibernate;
 
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
+import org.hibernate.Transaction;
 import org.jbei.ice.lib.common.logging.Logger;
 import org.jbei.ice.storage.DAOException;
 import org.jbei.ice.storage.DataModel;
 import org.jbei.ice.storage.IRepository;
 
+import java.util.function.Function;
+
 /**
  * Parent abstract class for Hibernate Persistence
  *
@@ -23,6 +26,34 @@ public abstract class HibernateRepository<T extends DataModel> implements IRepos
         return HibernateUtil.currentSession();
     }
 
+    /**
+     * Runs the specified work using a session that reads from the primary database; for loading data that is
+     * retained beyond the current transaction. Uses the current session unless its transaction reads from a
+     * replica, in which case the work is run in a separate short transaction on a new session
+     *
+     * @param work work to run
+     * @return result of the work
+     */
+    protected static <R> R onPrimary(Function<Session, R> work) {
+        Session session = currentSession();
+        if (!ReplicaRouting.isUsingReplica())
+            return work.apply(session);
+
+        // connections for transactions that are not started read-only are always to the primary
+        Session primary = HibernateUtil.newSession();
+        Transaction transaction = primary.beginTransaction();
+        try {
+            R result = work.apply(primary);
+            transaction.commit();
+            return result;
+        } catch (HibernateException he) {
+            transaction.rollback();
+            throw he;
+        } finally {
+            primary.close();
+        }
+    }
+
     /**
      * Deletes an {@link DataModel} from the database.
      *
@@ -1,13 +1,25 @@
 package org.jbei.ice.storage.hibernate;
 
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.resource.transaction.spi.TransactionStatus;
 import org.hibernate.service.ServiceRegistry;
 import org.jbei.ice.lib.common.logging.Logger;
 import org.jbei.ice.storage.model.FeatureCurationModel;
 
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Helper class to Initialize Hibernate, and obtain new sessions.
  *
@@ -18,6 +30,9 @@ public class HibernateUtil {
     // thread safe global object that is instantiated once
     private static SessionFactory sessionFactory;
 
+    // transactions requested for the current thread that have not been started
+    private static final ThreadLocal<PendingTransaction> PENDING_TRANSACTION = new ThreadLocal<>();
+
     // singleton
     private HibernateUtil() {
     }
@@ -33,24 +48,116 @@ public class HibernateUtil {
     }
 
     /**
+     * Retrieves the session bound to the current context. If a transaction has been requested using
+     * {@link #beginTransaction()} but not yet started, it is started (and a database connection acquired) now.
+     *
      * @return session bound to context.
      */
-    protected static Session currentSession() {
-        return getSessionFactory().getCurrentSession();
+    public static Session currentSession() {
+        Session session = getSessionFactory().getCurrentSession();
+        PendingTransaction pending = PENDING_TRANSACTION.get();
+        if (pending != null) {
+            PENDING_TRANSACTION.remove();
+            pending.start(session);
+        }
+        return session;
     }
 
+    /**
+     * Requests a read-write transaction for the current thread. The transaction is started lazily, when the
+     * session is first used, so that requests that never access the database do not check out a connection
+     */
     public static void beginTransaction() {
-        getSessionFactory().getCurrentSession().beginTransaction();
+        beginTransaction(false);
+    }
+
+    /**
+     * Requests a transaction for the current thread. The transaction is started lazily, when the session is first
+     * used. Has no effect if a transaction has already been requested or is in progress.
+     * <p>
+     * In a read-only transaction loaded entities are not tracked for changes, the session is never flushed
+     * automatically and the connection is marked read-only; any changes made are not saved
+     *
+     * @param readOnly true if the transaction does not write to the database
+     */
+    public static void beginTransaction(boolean readOnly) {
+        if (PENDING_TRANSACTION.get() != null)
+            return;
+
+        PENDING_TRANSACTION.set(new PendingTransaction(readOnly));
     }
 
     public static void commitTransaction() {
+        PendingTransaction pending = PENDING_TRANSACTION.get();
+        if (pending != null) {
+            // never started so there is nothing to commit
+            PENDING_TRANSACTION.remove();
+            pending.complete(Status.STATUS_COMMITTED);
+            return;
+        }
         getSessionFactory().getCurrentSession().getTransaction().commit();
     }
 
     public static void rollbackTransaction() {
+        PendingTransaction pending = PENDING_TRANSACTION.get();
+        if (pending != null) {
+            PENDING_TRANSACTION.remove();
+            pending.complete(Status.STATUS_ROLLEDBACK);
+            return;
+        }
         getSessionFactory().getCurrentSession().getTransaction().rollback();
     }
 
+    /**
+     * Runs the specified action once the current transaction commits successfully. If there is no
+     * active transaction, the action is run immediately
+     *
+     * @param action action to run
+     */
+    public static void afterCommit(Runnable action) {
+        afterCompletion(action, true);
+    }
+
+    /**
+     * Runs the specified action if the current transaction is rolled back. If there is no
+     * active transaction, the action is not run
+     *
+     * @param action action to run
+     */
+    public static void afterRollback(Runnable action) {
+        afterCompletion(action, false);
+    }
+
+    private static void afterCompletion(Runnable action, boolean onCommit) {
+        Synchronization synchronization = new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if ((status == Status.STATUS_COMMITTED) == onCommit)
+                    action.run();
+            }
+        };
+
+        // registered with the transaction if it is started, otherwise run when the request completes
+        PendingTransaction pending = PENDING_TRANSACTION.get();
+        if (pending != null) {
+            pending.synchronizations.add(synchronization);
+            return;
+        }
+
+        Transaction transaction = getSessionFactory().getCurrentSession().getTransaction();
+        if (transaction == null || transaction.getStatus() != TransactionStatus.ACTIVE) {
+            if (onCommit)
+                action.run();
+            return;
+        }
+
+        transaction.registerSynchronization(synchronization);
+    }
+
     /**
      * Initialize a in-memory mock database for testing.
      */
@@ -67,12 +174,22 @@ public class HibernateUtil {
                     configuration.setProperty("hibernate.connection.url", "jdbc:h2:mem:test");
                     configuration.setProperty("hibernate.connection.driver_class", "org.h2.Driver");
                     configuration.setProperty("hibernate.connection.username", "sa");
+                    configuration.setProperty("hibernate.connection.provider_class",
+                            RoutingConnectionProvider.class.getName());
                     configuration.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
                     configuration.setProperty("hibernate.current_session_context_class",
                             "org.hibernate.context.internal.ThreadLocalSessionContext");
                     configuration.setProperty("hibernate.hbm2ddl.auto", "update");
                     configuration.setProperty("hibernate.search.default.directory_provider",
                             "org.hibernate.search.store.impl.RAMDirectoryProvider");
+                    configuration.setProperty("hibernate.cache.use_second_level_cache", "true");
+                    configuration.setProperty("hibernate.cache.use_query_cache", "true");
+                    configuration.setProperty("hibernate.cache.region.factory_class",
+                            "org.hibernate.cache.ehcache.SingletonEhCacheRegionFactory");
+                    configuration.setProperty("net.sf.ehcache.configurationResourceName", "/ehcache.xml");
+                    configuration.setProperty("hibernate.jdbc.batch_size", "20");
+                    configuration.setProperty("hibernate.order_inserts", "true");
+                    configuration.setProperty("hibernate.order_updates", "true");
                 } else {
                     configuration.configure();
                 }
@@ -88,6 +205,7 @@ public class HibernateUtil {
                 configuration.addAnnotatedClass(org.jbei.ice.storage.model.Link.class);
                 configuration.addAnnotatedClass(org.jbei.ice.storage.model.SelectionMarker.class);
                 configuration.addAnnotatedClass(org.jbei.ice.storage.model.Sequence.class);
+                configuration.addAnnotatedClass(org.jbei.ice.storage.model.SequenceContent.class);
                 configuration.addAnnotatedClass(org.jbei.ice.storage.model.Feature.class);
                 configuration.addAnnotatedClass(org.jbei.ice.storage.model.SequenceFeature.class);
                 configuration.addAnnotatedClass(org.jbei.ice.storage.model.SequenceFeatureAttribute.class);
@@ -120,8 +238,24 @@ public class HibernateUtil {
                 configuration.addAnnotatedClass(org.jbei.ice.storage.model.RemoteAccessModel.class);
                 configuration.addAnnotatedClass(org.jbei.ice.storage.model.ManuscriptModel.class);
                 configuration.addAnnotatedClass(FeatureCurationModel.class);
+                configuration.addAnnotatedClass(org.jbei.ice.storage.model.JobModel.class);
+                configuration.addAnnotatedClass(org.jbei.ice.storage.model.UserSessionModel.class);
+                configuration.addAnnotatedClass(org.jbei.ice.storage.model.EntryReadAccessModel.class);
+                configuration.addAnnotatedClass(org.jbei.ice.storage.model.QueryIdSetModel.class);
+                configuration.addAnnotatedClass(org.jbei.ice.storage.model.PartNumberSequenceModel.class);
 
                 sessionFactory = configuration.buildSessionFactory(serviceRegistry);
+
+                // track writes for replica routing
+                EventListenerRegistry listenerRegistry = ((SessionFactoryImplementor) sessionFactory)
+                        .getServiceRegistry().getService(EventListenerRegistry.class);
+                ReplicaRouting.WriteListener writeListener = new ReplicaRouting.WriteListener();
+                listenerRegistry.appendListeners(EventType.POST_INSERT, writeListener);
+                listenerRegistry.appendListeners(EventType.POST_UPDATE, writeListener);
+                listenerRegistry.appendListeners(EventType.POST_DELETE, writeListener);
+                listenerRegistry.appendListeners(EventType.POST_COLLECTION_RECREATE, writeListener);
+                listenerRegistry.appendListeners(EventType.POST_COLLECTION_UPDATE, writeListener);
+                listenerRegistry.appendListeners(EventType.POST_COLLECTION_REMOVE, writeListener);
             } catch (Throwable e) {
                 e.printStackTrace();
                 throw new RuntimeException(e);
@@ -142,13 +276,80 @@ public class HibernateUtil {
     }
 
     public static void close() {
-        currentSession().disconnect();
+        PENDING_TRANSACTION.remove();
+        getSessionFactory().getCurrentSession().disconnect();
         if (sessionFactory != null && !sessionFactory.isClosed()) {
             Logger.info("Closing session factory");
             sessionFactory.close();
         }
     }
 
+    /**
+     * Transaction that has been requested but not yet started, along with any completion actions registered
+     * for it in the meantime
+     */
+    private static class PendingTransaction {
+        private final boolean readOnly;
+        private final List<Synchronization> synchronizations = new ArrayList<>();
+
+        PendingTransaction(boolean readOnly) {
+            this.readOnly = readOnly;
+        }
+
+        void start(Session session) {
+            Transaction transaction = session.getTransaction();
+            if (transaction.getStatus() == TransactionStatus.ACTIVE) {
+                // requested while a transaction was already in progress
+                for (Synchronization synchronization : synchronizations) {
+                    transaction.registerSynchronization(synchronization);
+                }
+                return;
+            }
+
+            if (readOnly)
+                session.setFlushMode(FlushMode.MANUAL);
+
+            // the connection is acquired when the transaction begins; read-only ones may use a replica
+            ReplicaRouting.transactionStarted();
+            ReplicaRouting.setReadOnly(readOnly);
+            try {
+                transaction.begin();
+            } finally {
+                ReplicaRouting.setReadOnly(false);
+            }
+            transaction.registerSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    ReplicaRouting.transactionCompleted(status == Status.STATUS_COMMITTED);
+                }
+            });
+            if (ReplicaRouting.isUsingReplica()) {
+                // entities and query results read from a lagging replica are not put in the shared caches
+                session.setCacheMode(CacheMode.GET);
+            }
+            if (readOnly) {
+                // must be set before the first statement of the transaction. the connection pool restores
+                // the default when the connection is returned
+                session.setDefaultReadOnly(true);
+                session.doWork(connection -> connection.setReadOnly(true));
+            }
+
+            for (Synchronization synchronization : synchronizations) {
+                transaction.registerSynchronization(synchronization);
+            }
+        }
+
+        void complete(int status) {
+            for (Synchronization synchronization : synchronizations) {
+                synchronization.afterCompletion(status);
+            }
+        }
+    }
+
     /**
      * initialization types
      */
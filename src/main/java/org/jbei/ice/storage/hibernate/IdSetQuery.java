@@ -0,0 +1,181 @@
+package org.jbei.ice.storage.hibernate;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Query;
+import org.hibernate.Session;
+import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.storage.model.QueryIdSetModel;
+
+import java.sql.PreparedStatement;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs queries restricted to an arbitrarily large set of (entity) identifiers. Depending on the size of the set
+ * the identifiers are bound as
+ * <ul>
+ * <li>a single <code>IN</code> list, for small sets</li>
+ * <li>a number of <code>IN</code> lists; the query is run once per chunk and the results concatenated</li>
+ * <li>rows in a scratch table ({@link QueryIdSetModel}) that the query joins against using a sub-query. The rows
+ * are written and removed in the current transaction. Not used in read-only transactions since they may be
+ * running against a replica</li>
+ * </ul>
+ * so that the number of bound parameters stays below database limits and the query plan does not depend on the
+ * size of the set.
+ * <p>
+ * Queries are specified as a function that is passed the (parenthesised) expression for the set of identifiers,
+ * e.g. <code>ids -> "select e from Entry e where e.id in " + ids</code>. Identifiers are de-duplicated and chunks
+ * are processed in ascending order, so results ordered by the identifier are in order overall
+ *
+ * @author Hector Plahar
+ */
+public final class IdSetQuery {
+
+    public enum Strategy {
+        IN_LIST,
+        CHUNKED,
+        TEMP_TABLE
+    }
+
+    public static final int DEFAULT_IN_LIST_LIMIT = 1000;
+    public static final int DEFAULT_TEMP_TABLE_THRESHOLD = 5000;
+
+    private static final String IDS_PARAMETER = "idSet";
+    private static final String KEY_PARAMETER = "idSetKey";
+
+    private static volatile int inListLimit = DEFAULT_IN_LIST_LIMIT;
+    private static volatile int tempTableThreshold = DEFAULT_TEMP_TABLE_THRESHOLD;
+
+    private IdSetQuery() {
+    }
+
+    /**
+     * Runs a select query restricted to the specified identifiers
+     *
+     * @param ids        identifiers to restrict the query to
+     * @param hql        builds the query given the expression for the set of identifiers
+     * @param parameters sets any other parameters on the query. May be null
+     * @param <T>        type of result
+     * @return results of the query (concatenated if the identifiers are processed in chunks)
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> list(Collection<Long> ids, Function<String, String> hql, Consumer<Query> parameters) {
+        List<T> results = new ArrayList<>();
+        run(ids, hql, parameters, query -> results.addAll(query.list()));
+        return results;
+    }
+
+    /**
+     * Runs a bulk update or delete restricted to the specified identifiers
+     *
+     * @param ids        identifiers to restrict the update to
+     * @param hql        builds the statement given the expression for the set of identifiers
+     * @param parameters sets any other parameters on the statement. May be null
+     * @return number of rows updated or deleted
+     */
+    public static int executeUpdate(Collection<Long> ids, Function<String, String> hql, Consumer<Query> parameters) {
+        int[] count = new int[1];
+        run(ids, hql, parameters, query -> count[0] += query.executeUpdate());
+        return count[0];
+    }
+
+    /**
+     * Splits a set of identifiers into chunks that can each be bound as a single <code>IN</code> list
+     *
+     * @param ids identifiers
+     * @return de-duplicated identifiers in ascending order, split into chunks
+     */
+    public static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> sorted = new ArrayList<>(new TreeSet<>(ids));
+        List<List<Long>> chunks = new ArrayList<>();
+        int size = inListLimit;
+        for (int i = 0; i < sorted.size(); i += size) {
+            chunks.add(sorted.subList(i, Math.min(sorted.size(), i + size)));
+        }
+        return chunks;
+    }
+
+    /**
+     * @param size     number of (distinct) identifiers
+     * @param readOnly whether the current transaction is read-only
+     * @return the strategy used to restrict a query to a set of identifiers of the specified size
+     */
+    public static Strategy getStrategy(int size, boolean readOnly) {
+        if (size <= inListLimit)
+            return Strategy.IN_LIST;
+        if (size <= tempTableThreshold || readOnly)
+            return Strategy.CHUNKED;
+        return Strategy.TEMP_TABLE;
+    }
+
+    // for tests and benchmarks
+    static void setLimits(int inListLimit, int tempTableThreshold) {
+        IdSetQuery.inListLimit = inListLimit;
+        IdSetQuery.tempTableThreshold = tempTableThreshold;
+    }
+
+    private static void run(Collection<Long> ids, Function<String, String> hql, Consumer<Query> parameters,
+                            Consumer<Query> execute) {
+        if (ids == null || ids.isEmpty())
+            return;
+
+        Session session = HibernateUtil.currentSession();
+        Set<Long> distinct = new TreeSet<>(ids);
+        if (getStrategy(distinct.size(), session.isDefaultReadOnly()) != Strategy.TEMP_TABLE) {
+            for (List<Long> chunk : chunks(distinct)) {
+                Query query = session.createQuery(hql.apply("(:" + IDS_PARAMETER + ")"));
+                query.setParameterList(IDS_PARAMETER, chunk);
+                if (parameters != null)
+                    parameters.accept(query);
+                execute.accept(query);
+            }
+            return;
+        }
+
+        String key = UUID.randomUUID().toString();
+        insert(session, key, distinct);
+        try {
+            Query query = session.createQuery(hql.apply("(select q.idValue from " + QueryIdSetModel.class.getName()
+                    + " q where q.setKey = :" + KEY_PARAMETER + ")"));
+            query.setParameter(KEY_PARAMETER, key);
+            if (parameters != null)
+                parameters.accept(query);
+            execute.accept(query);
+        } finally {
+            remove(session, key);
+        }
+    }
+
+    private static void insert(Session session, String key, Collection<Long> ids) {
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "insert into query_id_set (set_key, id_value) values (?, ?)")) {
+                int batch = 0;
+                for (Long id : ids) {
+                    statement.setString(1, key);
+                    statement.setLong(2, id);
+                    statement.addBatch();
+                    if (++batch % DEFAULT_IN_LIST_LIMIT == 0)
+                        statement.executeBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    private static void remove(Session session, String key) {
+        try {
+            session.doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "delete from query_id_set where set_key = ?")) {
+                    statement.setString(1, key);
+                    statement.executeUpdate();
+                }
+            });
+        } catch (HibernateException he) {
+            // rows are only visible to the current transaction; do not mask the original failure (if any)
+            Logger.error(he);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package org.jbei.ice.storage.hibernate;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.Criteria;
+import org.hibernate.NullPrecedence;
+import org.hibernate.Session;
+import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Restrictions;
+import org.hibernate.metadata.ClassMetadata;
+import org.jbei.ice.lib.account.TokenHash;
+import org.jbei.ice.lib.config.ConfigurationCache;
+import org.jbei.ice.lib.dto.ConfigurationKey;
+import org.jbei.ice.lib.dto.common.PageParameters;
+import org.jbei.ice.lib.shared.ColumnField;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Keyset (seek) paging of criteria queries. Results are ordered by the sort property and then by the identifier
+ * so that the order is total. Instead of skipping <code>offset</code> rows, a page that follows another one is
+ * requested with the (opaque) cursor returned for the previous page and is restricted to rows that sort after the
+ * last row of that page, so the cost of retrieving a page does not depend on how deep it is.
+ * <p>
+ * The cursor records the sort field and order, the sort value and identifier of the last row and the offset of the
+ * next page, and is signed with the {@link ConfigurationKey#PAGE_CURSOR_KEY} so that clients cannot construct cursors
+ * (and use them to find out where rows they cannot read sort). Cursors that fail verification are rejected; one
+ * issued for a different sort is ignored and the offset used instead. Nulls sort as the largest value (last in
+ * ascending order, first in descending order) on all databases.
+ * <p>
+ * Since the next page starts after the position of the last row as it was when the previous page was retrieved,
+ * rows added or removed before that position in the meantime do not cause rows to be skipped or repeated, as they
+ * would with offsets. Rows whose sort value changes between pages may, like any other row, move from one side of
+ * the position to the other and so be returned twice or not at all
+ *
+ * @author Hector Plahar
+ */
+public final class KeysetPage {
+
+    private static final String SEPARATOR = ":";
+    private static final String SIGNATURE_SEPARATOR = ".";
+    private static final String ALGORITHM = "HmacSHA256";
+
+    // used if a key has not been configured (e.g. in tests); cursors are then only valid for this instance
+    private static final byte[] LOCAL_KEY = new TokenHash().generateRandomToken(32).getBytes(StandardCharsets.UTF_8);
+
+    private KeysetPage() {
+    }
+
+    /**
+     * Orders and restricts the criteria to the page specified by the parameters
+     *
+     * @param criteria   criteria to page
+     * @param type       type of the entity whose property results are sorted by
+     * @param alias      alias of the entity in the criteria; null if it is the root entity
+     * @param property   name of the entity property results are sorted by
+     * @param parameters paging parameters. If the cursor is set, it takes precedence over the offset
+     * @throws IllegalArgumentException if the cursor is malformed or fails verification
+     */
+    public static void apply(Criteria criteria, Class<?> type, String alias, String property,
+                             PageParameters parameters) {
+        Session session = HibernateUtil.currentSession();
+        ClassMetadata metadata = session.getSessionFactory().getClassMetadata(type);
+        String idName = metadata.getIdentifierPropertyName();
+        String sortName = qualify(alias, property);
+        String idSortName = qualify(alias, idName);
+        boolean asc = parameters.isAscending();
+        boolean sortById = idName.equals(property);
+
+        if (!sortById) {
+            criteria.addOrder(asc ? Order.asc(sortName).nulls(NullPrecedence.LAST)
+                    : Order.desc(sortName).nulls(NullPrecedence.FIRST));
+        }
+        criteria.addOrder(asc ? Order.asc(idSortName) : Order.desc(idSortName));
+        criteria.setMaxResults(parameters.getLimit());
+        parameters.setKeyset(type, property);
+
+        Cursor cursor = Cursor.decode(parameters.getCursor());
+        if (cursor == null || cursor.sortField != parameters.getSortField() || cursor.ascending != asc
+                || !property.equals(cursor.property)) {
+            criteria.setFirstResult(parameters.getOffset());
+            return;
+        }
+
+        Criterion after = asc ? Restrictions.gt(idSortName, cursor.lastId) : Restrictions.lt(idSortName, cursor.lastId);
+        if (sortById) {
+            criteria.add(after);
+            return;
+        }
+
+        Object value = cursor.lastValue;
+        if (value == null) {
+            Criterion tie = Restrictions.and(Restrictions.isNull(sortName), after);
+            // nulls are last when ascending and first when descending
+            criteria.add(asc ? tie : Restrictions.or(tie, Restrictions.isNotNull(sortName)));
+        } else {
+            Criterion tie = Restrictions.and(Restrictions.eq(sortName, value), after);
+            if (asc) {
+                criteria.add(Restrictions.or(Restrictions.gt(sortName, value), tie, Restrictions.isNull(sortName)));
+            } else {
+                criteria.add(Restrictions.or(Restrictions.lt(sortName, value), tie));
+            }
+        }
+    }
+
+    /**
+     * Creates the cursor for the page that follows the one retrieved using the specified parameters (which must
+     * have been passed to {@link #apply(Criteria, Class, String, String, PageParameters)} to retrieve it)
+     *
+     * @param parameters parameters used to retrieve the current page
+     * @param lastId     identifier of the last row in the current page
+     * @param size       number of rows in the current page
+     * @return opaque cursor for the next page, or null if the current page is the last one
+     */
+    public static String nextCursor(PageParameters parameters, long lastId, int size) {
+        if (size == 0 || size < parameters.getLimit())
+            return null;
+
+        int offset = parameters.getOffset();
+        Cursor current = Cursor.decode(parameters.getCursor());
+        if (current != null)
+            offset = current.offset;
+
+        // the last row was loaded with the page, so this does not normally query the database
+        String property = parameters.getKeysetProperty();
+        Object value = null;
+        if (property != null) {
+            Session session = HibernateUtil.currentSession();
+            ClassMetadata metadata = session.getSessionFactory().getClassMetadata(parameters.getKeysetType());
+            if (!metadata.getIdentifierPropertyName().equals(property)) {
+                Object last = session.get(parameters.getKeysetType(), lastId);
+                if (last == null)
+                    property = null;    // removed since; the offset is used for the next page
+                else
+                    value = metadata.getPropertyValue(last, property);
+            }
+        }
+
+        Cursor next = new Cursor(parameters.getSortField(), parameters.isAscending(), lastId, offset + size,
+                property, value);
+        return next.encode();
+    }
+
+    private static String qualify(String alias, String property) {
+        return alias == null ? property : alias + "." + property;
+    }
+
+    private static byte[] sign(String value) {
+        String configured = ConfigurationCache.getInstance().getString(ConfigurationKey.PAGE_CURSOR_KEY);
+        byte[] key = StringUtils.isBlank(configured) ? LOCAL_KEY : configured.getBytes(StandardCharsets.UTF_8);
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(key, ALGORITHM));
+            return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Cursor {
+        private final ColumnField sortField;
+        private final boolean ascending;
+        private final long lastId;
+        private final int offset;
+        private final String property;      // null if the sort value of the last row is not known
+        private final Object lastValue;
+
+        Cursor(ColumnField sortField, boolean ascending, long lastId, int offset, String property, Object lastValue) {
+            this.sortField = sortField;
+            this.ascending = ascending;
+            this.lastId = lastId;
+            this.offset = offset;
+            this.property = property;
+            this.lastValue = lastValue;
+        }
+
+        String encode() {
+            String value = (sortField == null ? "" : sortField.name()) + SEPARATOR + ascending + SEPARATOR
+                    + lastId + SEPARATOR + offset + SEPARATOR + (property == null ? "" : property) + SEPARATOR
+                    + encodeValue(lastValue);
+            Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+            return encoder.encodeToString(value.getBytes(StandardCharsets.UTF_8)) + SIGNATURE_SEPARATOR
+                    + encoder.encodeToString(sign(value));
+        }
+
+        static Cursor decode(String cursor) {
+            if (cursor == null || cursor.isEmpty())
+                return null;
+
+            try {
+                int index = cursor.indexOf(SIGNATURE_SEPARATOR);
+                if (index == -1)
+                    throw new IllegalArgumentException("Invalid page cursor \"" + cursor + "\"");
+
+                Base64.Decoder decoder = Base64.getUrlDecoder();
+                String value = new String(decoder.decode(cursor.substring(0, index)), StandardCharsets.UTF_8);
+                byte[] signature = decoder.decode(cursor.substring(index + 1));
+                if (!MessageDigest.isEqual(signature, sign(value)))
+                    throw new IllegalArgumentException("Page cursor \"" + cursor + "\" failed verification");
+
+                // the sort value is last since strings may contain the separator
+                String[] fields = value.split(SEPARATOR, 6);
+                if (fields.length != 6)
+                    throw new IllegalArgumentException("Invalid page cursor \"" + cursor + "\"");
+
+                ColumnField sortField = fields[0].isEmpty() ? null : ColumnField.valueOf(fields[0]);
+                String property = fields[4].isEmpty() ? null : fields[4];
+                return new Cursor(sortField, Boolean.parseBoolean(fields[1]), Long.parseLong(fields[2]),
+                        Integer.parseInt(fields[3]), property, decodeValue(fields[5]));
+            } catch (IllegalArgumentException e) {
+                // includes NumberFormatException
+                throw new IllegalArgumentException("Invalid page cursor \"" + cursor + "\"", e);
+            }
+        }
+
+        // sort values are prefixed with their type
+        private static String encodeValue(Object value) {
+            if (value == null)
+                return "n";
+            if (value instanceof String)
+                return "s" + value;
+            if (value instanceof Timestamp)
+                return "t" + ((Timestamp) value).getTime() + "," + ((Timestamp) value).getNanos();
+            if (value instanceof Date)
+                return "d" + ((Date) value).getTime();
+            if (value instanceof Long)
+                return "l" + value;
+            if (value instanceof Integer)
+                return "i" + value;
+            throw new IllegalArgumentException("Unsupported sort value type " + value.getClass().getName());
+        }
+
+        private static Object decodeValue(String value) {
+            if (value.isEmpty())
+                throw new IllegalArgumentException("Missing sort value");
+
+            String text = value.substring(1);
+            switch (value.charAt(0)) {
+                case 'n':
+                    return null;
+                case 's':
+                    return text;
+                case 't':
+                    String[] parts = text.split(",");
+                    Timestamp timestamp = new Timestamp(Long.parseLong(parts[0]));
+                    timestamp.setNanos(Integer.parseInt(parts[1]));
+                    return timestamp;
+                case 'd':
+                    return new Date(Long.parseLong(text));
+                case 'l':
+                    return Long.parseLong(text);
+                case 'i':
+                    return Integer.parseInt(text);
+                default:
+                    throw new IllegalArgumentException("Unknown sort value type '" + value.charAt(0) + "'");
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package org.jbei.ice.storage.hibernate;
+
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-thread state used by the {@link RoutingConnectionProvider} to decide whether the connection for a transaction
+ * can come from a read replica.
+ * <p>
+ * Only read-only transactions are routed to replicas. To allow clients to read their own writes despite replication
+ * lag, a client (identified by a key such as the hash of its session id) that commits a transaction that wrote to the
+ * database is "stuck" to the primary for a short while afterwards
+ *
+ * @author Hector Plahar
+ */
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<String> CLIENT = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> WRITTEN = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> REPLICA = new ThreadLocal<>();
+
+    // client key -> time (nanos) until which its transactions use the primary
+    private static final Map<String, Long> STICKY = new ConcurrentHashMap<>();
+    private static final int STICKY_CLEANUP_SIZE = 10000;
+    private static volatile long stickyNanos = TimeUnit.SECONDS.toNanos(10);
+
+    private ReplicaRouting() {
+    }
+
+    /**
+     * Sets the client on whose behalf the current thread is working
+     *
+     * @param clientKey key identifying client; null if unknown
+     */
+    public static void setClient(String clientKey) {
+        if (clientKey == null)
+            CLIENT.remove();
+        else
+            CLIENT.set(clientKey);
+    }
+
+    public static void clearClient() {
+        CLIENT.remove();
+    }
+
+    /**
+     * @param seconds how long a client's transactions use the primary after it writes
+     */
+    static void setStickySeconds(long seconds) {
+        stickyNanos = TimeUnit.SECONDS.toNanos(Math.max(0, seconds));
+    }
+
+    /**
+     * Sets whether the connection about to be acquired by the current thread is for a read-only transaction
+     */
+    static void setReadOnly(boolean readOnly) {
+        if (readOnly)
+            READ_ONLY.set(Boolean.TRUE);
+        else
+            READ_ONLY.remove();
+    }
+
+    /**
+     * @return true if the connection being acquired by the current thread may come from a replica; i.e. it is for a
+     * read-only transaction and the client has not written recently
+     */
+    static boolean useReplica() {
+        if (READ_ONLY.get() == null)
+            return false;
+
+        String client = CLIENT.get();
+        if (client == null)
+            return true;
+
+        Long until = STICKY.get(client);
+        if (until == null)
+            return true;
+
+        if (until - System.nanoTime() > 0)
+            return false;
+
+        STICKY.remove(client, until);
+        return true;
+    }
+
+    /**
+     * Records that the connection for the current thread's transaction is to a replica
+     */
+    static void replicaConnected() {
+        REPLICA.set(Boolean.TRUE);
+    }
+
+    /**
+     * @return true if the current thread's transaction reads from a replica. Data read may lag behind the primary,
+     * so it should not be retained beyond the transaction (e.g. in caches shared with other requests)
+     */
+    public static boolean isUsingReplica() {
+        return REPLICA.get() != null;
+    }
+
+    /**
+     * Called when a transaction is started by the current thread
+     */
+    static void transactionStarted() {
+        WRITTEN.remove();
+        REPLICA.remove();
+    }
+
+    /**
+     * Records that the current transaction has written to the database
+     */
+    static void written() {
+        WRITTEN.set(Boolean.TRUE);
+    }
+
+    /**
+     * Called when the current thread's transaction completes. If it committed changes, the client's subsequent
+     * transactions use the primary
+     *
+     * @param committed true if the transaction committed, false if it was rolled back
+     */
+    static void transactionCompleted(boolean committed) {
+        boolean written = WRITTEN.get() != null;
+        WRITTEN.remove();
+        REPLICA.remove();
+        String client = CLIENT.get();
+        if (!committed || !written || client == null || stickyNanos == 0)
+            return;
+
+        long now = System.nanoTime();
+        if (STICKY.size() > STICKY_CLEANUP_SIZE)
+            STICKY.values().removeIf(until -> until - now <= 0);
+        STICKY.put(client, now + stickyNanos);
+    }
+
+    /**
+     * Event listener that records entity and collection changes flushed by the session as writes
+     */
+    static class WriteListener implements PostInsertEventListener, PostUpdateEventListener,
+            PostDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener,
+            PostCollectionRemoveEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            written();
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            written();
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            written();
+        }
+
+        @Override
+        public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+            written();
+        }
+
+        @Override
+        public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+            written();
+        }
+
+        @Override
+        public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+            written();
+        }
+
+        @Override
+        public boolean requiresPostCommitHanding(EntityPersister persister) {
+            return false;
+        }
+    }
+}
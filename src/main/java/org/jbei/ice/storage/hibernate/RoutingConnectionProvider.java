@@ -0,0 +1,169 @@
+package org.jbei.ice.storage.hibernate;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.c3p0.internal.C3P0ConnectionProvider;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.internal.DriverManagerConnectionProviderImpl;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.service.UnknownUnwrapTypeException;
+import org.hibernate.service.spi.*;
+import org.jbei.ice.lib.common.logging.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connection provider that routes connections for read-only transactions to read replicas (when configured) and
+ * all others to the primary database. See {@link ReplicaRouting} for how the decision is made.
+ * <p>
+ * Each database gets its own pool; c3p0 if any <code>hibernate.c3p0.*</code> settings are present, otherwise
+ * Hibernate's built-in pool. Replicas are configured with the following settings, and otherwise use the same
+ * settings as the primary
+ * <ul>
+ * <li><code>ice.replica.urls</code> comma separated list of replica jdbc urls. If empty, all connections are to the
+ * primary</li>
+ * <li><code>ice.replica.username</code>, <code>ice.replica.password</code> replica credentials</li>
+ * <li><code>ice.replica.sticky_seconds</code> how long a client that writes reads from the primary afterwards.
+ * Should exceed the expected replication lag (default 10)</li>
+ * </ul>
+ * If a replica connection cannot be obtained, a primary connection is used instead
+ *
+ * @author Hector Plahar
+ */
+public class RoutingConnectionProvider implements ConnectionProvider, Configurable, Stoppable,
+        ServiceRegistryAwareService {
+
+    public static final String REPLICA_URLS = "ice.replica.urls";
+    public static final String REPLICA_USERNAME = "ice.replica.username";
+    public static final String REPLICA_PASSWORD = "ice.replica.password";
+    public static final String REPLICA_STICKY_SECONDS = "ice.replica.sticky_seconds";
+
+    private ServiceRegistryImplementor serviceRegistry;
+    private ConnectionProvider primary;
+    private final List<ConnectionProvider> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    // provider each open connection was obtained from, so that it is returned to the right pool
+    private final Map<Connection, ConnectionProvider> openConnections = new ConcurrentHashMap<>();
+
+    @Override
+    public void injectServices(ServiceRegistryImplementor serviceRegistry) {
+        this.serviceRegistry = serviceRegistry;
+    }
+
+    @Override
+    public void configure(Map configurationValues) {
+        primary = createProvider(configurationValues);
+
+        String urls = (String) configurationValues.get(REPLICA_URLS);
+        if (StringUtils.isBlank(urls))
+            return;
+
+        for (String url : urls.split(",")) {
+            if (StringUtils.isBlank(url))
+                continue;
+
+            Map<Object, Object> replicaValues = new HashMap<>(configurationValues);
+            replicaValues.put(AvailableSettings.URL, url.trim());
+            if (configurationValues.containsKey(REPLICA_USERNAME))
+                replicaValues.put(AvailableSettings.USER, configurationValues.get(REPLICA_USERNAME));
+            if (configurationValues.containsKey(REPLICA_PASSWORD))
+                replicaValues.put(AvailableSettings.PASS, configurationValues.get(REPLICA_PASSWORD));
+            replicas.add(createProvider(replicaValues));
+        }
+
+        Object sticky = configurationValues.get(REPLICA_STICKY_SECONDS);
+        if (sticky != null) {
+            try {
+                ReplicaRouting.setStickySeconds(Long.parseLong(sticky.toString().trim()));
+            } catch (NumberFormatException e) {
+                Logger.error("Invalid value for " + REPLICA_STICKY_SECONDS + ": " + sticky);
+            }
+        }
+        Logger.info("Routing read-only transactions to " + replicas.size() + " replica(s)");
+    }
+
+    private ConnectionProvider createProvider(Map values) {
+        boolean c3p0 = false;
+        for (Object key : values.keySet()) {
+            if (key.toString().startsWith("hibernate.c3p0.")) {
+                c3p0 = true;
+                break;
+            }
+        }
+
+        ConnectionProvider provider = c3p0 ? new C3P0ConnectionProvider() : new DriverManagerConnectionProviderImpl();
+        ((ServiceRegistryAwareService) provider).injectServices(serviceRegistry);
+        ((Configurable) provider).configure(values);
+        return provider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        ConnectionProvider provider = primary;
+        Connection connection = null;
+
+        if (!replicas.isEmpty() && ReplicaRouting.useReplica()) {
+            provider = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+            try {
+                connection = provider.getConnection();
+                ReplicaRouting.replicaConnected();
+            } catch (SQLException e) {
+                Logger.warn("Could not obtain replica connection. Using primary: " + e.getMessage());
+                provider = primary;
+            }
+        }
+
+        if (connection == null)
+            connection = provider.getConnection();
+        openConnections.put(connection, provider);
+        return connection;
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        ConnectionProvider provider = openConnections.remove(connection);
+        if (provider == null)
+            provider = primary;
+        provider.closeConnection(connection);
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class unwrapType) {
+        return ConnectionProvider.class.equals(unwrapType)
+                || RoutingConnectionProvider.class.isAssignableFrom(unwrapType);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (isUnwrappableAs(unwrapType))
+            return (T) this;
+        throw new UnknownUnwrapTypeException(unwrapType);
+    }
+
+    @Override
+    public void stop() {
+        stop(primary);
+        for (ConnectionProvider replica : replicas) {
+            stop(replica);
+        }
+        replicas.clear();
+    }
+
+    private void stop(ConnectionProvider provider) {
+        if (provider instanceof Stoppable)
+            ((Stoppable) provider).stop();
+    }
+}
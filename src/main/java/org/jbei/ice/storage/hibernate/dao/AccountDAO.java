@@ -4,6 +4,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.hibernate.Criteria;
 import org.hibernate.HibernateException;
 import org.hibernate.criterion.*;
+import org.jbei.ice.lib.access.AuthorizationContext;
 import org.jbei.ice.lib.common.logging.Logger;
 import org.jbei.ice.storage.DAOException;
 import org.jbei.ice.storage.hibernate.HibernateRepository;
@@ -20,6 +21,19 @@ import java.util.Set;
  */
 public class AccountDAO extends HibernateRepository<Account> {
 
+    /**
+     * Updates the account. Group membership may have changed so memoised authorization decisions for the current
+     * request are discarded
+     *
+     * @param account account to update
+     * @return updated account
+     */
+    @Override
+    public Account update(Account account) {
+        AuthorizationContext.invalidate();
+        return super.update(account);
+    }
+
     /**
      * Retrieve {@link Account} by id from the database.
      *
@@ -75,6 +89,8 @@ public class AccountDAO extends HibernateRepository<Account> {
         try {
             return (Account) currentSession().createCriteria(Account.class)
                     .add(Restrictions.eq("email", email.trim()).ignoreCase())
+                    .setCacheable(true)
+                    .setCacheRegion("query.account")
                     .uniqueResult();
         } catch (HibernateException e) {
             Logger.error(e);
@@ -11,6 +11,7 @@ import org.jbei.ice.lib.common.logging.Logger;
 import org.jbei.ice.lib.dto.entry.Visibility;
 import org.jbei.ice.storage.DAOException;
 import org.jbei.ice.storage.hibernate.HibernateRepository;
+import org.jbei.ice.storage.hibernate.IdSetQuery;
 import org.jbei.ice.storage.model.Account;
 import org.jbei.ice.storage.model.BulkUpload;
 import org.jbei.ice.storage.model.Entry;
@@ -108,17 +109,11 @@ public class BulkUploadDAO extends HibernateRepository<BulkUpload> {
 
             List<Long> entryIds = criteria.list();
 
-            Criteria c = currentSession().createCriteria(Entry.class)
-                    .add(Restrictions.in("id", entryIds))
-                    .createAlias("linkedEntries", "links")
-                    .setProjection(Projections.property("links.id"));
-            entryIds.addAll(c.list());
-
-            String hql = "update " + Entry.class.getName() + " set visibility=:v where id in :ids";
-            return currentSession().createQuery(hql)
-                    .setParameter("v", status.getValue())
-                    .setParameterList("ids", entryIds)
-                    .executeUpdate();
+            entryIds.addAll(IdSetQuery.list(entryIds, set -> "select link.id from " + Entry.class.getName()
+                    + " e join e.linkedEntries link where e.id in " + set, null));
+
+            return IdSetQuery.executeUpdate(entryIds, set -> "update " + Entry.class.getName()
+                    + " set visibility=:v where id in " + set, query -> query.setParameter("v", status.getValue()));
 
         } catch (HibernateException e) {
             Logger.error(e);
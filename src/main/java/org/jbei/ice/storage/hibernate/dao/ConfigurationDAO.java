@@ -36,6 +36,8 @@ public class ConfigurationDAO extends HibernateRepository<Configuration> {
         try {
             Query query = session.createQuery("from " + Configuration.class.getName() + " where key = :key");
             query.setParameter("key", key);
+            query.setCacheable(true);
+            query.setCacheRegion("query.configuration");
             Object queryResult = query.uniqueResult();
 
             if (queryResult != null) {
@@ -53,13 +55,16 @@ public class ConfigurationDAO extends HibernateRepository<Configuration> {
         return get(Configuration.class, id);
     }
 
+    /**
+     * Retrieves all configuration values. They are always read from the primary database since they are cached
+     * by {@link org.jbei.ice.lib.config.ConfigurationCache}
+     *
+     * @return all configuration values
+     */
     @SuppressWarnings("unchecked")
     public List<Configuration> getAll() {
-        Session session = currentSession();
-
         try {
-            Query query = session.createQuery("from " + Configuration.class.getName());
-            return query.list();
+            return onPrimary(session -> session.createQuery("from " + Configuration.class.getName()).list());
         } catch (HibernateException he) {
             Logger.error(he);
             throw new DAOException(he);
@@ -5,16 +5,20 @@ import org.hibernate.HibernateException;
 import org.hibernate.Query;
 import org.hibernate.Session;
 import org.hibernate.criterion.*;
+import org.jbei.ice.lib.access.AuthorizationContext;
 import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.lib.dto.common.PageParameters;
 import org.jbei.ice.lib.dto.entry.AutoCompleteField;
 import org.jbei.ice.lib.dto.entry.EntryType;
 import org.jbei.ice.lib.dto.entry.Visibility;
 import org.jbei.ice.lib.entry.EntryUtil;
+import org.jbei.ice.lib.entry.PartNumberAllocator;
 import org.jbei.ice.lib.group.GroupController;
 import org.jbei.ice.lib.shared.ColumnField;
 import org.jbei.ice.storage.DAOException;
 import org.jbei.ice.storage.hibernate.HibernateRepository;
-import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.jbei.ice.storage.hibernate.IdSetQuery;
+import org.jbei.ice.storage.hibernate.KeysetPage;
 import org.jbei.ice.storage.model.*;
 
 import java.util.*;
@@ -27,6 +31,13 @@ import java.util.*;
 @SuppressWarnings("unchecked")
 public class EntryDAO extends HibernateRepository<Entry> {
 
+    // ownership may have changed; discard memoised authorization decisions for the current request
+    @Override
+    public Entry update(Entry entry) {
+        AuthorizationContext.invalidate();
+        return super.update(entry);
+    }
+
     public String getEntrySummary(long id) throws DAOException {
         try {
             return (String) currentSession().createCriteria(Entry.class)
@@ -184,8 +195,22 @@ public class EntryDAO extends HibernateRepository<Entry> {
      */
     public Set<Entry> retrieveVisibleEntries(Account account, Set<Group> groups, ColumnField sortField, boolean asc,
                                              int start, int count, String filter) throws DAOException {
+        return retrieveVisibleEntries(account, groups, new PageParameters(start, count, sortField, asc, filter));
+    }
+
+    /**
+     * Retrieves a page of entries that the specified account or groups have read permissions on
+     *
+     * @param account account; may be null in which case only group permissions are considered
+     * @param groups  groups
+     * @param page    paging parameters; see {@link KeysetPage}
+     * @return page of matching entries
+     * @throws DAOException on hibernate exception
+     */
+    public Set<Entry> retrieveVisibleEntries(Account account, Set<Group> groups, PageParameters page)
+            throws DAOException {
         try {
-            String fieldName = columnFieldToString(sortField);
+            String filter = page.getFilter();
             DetachedCriteria detachedCriteria = DetachedCriteria.forClass(Entry.class)
                     .createAlias("permissions", "p")
                     .add(Restrictions.eq("visibility", Visibility.OK.getValue()));
@@ -211,10 +236,7 @@ public class EntryDAO extends HibernateRepository<Entry> {
 
             Criteria criteria = currentSession().createCriteria(Entry.class);
             criteria.add(Subqueries.propertyIn("id", detachedCriteria));
-
-            criteria.addOrder(asc ? Order.asc(fieldName) : Order.desc(fieldName));
-            criteria.setFirstResult(start);
-            criteria.setMaxResults(count);
+            KeysetPage.apply(criteria, Entry.class, null, columnFieldToString(page.getSortField()), page);
             return new LinkedHashSet<>(criteria.list());
         } catch (HibernateException he) {
             Logger.error(he);
@@ -319,14 +341,18 @@ public class EntryDAO extends HibernateRepository<Entry> {
     // retrieves list of entries based on the paging parameters and the different ways entries can be shared
     public List<Entry> sharedWithUserEntries(Account requester, Set<Group> accountGroups, ColumnField sort,
                                              boolean asc, int start, int limit, String filter) throws DAOException {
+        return sharedWithUserEntries(requester, accountGroups, new PageParameters(start, limit, sort, asc, filter));
+    }
+
+    public List<Entry> sharedWithUserEntries(Account requester, Set<Group> accountGroups, PageParameters page)
+            throws DAOException {
         try {
             Criteria criteria = getSharedWithUserCriteria(requester, accountGroups);
             criteria.setProjection(Projections.property("entry"));
-            String fieldName = sort == ColumnField.CREATED ? "entry.id" : columnFieldToString(sort);
-            checkAddFilter(criteria, filter, "entry");
-            criteria.addOrder(asc ? Order.asc(fieldName) : Order.desc(fieldName));
-            criteria.setFirstResult(start);
-            criteria.setMaxResults(limit);
+            ColumnField sort = page.getSortField();
+            String fieldName = sort == ColumnField.CREATED ? "id" : columnFieldToString(sort);
+            checkAddFilter(criteria, page.getFilter(), "entry");
+            KeysetPage.apply(criteria, Entry.class, "entry", fieldName, page);
             return new ArrayList<>(criteria.list());
         } catch (HibernateException he) {
             Logger.error(he);
@@ -362,6 +388,12 @@ public class EntryDAO extends HibernateRepository<Entry> {
     public List<Entry> retrieveUserEntries(Account requester, String owner, Set<Group> requesterGroups,
                                            ColumnField sortField, boolean asc, int start, int limit, String filter)
             throws DAOException {
+        return retrieveUserEntries(requester, owner, requesterGroups,
+                new PageParameters(start, limit, sortField, asc, filter));
+    }
+
+    public List<Entry> retrieveUserEntries(Account requester, String owner, Set<Group> requesterGroups,
+                                           PageParameters page) throws DAOException {
         Criteria criteria = currentSession().createCriteria(Permission.class);
         criteria.setProjection(Projections.property("entry"));
 
@@ -375,11 +407,9 @@ public class EntryDAO extends HibernateRepository<Entry> {
         criteria.add(Restrictions.eq("entry.ownerEmail", owner));
 
         // sort
-        String fieldName = sortField == ColumnField.CREATED ? "entry.id" : "entry." + columnFieldToString(sortField);
-        criteria.addOrder(asc ? Order.asc(fieldName) : Order.desc(fieldName));
-        checkAddFilter(criteria, filter, "entry");
-        criteria.setFirstResult(start);
-        criteria.setMaxResults(limit);
+        String fieldName = page.getSortField() == ColumnField.CREATED ? "id" : columnFieldToString(page.getSortField());
+        checkAddFilter(criteria, page.getFilter(), "entry");
+        KeysetPage.apply(criteria, Entry.class, "entry", fieldName, page);
         criteria.setResultTransformer(Criteria.DISTINCT_ROOT_ENTITY);
         return criteria.list();
     }
@@ -416,14 +446,12 @@ public class EntryDAO extends HibernateRepository<Entry> {
         }
 
         try {
-            Query query = currentSession().createQuery(
-                    "FROM " + Entry.class.getName() + " e WHERE e.id IN (:ids) order by id asc");
             ArrayList<Long> list = new ArrayList<>(ids.size());
             for (Number id : ids) {
                 list.add(id.longValue());
             }
-            query.setParameterList("ids", list);
-            List result = query.list();
+            List<Entry> result = IdSetQuery.list(list,
+                    set -> "FROM " + Entry.class.getName() + " e WHERE e.id IN " + set + " order by id asc", null);
             return new LinkedList<>(result);
         } catch (HibernateException e) {
             Logger.error(e);
@@ -449,27 +477,26 @@ public class EntryDAO extends HibernateRepository<Entry> {
         }
     }
 
-    public synchronized void generateNextStrainNameForEntry(Entry entry, String prefix) throws DAOException {
-        Criteria criteria = currentSession().createCriteria(Entry.class)
-                .add(Restrictions.like("name", prefix + "1", MatchMode.START));
-        criteria.addOrder(Order.desc("name"));
-        criteria.setMaxResults(1);
-        List list = criteria.list();
-        int next = 0;
-        if (!list.isEmpty()) {
-            Entry resultEntry = (Entry) list.get(0);
-            String name = resultEntry.getName();
-            next = Integer.decode(name.split(prefix)[1]);
-        }
-        next += 1;
-        String nextName = prefix + next;
-        entry.setName(nextName);
-        currentSession().update(entry);
+    /**
+     * Sets the name of the entry to the prefix followed by the next number allocated for that prefix
+     *
+     * @param entry  entry whose name is being set
+     * @param prefix name prefix
+     * @throws DAOException on exception allocating the number or updating the entry
+     */
+    public void generateNextStrainNameForEntry(Entry entry, String prefix) throws DAOException {
+        entry.setName(prefix + PartNumberAllocator.next(prefix));
+        update(entry);
     }
 
-    @SuppressWarnings("unchecked")
     public List<Entry> getByVisibility(String ownerEmail, Visibility visibility, ColumnField field, boolean asc,
                                        int start, int limit, String filter) throws DAOException {
+        return getByVisibility(ownerEmail, visibility, new PageParameters(start, limit, field, asc, filter));
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<Entry> getByVisibility(String ownerEmail, Visibility visibility, PageParameters page)
+            throws DAOException {
         try {
             Criteria criteria = currentSession().createCriteria(Entry.class)
                     .add(Restrictions.eq("visibility", visibility.getValue()));
@@ -477,11 +504,8 @@ public class EntryDAO extends HibernateRepository<Entry> {
             if (ownerEmail != null) {
                 criteria.add(Restrictions.eq("ownerEmail", ownerEmail));
             }
-            checkAddFilter(criteria, filter, null);
-            String fieldName = columnFieldToString(field);
-            criteria.addOrder(asc ? Order.asc(fieldName) : Order.desc(fieldName));
-            criteria.setMaxResults(limit);
-            criteria.setFirstResult(start);
+            checkAddFilter(criteria, page.getFilter(), null);
+            KeysetPage.apply(criteria, Entry.class, null, columnFieldToString(page.getSortField()), page);
             return new LinkedList<>(criteria.list());
         } catch (HibernateException he) {
             Logger.error(he);
@@ -547,8 +571,20 @@ public class EntryDAO extends HibernateRepository<Entry> {
      */
     public List<Entry> retrieveOwnerEntries(String ownerEmail, ColumnField sort, boolean asc, int start,
                                             int limit, String filter) throws DAOException {
+        return retrieveOwnerEntries(ownerEmail, new PageParameters(start, limit, sort, asc, filter));
+    }
+
+    /**
+     * Retrieves a page of entries owned by account with specified email and with visibility of "pending" or "ok"
+     *
+     * @param ownerEmail email for account whose entries are to be retrieved
+     * @param page       paging parameters; see {@link KeysetPage}
+     * @return list of matching entries
+     * @throws DAOException on hibernate exception
+     */
+    public List<Entry> retrieveOwnerEntries(String ownerEmail, PageParameters page) throws DAOException {
         try {
-            String fieldName = columnFieldToString(sort);
+            String filter = page.getFilter();
             Criteria criteria = currentSession().createCriteria(Entry.class)
                     .add(Restrictions.disjunction()
                             .add(Restrictions.eq("visibility", Visibility.OK.getValue()))
@@ -560,9 +596,7 @@ public class EntryDAO extends HibernateRepository<Entry> {
                         .add(Restrictions.ilike("alias", filter, MatchMode.ANYWHERE))
                         .add(Restrictions.ilike("partNumber", filter, MatchMode.ANYWHERE)));
             }
-            criteria.setMaxResults(limit);
-            criteria.setFirstResult(start);
-            criteria.addOrder(asc ? Order.asc(fieldName) : Order.desc(fieldName));
+            KeysetPage.apply(criteria, Entry.class, null, columnFieldToString(page.getSortField()), page);
             return criteria.list();
         } catch (HibernateException he) {
             Logger.error(he);
@@ -594,7 +628,7 @@ public class EntryDAO extends HibernateRepository<Entry> {
 
     public List<Long> getVisibleEntryIds(boolean admin) {
         try {
-            Session session = HibernateUtil.getSessionFactory().getCurrentSession();
+            Session session = currentSession();
             Query query;
 
             if (admin) {
@@ -616,17 +650,15 @@ public class EntryDAO extends HibernateRepository<Entry> {
 
     public Set<Entry> retrieveAllEntries(ColumnField sort, boolean asc, int start, int limit, String filter)
             throws DAOException {
-        try {
-            if (sort == null)
-                sort = ColumnField.CREATED;
+        return retrieveAllEntries(new PageParameters(start, limit, sort, asc, filter));
+    }
 
-            String fieldName = columnFieldToString(sort);
+    public Set<Entry> retrieveAllEntries(PageParameters page) throws DAOException {
+        try {
             Criteria criteria = currentSession().createCriteria(Entry.class)
                     .add(Restrictions.eq("visibility", Visibility.OK.getValue()));
-            checkAddFilter(criteria, filter, null);
-            criteria.addOrder(asc ? Order.asc(fieldName) : Order.desc(fieldName));
-            criteria.setMaxResults(limit);
-            criteria.setFirstResult(start);
+            checkAddFilter(criteria, page.getFilter(), null);
+            KeysetPage.apply(criteria, Entry.class, null, columnFieldToString(page.getSortField()), page);
             return new LinkedHashSet<>(criteria.list());
         } catch (HibernateException he) {
             Logger.error(he);
@@ -696,9 +728,11 @@ public class EntryDAO extends HibernateRepository<Entry> {
      * to represent a parent child reln. This method returns the parents in the reln
      */
     public List<Entry> getParents(long entryId) throws DAOException {
-        return currentSession().createCriteria(Entry.class)
-                .createAlias("linkedEntries", "link")
-                .add(Restrictions.eq("link.id", entryId)).list();
+        // hql (unlike criteria) includes the link table in the query spaces so pending link changes are flushed
+        Query query = currentSession().createQuery("select e from " + Entry.class.getName()
+                + " e join e.linkedEntries link where link.id = :id");
+        query.setParameter("id", entryId);
+        return query.list();
     }
 
     public int getDeletedCount(String ownerUserId) {
@@ -715,31 +749,25 @@ public class EntryDAO extends HibernateRepository<Entry> {
         if (list.isEmpty())
             return 0;
 
-        Query query = currentSession().createQuery("update " + Entry.class.getName()
-                + " e set e.visibility=:v where e.id in :ids");
-        query.setParameter("v", ok.getValue());
-        query.setParameterList("ids", list);
-        return query.executeUpdate();
+        return IdSetQuery.executeUpdate(list, set -> "update " + Entry.class.getName()
+                + " e set e.visibility=:v where e.id in " + set, query -> query.setParameter("v", ok.getValue()));
     }
 
     public List<String> getRecordTypes(List<Long> list) {
         if (list.isEmpty())
             return new ArrayList<>();
 
-        return currentSession().createCriteria(Entry.class)
-                .add(Restrictions.in("id", list))
-                .setProjection(Projections.distinct(Projections.property("recordType")))
-                .list();
+        List<String> recordTypes = IdSetQuery.list(list, set -> "select distinct e.recordType from "
+                + Entry.class.getName() + " e where e.id in " + set, null);
+        return new ArrayList<>(new LinkedHashSet<>(recordTypes));
     }
 
     public List<Long> filterByUserId(String userId, List<Long> entries) {
         if (entries.isEmpty())
             return new ArrayList<>();
 
-        return currentSession().createCriteria(Entry.class)
-                .add(Restrictions.in("id", entries))
-                .add(Restrictions.eq("ownerEmail", userId))
-                .setProjection(Projections.distinct(Projections.property("id")))
-                .list();
+        return IdSetQuery.list(entries, set -> "select distinct e.id from " + Entry.class.getName()
+                + " e where e.id in " + set + " and e.ownerEmail = :owner",
+                query -> query.setParameter("owner", userId));
     }
 }
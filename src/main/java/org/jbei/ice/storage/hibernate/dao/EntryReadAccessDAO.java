@@ -0,0 +1,314 @@
+package org.jbei.ice.storage.hibernate.dao;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Query;
+import org.hibernate.Session;
+import org.jbei.ice.lib.access.AuthorizationContext;
+import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.lib.dto.entry.Visibility;
+import org.jbei.ice.lib.dto.folder.FolderType;
+import org.jbei.ice.storage.DAOException;
+import org.jbei.ice.storage.hibernate.HibernateRepository;
+import org.jbei.ice.storage.hibernate.IdSetQuery;
+import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.jbei.ice.storage.model.*;
+
+import java.util.*;
+
+/**
+ * Data accessor object for the materialised entry read access table ({@link EntryReadAccessModel}).
+ * <p>
+ * Rows for an entry are re-computed (see {@link #rebuild(Collection)}) whenever a permission on the entry or on a
+ * folder containing it changes, the entry is added to or removed from a folder, or the type of a containing folder
+ * changes. Group membership is not materialised; groups are resolved when checking access so membership
+ * changes do not require any maintenance.
+ * <p>
+ * The table is populated for existing entries by {@link org.jbei.ice.lib.access.EntryReadAccessBuildTask};
+ * until that has completed {@link #isBuilt()} returns false and callers should use the permissions directly
+ *
+ * @author Hector Plahar
+ */
+@SuppressWarnings("unchecked")
+public class EntryReadAccessDAO extends HibernateRepository<EntryReadAccessModel> {
+
+    // configuration entry recording that the table has been populated for all existing entries
+    public static final String BUILT_KEY = "ENTRY_READ_ACL_BUILT";
+
+    private static final int CHUNK_SIZE = 500;
+    private static final long BUILT_CHECK_INTERVAL_MS = 60 * 1000;
+
+    private static volatile boolean built;
+    private static volatile long lastBuiltCheck;
+
+    @Override
+    public EntryReadAccessModel get(long id) {
+        return super.get(EntryReadAccessModel.class, id);
+    }
+
+    /**
+     * @return true if the table has been populated for all entries and can be used for access checks. Until then
+     * the marker is re-checked at most once a minute
+     */
+    public boolean isBuilt() {
+        if (built)
+            return true;
+
+        long now = System.currentTimeMillis();
+        if (now - lastBuiltCheck < BUILT_CHECK_INTERVAL_MS)
+            return false;
+
+        lastBuiltCheck = now;
+        try {
+            // retained for all requests so not read from a replica
+            Object value = onPrimary(session -> session.createQuery("select value from "
+                    + Configuration.class.getName() + " where key = :key")
+                    .setParameter("key", BUILT_KEY)
+                    .uniqueResult());
+            built = value != null && Boolean.parseBoolean(value.toString());
+            return built;
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
+        }
+    }
+
+    /**
+     * Records that the table has been populated for all entries. Takes effect when the current transaction commits
+     */
+    public void setBuilt() {
+        ConfigurationDAO configurationDAO = new ConfigurationDAO();
+        Configuration configuration = configurationDAO.get(BUILT_KEY);
+        if (configuration == null) {
+            configurationDAO.create(new Configuration(BUILT_KEY, "true"));
+        } else {
+            configuration.setValue("true");
+            configurationDAO.update(configuration);
+        }
+        HibernateUtil.afterCommit(() -> built = true);
+    }
+
+    // for tests: forces the marker to be re-checked on next access
+    static void resetBuilt() {
+        built = false;
+        lastBuiltCheck = 0;
+    }
+
+    /**
+     * Determines if a registered user has read access to an entry through a permission on the entry,
+     * a permission on a folder containing it, or because it is in a public folder. Ownership and administrative
+     * privileges are not recorded and must be checked separately
+     *
+     * @param entryId   unique entry identifier
+     * @param accountId unique identifier for user's account
+     * @param groupIds  identifiers for all groups the user belongs to (including parent groups)
+     * @return true if the user can read the entry
+     */
+    public boolean hasAccess(long entryId, long accountId, Set<Long> groupIds) {
+        try {
+            Query query = currentSession().createQuery("select a.id from " + EntryReadAccessModel.class.getName()
+                    + " a where a.entryId = :entry and " + principalClause("a", groupIds));
+            query.setParameter("entry", entryId);
+            setPrincipals(query, accountId, groupIds);
+            query.setMaxResults(1);
+            return !query.list().isEmpty();
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
+        }
+    }
+
+    /**
+     * Filters the specified entries, retaining the ones that the user owns or has read access to
+     *
+     * @param accountId   unique identifier for user's account
+     * @param ownerEmail  user's email, to include entries owned by the user (compared ignoring case). Entries
+     *                    without an owner are included as well, as in
+     *                    {@link org.jbei.ice.lib.access.Authorization}
+     * @param groupIds    identifiers for all groups the user belongs to (including parent groups)
+     * @param entryIds    identifiers for entries to filter
+     * @param visibleOnly whether to only retain entries with "OK" visibility
+     * @return subset of <code>entryIds</code> that the user can read
+     */
+    public List<Long> getReadableEntries(long accountId, String ownerEmail, Set<Long> groupIds,
+                                         List<Long> entryIds, boolean visibleOnly) {
+        List<Long> readable = new ArrayList<>();
+        if (entryIds == null || entryIds.isEmpty())
+            return readable;
+
+        String conditions = (visibleOnly ? "and e.visibility = :visibility " : "")
+                + "and (e.ownerEmail is null or lower(e.ownerEmail) = :email or exists (select a.id from "
+                + EntryReadAccessModel.class.getName() + " a where a.entryId = e.id and "
+                + principalClause("a", groupIds) + "))";
+        try {
+            readable.addAll(IdSetQuery.<Long>list(entryIds, set -> "select e.id from " + Entry.class.getName()
+                    + " e where e.id in " + set + " " + conditions, query -> {
+                if (visibleOnly)
+                    query.setParameter("visibility", Visibility.OK.getValue());
+                query.setParameter("email", ownerEmail.toLowerCase());
+                setPrincipals(query, accountId, groupIds);
+            }));
+            return readable;
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
+        }
+    }
+
+    /**
+     * Re-computes the read access rows for the specified entries from the current permissions and folders
+     *
+     * @param entryIds unique identifiers for entries whose access has (potentially) changed
+     */
+    public void rebuild(Collection<Long> entryIds) {
+        if (entryIds == null || entryIds.isEmpty())
+            return;
+
+        AuthorizationContext.invalidate();
+        try {
+            Session session = currentSession();
+            for (List<Long> chunk : IdSetQuery.chunks(entryIds)) {
+                Query delete = session.createQuery("delete from " + EntryReadAccessModel.class.getName()
+                        + " where entryId in (:ids)");
+                delete.setParameterList("ids", chunk);
+                delete.executeUpdate();
+
+                for (EntryReadAccessModel model : compute(session, chunk)) {
+                    session.save(model);
+                }
+            }
+            session.flush();
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
+        }
+    }
+
+    /**
+     * Re-computes the read access rows for the contents of a folder
+     *
+     * @param folder folder whose permissions, type or contents have changed
+     */
+    public void rebuild(Folder folder) {
+        if (folder == null)
+            return;
+
+        try {
+            Query query = currentSession().createQuery("select e.id from " + Folder.class.getName()
+                    + " f join f.contents e where f.id = :id");
+            query.setParameter("id", folder.getId());
+            rebuild(query.list());
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
+        }
+    }
+
+    /**
+     * Re-computes the read access rows for all entries. The session is cleared after each batch
+     *
+     * @return number of entries processed
+     */
+    public int rebuildAll() {
+        Session session = currentSession();
+        long lastId = 0;
+        int count = 0;
+        try {
+            while (true) {
+                Query query = session.createQuery("select e.id from " + Entry.class.getName()
+                        + " e where e.id > :last order by e.id");
+                query.setParameter("last", lastId);
+                query.setMaxResults(CHUNK_SIZE);
+                List<Long> ids = query.list();
+                if (ids.isEmpty())
+                    return count;
+
+                rebuild(ids);
+                session.flush();
+                session.clear();
+                count += ids.size();
+                lastId = ids.get(ids.size() - 1);
+            }
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
+        }
+    }
+
+    /**
+     * Removes all read access granted to a group
+     *
+     * @param group group being deleted
+     * @return number of rows removed
+     */
+    public int removeGroup(Group group) {
+        AuthorizationContext.invalidate();
+        try {
+            Query query = currentSession().createQuery("delete from " + EntryReadAccessModel.class.getName()
+                    + " where groupId = :group");
+            query.setParameter("group", group.getId());
+            return query.executeUpdate();
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
+        }
+    }
+
+    // determines the distinct principals that can read each of the entries in the chunk
+    private List<EntryReadAccessModel> compute(Session session, List<Long> entryIds) {
+        Set<List<Long>> grants = new LinkedHashSet<>();
+
+        // read or write permissions on the entries
+        Query query = session.createQuery("select e.id, a.id, g.id from " + Permission.class.getName()
+                + " p join p.entry e left join p.account a left join p.group g where e.id in (:ids) "
+                + "and (p.canRead = true or p.canWrite = true)");
+        query.setParameterList("ids", entryIds);
+        addGrants(grants, query.list());
+
+        // read permissions on folders that contain the entries
+        query = session.createQuery("select e.id, a.id, g.id from " + Permission.class.getName()
+                + " p join p.folder f join f.contents e left join p.account a left join p.group g "
+                + "where p.entry is null and p.canRead = true and e.id in (:ids)");
+        query.setParameterList("ids", entryIds);
+        addGrants(grants, query.list());
+
+        // contained in public folders
+        query = session.createQuery("select distinct e.id from " + Folder.class.getName()
+                + " f join f.contents e where f.type = :type and e.id in (:ids)");
+        query.setParameter("type", FolderType.PUBLIC);
+        query.setParameterList("ids", entryIds);
+        for (Object id : query.list()) {
+            grants.add(Arrays.asList((Long) id, null, null));
+        }
+
+        List<EntryReadAccessModel> models = new ArrayList<>(grants.size());
+        for (List<Long> grant : grants) {
+            models.add(new EntryReadAccessModel(grant.get(0), grant.get(1), grant.get(2)));
+        }
+        return models;
+    }
+
+    private void addGrants(Set<List<Long>> grants, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            Long accountId = (Long) row[1];
+            Long groupId = (Long) row[2];
+            // a permission without a principal does not grant anything
+            if (accountId == null && groupId == null)
+                continue;
+            grants.add(Arrays.asList((Long) row[0], accountId, groupId));
+        }
+    }
+
+    private String principalClause(String alias, Set<Long> groupIds) {
+        String clause = "(" + alias + ".accountId = :account or (" + alias + ".accountId is null and "
+                + alias + ".groupId is null)";
+        if (groupIds != null && !groupIds.isEmpty())
+            clause += " or " + alias + ".groupId in (:groups)";
+        return clause + ")";
+    }
+
+    private void setPrincipals(Query query, long accountId, Set<Long> groupIds) {
+        query.setParameter("account", accountId);
+        if (groupIds != null && !groupIds.isEmpty())
+            query.setParameterList("groups", groupIds);
+    }
+}
@@ -1,15 +1,17 @@
 package org.jbei.ice.storage.hibernate.dao;
 
+import org.hibernate.HibernateException;
 import org.hibernate.ScrollableResults;
 import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
+import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.storage.DAOException;
 import org.jbei.ice.storage.hibernate.HibernateRepository;
+import org.jbei.ice.storage.hibernate.IdSetQuery;
 import org.jbei.ice.storage.model.Feature;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 /**
  * Hibernate data accessor object for {@link Feature}s
@@ -24,6 +26,38 @@ public class FeatureDAO extends HibernateRepository<Feature> {
         return super.get(Feature.class, id);
     }
 
+    /**
+     * Retrieves the features with the specified sequence hashes. The hashes are bound as <code>IN</code> lists of
+     * at most {@link IdSetQuery#DEFAULT_IN_LIST_LIMIT} values, so this runs a single query for most sequences
+     *
+     * @param hashes sequence hashes of features to retrieve
+     * @return map of hash to the feature with that hash, for the hashes that match an existing feature
+     * @throws DAOException on hibernate exception
+     */
+    public Map<String, Feature> getByHashes(Collection<String> hashes) {
+        Map<String, Feature> results = new HashMap<>();
+        if (hashes == null || hashes.isEmpty())
+            return results;
+
+        List<String> distinct = new ArrayList<>(new HashSet<>(hashes));
+        try {
+            for (int i = 0; i < distinct.size(); i += IdSetQuery.DEFAULT_IN_LIST_LIMIT) {
+                List<String> chunk = distinct.subList(i, Math.min(distinct.size(),
+                        i + IdSetQuery.DEFAULT_IN_LIST_LIMIT));
+                List<Feature> features = currentSession().createCriteria(Feature.class)
+                        .add(Restrictions.in("hash", chunk))
+                        .list();
+                for (Feature feature : features) {
+                    results.put(feature.getHash(), feature);
+                }
+            }
+            return results;
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
+        }
+    }
+
     public long getFeatureCount() {
         Number number = (Number) currentSession().createCriteria(Feature.class)
                 .add(Restrictions.neOrIsNotNull("name", ""))
@@ -2,7 +2,6 @@ package org.jbei.ice.storage.hibernate.dao;
 
 import org.hibernate.Criteria;
 import org.hibernate.HibernateException;
-import org.hibernate.Query;
 import org.hibernate.Session;
 import org.hibernate.criterion.*;
 import org.jbei.ice.lib.common.logging.Logger;
@@ -11,13 +10,18 @@ import org.jbei.ice.lib.dto.entry.EntryType;
 import org.jbei.ice.lib.dto.entry.Visibility;
 import org.jbei.ice.lib.dto.folder.FolderType;
 import org.jbei.ice.storage.DAOException;
+import org.jbei.ice.storage.DAOFactory;
 import org.jbei.ice.storage.hibernate.HibernateRepository;
+import org.jbei.ice.storage.hibernate.IdSetQuery;
+import org.jbei.ice.storage.hibernate.KeysetPage;
 import org.jbei.ice.storage.model.*;
 
 import java.util.Date;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Manipulate {@link Folder} objects in the database.
@@ -38,6 +42,19 @@ public class FolderDAO extends HibernateRepository<Folder> {
         return super.get(Folder.class, id);
     }
 
+    /**
+     * Deletes the folder and updates the read access of its contents. Permissions on the folder
+     * are expected to have been removed
+     *
+     * @param folder folder to delete
+     */
+    @Override
+    public void delete(Folder folder) {
+        List<Long> contents = getFolderContentIds(folder.getId(), null, false);
+        super.delete(folder);
+        DAOFactory.getEntryReadAccessDAO().rebuild(contents);
+    }
+
     /**
      * Removes, from the list of entries in the specified folder, those whose ids match the ids passed in the
      * parameter
@@ -51,15 +68,17 @@ public class FolderDAO extends HibernateRepository<Folder> {
         try {
             folder = session.get(Folder.class, folder.getId());
             Iterator<Entry> it = folder.getContents().iterator();
+            Set<Long> entryIds = new HashSet<>(entries);
 
             while (it.hasNext()) {
                 Entry entry = it.next();
-                if (entries.contains(entry.getId()))
+                if (entryIds.contains(entry.getId()))
                     it.remove();
             }
 
             folder.setModificationTime(new Date());
             session.update(folder);
+            DAOFactory.getEntryReadAccessDAO().rebuild(entries);
             return folder;
         } catch (HibernateException he) {
             Logger.error(he);
@@ -120,7 +139,8 @@ public class FolderDAO extends HibernateRepository<Folder> {
      * Retrieves list of entries that conforms to the parameters
      *
      * @param folderId       unique identifier for folder whose entries are being retrieved
-     * @param pageParameters paging params
+     * @param pageParameters paging params. Pages following the first one are retrieved using the cursor returned
+     *                       with the previous page (see {@link KeysetPage})
      * @param visibleOnly    whether to only include entries with "OK" visibility
      * @return list of found entries
      * @throws DAOException on HibernateException retrieving
@@ -159,9 +179,7 @@ public class FolderDAO extends HibernateRepository<Folder> {
 
             addFilter(criteria, pageParameters.getFilter());
 
-            criteria.addOrder(pageParameters.isAscending() ? Order.asc(sortString) : Order.desc(sortString));
-            criteria.setMaxResults(pageParameters.getLimit());
-            criteria.setFirstResult(pageParameters.getOffset());
+            KeysetPage.apply(criteria, Entry.class, null, sortString, pageParameters);
             return criteria.list();
         } catch (HibernateException he) {
             Logger.error(he);
@@ -187,6 +205,7 @@ public class FolderDAO extends HibernateRepository<Folder> {
             folder.getContents().addAll(entrys);
             folder.setModificationTime(new Date());
             session.saveOrUpdate(folder);
+            DAOFactory.getEntryReadAccessDAO().rebuild(entrys.stream().map(Entry::getId).collect(Collectors.toList()));
             return folder;
         } catch (HibernateException e) {
             Logger.error(e);
@@ -261,11 +280,8 @@ public class FolderDAO extends HibernateRepository<Folder> {
         List list = criteria.list();
 
         // update entries where folder id in
-        Query query = currentSession().createQuery("update " + Entry.class.getName()
-                + " e set e.visibility=:v where e.id in :ids");
-        query.setParameter("v", ok.getValue());
-        query.setParameterList("ids", list);
-        return query.executeUpdate();
+        return IdSetQuery.executeUpdate(list, set -> "update " + Entry.class.getName()
+                + " e set e.visibility=:v where e.id in " + set, query -> query.setParameter("v", ok.getValue()));
     }
 
     public List<Folder> filterByName(String token, int limit) {
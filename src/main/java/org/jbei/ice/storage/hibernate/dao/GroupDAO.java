@@ -7,9 +7,11 @@ import org.hibernate.Session;
 import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
 import org.hibernate.sql.JoinType;
+import org.jbei.ice.lib.access.AuthorizationContext;
 import org.jbei.ice.lib.common.logging.Logger;
 import org.jbei.ice.lib.dto.group.GroupType;
 import org.jbei.ice.lib.group.GroupController;
+import org.jbei.ice.lib.group.GroupHierarchy;
 import org.jbei.ice.storage.DAOException;
 import org.jbei.ice.storage.hibernate.HibernateRepository;
 import org.jbei.ice.storage.model.Account;
@@ -26,6 +28,28 @@ import java.util.Set;
  */
 @SuppressWarnings("unchecked")
 public class GroupDAO extends HibernateRepository<Group> {
+
+    @Override
+    public Group create(Group group) {
+        GroupHierarchy.invalidate();
+        return super.create(group);
+    }
+
+    // membership or parent may have changed; discard memoised authorization decisions for the current request
+    @Override
+    public Group update(Group group) {
+        AuthorizationContext.invalidate();
+        GroupHierarchy.invalidate();
+        return super.update(group);
+    }
+
+    @Override
+    public void delete(Group group) {
+        AuthorizationContext.invalidate();
+        GroupHierarchy.invalidate();
+        super.delete(group);
+    }
+
     /**
      * Retrieve {@link Group} object from the database by its uuid.
      *
@@ -37,6 +61,8 @@ public class GroupDAO extends HibernateRepository<Group> {
         try {
             return (Group) currentSession().createCriteria(Group.class)
                     .add(Restrictions.eq("uuid", uuid))
+                    .setCacheable(true)
+                    .setCacheRegion("query.group")
                     .uniqueResult();
         } catch (HibernateException e) {
             Logger.error(e);
@@ -130,25 +156,43 @@ public class GroupDAO extends HibernateRepository<Group> {
     }
 
     /**
-     * Retrieves all UUIDs that the specified account either owns or is a member of
+     * Retrieves the ids of all groups that the specified account either owns or is a member of
      *
      * @param account account
-     * @return list of UUIDs matching the query
+     * @return set of group ids matching the query
      * @throws DAOException on hibernate exception
      */
-    public Set<String> getMemberGroupUUIDs(Account account) throws DAOException {
+    public Set<Long> getMemberGroupIds(Account account) throws DAOException {
         try {
             Criteria criteria = currentSession().createCriteria(Group.class)
                     .createAlias("members", "member", JoinType.LEFT_OUTER_JOIN)
                     .add(Restrictions.disjunction(Restrictions.eq("owner", account),
                             Restrictions.eq("member.email", account.getEmail())))
-                    .setProjection(Projections.property("uuid"));
+                    .setProjection(Projections.property("id"));
             return new HashSet<>(criteria.list());
         } catch (HibernateException he) {
             throw new DAOException(he);
         }
     }
 
+    /**
+     * Retrieves the hierarchy of all groups from the primary database, for the shared
+     * {@link org.jbei.ice.lib.group.GroupHierarchy} snapshot
+     *
+     * @return list of rows containing the id of a group, the id of its parent (null for top level groups)
+     * and its uuid
+     * @throws DAOException on hibernate exception
+     */
+    public List<Object[]> getHierarchy() throws DAOException {
+        try {
+            return onPrimary(session -> session.createQuery("select g.id, p.id, g.uuid from "
+                    + Group.class.getName() + " g left join g.parent p").list());
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
+        }
+    }
+
     public List<Group> getGroupsByType(GroupType type, int offset, int limit) throws DAOException {
         try {
             Criteria criteria = currentSession().createCriteria(Group.class)
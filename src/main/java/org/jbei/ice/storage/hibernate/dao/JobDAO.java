@@ -0,0 +1,142 @@
+package org.jbei.ice.storage.hibernate.dao;
+
+import org.hibernate.Criteria;
+import org.hibernate.HibernateException;
+import org.hibernate.Query;
+import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Restrictions;
+import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.lib.executor.JobStatus;
+import org.jbei.ice.storage.DAOException;
+import org.jbei.ice.storage.hibernate.HibernateRepository;
+import org.jbei.ice.storage.model.JobModel;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Data accessor object for persisted background jobs ({@link JobModel})
+ *
+ * @author Hector Plahar
+ */
+public class JobDAO extends HibernateRepository<JobModel> {
+
+    @Override
+    public JobModel get(long id) {
+        return super.get(JobModel.class, id);
+    }
+
+    /**
+     * Retrieves jobs that can be claimed. That is, pending jobs whose next attempt time has passed
+     * and running jobs whose lease has expired (e.g. the instance running them was stopped)
+     *
+     * @param now   current time
+     * @param limit maximum number of jobs to return
+     * @return list of jobs in order of creation
+     */
+    @SuppressWarnings("unchecked")
+    public List<JobModel> getClaimableJobs(Date now, int limit) {
+        try {
+            Criteria criteria = currentSession().createCriteria(JobModel.class)
+                    .add(Restrictions.or(
+                            Restrictions.and(Restrictions.eq("status", JobStatus.PENDING),
+                                    Restrictions.le("nextAttempt", now)),
+                            Restrictions.and(Restrictions.eq("status", JobStatus.RUNNING),
+                                    Restrictions.lt("leaseExpires", now))))
+                    .addOrder(Order.asc("id"))
+                    .setMaxResults(limit);
+            return criteria.list();
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
+        }
+    }
+
+    /**
+     * Attempts to obtain a lease on the specified job. This is done with a conditional update so only
+     * one instance can obtain the lease even when several are polling the same job table
+     *
+     * @param id           job identifier
+     * @param owner        unique identifier for the instance obtaining the lease
+     * @param leaseExpires time at which lease expires
+     * @param now          current time
+     * @return true if the lease was obtained, false otherwise
+     */
+    public boolean claim(long id, String owner, Date leaseExpires, Date now) {
+        try {
+            Query query = currentSession().createQuery("update " + JobModel.class.getName()
+                    + " set status = :running, leaseOwner = :owner, leaseExpires = :leaseExpires, "
+                    + "attempts = attempts + 1, lastModified = :now where id = :id and "
+                    + "((status = :pending and nextAttempt <= :now) or (status = :running and leaseExpires < :now))");
+            query.setParameter("running", JobStatus.RUNNING);
+            query.setParameter("pending", JobStatus.PENDING);
+            query.setParameter("owner", owner);
+            query.setParameter("leaseExpires", leaseExpires);
+            query.setParameter("now", now);
+            query.setParameter("id", id);
+            return query.executeUpdate() == 1;
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
+        }
+    }
+
+    /**
+     * Extends the leases held by owner for the specified jobs
+     *
+     * @return number of leases extended
+     */
+    public int renewLeases(Collection<Long> ids, String owner, Date leaseExpires) {
+        if (ids.isEmpty())
+            return 0;
+
+        try {
+            Query query = currentSession().createQuery("update " + JobModel.class.getName()
+                    + " set leaseExpires = :leaseExpires where id in (:ids) and leaseOwner = :owner and status = :running");
+            query.setParameter("leaseExpires", leaseExpires);
+            query.setParameterList("ids", ids);
+            query.setParameter("owner", owner);
+            query.setParameter("running", JobStatus.RUNNING);
+            return query.executeUpdate();
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
+        }
+    }
+
+    /**
+     * @param key job key
+     * @return list of jobs with the specified key that are pending (not yet leased)
+     */
+    @SuppressWarnings("unchecked")
+    public List<JobModel> getPendingJobs(String key) {
+        try {
+            return currentSession().createCriteria(JobModel.class)
+                    .add(Restrictions.eq("key", key))
+                    .add(Restrictions.eq("status", JobStatus.PENDING))
+                    .list();
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
+        }
+    }
+
+    /**
+     * Deletes jobs in a terminal state that were last modified before the specified date
+     *
+     * @return number of jobs deleted
+     */
+    public int deleteFinishedJobs(Date before) {
+        try {
+            Query query = currentSession().createQuery("delete from " + JobModel.class.getName()
+                    + " where status in (:statuses) and lastModified < :before");
+            query.setParameterList("statuses", new JobStatus[]{JobStatus.COMPLETED, JobStatus.FAILED});
+            query.setParameter("before", before);
+            return query.executeUpdate();
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
+        }
+    }
+}
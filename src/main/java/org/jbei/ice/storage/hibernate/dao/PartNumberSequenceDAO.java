@@ -0,0 +1,98 @@
+package org.jbei.ice.storage.hibernate.dao;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Query;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.exception.ConstraintViolationException;
+import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.storage.DAOException;
+import org.jbei.ice.storage.hibernate.HibernateRepository;
+import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.jbei.ice.storage.model.Entry;
+import org.jbei.ice.storage.model.PartNumberSequenceModel;
+
+import java.util.List;
+
+/**
+ * Data accessor object for {@link PartNumberSequenceModel}
+ *
+ * @author Hector Plahar
+ */
+public class PartNumberSequenceDAO extends HibernateRepository<PartNumberSequenceModel> {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Override
+    public PartNumberSequenceModel get(long id) {
+        return super.get(PartNumberSequenceModel.class, id);
+    }
+
+    /**
+     * Reserves a block of consecutive numbers for the specified prefix. The reservation is made, and committed,
+     * in a separate transaction so that the row for the prefix is only locked for the duration of the reservation
+     * and not for that of the caller's transaction. The first reservation for a prefix continues from the highest
+     * number already used in entry names with that prefix
+     *
+     * @param prefix name prefix
+     * @param size   number of values to reserve
+     * @return first number in the reserved block
+     * @throws DAOException on exception reserving the block
+     */
+    public long reserve(String prefix, int size) throws DAOException {
+        for (int attempt = 1; ; attempt += 1) {
+            Session session = HibernateUtil.newSession();
+            Transaction transaction = session.beginTransaction();
+            try {
+                long start = reserve(session, prefix, size);
+                transaction.commit();
+                return start;
+            } catch (HibernateException he) {
+                transaction.rollback();
+                // another node created the row for the prefix concurrently
+                if (he instanceof ConstraintViolationException && attempt < MAX_ATTEMPTS)
+                    continue;
+                Logger.error(he);
+                throw new DAOException(he);
+            } finally {
+                session.close();
+            }
+        }
+    }
+
+    private long reserve(Session session, String prefix, int size) {
+        Query update = session.createQuery("update " + PartNumberSequenceModel.class.getName()
+                + " s set s.nextValue = s.nextValue + :size where s.prefix = :prefix");
+        update.setParameter("size", (long) size);
+        update.setParameter("prefix", prefix);
+        if (update.executeUpdate() == 0) {
+            long start = getMaxNumber(session, prefix) + 1;
+            session.save(new PartNumberSequenceModel(prefix, start + size));
+            session.flush();
+            return start;
+        }
+
+        Query query = session.createQuery("select s.nextValue from " + PartNumberSequenceModel.class.getName()
+                + " s where s.prefix = :prefix");
+        query.setParameter("prefix", prefix);
+        return (Long) query.uniqueResult() - size;
+    }
+
+    // highest number used in entry names that consist of the prefix followed by a number
+    @SuppressWarnings("unchecked")
+    private long getMaxNumber(Session session, String prefix) {
+        Query query = session.createQuery("select e.name from " + Entry.class.getName() + " e where e.name like :name");
+        query.setParameter("name", prefix + "%");
+        long max = 0;
+        for (String name : (List<String>) query.list()) {
+            if (name == null || !name.startsWith(prefix) || name.length() == prefix.length())
+                continue;
+
+            String suffix = name.substring(prefix.length());
+            if (suffix.length() > 18 || !suffix.chars().allMatch(Character::isDigit))
+                continue;
+            max = Math.max(max, Long.parseLong(suffix));
+        }
+        return max;
+    }
+}
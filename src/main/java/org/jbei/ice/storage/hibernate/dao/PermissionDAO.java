@@ -5,16 +5,17 @@ import org.hibernate.HibernateException;
 import org.hibernate.Query;
 import org.hibernate.Session;
 import org.hibernate.criterion.*;
-import org.hibernate.sql.JoinType;
 import org.jbei.ice.lib.common.logging.Logger;
 import org.jbei.ice.lib.dto.entry.Visibility;
+import org.jbei.ice.lib.dto.folder.FolderType;
 import org.jbei.ice.storage.DAOException;
+import org.jbei.ice.storage.DAOFactory;
 import org.jbei.ice.storage.hibernate.HibernateRepository;
+import org.jbei.ice.storage.hibernate.IdSetQuery;
 import org.jbei.ice.storage.model.*;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * {@link Permission} data accessor Object
@@ -24,6 +25,19 @@ import java.util.Set;
 @SuppressWarnings("unchecked")
 public class PermissionDAO extends HibernateRepository<Permission> {
 
+    @Override
+    public Permission create(Permission permission) {
+        permission = super.create(permission);
+        updateReadAccess(permission);
+        return permission;
+    }
+
+    @Override
+    public void delete(Permission permission) {
+        super.delete(permission);
+        updateReadAccess(permission);
+    }
+
     public boolean hasPermission(Entry entry, Folder folder, BulkUpload upload, Account account, Group group,
                                  boolean canRead, boolean canWrite) {
         try {
@@ -242,7 +256,9 @@ public class PermissionDAO extends HibernateRepository<Permission> {
         Query query = session.createQuery("delete " + Permission.class.getName() + " where entry = :entry");
         query.setParameter("entry", entry);
         try {
-            return query.executeUpdate();
+            int count = query.executeUpdate();
+            DAOFactory.getEntryReadAccessDAO().rebuild(Collections.singletonList(entry.getId()));
+            return count;
         } catch (HibernateException he) {
             Logger.error(he);
             throw new DAOException(he);
@@ -254,7 +270,9 @@ public class PermissionDAO extends HibernateRepository<Permission> {
         Query query = session.createQuery("delete " + Permission.class.getName() + " where folder = :folder");
         query.setParameter("folder", folder);
         try {
-            return query.executeUpdate();
+            int count = query.executeUpdate();
+            DAOFactory.getEntryReadAccessDAO().rebuild(folder);
+            return count;
         } catch (HibernateException he) {
             Logger.error(he);
             throw new DAOException(he);
@@ -266,7 +284,9 @@ public class PermissionDAO extends HibernateRepository<Permission> {
         Query query = session.createQuery("delete " + Permission.class.getName() + " where group = :group");
         query.setParameter("group", group);
         try {
-            return query.executeUpdate();
+            int count = query.executeUpdate();
+            DAOFactory.getEntryReadAccessDAO().removeGroup(group);
+            return count;
         } catch (HibernateException he) {
             Logger.error(he);
             throw new DAOException(he);
@@ -328,24 +348,113 @@ public class PermissionDAO extends HibernateRepository<Permission> {
      * @return filtered list such that specified account have read privileges on entries contained in it
      */
     public List<Long> getCanReadEntries(Account account, Set<Group> groups, List<Long> entries) {
-        Criteria criteria = currentSession().createCriteria(Permission.class);
-        Disjunction disjunction = Restrictions.disjunction();
-        disjunction.add(Restrictions.eq("account", account));
-        disjunction.add(Restrictions.eq("entry.ownerEmail", account.getEmail()));
+        // single indexed lookup per chunk of entries when the read access table is available
+        EntryReadAccessDAO readAccessDAO = DAOFactory.getEntryReadAccessDAO();
+        if (readAccessDAO.isBuilt()) {
+            Set<Long> groupIds = groups.stream().map(Group::getId).collect(Collectors.toSet());
+            return readAccessDAO.getReadableEntries(account.getId(), account.getEmail(), groupIds, entries, true);
+        }
 
-        if (!groups.isEmpty()) {
-            disjunction.add(Restrictions.in("group", groups));
+        String principals = "p.account = :account or e.ownerEmail = :email"
+                + (groups.isEmpty() ? "" : " or p.group in (:groups)");
+        try {
+            return IdSetQuery.list(entries, set -> "select distinct e.id from " + Permission.class.getName()
+                    + " p left join p.entry e where e.id in " + set + " and e.visibility = :visibility and ("
+                    + principals + ")", query -> {
+                setPrincipals(query, account, groups);
+                query.setParameter("email", account.getEmail());
+                query.setParameter("visibility", Visibility.OK.getValue());
+            });
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
         }
+    }
 
-        criteria.createAlias("entry", "entry", JoinType.LEFT_OUTER_JOIN)
-                .add(Restrictions.in("entry.id", entries))
-                .add(Restrictions.eq("entry.visibility", Visibility.OK.getValue()));
+    /**
+     * Set based equivalent of the entry read checks in {@link org.jbei.ice.lib.entry.EntryAuthorization}.
+     * Resolves ownership, entry permissions, folder permissions and public folders using a fixed number
+     * of queries (per chunk of entries; see {@link IdSetQuery})
+     *
+     * @param account  user account
+     * @param groups   all groups that the account belongs to (including parent groups)
+     * @param entryIds identifiers of entries to check
+     * @return subset of <code>entryIds</code> that the account can read
+     */
+    public Set<Long> getReadableEntries(Account account, Set<Group> groups, Collection<Long> entryIds) {
+        Set<Long> readable = new HashSet<>();
+        String principals = groups.isEmpty() ? "p.account = :account"
+                : "(p.account = :account or p.group in (:groups))";
+        try {
+            // owned (as in Authorization.isOwner; entries without an owner are owned by all) or in a public folder
+            readable.addAll(IdSetQuery.<Long>list(entryIds, set -> "select distinct e.id from "
+                    + Entry.class.getName() + " e left join e.folders f where e.id in " + set
+                    + " and (e.ownerEmail is null or lower(e.ownerEmail) = :email or f.type = :type)", query -> {
+                query.setParameter("email", account.getEmail().toLowerCase());
+                query.setParameter("type", FolderType.PUBLIC);
+            }));
+
+            // read or write permission on the entry
+            readable.addAll(IdSetQuery.<Long>list(entryIds, set -> "select distinct p.entry.id from "
+                    + Permission.class.getName() + " p where p.entry.id in " + set
+                    + " and (p.canRead = true or p.canWrite = true) and " + principals,
+                    query -> setPrincipals(query, account, groups)));
+
+            // read permission on a folder containing the entry
+            readable.addAll(IdSetQuery.<Long>list(entryIds, set -> "select distinct e.id from "
+                    + Permission.class.getName() + " p join p.folder f join f.contents e where p.entry is null "
+                    + "and p.canRead = true and e.id in " + set + " and " + principals,
+                    query -> setPrincipals(query, account, groups)));
+            return readable;
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
+        }
+    }
 
-        criteria.add(disjunction);
+    /**
+     * Set based equivalent of the entry write check in {@link org.jbei.ice.lib.entry.EntryAuthorization};
+     * the account owns the entry or has been explicitly granted write permission on it
+     *
+     * @param account  user account
+     * @param entryIds identifiers of entries to check
+     * @return subset of <code>entryIds</code> that the account can write
+     */
+    public Set<Long> getWritableEntries(Account account, Collection<Long> entryIds) {
+        Set<Long> writable = new HashSet<>();
+        try {
+            writable.addAll(IdSetQuery.<Long>list(entryIds, set -> "select e.id from " + Entry.class.getName()
+                            + " e where e.id in " + set + " and (e.ownerEmail is null or lower(e.ownerEmail) = :email)",
+                    query -> query.setParameter("email", account.getEmail().toLowerCase())));
+
+            writable.addAll(IdSetQuery.<Long>list(entryIds, set -> "select distinct p.entry.id from "
+                            + Permission.class.getName() + " p where p.entry.id in " + set
+                            + " and p.account = :account and p.canWrite = true",
+                    query -> query.setParameter("account", account)));
+            return writable;
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
+        }
+    }
 
-        return criteria.setProjection(
-                Projections.distinct(Projections.property("entry.id")))
-                .list();
+    /**
+     * @param publicGroup group representing all users (including anonymous ones)
+     * @param entryIds    identifiers of entries to check
+     * @return subset of <code>entryIds</code> that have been made publicly visible
+     */
+    public Set<Long> getPubliclyReadableEntries(Group publicGroup, Collection<Long> entryIds) {
+        Set<Long> readable = new HashSet<>();
+        try {
+            readable.addAll(IdSetQuery.<Long>list(entryIds, set -> "select distinct p.entry.id from "
+                            + Permission.class.getName() + " p where p.entry.id in " + set
+                            + " and p.group = :group and p.canRead = true and p.canWrite = false",
+                    query -> query.setParameter("group", publicGroup)));
+            return readable;
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
+        }
     }
 
     /**
@@ -357,29 +466,44 @@ public class PermissionDAO extends HibernateRepository<Permission> {
      * @return true if the user has write privileges on <b>all</b> the entries specified in the parameter
      */
     public boolean canWrite(Account account, Set<Group> groups, List<Long> entries) {
-        Criteria criteria = currentSession().createCriteria(Permission.class);
-        criteria.add(Restrictions.in("entry.id", entries));
-        criteria.add(Restrictions.or(Restrictions.eq("entry.ownerEmail", account.getEmail())));
-
-        Disjunction disjunction = Restrictions.disjunction();
-
-        if (!groups.isEmpty()) {
-            disjunction.add(Restrictions.in("group", groups));
+        String principals = groups.isEmpty() ? "p.account = :account"
+                : "(p.account = :account or p.group in (:groups))";
+        try {
+            // chunks (if any) are disjoint so the distinct counts add up
+            List<Number> counts = IdSetQuery.list(entries, set -> "select count(distinct e.id) from "
+                    + Permission.class.getName() + " p left join p.entry e where e.id in " + set
+                    + " and e.ownerEmail = :email and p.canWrite = true and " + principals, query -> {
+                setPrincipals(query, account, groups);
+                query.setParameter("email", account.getEmail());
+            });
+            long count = 0;
+            for (Number number : counts) {
+                count += number.longValue();
+            }
+            return count == entries.size();
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
         }
-
-        disjunction.add(Restrictions.eq("account", account));
-        criteria.createAlias("entry", "entry", JoinType.LEFT_OUTER_JOIN);
-
-        LogicalExpression logicalExpression = Restrictions.and(disjunction, Restrictions.eq("canWrite", true));
-
-        criteria.add(logicalExpression);
-        criteria.setProjection(Projections.countDistinct("entry.id"));
-        Number number = (Number) criteria.uniqueResult();
-        return number.intValue() == entries.size();
     }
 
     @Override
     public Permission get(long id) {
         return super.get(Permission.class, id);
     }
+
+    private void setPrincipals(Query query, Account account, Set<Group> groups) {
+        query.setParameter("account", account);
+        if (!groups.isEmpty())
+            query.setParameterList("groups", groups);
+    }
+
+    // keeps the materialised read access of the entry, or folder contents, that the permission applies to current
+    private void updateReadAccess(Permission permission) {
+        EntryReadAccessDAO readAccessDAO = DAOFactory.getEntryReadAccessDAO();
+        if (permission.getEntry() != null)
+            readAccessDAO.rebuild(Collections.singletonList(permission.getEntry().getId()));
+        else if (permission.getFolder() != null)
+            readAccessDAO.rebuild(permission.getFolder());
+    }
 }
@@ -38,7 +38,10 @@ public class RemotePartnerDAO extends HibernateRepository<RemotePartner> {
     public RemotePartner getByUrl(String url) throws DAOException {
         try {
             Object object = currentSession().createCriteria(RemotePartner.class.getName())
-                    .add(Restrictions.eq("url", url)).uniqueResult();
+                    .add(Restrictions.eq("url", url))
+                    .setCacheable(true)
+                    .setCacheRegion("query.remote_partner")
+                    .uniqueResult();
             if (object == null)
                 return null;
 
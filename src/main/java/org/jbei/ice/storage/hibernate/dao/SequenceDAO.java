@@ -5,22 +5,32 @@ import org.hibernate.Criteria;
 import org.hibernate.HibernateException;
 import org.hibernate.Query;
 import org.hibernate.Session;
+import org.hibernate.Transaction;
 import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.sql.JoinType;
+import org.hibernate.type.LongType;
+import org.hibernate.type.TextType;
 import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.lib.config.ConfigurationCache;
+import org.jbei.ice.lib.dto.ConfigurationKey;
 import org.jbei.ice.lib.dto.entry.Visibility;
+import org.jbei.ice.lib.utils.PackedSequence;
 import org.jbei.ice.lib.utils.SequenceUtils;
 import org.jbei.ice.lib.utils.UtilityException;
 import org.jbei.ice.storage.DAOException;
 import org.jbei.ice.storage.DAOFactory;
 import org.jbei.ice.storage.hibernate.HibernateRepository;
+import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.jbei.ice.storage.hibernate.IdSetQuery;
 import org.jbei.ice.storage.model.*;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.HashSet;
-import java.util.Set;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.*;
 
 /**
  * Manipulate {@link Sequence} and associated objects in the database.
@@ -29,6 +39,9 @@ import java.util.Set;
  */
 @SuppressWarnings("unchecked")
 public class SequenceDAO extends HibernateRepository<Sequence> {
+
+    private static final int METADATA_CHUNK_SIZE = 200;
+
     /**
      * Save the given {@link Sequence} object in the database.
      *
@@ -48,39 +61,16 @@ public class SequenceDAO extends HibernateRepository<Sequence> {
             sequenceFeatureSet = new HashSet<>(sequence.getSequenceFeatures());
             sequence.setSequenceFeatures(null);
         }
+        sequence.setFeatureCount(sequenceFeatureSet == null ? 0 : sequenceFeatureSet.size());
+        packSequence(sequence);
 
         // create sequence
         sequence = create(sequence);
 
         // separate out sequence features and uniquely create features
-        if (sequenceFeatureSet != null) {
-            for (SequenceFeature sequenceFeature : sequenceFeatureSet) {
-                Feature feature = sequenceFeature.getFeature();
-
-                if (feature == null) {
-                    throw new DAOException("SequenceFeature has no feature");
-                }
-
-                Feature existingFeature = getFeatureBySequence(feature.getSequence());
-
-                if (existingFeature == null) {
-                    // new feature -> save it
-                    FeatureDAO featureDAO = DAOFactory.getFeatureDAO();
-                    existingFeature = featureDAO.create(feature);
-                } else {
-                    if (!sameFeatureUri(existingFeature, feature)) {
-                        // same sequence feature but different uri
-                        // sequence hash fwa uniqueness causes problems when trying to save a new feature with same seq
-                        existingFeature.setUri(feature.getUri());
-                    }
-                }
-
-                sequenceFeature.setFeature(existingFeature);
-                sequenceFeature.setSequence(sequence);
-                DAOFactory.getSequenceFeatureDAO().create(sequenceFeature);
-            }
-        }
-
+        saveSequenceFeatures(sequence, sequenceFeatureSet, true);
+        if (sequenceFeatureSet != null)
+            sequence.setSequenceFeatures(sequenceFeatureSet);
         return sequence;
     }
 
@@ -98,42 +88,81 @@ public class SequenceDAO extends HibernateRepository<Sequence> {
     }
 
     /**
-     * Updates an existing feature with a new set of features
+     * Updates the features of an existing sequence to match the specified set by applying only the differences:
+     * features that are unchanged are left alone, features that are at the same locations (and have the same
+     * sequence) as an existing one but differ in name, type, uri or notes update that feature, and the remaining
+     * features are inserted or deleted. Matching is by value since incoming features do not carry identifiers.
      *
-     * @param sequence    existing feature to update
-     * @param newFeatures optional new set of features that need updating. If this is null, the features associated with
-     *                    the specified sequence is cleared
+     * @param sequence    existing sequence whose features are updated. Its bases should already be up to date
+     * @param newFeatures features the sequence should have once updated. If null, all features are removed
      * @return updated sequence
      * @throws IllegalArgumentException if sequence is null or does not have an associated entry
+     * @throws DAOException             on exception updating the features
      */
     public Sequence updateSequence(Sequence sequence, Set<SequenceFeature> newFeatures) {
         if (sequence == null || sequence.getEntry() == null)
             throw new IllegalArgumentException("Cannot update null sequence or sequence without valid entry");
 
-        // clear existing features
-        if (sequence.getSequenceFeatures() != null) {
-            for (SequenceFeature feature : sequence.getSequenceFeatures())
-                currentSession().delete(feature);
+        packSequence(sequence);
+        if (sequence.getSequenceFeatures() == null)
+            sequence.setSequenceFeatures(new HashSet<>());
+
+        List<SequenceFeature> added = new ArrayList<>();
+        if (newFeatures != null) {
+            Sequence incoming = new Sequence();
+            incoming.setSequence(sequence.getSequence());
+            incoming.setSequenceFeatures(newFeatures);
+            normalizeAnnotationLocations(incoming);
+            added.addAll(newFeatures);
         }
 
-        sequence.setSequenceFeatures(null);
-        sequence = update(sequence);
+        // unchanged features
+        Map<String, Deque<SequenceFeature>> existing = new HashMap<>();
+        for (SequenceFeature sequenceFeature : sequence.getSequenceFeatures()) {
+            existing.computeIfAbsent(featureKey(sequenceFeature, true), k -> new ArrayDeque<>())
+                    .add(sequenceFeature);
+        }
+        added.removeIf(sequenceFeature -> {
+            Deque<SequenceFeature> matches = existing.get(featureKey(sequenceFeature, true));
+            return matches != null && matches.poll() != null;
+        });
+
+        // features at the same location with changed properties
+        Map<String, Deque<SequenceFeature>> remaining = new HashMap<>();
+        for (Deque<SequenceFeature> features : existing.values()) {
+            for (SequenceFeature sequenceFeature : features) {
+                remaining.computeIfAbsent(featureKey(sequenceFeature, false), k -> new ArrayDeque<>())
+                        .add(sequenceFeature);
+            }
+        }
+        added.removeIf(sequenceFeature -> {
+            Deque<SequenceFeature> matches = remaining.get(featureKey(sequenceFeature, false));
+            SequenceFeature match = matches == null ? null : matches.poll();
+            if (match == null)
+                return false;
+            updateSequenceFeature(match, sequenceFeature);
+            return true;
+        });
 
-        // add new features
-        if (newFeatures != null) {
-            for (SequenceFeature sequenceFeature : newFeatures) {
-                Feature newFeature = sequenceFeature.getFeature();
-                Feature newFeatureExisting = getFeatureBySequence(newFeature.getSequence());
-                if (newFeatureExisting == null) {
-                    newFeatureExisting = DAOFactory.getFeatureDAO().create(newFeature);
+        try {
+            // existing features without a match
+            List<Long> removedIds = new ArrayList<>();
+            for (Deque<SequenceFeature> features : remaining.values()) {
+                for (SequenceFeature sequenceFeature : features) {
+                    removedIds.add(sequenceFeature.getId());
+                    sequence.getSequenceFeatures().remove(sequenceFeature);
                 }
-                sequenceFeature.setFeature(newFeatureExisting);
-                sequenceFeature.setSequence(sequence);
-                DAOFactory.getSequenceFeatureDAO().create(sequenceFeature);
             }
-        }
+            deleteSequenceFeatures(removedIds);
 
-        return sequence;
+            saveSequenceFeatures(sequence, added, false);
+            sequence.getSequenceFeatures().addAll(added);
+            sequence.setFeatureCount(sequence.getSequenceFeatures().size());
+            return update(sequence);
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
+        }
     }
 
     /**
@@ -177,10 +206,14 @@ public class SequenceDAO extends HibernateRepository<Sequence> {
     }
 
     public String getSequenceString(Entry entry) {
-        return (String) currentSession().createCriteria(Sequence.class)
+        Object[] result = (Object[]) currentSession().createCriteria(Sequence.class)
+                .createAlias("content", "content")
                 .add(Restrictions.eq("entry", entry))
-                .setProjection(Projections.property("sequence"))
+                .setProjection(Projections.projectionList()
+                        .add(Projections.property("content.sequence"))
+                        .add(Projections.property("content.packedSequence")))
                 .uniqueResult();
+        return result == null ? null : sequenceText((String) result[0], (byte[]) result[1]);
     }
 
     public boolean hasSequence(long entryId) {
@@ -195,6 +228,185 @@ public class SequenceDAO extends HibernateRepository<Sequence> {
         }
     }
 
+    /**
+     * Retrieves the metadata for the sequence associated with the specified entry without loading the sequence
+     *
+     * @param entryId unique identifier for entry
+     * @return the sequence length, feature count and whether the original upload is available (in that order; each
+     * is null if the metadata has not been computed yet for the sequence) or null if the entry has no sequence
+     * @throws DAOException on hibernate exception
+     */
+    public Object[] getMetadata(long entryId) {
+        try {
+            return (Object[]) currentSession().createCriteria(Sequence.class)
+                    .add(Restrictions.eq("entry.id", entryId))
+                    .setProjection(Projections.projectionList()
+                            .add(Projections.property("sequenceLength"))
+                            .add(Projections.property("featureCount"))
+                            .add(Projections.property("hasOriginal")))
+                    .uniqueResult();
+        } catch (HibernateException e) {
+            Logger.error(e);
+            throw new DAOException("Failed to retrieve sequence metadata for entry: " + entryId, e);
+        }
+    }
+
+    /**
+     * @return true if there are sequences whose metadata has not been computed
+     * @throws DAOException on hibernate exception
+     */
+    public boolean hasMissingMetadata() {
+        try {
+            Number count = (Number) currentSession().createCriteria(Sequence.class)
+                    .add(Restrictions.isNull("sequenceLength"))
+                    .setProjection(Projections.rowCount())
+                    .uniqueResult();
+            return count.longValue() > 0;
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
+        }
+    }
+
+    /**
+     * Computes the metadata (length, gc content, feature count and original upload marker) for all sequences
+     * that do not have it. Sequences are processed in chunks and only the sequence text is read
+     *
+     * @return number of sequences updated
+     * @throws DAOException on hibernate exception
+     */
+    public int backfillMetadata() {
+        Session session = currentSession();
+        long lastId = 0;
+        int count = 0;
+        try {
+            while (true) {
+                Query query = session.createQuery("select s.id, c.sequence, length(c.sequenceUser), c.packedSequence"
+                        + " from "
+                        + Sequence.class.getName() + " s left join s.content c where s.sequenceLength is null"
+                        + " and s.id > :last order by s.id");
+                query.setParameter("last", lastId);
+                query.setMaxResults(METADATA_CHUNK_SIZE);
+                List<Object[]> rows = query.list();
+                if (rows.isEmpty())
+                    return count;
+
+                List<Long> ids = new ArrayList<>(rows.size());
+                for (Object[] row : rows)
+                    ids.add((Long) row[0]);
+                Map<Long, Long> featureCounts = new HashMap<>();
+                List<Object[]> counts = IdSetQuery.list(ids, set -> "select sf.sequence.id, count(sf.id) from "
+                        + SequenceFeature.class.getName() + " sf where sf.sequence.id in " + set
+                        + " group by sf.sequence.id", null);
+                for (Object[] row : counts)
+                    featureCounts.put((Long) row[0], (Long) row[1]);
+
+                Query update = session.createQuery("update " + Sequence.class.getName()
+                        + " set sequenceLength = :length, gcContent = :gc, featureCount = :features,"
+                        + " hasOriginal = :original where id = :id");
+                for (Object[] row : rows) {
+                    String text = sequenceText((String) row[1], (byte[]) row[3]);
+                    String sequence = text == null ? "" : text;
+                    Number userLength = (Number) row[2];
+                    update.setParameter("length", sequence.trim().length());
+                    update.setParameter("gc", SequenceUtils.calculateGCContent(sequence));
+                    update.setParameter("features", featureCounts.getOrDefault(row[0], 0L).intValue());
+                    update.setParameter("original", userLength != null && userLength.intValue() > 0);
+                    update.setParameter("id", row[0]);
+                    update.executeUpdate();
+                }
+                count += rows.size();
+                lastId = ids.get(ids.size() - 1);
+            }
+        } catch (HibernateException he) {
+            Logger.error(he);
+            throw new DAOException(he);
+        }
+    }
+
+    /**
+     * Moves the text of sequences saved when it was stored in the <code>sequence</code> and
+     * <code>sequence_user</code> columns of the sequences table into {@link SequenceContent} rows, clearing the
+     * columns. Does nothing for databases created since, which do not have the columns.
+     * <p>
+     * Each chunk of sequences is moved, and committed, in its own transaction on a new session, independent of the
+     * caller's transaction, so that the sequences table is only locked for the duration of a chunk and the work
+     * already done is kept if a later chunk fails. Sequences not yet moved are picked up by the next call
+     *
+     * @return number of sequences whose text was moved
+     * @throws DAOException on hibernate exception
+     */
+    public int migrateContent() {
+        int count = 0;
+        long lastId = 0;
+        while (true) {
+            Session session = HibernateUtil.newSession();
+            Transaction transaction = session.beginTransaction();
+            try {
+                if (lastId == 0 && !hasLegacyContent(session)) {
+                    transaction.commit();
+                    return 0;
+                }
+
+                List<Object[]> rows = session.createSQLQuery("select id, sequence, sequence_user from sequences"
+                        + " where content_id is null and (sequence is not null or sequence_user is not null)"
+                        + " and id > :last order by id")
+                        .addScalar("id", LongType.INSTANCE)
+                        .addScalar("sequence", TextType.INSTANCE)
+                        .addScalar("sequence_user", TextType.INSTANCE)
+                        .setParameter("last", lastId)
+                        .setMaxResults(METADATA_CHUNK_SIZE)
+                        .list();
+                if (rows.isEmpty()) {
+                    transaction.commit();
+                    return count;
+                }
+
+                List<SequenceContent> contents = new ArrayList<>(rows.size());
+                for (Object[] row : rows) {
+                    SequenceContent content = new SequenceContent((String) row[1], (String) row[2]);
+                    session.save(content);
+                    contents.add(content);
+                }
+                session.flush();
+
+                Query update = session.createSQLQuery("update sequences set content_id = :content,"
+                        + " sequence = null, sequence_user = null where id = :id");
+                for (int i = 0; i < rows.size(); i += 1) {
+                    update.setParameter("content", contents.get(i).getId());
+                    update.setParameter("id", rows.get(i)[0]);
+                    update.executeUpdate();
+                }
+                transaction.commit();
+                count += rows.size();
+                lastId = (Long) rows.get(rows.size() - 1)[0];
+            } catch (HibernateException he) {
+                transaction.rollback();
+                Logger.error(he);
+                throw new DAOException(he);
+            } finally {
+                session.close();
+            }
+        }
+    }
+
+    // whether the sequences table still has the columns the text was stored in
+    private boolean hasLegacyContent(Session session) {
+        boolean[] legacy = new boolean[1];
+        session.doWork(connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String table : new String[]{"sequences", "SEQUENCES"}) {
+                try (ResultSet resultSet = metaData.getColumns(null, null, table, null)) {
+                    while (resultSet.next()) {
+                        if ("sequence_user".equalsIgnoreCase(resultSet.getString("COLUMN_NAME")))
+                            legacy[0] = true;
+                    }
+                }
+            }
+        });
+        return legacy[0];
+    }
+
     public String getSequenceFilename(Entry entry) {
         return (String) currentSession().createCriteria(Sequence.class)
                 .setProjection(Projections.property("fileName"))
@@ -213,11 +425,16 @@ public class SequenceDAO extends HibernateRepository<Sequence> {
         Session session = currentSession();
         try {
             Number itemCount = (Number) session.createCriteria(Sequence.class)
+                    .createAlias("content", "content", JoinType.LEFT_OUTER_JOIN)
                     .setProjection(Projections.countDistinct("id"))
                     .add(Restrictions.eq("entry.id", entryId))
-                    .add(Restrictions.conjunction().add(
-                            Restrictions.ne("sequenceUser", "")).add(
-                            Restrictions.isNotNull("sequenceUser")))
+                    .add(Restrictions.disjunction()
+                            .add(Restrictions.eq("hasOriginal", true))
+                            // not yet backfilled
+                            .add(Restrictions.conjunction()
+                                    .add(Restrictions.isNull("hasOriginal"))
+                                    .add(Restrictions.isNotNull("content.sequenceUser"))
+                                    .add(Restrictions.ne("content.sequenceUser", ""))))
                     .uniqueResult();
 
             return itemCount.intValue() > 0;
@@ -280,44 +497,152 @@ public class SequenceDAO extends HibernateRepository<Sequence> {
         }
     }
 
+    // stores the bases of the sequence packed if configured to
+    private static void packSequence(Sequence sequence) {
+        if (ConfigurationCache.getInstance().getBoolean(ConfigurationKey.PACKED_SEQUENCE_STORAGE))
+            sequence.packSequence();
+    }
+
+    // sequence text from the text or packed sequence columns of sequence content
+    private static String sequenceText(String text, byte[] packed) {
+        if (text == null && packed != null)
+            return PackedSequence.fromBytes(packed).toString();
+        return text;
+    }
+
+    // identifies a sequence feature by its feature sequence (ignoring case, which the sequence hash is insensitive to),
+    // strand and locations and, if all is set, by its other properties and notes
+    private static String featureKey(SequenceFeature sequenceFeature, boolean all) {
+        StringBuilder builder = new StringBuilder();
+        Feature feature = sequenceFeature.getFeature();
+        String featureSequence = feature == null || feature.getSequence() == null ? "" : feature.getSequence();
+        builder.append(SequenceUtils.calculateSequenceHash(featureSequence)).append('|')
+                .append(sequenceFeature.getStrand());
+
+        List<String> locations = new ArrayList<>();
+        for (AnnotationLocation location : sequenceFeature.getAnnotationLocations()) {
+            locations.add(location.getGenbankStart() + ".." + location.getEnd());
+        }
+        Collections.sort(locations);
+        builder.append('|').append(locations);
+
+        if (all) {
+            builder.append('|').append(sequenceFeature.getName())
+                    .append('|').append(sequenceFeature.getGenbankType())
+                    .append('|').append(sequenceFeature.getAnnotationType())
+                    .append('|').append(sequenceFeature.getUri())
+                    .append('|').append(attributesKey(sequenceFeature));
+        }
+        return builder.toString();
+    }
+
+    private static List<String> attributesKey(SequenceFeature sequenceFeature) {
+        List<String> attributes = new ArrayList<>();
+        for (SequenceFeatureAttribute attribute : sequenceFeature.getSequenceFeatureAttributes()) {
+            attributes.add(attribute.getKey() + "=" + attribute.getValue() + ":" + attribute.getQuoted());
+        }
+        Collections.sort(attributes);
+        return attributes;
+    }
+
+    // copies the properties (and notes, if changed) of the incoming feature onto the existing one at the same location
+    private void updateSequenceFeature(SequenceFeature existing, SequenceFeature incoming) {
+        existing.setName(incoming.getName());
+        existing.setGenbankType(incoming.getGenbankType());
+        existing.setAnnotationType(incoming.getAnnotationType());
+        existing.setUri(incoming.getUri());
+
+        if (attributesKey(existing).equals(attributesKey(incoming)))
+            return;
+
+        Session session = currentSession();
+        for (SequenceFeatureAttribute attribute : existing.getSequenceFeatureAttributes()) {
+            session.delete(attribute);
+        }
+        existing.getSequenceFeatureAttributes().clear();
+        for (SequenceFeatureAttribute attribute : incoming.getSequenceFeatureAttributes()) {
+            attribute.setSequenceFeature(existing);
+            session.save(attribute);
+            existing.getSequenceFeatureAttributes().add(attribute);
+        }
+    }
+
+    // bulk deletes since deleting a sequence feature entity cascades to its sequence
+    private void deleteSequenceFeatures(List<Long> ids) {
+        if (ids.isEmpty())
+            return;
+
+        IdSetQuery.executeUpdate(ids, set -> "delete from " + AnnotationLocation.class.getName()
+                + " where sequenceFeature.id in " + set, null);
+        IdSetQuery.executeUpdate(ids, set -> "delete from " + SequenceFeatureAttribute.class.getName()
+                + " where sequenceFeature.id in " + set, null);
+        IdSetQuery.executeUpdate(ids, set -> "delete from " + SequenceFeature.class.getName()
+                + " where id in " + set, null);
+    }
+
     /**
-     * Retrieve the {@link Feature} object with the given DNA sequence string.
+     * Saves the sequence features of a sequence, re-using existing {@link Feature}s with the same (or reverse
+     * complement) DNA sequence. Existing features are resolved up front with a single query on the sequence hashes
+     * of all features, and features repeated within the set are only created once. Nothing else is queried while
+     * the new features and sequence features are saved, so their inserts are not interleaved with flushes and are
+     * sent to the database in JDBC batches (see <code>hibernate.jdbc.batch_size</code>) at the next flush.
      *
-     * @param featureDnaSequence dna sequence of feature
-     * @return Feature object.
-     * @throws DAOException
+     * @param sequence         sequence the features belong to
+     * @param sequenceFeatures sequence features to save. May be null
+     * @param updateUri        whether to update the uri of an existing feature to that of the matching new feature
+     * @throws DAOException if a sequence feature has no feature, or on exception resolving features
      */
-    private Feature getFeatureBySequence(String featureDnaSequence) {
-        featureDnaSequence = featureDnaSequence.toLowerCase();
-        Feature result;
-        Session session = currentSession();
-
+    private void saveSequenceFeatures(Sequence sequence, Collection<SequenceFeature> sequenceFeatures,
+                                      boolean updateUri) {
+        if (sequenceFeatures == null || sequenceFeatures.isEmpty())
+            return;
+
+        // forward and reverse complement hashes of each feature
+        Map<SequenceFeature, String[]> featureHashes = new LinkedHashMap<>();
+        Set<String> hashes = new HashSet<>();
         try {
-            String queryString = "from " + Feature.class.getName() + " where hash = :hash";
-            Query query = session.createQuery(queryString);
-            query.setParameter("hash", SequenceUtils.calculateSequenceHash(featureDnaSequence));
-
-            Object queryResult = query.uniqueResult();
-
-            if (queryResult != null) {
-                result = (Feature) queryResult;
-            } else {
-                String reverseComplement = SequenceUtils.reverseComplement(featureDnaSequence);
-                String sequenceHash = SequenceUtils.calculateSequenceHash(reverseComplement);
-                query.setParameter("hash", sequenceHash);
-                queryResult = query.uniqueResult();
-                if (queryResult != null) {
-                    result = (Feature) queryResult;
-                } else {
-                    result = null;
-                }
+            for (SequenceFeature sequenceFeature : sequenceFeatures) {
+                Feature feature = sequenceFeature.getFeature();
+                if (feature == null)
+                    throw new DAOException("SequenceFeature has no feature");
+
+                String featureDnaSequence = feature.getSequence().toLowerCase();
+                String[] pair = new String[]{SequenceUtils.calculateSequenceHash(featureDnaSequence),
+                        SequenceUtils.calculateReverseComplementSequenceHash(featureDnaSequence)};
+                featureHashes.put(sequenceFeature, pair);
+                hashes.add(pair[0]);
+                hashes.add(pair[1]);
             }
-        } catch (HibernateException | UtilityException e) {
+        } catch (UtilityException e) {
             Logger.error(e);
             throw new DAOException("Failed to get Feature by sequence!", e);
         }
 
-        return result;
+        FeatureDAO featureDAO = DAOFactory.getFeatureDAO();
+        SequenceFeatureDAO sequenceFeatureDAO = DAOFactory.getSequenceFeatureDAO();
+        Map<String, Feature> existingFeatures = featureDAO.getByHashes(hashes);
+
+        for (Map.Entry<SequenceFeature, String[]> entry : featureHashes.entrySet()) {
+            SequenceFeature sequenceFeature = entry.getKey();
+            Feature feature = sequenceFeature.getFeature();
+            Feature existingFeature = existingFeatures.get(entry.getValue()[0]);
+            if (existingFeature == null)
+                existingFeature = existingFeatures.get(entry.getValue()[1]);
+
+            if (existingFeature == null) {
+                // new feature -> save it; later features in the set with the same sequence re-use it
+                existingFeature = featureDAO.create(feature);
+                existingFeatures.put(existingFeature.getHash(), existingFeature);
+            } else if (updateUri && existingFeature != feature && !sameFeatureUri(existingFeature, feature)) {
+                // same sequence feature but different uri
+                // sequence hash fwa uniqueness causes problems when trying to save a new feature with same seq
+                existingFeature.setUri(feature.getUri());
+            }
+
+            sequenceFeature.setFeature(existingFeature);
+            sequenceFeature.setSequence(sequence);
+            sequenceFeatureDAO.create(sequenceFeature);
+        }
     }
 
     /**
@@ -335,10 +660,15 @@ public class SequenceDAO extends HibernateRepository<Sequence> {
             return sequence;
         }
 
-        if (StringUtils.isEmpty(sequence.getSequence()))
+        // only decode (packed) text if the length has not been recorded
+        Integer length = sequence.getSequenceLength();
+        if (length == null) {
+            String text = sequence.getSequence();
+            length = text == null ? 0 : text.length();
+        }
+        if (length == 0)
             return sequence;
 
-        int length = sequence.getSequence().length();
         boolean wholeSequence;
         for (SequenceFeature sequenceFeature : sequence.getSequenceFeatures()) {
             wholeSequence = false;
@@ -0,0 +1,149 @@
+package org.jbei.ice.storage.hibernate.dao;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Query;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Restrictions;
+import org.jbei.ice.lib.common.logging.Logger;
+import org.jbei.ice.storage.DAOException;
+import org.jbei.ice.storage.hibernate.HibernateRepository;
+import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.jbei.ice.storage.model.UserSessionModel;
+
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Data accessor object for persisted user sessions ({@link UserSessionModel}).
+ * <p>
+ * Sessions are looked up and updated while authenticating requests, including requests handled in read-only
+ * transactions (whose changes are discarded and whose connection may be to a read replica that does not yet have a
+ * newly created session). Each method therefore runs, and commits, in its own short transaction on a new session
+ * and always uses the primary database, independent of the caller's transaction
+ *
+ * @author Hector Plahar
+ */
+public class UserSessionDAO extends HibernateRepository<UserSessionModel> {
+
+    @Override
+    public UserSessionModel get(long id) {
+        return super.get(UserSessionModel.class, id);
+    }
+
+    public UserSessionModel getBySessionHash(String sessionHash) {
+        return inTransaction(session -> getBySessionHash(session, sessionHash));
+    }
+
+    /**
+     * Stores a new session, replacing any existing one with the same hash. The least recently accessed sessions of
+     * the user are removed if the user would otherwise have more than the specified number of sessions
+     *
+     * @param model           new session
+     * @param maxUserSessions maximum number of sessions allowed for the user
+     */
+    public void create(UserSessionModel model, int maxUserSessions) {
+        inTransaction(session -> {
+            delete(session, "sessionHash", model.getSessionHash());
+
+            // sessions are in order of last access
+            List<UserSessionModel> existing = getByUserId(session, model.getUserId());
+            for (int i = 0; i <= existing.size() - maxUserSessions; i += 1) {
+                session.delete(existing.get(i));
+            }
+            session.save(model);
+            return model;
+        });
+    }
+
+    /**
+     * Records access to a session
+     *
+     * @param sessionHash hash of session identifier
+     * @param lastAccess  time of access
+     */
+    public void updateLastAccess(String sessionHash, Date lastAccess) {
+        inTransaction(session -> {
+            Query query = session.createQuery("update " + UserSessionModel.class.getName()
+                    + " set lastAccess = :lastAccess where sessionHash = :sessionHash");
+            query.setParameter("lastAccess", lastAccess);
+            query.setParameter("sessionHash", sessionHash);
+            return query.executeUpdate();
+        });
+    }
+
+    /**
+     * @param userId unique user identifier
+     * @return number of sessions for the user
+     */
+    public int getCountByUserId(String userId) {
+        return inTransaction(session -> {
+            Query query = session.createQuery("select count(id) from " + UserSessionModel.class.getName()
+                    + " where userId = :userId");
+            query.setParameter("userId", userId);
+            return ((Number) query.uniqueResult()).intValue();
+        });
+    }
+
+    public int deleteBySessionHash(String sessionHash) {
+        return inTransaction(session -> delete(session, "sessionHash", sessionHash));
+    }
+
+    public int deleteByUserId(String userId) {
+        return inTransaction(session -> delete(session, "userId", userId));
+    }
+
+    /**
+     * Deletes sessions last accessed before the specified date
+     *
+     * @return number of sessions deleted
+     */
+    public int deleteExpired(Date before) {
+        return inTransaction(session -> {
+            Query query = session.createQuery("delete from " + UserSessionModel.class.getName()
+                    + " where lastAccess < :before");
+            query.setParameter("before", before);
+            return query.executeUpdate();
+        });
+    }
+
+    private UserSessionModel getBySessionHash(Session session, String sessionHash) {
+        return (UserSessionModel) session.createCriteria(UserSessionModel.class)
+                .add(Restrictions.eq("sessionHash", sessionHash))
+                .uniqueResult();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<UserSessionModel> getByUserId(Session session, String userId) {
+        return session.createCriteria(UserSessionModel.class)
+                .add(Restrictions.eq("userId", userId))
+                .addOrder(Order.asc("lastAccess"))
+                .list();
+    }
+
+    private int delete(Session session, String field, String value) {
+        Query query = session.createQuery("delete from " + UserSessionModel.class.getName()
+                + " where " + field + " = :value");
+        query.setParameter("value", value);
+        return query.executeUpdate();
+    }
+
+    // connections for transactions that are not started read-only are always to the primary
+    private <T> T inTransaction(Function<Session, T> work) {
+        Session session = HibernateUtil.newSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            T result = work.apply(session);
+            transaction.commit();
+            return result;
+        } catch (HibernateException he) {
+            transaction.rollback();
+            Logger.error(he);
+            throw new DAOException(he);
+        } finally {
+            session.close();
+        }
+    }
+}
@@ -83,7 +83,15 @@ import org.jbei.ice.storage.model.Parameter;
                         @org.hibernate.search.annotations.Parameter(name = "replacement", value = " ")
                 })
         })
-@Table(name = "entries")
+// sort column with id, for keyset paging (see org.jbei.ice.storage.hibernate.KeysetPage)
+@Table(name = "entries", indexes = {
+        @javax.persistence.Index(columnList = "creation_time,id"),
+        @javax.persistence.Index(columnList = "name,id"),
+        @javax.persistence.Index(columnList = "alias,id"),
+        @javax.persistence.Index(columnList = "part_number,id"),
+        @javax.persistence.Index(columnList = "record_type,id"),
+        @javax.persistence.Index(columnList = "status,id")
+})
 @SequenceGenerator(name = "sequence", sequenceName = "entries_id_seq", allocationSize = 1)
 @Inheritance(strategy = InheritanceType.JOINED)
 public class Entry implements DataModel {
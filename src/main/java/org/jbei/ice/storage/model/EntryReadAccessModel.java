@@ -0,0 +1,68 @@
+package org.jbei.ice.storage.model;
+
+import org.jbei.ice.storage.DataModel;
+import org.jbei.ice.storage.IDataTransferModel;
+
+import javax.persistence.*;
+
+/**
+ * Materialised read access for an entry. Each row grants read access on an entry to a principal; either an
+ * account or a group (and implicitly to all members of the group). A row without an account or group grants
+ * read access to all registered users (e.g. the entry is in a public folder).
+ * <p>
+ * Rows are derived from {@link Permission}s (on the entry and on folders containing it) and folder types,
+ * and are maintained by {@link org.jbei.ice.storage.hibernate.dao.EntryReadAccessDAO} when those change.
+ * Owners and administrators are not recorded
+ *
+ * @author Hector Plahar
+ */
+@Entity
+@Table(name = "entry_read_acl", indexes = {@Index(columnList = "entry_id"), @Index(columnList = "account_id"),
+        @Index(columnList = "group_id")})
+@SequenceGenerator(name = "sequence", sequenceName = "entry_read_acl_id_seq", allocationSize = 1)
+public class EntryReadAccessModel implements DataModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "sequence")
+    private long id;
+
+    @Column(name = "entry_id", nullable = false)
+    private long entryId;
+
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Column(name = "group_id")
+    private Long groupId;
+
+    public EntryReadAccessModel() {
+    }
+
+    public EntryReadAccessModel(long entryId, Long accountId, Long groupId) {
+        this.entryId = entryId;
+        this.accountId = accountId;
+        this.groupId = groupId;
+    }
+
+    @Override
+    public long getId() {
+        return id;
+    }
+
+    public long getEntryId() {
+        return entryId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    @Override
+    public IDataTransferModel toDataTransferObject() {
+        return null;
+    }
+}
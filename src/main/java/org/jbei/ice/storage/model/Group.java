@@ -1,5 +1,7 @@
 package org.jbei.ice.storage.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.jbei.ice.lib.dto.group.GroupType;
 import org.jbei.ice.lib.dto.group.UserGroup;
 import org.jbei.ice.storage.DataModel;
@@ -15,6 +17,8 @@ import java.util.Set;
  * @author Hector Plahar, Timothy Ham, Ziovii Dmytriv
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "groups")
 @SequenceGenerator(name = "sequence", sequenceName = "groups_id_seq", allocationSize = 1)
 public class Group implements DataModel {
@@ -0,0 +1,186 @@
+package org.jbei.ice.storage.model;
+
+import org.hibernate.annotations.Type;
+import org.jbei.ice.lib.dto.Job;
+import org.jbei.ice.lib.executor.JobStatus;
+import org.jbei.ice.storage.DataModel;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * Persisted background job. Stores enough information to re-create and run a durable task
+ * after a restart, as well as the lease and retry state for the job
+ *
+ * @author Hector Plahar
+ */
+@Entity
+@Table(name = "job", indexes = {@Index(columnList = "status,next_attempt")})
+@SequenceGenerator(name = "sequence", sequenceName = "job_id_seq", allocationSize = 1)
+public class JobModel implements DataModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "sequence")
+    private long id;
+
+    @Column(name = "type", length = 255, nullable = false)
+    private String type;
+
+    @Column(name = "job_key", length = 255)
+    private String key;
+
+    @Column(name = "parameters")
+    @Lob
+    @Type(type = "org.hibernate.type.TextType")
+    private String parameters;
+
+    @Column(name = "status", length = 16, nullable = false)
+    @Enumerated(value = EnumType.STRING)
+    private JobStatus status;
+
+    @Column(name = "attempts")
+    private int attempts;
+
+    @Column(name = "max_attempts")
+    private int maxAttempts;
+
+    @Column(name = "lease_owner", length = 64)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date leaseExpires;
+
+    @Column(name = "next_attempt")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date nextAttempt;
+
+    @Column(name = "creation_time")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date creationTime;
+
+    @Column(name = "last_modified")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastModified;
+
+    @Column(name = "last_error", length = 1024)
+    private String lastError;
+
+    public long getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(String parameters) {
+        this.parameters = parameters;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(JobStatus status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public Date getLeaseExpires() {
+        return leaseExpires;
+    }
+
+    public void setLeaseExpires(Date leaseExpires) {
+        this.leaseExpires = leaseExpires;
+    }
+
+    public Date getNextAttempt() {
+        return nextAttempt;
+    }
+
+    public void setNextAttempt(Date nextAttempt) {
+        this.nextAttempt = nextAttempt;
+    }
+
+    public Date getCreationTime() {
+        return creationTime;
+    }
+
+    public void setCreationTime(Date creationTime) {
+        this.creationTime = creationTime;
+    }
+
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Date lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    @Override
+    public Job toDataTransferObject() {
+        Job job = new Job();
+        job.setId(id);
+        job.setType(type);
+        job.setKey(key);
+        job.setStatus(status);
+        job.setAttempts(attempts);
+        if (creationTime != null)
+            job.setCreated(creationTime.getTime());
+        if (lastModified != null)
+            job.setLastModified(lastModified.getTime());
+        if (nextAttempt != null)
+            job.setNextAttempt(nextAttempt.getTime());
+        job.setLastError(lastError);
+        return job;
+    }
+}
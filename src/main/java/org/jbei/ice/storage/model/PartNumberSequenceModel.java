@@ -0,0 +1,54 @@
+package org.jbei.ice.storage.model;
+
+import org.jbei.ice.storage.DataModel;
+import org.jbei.ice.storage.IDataTransferModel;
+
+import javax.persistence.*;
+
+/**
+ * Next available number for names generated with a given prefix (e.g. strain names). Numbers are handed out
+ * in blocks by {@link org.jbei.ice.lib.entry.PartNumberAllocator}
+ *
+ * @author Hector Plahar
+ */
+@Entity
+@Table(name = "part_number_sequence")
+@SequenceGenerator(name = "sequence", sequenceName = "part_number_sequence_id_seq", allocationSize = 1)
+public class PartNumberSequenceModel implements DataModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "sequence")
+    private long id;
+
+    @Column(name = "prefix", length = 127, nullable = false, unique = true)
+    private String prefix;
+
+    @Column(name = "next_value", nullable = false)
+    private long nextValue;
+
+    public PartNumberSequenceModel() {
+    }
+
+    public PartNumberSequenceModel(String prefix, long nextValue) {
+        this.prefix = prefix;
+        this.nextValue = nextValue;
+    }
+
+    @Override
+    public long getId() {
+        return id;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public long getNextValue() {
+        return nextValue;
+    }
+
+    @Override
+    public IDataTransferModel toDataTransferObject() {
+        return null;
+    }
+}
@@ -1,5 +1,7 @@
 package org.jbei.ice.storage.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.search.annotations.Analyze;
 import org.hibernate.search.annotations.ClassBridge;
 import org.hibernate.search.annotations.ContainedIn;
@@ -16,6 +18,8 @@ import javax.persistence.*;
  * @author Hector Plahar
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "PERMISSION")
 @ClassBridge(name = "permission", analyze = Analyze.NO, impl = PermissionEntryBridge.class)
 @SequenceGenerator(name = "sequence", sequenceName = "permission_id_seq", allocationSize = 1)
@@ -0,0 +1,51 @@
+package org.jbei.ice.storage.model;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Scratch rows holding a (large) set of identifiers that a query is restricted to. Each set is identified by a
+ * unique key; rows are written and removed within the transaction that runs the query so they are never visible
+ * to other transactions. See {@link org.jbei.ice.storage.hibernate.IdSetQuery}
+ *
+ * @author Hector Plahar
+ */
+@Entity
+@Table(name = "query_id_set")
+public class QueryIdSetModel implements Serializable {
+
+    @Id
+    @Column(name = "set_key", length = 36, nullable = false)
+    private String setKey;
+
+    @Id
+    @Column(name = "id_value", nullable = false)
+    private long idValue;
+
+    public QueryIdSetModel() {
+    }
+
+    public String getSetKey() {
+        return setKey;
+    }
+
+    public long getIdValue() {
+        return idValue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof QueryIdSetModel))
+            return false;
+        QueryIdSetModel other = (QueryIdSetModel) o;
+        return idValue == other.idValue && Objects.equals(setKey, other.setKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(setKey, idValue);
+    }
+}
@@ -1,5 +1,7 @@
 package org.jbei.ice.storage.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.jbei.ice.lib.dto.web.RegistryPartner;
 import org.jbei.ice.lib.dto.web.RemotePartnerStatus;
 import org.jbei.ice.storage.DataModel;
@@ -33,6 +35,8 @@ import java.util.Date;
  * @author Hector Plahar
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "REMOTE_PARTNER")
 @SequenceGenerator(name = "sequence", sequenceName = "remote_partner_id_seq", allocationSize = 1)
 public class RemotePartner implements DataModel {
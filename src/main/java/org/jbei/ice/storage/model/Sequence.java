@@ -1,10 +1,14 @@
 package org.jbei.ice.storage.model;
 
-import org.hibernate.annotations.Type;
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.proxy.HibernateProxy;
 import org.hibernate.search.annotations.Field;
 import org.hibernate.search.annotations.FieldBridge;
 import org.jbei.ice.lib.dto.entry.SequenceInfo;
 import org.jbei.ice.lib.entry.sequence.SequenceFormat;
+import org.jbei.ice.lib.utils.PackedSequence;
 import org.jbei.ice.lib.utils.SequenceUtils;
 import org.jbei.ice.lib.utils.UtilityException;
 import org.jbei.ice.storage.DataModel;
@@ -23,13 +27,19 @@ import java.util.Set;
  * <li><b>sequenceUser: </b>Original sequence uploaded by the user. For example, the unparsed
  * genbank file, if that was the original upload. If the original upload does not exist, then this
  * field is the same as sequence.</li>
+ * <li>Both are stored in a separate {@link SequenceContent} row that is only loaded when either is accessed,
+ * so sequence rows stay small and can be cached. The normalized sequence may be stored 2-bit packed.</li>
  * <li><b>fwdHash, revHash: </b>sha1 hash of the normalized sequence for fast searches.</li>
+ * <li><b>sequenceLength, gcContent, featureCount, hasOriginal: </b>metadata derived from the sequence, its features
+ * and the original upload so that summaries do not load the sequence. Null for sequences saved before these were
+ * introduced, until backfilled by {@link org.jbei.ice.lib.entry.sequence.SequenceMetadataTask}.</li>
  * <li><b>sequenceFeatures: </b>{@link SequenceFeature} objects.</li>
  * </ul>
  *
  * @author Timothy Ham, Zinovii Dmytriv
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "sequences")
 @SequenceGenerator(name = "sequence", sequenceName = "sequences_id_seq", allocationSize = 1)
 public class Sequence implements DataModel {
@@ -38,19 +48,13 @@ public class Sequence implements DataModel {
     @GeneratedValue(strategy = GenerationType.AUTO, generator = "sequence")
     private long id;
 
-    @Column(name = "sequence")
-    @Lob
-    @Type(type = "org.hibernate.type.TextType")
-    private String sequence;
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "content_id", unique = true)
+    private SequenceContent content;
 
     @Column(name = "identifier")
     private String identifier;
 
-    @Column(name = "sequence_user")
-    @Lob
-    @Type(type = "org.hibernate.type.TextType")
-    private String sequenceUser;
-
     @Column(name = "fwd_hash", length = 40)
     private String fwdHash;
 
@@ -70,7 +74,19 @@ public class Sequence implements DataModel {
     @Enumerated(value = EnumType.STRING)
     private SequenceFormat format;
 
-    @OneToOne(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @Column(name = "sequence_length")
+    private Integer sequenceLength;
+
+    @Column(name = "gc_content")
+    private Double gcContent;
+
+    @Column(name = "feature_count")
+    private Integer featureCount;
+
+    @Column(name = "has_original")
+    private Boolean hasOriginal;
+
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @JoinColumn(name = "entries_id", nullable = true, unique = true)
     @Field(bridge = @FieldBridge(impl = EntryBooleanPropertiesBridge.class, params = {
             @org.hibernate.search.annotations.Parameter(name = "boolean", value = "hasSequence")
@@ -87,11 +103,12 @@ public class Sequence implements DataModel {
     public Sequence(String sequence, String sequenceUser, String fwdHash, String revHash, Entry entry) {
         super();
 
-        this.sequence = sequence;
-        this.sequenceUser = sequenceUser;
+        this.content = new SequenceContent(sequence, sequenceUser);
         this.fwdHash = fwdHash;
         this.revHash = revHash;
         this.entry = entry;
+        updateSequenceMetadata(sequence);
+        this.hasOriginal = !StringUtils.isEmpty(sequenceUser);
     }
 
     @XmlTransient
@@ -104,11 +121,30 @@ public class Sequence implements DataModel {
     }
 
     public String getSequence() {
-        return sequence;
+        return content == null ? null : content.getSequence();
+    }
+
+    /**
+     * @return the normalized sequence in packed form, or null if there is no sequence. Does not unpack sequences
+     * that are stored packed
+     */
+    @XmlTransient
+    public PackedSequence getPackedSequence() {
+        return content == null ? null : content.getPackedSequence();
+    }
+
+    /**
+     * Stores the normalized sequence packed (see {@link SequenceContent#pack()}). Setting the sequence stores it
+     * as text again
+     */
+    public void packSequence() {
+        if (content != null)
+            content.pack();
     }
 
     public void setSequence(String sequence) {
-        this.sequence = sequence;
+        getContent().setSequence(sequence);
+        updateSequenceMetadata(sequence);
         setFwdHash(SequenceUtils.calculateSequenceHash(sequence));
         try {
             setRevHash(SequenceUtils.calculateReverseComplementSequenceHash(sequence));
@@ -119,11 +155,12 @@ public class Sequence implements DataModel {
 
     @XmlTransient
     public String getSequenceUser() {
-        return sequenceUser;
+        return content == null ? null : content.getSequenceUser();
     }
 
     public void setSequenceUser(String sequenceUser) {
-        this.sequenceUser = sequenceUser;
+        getContent().setSequenceUser(sequenceUser);
+        this.hasOriginal = !StringUtils.isEmpty(sequenceUser);
     }
 
     @XmlTransient
@@ -144,8 +181,14 @@ public class Sequence implements DataModel {
         this.revHash = revHash;
     }
 
+    /**
+     * @return entry associated with this sequence. The entry is loaded lazily; since callers check the type of
+     * entry (e.g. for plasmids) the actual entry rather than an uninitialized proxy is returned
+     */
     @XmlTransient
     public Entry getEntry() {
+        if (entry instanceof HibernateProxy)
+            entry = (Entry) ((HibernateProxy) entry).getHibernateLazyInitializer().getImplementation();
         return entry;
     }
 
@@ -217,6 +260,56 @@ public class Sequence implements DataModel {
         return this.format;
     }
 
+    /**
+     * @return number of bases in the (trimmed) sequence; null if not computed yet
+     */
+    public Integer getSequenceLength() {
+        return sequenceLength;
+    }
+
+    /**
+     * @return fraction of G and C bases in the sequence; null if not computed yet
+     */
+    public Double getGcContent() {
+        return gcContent;
+    }
+
+    /**
+     * @return number of features annotated on the sequence; null if not computed yet
+     */
+    public Integer getFeatureCount() {
+        return featureCount;
+    }
+
+    public void setFeatureCount(Integer featureCount) {
+        this.featureCount = featureCount;
+    }
+
+    /**
+     * @return whether the original sequence uploaded by the user is available; null if not computed yet
+     */
+    public Boolean getHasOriginal() {
+        return hasOriginal;
+    }
+
+    // created on first write
+    private SequenceContent getContent() {
+        if (content == null)
+            content = new SequenceContent();
+        return content;
+    }
+
+    // length and gc content are derived from the sequence whenever it is set
+    private void updateSequenceMetadata(String sequence) {
+        if (sequence == null) {
+            sequenceLength = 0;
+            gcContent = 0d;
+            return;
+        }
+        sequenceLength = sequence.trim().length();
+        gcContent = SequenceUtils.calculateGCContent(sequence);
+    }
+
     @Override
     public SequenceInfo toDataTransferObject() {
         SequenceInfo info = new SequenceInfo();
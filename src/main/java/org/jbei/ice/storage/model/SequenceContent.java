@@ -0,0 +1,110 @@
+package org.jbei.ice.storage.model;
+
+import org.hibernate.annotations.Type;
+import org.jbei.ice.lib.utils.PackedSequence;
+
+import javax.persistence.*;
+
+/**
+ * Stores the (potentially large) text of a {@link Sequence}: the normalized sequence and the original upload
+ * by the user. Kept separate from the sequence so that loading a sequence, e.g. to retrieve its features or
+ * metadata, does not load the text. Only accessed through the owning sequence, which loads it lazily.
+ * <p>
+ * The normalized sequence is either stored as text or, once {@link #pack()}ed, as a {@link PackedSequence} in
+ * <code>packed_sequence</code> (with the text column null). Packed sequences are decoded when the text is first
+ * requested and the text is kept for subsequent requests
+ *
+ * @author Hector Plahar
+ */
+@Entity
+@Table(name = "sequence_content")
+@SequenceGenerator(name = "sequence", sequenceName = "sequence_content_id_seq", allocationSize = 1)
+public class SequenceContent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "sequence")
+    private long id;
+
+    @Column(name = "sequence")
+    @Lob
+    @Type(type = "org.hibernate.type.TextType")
+    private String sequence;
+
+    @Column(name = "sequence_user")
+    @Lob
+    @Type(type = "org.hibernate.type.TextType")
+    private String sequenceUser;
+
+    @Column(name = "packed_sequence", length = Integer.MAX_VALUE)
+    @Type(type = "org.hibernate.type.BinaryType")
+    private byte[] packedSequence;
+
+    @Transient
+    private String decoded;
+
+    public SequenceContent() {
+    }
+
+    public SequenceContent(String sequence, String sequenceUser) {
+        this.sequence = sequence;
+        this.sequenceUser = sequenceUser;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getSequence() {
+        if (sequence != null || packedSequence == null)
+            return sequence;
+
+        if (decoded == null)
+            decoded = PackedSequence.fromBytes(packedSequence).toString();
+        return decoded;
+    }
+
+    public void setSequence(String sequence) {
+        this.sequence = sequence;
+        this.packedSequence = null;
+        this.decoded = null;
+    }
+
+    /**
+     * @return the normalized sequence in packed form (packing the text if it is not stored packed), or null if
+     * there is no sequence
+     */
+    public PackedSequence getPackedSequence() {
+        if (packedSequence != null)
+            return PackedSequence.fromBytes(packedSequence);
+        return sequence == null ? null : PackedSequence.pack(sequence);
+    }
+
+    public boolean isPacked() {
+        return packedSequence != null;
+    }
+
+    /**
+     * Stores the normalized sequence packed instead of as text, unless the packed form is not smaller (e.g. for
+     * protein sequences)
+     */
+    public void pack() {
+        if (sequence == null)
+            return;
+
+        byte[] packed = PackedSequence.pack(sequence).toBytes();
+        if (packed.length >= sequence.length())
+            return;
+
+        packedSequence = packed;
+        decoded = sequence;
+        sequence = null;
+    }
+
+    public String getSequenceUser() {
+        return sequenceUser;
+    }
+
+    public void setSequenceUser(String sequenceUser) {
+        this.sequenceUser = sequenceUser;
+    }
+}
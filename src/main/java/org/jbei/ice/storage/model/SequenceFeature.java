@@ -155,10 +155,18 @@ public class SequenceFeature implements DataModel {
         return genbankType;
     }
 
+    public void setGenbankType(String genbankType) {
+        this.genbankType = genbankType;
+    }
+
     public AnnotationType getAnnotationType() {
         return annotationType;
     }
 
+    public void setAnnotationType(AnnotationType annotationType) {
+        this.annotationType = annotationType;
+    }
+
     public Set<SequenceFeatureAttribute> getSequenceFeatureAttributes() {
         return sequenceFeatureAttributes;
     }
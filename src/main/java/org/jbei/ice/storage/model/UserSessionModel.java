@@ -0,0 +1,80 @@
+package org.jbei.ice.storage.model;
+
+import org.jbei.ice.lib.account.session.UserSession;
+import org.jbei.ice.storage.DataModel;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * Persisted user session. Only a hash of the session identifier is stored
+ *
+ * @author Hector Plahar
+ */
+@Entity
+@Table(name = "user_session", indexes = {@Index(columnList = "user_id"), @Index(columnList = "last_access")})
+@SequenceGenerator(name = "sequence", sequenceName = "user_session_id_seq", allocationSize = 1)
+public class UserSessionModel implements DataModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "sequence")
+    private long id;
+
+    @Column(name = "session_hash", length = 64, nullable = false, unique = true)
+    private String sessionHash;
+
+    @Column(name = "user_id", length = 255, nullable = false)
+    private String userId;
+
+    @Column(name = "creation_time")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date creationTime;
+
+    @Column(name = "last_access")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastAccess;
+
+    public long getId() {
+        return id;
+    }
+
+    public String getSessionHash() {
+        return sessionHash;
+    }
+
+    public void setSessionHash(String sessionHash) {
+        this.sessionHash = sessionHash;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public Date getCreationTime() {
+        return creationTime;
+    }
+
+    public void setCreationTime(Date creationTime) {
+        this.creationTime = creationTime;
+    }
+
+    public Date getLastAccess() {
+        return lastAccess;
+    }
+
+    public void setLastAccess(Date lastAccess) {
+        this.lastAccess = lastAccess;
+    }
+
+    /**
+     * @return session whose identifier is the stored session hash
+     */
+    @Override
+    public UserSession toDataTransferObject() {
+        return new UserSession(sessionHash, userId, creationTime.getTime(), lastAccess.getTime());
+    }
+}
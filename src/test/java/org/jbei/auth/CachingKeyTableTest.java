@@ -0,0 +1,56 @@
+package org.jbei.auth;
+
+import org.jbei.auth.hmac.HmacSignatureFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.security.Key;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Hector Plahar
+ */
+public class CachingKeyTableTest {
+
+    @Test
+    public final void testGetKey() throws Exception {
+        final MemoryKeyTable memory = new MemoryKeyTable();
+        final Key key = HmacSignatureFactory.createKey();
+        memory.put("test", key);
+        final AtomicInteger lookups = new AtomicInteger();
+        final CachingKeyTable table = new CachingKeyTable(keyId -> {
+            lookups.incrementAndGet();
+            return memory.getKey(keyId);
+        });
+
+        Assert.assertEquals(key, table.getKey("test"));
+        Assert.assertEquals(key, table.getKey("test"));
+        Assert.assertEquals(1, lookups.get());
+
+        // missing keys are also cached
+        Assert.assertNull(table.getKey("missing"));
+        Assert.assertNull(table.getKey("missing"));
+        Assert.assertEquals(2, lookups.get());
+
+        // changes are visible after reload
+        final Key replaced = HmacSignatureFactory.createKey();
+        memory.put("test", replaced);
+        memory.put("missing", key);
+        Assert.assertEquals(key, table.getKey("test"));
+        table.reload("test");
+        Assert.assertEquals(replaced, table.getKey("test"));
+        Assert.assertNull(table.getKey("missing"));
+        table.reload();
+        Assert.assertEquals(key, table.getKey("missing"));
+    }
+
+    @Test
+    public final void testExpiry() throws Exception {
+        final MemoryKeyTable memory = new MemoryKeyTable();
+        final CachingKeyTable table = new CachingKeyTable(memory, -1, -1);
+        Assert.assertNull(table.getKey("test"));
+        final Key key = HmacSignatureFactory.createKey();
+        memory.put("test", key);
+        Assert.assertEquals(key, table.getKey("test"));
+    }
+}
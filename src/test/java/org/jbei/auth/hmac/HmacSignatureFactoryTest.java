@@ -132,4 +132,36 @@ public class HmacSignatureFactoryTest {
         }
     }
 
+    /**
+     * Tests that signers returned to the pool produce the same signature when reused.
+     */
+    @Test
+    public final void testBuildSignatureReusesSigner() {
+        final HmacSignatureFactory factory = new HmacSignatureFactory(table);
+        try {
+            for (int i = 0; i < 5; i++) {
+                final HmacSignature signature = factory.buildSignature(simpleRequest, keyId, userId);
+                Assert.assertEquals(simpleSignature, signature.generateSignature());
+                // repeated calls return the same value
+                Assert.assertEquals(simpleSignature, signature.generateSignature());
+            }
+            // signature not yet generated does not affect others
+            final HmacSignature pending = factory.buildSignature(simpleRequest, keyId, "IVaino");
+            Assert.assertEquals(simpleSignature,
+                    factory.buildSignature(simpleRequest, keyId, userId).generateSignature());
+            Assert.assertNotEquals(simpleSignature, pending.generateSignature());
+        } catch (final SignatureException e) {
+            Assert.fail("Could not generate signature from HttpServletRequest simpleRequest");
+        }
+    }
+
+    /**
+     * Tests that an unknown key ID does not produce a signature.
+     */
+    @Test
+    public final void testBuildSignatureUnknownKey() throws SignatureException {
+        final HmacSignatureFactory factory = new HmacSignatureFactory(table);
+        Assert.assertNull(factory.buildSignature(simpleRequest, "unknown", userId));
+    }
+
 }
@@ -0,0 +1,115 @@
+package org.jbei.ice.lib.access;
+
+import org.jbei.ice.lib.AccountCreator;
+import org.jbei.ice.lib.TestEntryCreator;
+import org.jbei.ice.lib.entry.EntryAuthorization;
+import org.jbei.ice.storage.DAOFactory;
+import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.jbei.ice.storage.model.Account;
+import org.jbei.ice.storage.model.Group;
+import org.jbei.ice.storage.model.Permission;
+import org.jbei.ice.storage.model.Strain;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Hector Plahar
+ */
+public class AuthorizationContextTest {
+
+    @Before
+    public void setUp() throws Exception {
+        HibernateUtil.initializeMock();
+        HibernateUtil.beginTransaction();
+        AuthorizationContext.begin();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        AuthorizationContext.end();
+        HibernateUtil.commitTransaction();
+    }
+
+    @Test
+    public void testIsAllowed() throws Exception {
+        AuthorizationContext context = AuthorizationContext.current();
+        Assert.assertNotNull(context);
+        AtomicInteger checks = new AtomicInteger();
+
+        Assert.assertTrue(context.isAllowed("user", 1, AccessType.READ, () -> checks.incrementAndGet() > 0));
+        Assert.assertTrue(context.isAllowed("user", 1, AccessType.READ, () -> checks.incrementAndGet() > 0));
+        Assert.assertEquals(1, checks.get());
+
+        // different access type and user are checked separately
+        Assert.assertFalse(context.isAllowed("user", 1, AccessType.WRITE, () -> checks.incrementAndGet() < 0));
+        Assert.assertFalse(context.isAllowed(null, 1, AccessType.READ, () -> checks.incrementAndGet() < 0));
+        Assert.assertEquals(3, checks.get());
+
+        // only entries without a decision are checked
+        Set<Long> checked = new HashSet<>();
+        Set<Long> allowed = context.getAllowed("user", Arrays.asList(1L, 2L, 3L), AccessType.READ, ids -> {
+            checked.addAll(ids);
+            return Collections.singleton(2L);
+        });
+        Assert.assertEquals(new HashSet<>(Arrays.asList(2L, 3L)), checked);
+        Assert.assertEquals(new HashSet<>(Arrays.asList(1L, 2L)), allowed);
+
+        AuthorizationContext.invalidate();
+        Assert.assertFalse(context.isAllowed("user", 1, AccessType.READ, () -> checks.incrementAndGet() < 0));
+        Assert.assertEquals(4, checks.get());
+    }
+
+    @Test
+    public void testGetGroups() throws Exception {
+        Account account = AccountCreator.createTestAccount("AuthorizationContextTest.testGetGroups", false);
+        AuthorizationContext context = AuthorizationContext.current();
+        AtomicInteger loads = new AtomicInteger();
+
+        Set<Group> groups = context.getGroups(account, () -> {
+            loads.incrementAndGet();
+            return new HashSet<>();
+        });
+        groups.add(new Group());
+
+        // returned set is a copy
+        Assert.assertTrue(context.getGroups(account, HashSet::new).isEmpty());
+        Assert.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testPermissionChangeInvalidates() throws Exception {
+        Account owner = AccountCreator.createTestAccount("AuthorizationContextTest.testPermissionChange", false);
+        Account reader = AccountCreator.createTestAccount("AuthorizationContextTest.testPermissionChange2", false);
+        Strain strain = TestEntryCreator.createTestStrain(owner);
+
+        EntryAuthorization authorization = new EntryAuthorization();
+        Assert.assertFalse(authorization.canRead(reader.getEmail(), strain));
+
+        Permission permission = new Permission();
+        permission.setEntry(strain);
+        permission.setAccount(reader);
+        permission.setCanRead(true);
+        DAOFactory.getPermissionDAO().create(permission);
+
+        Assert.assertTrue(authorization.canRead(reader.getEmail(), strain));
+    }
+
+    @Test
+    public void testNoContext() throws Exception {
+        AuthorizationContext.end();
+        Assert.assertNull(AuthorizationContext.current());
+
+        // no-op without a context
+        AuthorizationContext.invalidate();
+        AuthorizationContext.begin();
+        Assert.assertNotNull(AuthorizationContext.current());
+    }
+}
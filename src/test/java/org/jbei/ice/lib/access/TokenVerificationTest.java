@@ -67,4 +67,33 @@ public class TokenVerificationTest {
         Assert.assertNotNull(DAOFactory.getRemotePartnerDAO().create(remotePartner));
         Assert.assertNotNull(verification.verifyPartnerToken(remotePartner.getUrl(), token));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testVerifyAPIKeyCached() throws Exception {
+        Account account = AccountCreator.createTestAccount("testVerifyAPIKeyCached", false);
+        String userId = account.getEmail();
+        UserApiKeys keys = new UserApiKeys(userId);
+        AccessKey key = keys.requestKey("cached.jbei.org");
+
+        // repeat verification uses cached result
+        Assert.assertEquals(userId, verification.verifyAPIKey(key.getToken(), key.getClientId(), userId));
+        Assert.assertEquals(userId, verification.verifyAPIKey(key.getToken(), key.getClientId(), userId));
+
+        // different token for same client is still rejected
+        try {
+            verification.verifyAPIKey(key.getToken() + "x", key.getClientId(), userId);
+            Assert.fail("Expected invalid token to be rejected");
+        } catch (PermissionException pe) {
+            // expected
+        }
+
+        // deleted key is rejected
+        Assert.assertTrue(keys.deleteKey(key.getId(), key.getSecret()));
+        try {
+            verification.verifyAPIKey(key.getToken(), key.getClientId(), userId);
+            Assert.fail("Expected deleted key to be rejected");
+        } catch (PermissionException pe) {
+            // expected
+        }
+    }
+}
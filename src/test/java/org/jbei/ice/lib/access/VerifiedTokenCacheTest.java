@@ -0,0 +1,57 @@
+package org.jbei.ice.lib.access;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Hector Plahar
+ */
+public class VerifiedTokenCacheTest {
+
+    @Test
+    public void testIsVerified() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, 60000);
+        Assert.assertFalse(cache.isVerified("client", "token", "hash"));
+
+        cache.verified("client", "token", "hash");
+        Assert.assertTrue(cache.isVerified("client", "token", "hash"));
+        Assert.assertFalse(cache.isVerified("client", "other", "hash"));
+        Assert.assertFalse(cache.isVerified("other", "token", "hash"));
+
+        // stored hash has changed
+        Assert.assertFalse(cache.isVerified("client", "token", "rotated"));
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, -1);
+        cache.verified("client", "token", "hash");
+        Assert.assertFalse(cache.isVerified("client", "token", "hash"));
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2, 60000);
+        cache.verified("client1", "token", "hash");
+        cache.verified("client2", "token", "hash");
+        Assert.assertTrue(cache.isVerified("client1", "token", "hash"));
+        cache.verified("client3", "token", "hash");
+
+        // least recently used entry is evicted
+        Assert.assertTrue(cache.isVerified("client1", "token", "hash"));
+        Assert.assertFalse(cache.isVerified("client2", "token", "hash"));
+        Assert.assertTrue(cache.isVerified("client3", "token", "hash"));
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, 60000);
+        cache.verified("client", "token1", "hash");
+        cache.verified("client", "token2", "hash");
+        cache.verified("other", "token1", "hash");
+        cache.invalidate("client");
+        Assert.assertFalse(cache.isVerified("client", "token1", "hash"));
+        Assert.assertFalse(cache.isVerified("client", "token2", "hash"));
+        Assert.assertTrue(cache.isVerified("other", "token1", "hash"));
+    }
+}
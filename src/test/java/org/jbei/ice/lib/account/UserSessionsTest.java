@@ -0,0 +1,148 @@
+package org.jbei.ice.lib.account;
+
+import org.jbei.ice.lib.account.session.DatabaseSessionStore;
+import org.jbei.ice.lib.account.session.InMemorySessionStore;
+import org.jbei.ice.lib.account.session.SessionStore;
+import org.jbei.ice.lib.account.session.UserSession;
+import org.jbei.ice.lib.config.ConfigurationController;
+import org.jbei.ice.lib.dto.ConfigurationKey;
+import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Hector Plahar
+ */
+public class UserSessionsTest {
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        HibernateUtil.initializeMock();
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        HibernateUtil.beginTransaction();
+        new ConfigurationController().setPropertyValue(ConfigurationKey.MAX_SESSIONS_PER_USER, "3");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        UserSessions.setSessionStore(new InMemorySessionStore());
+        HibernateUtil.commitTransaction();
+    }
+
+    @Test
+    public void testInMemoryStore() throws Exception {
+        verifyStore(new InMemorySessionStore(), "memory");
+    }
+
+    @Test
+    public void testDatabaseStore() throws Exception {
+        verifyStore(new DatabaseSessionStore(), "database");
+    }
+
+    @Test
+    public void testDatabaseStoreInReadOnlyTransaction() throws Exception {
+        UserSessions.setSessionStore(new DatabaseSessionStore());
+        String active = UserSessions.createNewSessionForUser("readonly-user");
+        String expired = UserSessions.createNewSessionForUser("readonly-user");
+        HibernateUtil.commitTransaction();
+
+        // as for a request handled by a @ReadOnlyTransaction resource method
+        SessionStore store = new DatabaseSessionStore();
+        long idle = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(5);
+        store.touch(store.get(active), idle);
+        store.touch(store.get(expired), System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2));
+        HibernateUtil.beginTransaction(true);
+        HibernateUtil.currentSession();
+        Assert.assertEquals("readonly-user", UserSessions.getUserIdBySession(active));
+        Assert.assertNull(UserSessions.getUserIdBySession(expired));
+        HibernateUtil.rollbackTransaction();
+
+        // access is recorded and the expired session removed regardless of the request's transaction
+        HibernateUtil.beginTransaction();
+        Assert.assertTrue(store.get(active).getLastAccessTime() > idle);
+        Assert.assertNull(store.get(expired));
+        Assert.assertEquals(1, UserSessions.getSessionCount("readonly-user"));
+    }
+
+    @Test
+    public void testInMemoryStoreConcurrentLogins() throws Exception {
+        InMemorySessionStore store = new InMemorySessionStore();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger maxCount = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread += 1) {
+            int offset = thread * 500;
+            futures.add(executor.submit(() -> {
+                for (int i = offset; i < offset + 500; i += 1) {
+                    long now = System.currentTimeMillis();
+                    store.put(new UserSession("concurrent-" + i, "concurrent-user", now, now), 3);
+                    maxCount.accumulateAndGet(store.getUserSessionCount("concurrent-user"), Math::max);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int remaining = 0;
+        for (int i = 0; i < 4000; i += 1) {
+            if (store.get("concurrent-" + i) != null)
+                remaining += 1;
+        }
+        Assert.assertEquals(3, maxCount.get());
+        Assert.assertEquals(3, remaining);
+        Assert.assertEquals(3, store.getUserSessionCount("concurrent-user"));
+    }
+
+    private void verifyStore(SessionStore store, String prefix) {
+        UserSessions.setSessionStore(store);
+        String user1 = prefix + "-user1";
+        String user2 = prefix + "-user2";
+
+        String session1 = UserSessions.createNewSessionForUser(user1);
+        String session2 = UserSessions.createSessionForUser(user2, prefix + "-session2");
+        Assert.assertEquals(user1, UserSessions.getUserIdBySession(session1));
+        Assert.assertEquals(user2, UserSessions.getUserIdBySession(session2));
+        Assert.assertNull(UserSessions.getUserIdBySession("unknown"));
+
+        // logout
+        UserSessions.invalidateSession(session1);
+        Assert.assertNull(UserSessions.getUserIdBySession(session1));
+        Assert.assertEquals(user2, UserSessions.getUserIdBySession(session2));
+
+        // least recently used session removed when cap is exceeded
+        String oldest = UserSessions.createNewSessionForUser(user1);
+        store.touch(store.get(oldest), System.currentTimeMillis() - 60000);
+        String newer = UserSessions.createNewSessionForUser(user1);
+        UserSessions.createNewSessionForUser(user1);
+        Assert.assertEquals(3, UserSessions.getSessionCount(user1));
+        UserSessions.createNewSessionForUser(user1);
+        Assert.assertEquals(3, UserSessions.getSessionCount(user1));
+        Assert.assertNull(UserSessions.getUserIdBySession(oldest));
+        Assert.assertEquals(user1, UserSessions.getUserIdBySession(newer));
+
+        // expired session
+        UserSession session = store.get(newer);
+        store.touch(session, System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2));
+        Assert.assertNull(UserSessions.getUserIdBySession(newer));
+        Assert.assertEquals(2, UserSessions.getSessionCount(user1));
+
+        store.touch(store.get(session2), System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2));
+        Assert.assertTrue(UserSessions.removeExpiredSessions() >= 1);
+        Assert.assertEquals(0, UserSessions.getSessionCount(user2));
+
+        UserSessions.invalidateUserSessions(user1);
+        Assert.assertEquals(0, UserSessions.getSessionCount(user1));
+    }
+}
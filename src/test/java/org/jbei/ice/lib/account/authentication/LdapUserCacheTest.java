@@ -0,0 +1,53 @@
+package org.jbei.ice.lib.account.authentication;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Hector Plahar
+ */
+public class LdapUserCacheTest {
+
+    @Test
+    public void testGet() throws Exception {
+        LdapUserCache cache = new LdapUserCache(10);
+        Assert.assertNull(cache.get("jdoe"));
+
+        LdapUser user = new LdapUser("lblempnum=1,ou=People,dc=lbl,dc=gov", "John", "Doe", "jdoe@lbl.gov", "", true);
+        cache.put("jdoe", user, 60000);
+        Assert.assertSame(user, cache.get("jdoe"));
+
+        // negative entries
+        cache.put("nobody", LdapUser.notMember(), 60000);
+        Assert.assertFalse(cache.get("nobody").isMember());
+
+        cache.invalidate("jdoe");
+        Assert.assertNull(cache.get("jdoe"));
+
+        // non-positive ttl is not cached
+        cache.put("disabled", user, 0);
+        Assert.assertNull(cache.get("disabled"));
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+        LdapUserCache cache = new LdapUserCache(10);
+        cache.put("jdoe", LdapUser.notMember(), 1);
+        Thread.sleep(5);
+        Assert.assertNull(cache.get("jdoe"));
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        LdapUserCache cache = new LdapUserCache(2);
+        cache.put("a", LdapUser.notMember(), 60000);
+        cache.put("b", LdapUser.notMember(), 60000);
+        Assert.assertNotNull(cache.get("a"));
+        cache.put("c", LdapUser.notMember(), 60000);
+
+        // least recently used is evicted
+        Assert.assertNull(cache.get("b"));
+        Assert.assertNotNull(cache.get("a"));
+        Assert.assertNotNull(cache.get("c"));
+    }
+}
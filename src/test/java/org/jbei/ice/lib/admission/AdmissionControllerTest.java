@@ -0,0 +1,140 @@
+package org.jbei.ice.lib.admission;
+
+import org.jbei.ice.lib.dto.ConfigurationKey;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Hector Plahar
+ */
+public class AdmissionControllerTest {
+
+    @Test
+    public void testTokenBucket() throws Exception {
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(2, 60, now);    // one token per second
+        Assert.assertEquals(0, bucket.tryAcquire(now));
+        Assert.assertEquals(0, bucket.tryAcquire(now));
+        Assert.assertFalse(bucket.isFull(now));
+
+        long wait = bucket.tryAcquire(now);
+        Assert.assertTrue(wait > 0 && wait <= TimeUnit.SECONDS.toNanos(1));
+
+        now += TimeUnit.SECONDS.toNanos(1);
+        Assert.assertEquals(0, bucket.tryAcquire(now));
+        Assert.assertTrue(bucket.tryAcquire(now) > 0);
+
+        // does not exceed capacity
+        now += TimeUnit.MINUTES.toNanos(10);
+        Assert.assertTrue(bucket.isFull(now));
+        Assert.assertEquals(0, bucket.tryAcquire(now));
+        Assert.assertEquals(0, bucket.tryAcquire(now));
+        Assert.assertTrue(bucket.tryAcquire(now) > 0);
+    }
+
+    @Test
+    public void testEndpointClass() throws Exception {
+        Assert.assertEquals(EndpointClass.HEAVY, EndpointClass.forPath("/rest/search"));
+        Assert.assertEquals(EndpointClass.HEAVY, EndpointClass.forPath("/rest/search/filter"));
+        Assert.assertEquals(EndpointClass.HEAVY, EndpointClass.forPath("/rest/parts/12/sequence"));
+        Assert.assertEquals(EndpointClass.HEAVY, EndpointClass.forPath("/rest/file/sbolVisual/abc"));
+        Assert.assertEquals(EndpointClass.HEAVY, EndpointClass.forPath("/rest/file/12/sequence/genbank"));
+        Assert.assertEquals(EndpointClass.HEAVY, EndpointClass.forPath("/download"));
+        Assert.assertEquals(EndpointClass.STANDARD, EndpointClass.forPath("/rest/parts/12"));
+        Assert.assertEquals(EndpointClass.STANDARD, EndpointClass.forPath("/rest/file/attachment/abc"));
+        Assert.assertEquals(EndpointClass.STANDARD, EndpointClass.forPath(null));
+    }
+
+    @Test
+    public void testRateLimit() throws Exception {
+        AdmissionController controller = new AdmissionController();
+        Map<ConfigurationKey, String> values = defaults();
+        values.put(ConfigurationKey.RATE_LIMIT_API_KEY, "12");  // burst of 2
+        controller.configure(values::get);
+
+        admitAndRelease(controller, ClientType.API_KEY, "client1");
+        admitAndRelease(controller, ClientType.API_KEY, "client1");
+        Admission admission = controller.admit(ClientType.API_KEY, "client1", EndpointClass.STANDARD);
+        Assert.assertFalse(admission.isAdmitted());
+        Assert.assertTrue(admission.getRetryAfterSeconds() >= 1);
+
+        // other clients and types are not affected
+        admitAndRelease(controller, ClientType.API_KEY, "client2");
+        admitAndRelease(controller, ClientType.SESSION, "client1");
+
+        // disabled
+        values.put(ConfigurationKey.RATE_LIMIT_ENABLED, "NO");
+        controller.configure(values::get);
+        admitAndRelease(controller, ClientType.API_KEY, "client1");
+    }
+
+    @Test
+    public void testVerifiedAndUnverified() throws Exception {
+        AdmissionController controller = new AdmissionController();
+        Map<ConfigurationKey, String> values = defaults();
+        values.put(ConfigurationKey.RATE_LIMIT_SESSION, "12");      // burst of 2
+        values.put(ConfigurationKey.RATE_LIMIT_UNVERIFIED, "12");
+        controller.configure(values::get);
+
+        // verified clients are limited by identity
+        Assert.assertEquals(0, controller.acquire(ClientType.SESSION, "user1"));
+        Assert.assertEquals(0, controller.acquire(ClientType.SESSION, "user1"));
+        Assert.assertTrue(controller.acquire(ClientType.SESSION, "user1") >= 1);
+        Assert.assertEquals(0, controller.acquire(ClientType.SESSION, "user2"));
+
+        // requests with credentials are admitted until their address fails verification too often
+        for (int i = 0; i < 2; i += 1) {
+            Admission admission = controller.admitUnverified("address1", EndpointClass.STANDARD);
+            Assert.assertTrue(admission.isAdmitted());
+            admission.release();
+            controller.verificationFailed("address1");
+        }
+        Assert.assertFalse(controller.admitUnverified("address1", EndpointClass.STANDARD).isAdmitted());
+        Admission other = controller.admitUnverified("address2", EndpointClass.STANDARD);
+        Assert.assertTrue(other.isAdmitted());
+        other.release();
+    }
+
+    @Test
+    public void testConcurrencyLimit() throws Exception {
+        AdmissionController controller = new AdmissionController();
+        Map<ConfigurationKey, String> values = defaults();
+        values.put(ConfigurationKey.MAX_CONCURRENT_HEAVY_REQUESTS, "1");
+        controller.configure(values::get);
+
+        Admission first = controller.admit(ClientType.SESSION, "client1", EndpointClass.HEAVY);
+        Assert.assertTrue(first.isAdmitted());
+        Admission second = controller.admit(ClientType.SESSION, "client2", EndpointClass.HEAVY);
+        Assert.assertFalse(second.isAdmitted());
+        Assert.assertEquals(1, second.getRetryAfterSeconds());
+
+        // standard endpoints are limited separately
+        admitAndRelease(controller, ClientType.SESSION, "client2");
+
+        // releasing more than once does not add permits
+        first.release();
+        first.release();
+        Admission third = controller.admit(ClientType.SESSION, "client2", EndpointClass.HEAVY);
+        Assert.assertTrue(third.isAdmitted());
+        Assert.assertFalse(controller.admit(ClientType.SESSION, "client3", EndpointClass.HEAVY).isAdmitted());
+        third.release();
+    }
+
+    private void admitAndRelease(AdmissionController controller, ClientType type, String client) {
+        Admission admission = controller.admit(type, client, EndpointClass.STANDARD);
+        Assert.assertTrue(admission.isAdmitted());
+        admission.release();
+    }
+
+    private Map<ConfigurationKey, String> defaults() {
+        Map<ConfigurationKey, String> values = new EnumMap<>(ConfigurationKey.class);
+        for (ConfigurationKey key : ConfigurationKey.values()) {
+            values.put(key, key.getDefaultValue());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,93 @@
+package org.jbei.ice.lib.config;
+
+import org.jbei.ice.lib.dto.ConfigurationKey;
+import org.jbei.ice.storage.DAOFactory;
+import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.jbei.ice.storage.model.Configuration;
+import org.junit.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Hector Plahar
+ */
+public class ConfigurationCacheTest {
+
+    private ConfigurationCache cache;
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        HibernateUtil.initializeMock();
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        HibernateUtil.beginTransaction();
+        cache = ConfigurationCache.getInstance();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        HibernateUtil.commitTransaction();
+    }
+
+    @Test
+    public void testSetPropertyValue() throws Exception {
+        ConfigurationController controller = new ConfigurationController();
+        String previous = cache.getString(ConfigurationKey.PROJECT_NAME);
+        controller.setPropertyValue(ConfigurationKey.PROJECT_NAME, "cached project");
+        Assert.assertEquals("cached project", cache.getString(ConfigurationKey.PROJECT_NAME));
+
+        // other threads only see the change once it is committed
+        Assert.assertEquals(previous, readInOtherThread(ConfigurationKey.PROJECT_NAME));
+        HibernateUtil.commitTransaction();
+        Assert.assertEquals("cached project", readInOtherThread(ConfigurationKey.PROJECT_NAME));
+
+        // rolled back change is never published
+        HibernateUtil.beginTransaction();
+        controller.setPropertyValue(ConfigurationKey.PROJECT_NAME, "rolled back");
+        Assert.assertEquals("rolled back", cache.getString(ConfigurationKey.PROJECT_NAME));
+        Assert.assertEquals("cached project", readInOtherThread(ConfigurationKey.PROJECT_NAME));
+        HibernateUtil.rollbackTransaction();
+
+        HibernateUtil.beginTransaction();
+        Assert.assertEquals("cached project", cache.getString(ConfigurationKey.PROJECT_NAME));
+    }
+
+    private String readInOtherThread(ConfigurationKey key) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(() -> cache.getString(key)).get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testReload() throws Exception {
+        Assert.assertEquals(ConfigurationKey.SMTP_HOST.getDefaultValue(), cache.getString(ConfigurationKey.SMTP_HOST));
+
+        // changes made directly in the database are only visible after a reload
+        Configuration configuration = new Configuration();
+        configuration.setKey(ConfigurationKey.SMTP_HOST.name());
+        configuration.setValue("smtp.example.org");
+        DAOFactory.getConfigurationDAO().create(configuration);
+        Assert.assertEquals(ConfigurationKey.SMTP_HOST.getDefaultValue(), cache.getString(ConfigurationKey.SMTP_HOST));
+
+        cache.reload();
+        Assert.assertEquals("smtp.example.org", cache.getString(ConfigurationKey.SMTP_HOST));
+    }
+
+    @Test
+    public void testTypedValues() throws Exception {
+        ConfigurationController controller = new ConfigurationController();
+        controller.setPropertyValue(ConfigurationKey.NEW_REGISTRATION_ALLOWED, "YES");
+        Assert.assertTrue(cache.getBoolean(ConfigurationKey.NEW_REGISTRATION_ALLOWED));
+        controller.setPropertyValue(ConfigurationKey.MAINTENANCE_JITTER_SECONDS, "120");
+        Assert.assertEquals(120, cache.getInt(ConfigurationKey.MAINTENANCE_JITTER_SECONDS, 0));
+        controller.setPropertyValue(ConfigurationKey.MAINTENANCE_JITTER_SECONDS, "abc");
+        Assert.assertEquals(5, cache.getInt(ConfigurationKey.MAINTENANCE_JITTER_SECONDS, 5));
+    }
+}
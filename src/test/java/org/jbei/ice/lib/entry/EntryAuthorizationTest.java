@@ -0,0 +1,137 @@
+package org.jbei.ice.lib.entry;
+
+import org.jbei.ice.lib.AccountCreator;
+import org.jbei.ice.lib.TestEntryCreator;
+import org.jbei.ice.lib.dto.folder.FolderType;
+import org.jbei.ice.storage.DAOFactory;
+import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.jbei.ice.storage.model.*;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+/**
+ * @author Hector Plahar
+ */
+public class EntryAuthorizationTest {
+
+    private EntryAuthorization authorization;
+
+    @Before
+    public void setUp() throws Exception {
+        HibernateUtil.initializeMock();
+        HibernateUtil.beginTransaction();
+        authorization = new EntryAuthorization();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        HibernateUtil.commitTransaction();
+    }
+
+    @Test
+    public void testGetReadableEntries() throws Exception {
+        Account owner = AccountCreator.createTestAccount("EntryAuthorizationTest.testGetReadableEntries", false);
+        Account reader = AccountCreator.createTestAccount("EntryAuthorizationTest.testGetReadableEntries2", false);
+        Account admin = AccountCreator.createTestAccount("EntryAuthorizationTest.testGetReadableEntries3", true);
+
+        Strain owned = TestEntryCreator.createTestStrain(reader);
+        Strain shared = TestEntryCreator.createTestStrain(owner);
+        Strain inFolder = TestEntryCreator.createTestStrain(owner);
+        Strain inPublicFolder = TestEntryCreator.createTestStrain(owner);
+        Strain notShared = TestEntryCreator.createTestStrain(owner);
+        Strain unowned = createUnownedStrain(owner);
+        Strain ownedIgnoringCase = TestEntryCreator.createTestStrain(owner);
+        ownedIgnoringCase.setOwnerEmail(reader.getEmail().toUpperCase());
+        DAOFactory.getEntryDAO().update(ownedIgnoringCase);
+
+        // explicit read permission
+        Permission permission = new Permission();
+        permission.setEntry(shared);
+        permission.setAccount(reader);
+        permission.setCanRead(true);
+        DAOFactory.getPermissionDAO().create(permission);
+
+        // read permission on a containing folder
+        Folder folder = createFolder(owner, FolderType.SHARED);
+        DAOFactory.getFolderDAO().addFolderContents(folder, Collections.singletonList(inFolder));
+        permission = new Permission();
+        permission.setFolder(folder);
+        permission.setAccount(reader);
+        permission.setCanRead(true);
+        DAOFactory.getPermissionDAO().create(permission);
+
+        // contained in a public folder
+        Folder publicFolder = createFolder(owner, FolderType.PUBLIC);
+        DAOFactory.getFolderDAO().addFolderContents(publicFolder, Collections.singletonList(inPublicFolder));
+
+        List<Long> ids = Arrays.asList(owned.getId(), shared.getId(), inFolder.getId(), inPublicFolder.getId(),
+                notShared.getId(), unowned.getId(), ownedIgnoringCase.getId());
+
+        // reload so that the folders of each entry are current
+        HibernateUtil.currentSession().flush();
+        HibernateUtil.currentSession().clear();
+        Set<Long> expected = new HashSet<>();
+        for (long id : ids) {
+            if (authorization.canRead(reader.getEmail(), DAOFactory.getEntryDAO().get(id)))
+                expected.add(id);
+        }
+
+        Assert.assertEquals(6, expected.size());
+        Assert.assertEquals(expected, authorization.getReadableEntries(reader.getEmail(), ids));
+        Assert.assertEquals(new HashSet<>(ids), authorization.getReadableEntries(admin.getEmail(), ids));
+        Assert.assertTrue(authorization.getReadableEntries(reader.getEmail(), Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    public void testGetWritableEntries() throws Exception {
+        Account owner = AccountCreator.createTestAccount("EntryAuthorizationTest.testGetWritableEntries", false);
+        Account writer = AccountCreator.createTestAccount("EntryAuthorizationTest.testGetWritableEntries2", false);
+
+        Strain owned = TestEntryCreator.createTestStrain(writer);
+        Strain writable = TestEntryCreator.createTestStrain(owner);
+        Strain readable = TestEntryCreator.createTestStrain(owner);
+        Strain unowned = createUnownedStrain(owner);
+        Strain ownedIgnoringCase = TestEntryCreator.createTestStrain(owner);
+        ownedIgnoringCase.setOwnerEmail(writer.getEmail().toUpperCase());
+        DAOFactory.getEntryDAO().update(ownedIgnoringCase);
+
+        Permission permission = new Permission();
+        permission.setEntry(writable);
+        permission.setAccount(writer);
+        permission.setCanWrite(true);
+        DAOFactory.getPermissionDAO().create(permission);
+
+        permission = new Permission();
+        permission.setEntry(readable);
+        permission.setAccount(writer);
+        permission.setCanRead(true);
+        DAOFactory.getPermissionDAO().create(permission);
+
+        List<Long> ids = Arrays.asList(owned.getId(), writable.getId(), readable.getId(), unowned.getId(),
+                ownedIgnoringCase.getId());
+        Set<Long> expected = new HashSet<>(Arrays.asList(owned.getId(), writable.getId(), unowned.getId(),
+                ownedIgnoringCase.getId()));
+        Assert.assertEquals(expected, authorization.getWritableEntries(writer.getEmail(), ids));
+        Assert.assertTrue(authorization.getWritableEntries(null, ids).isEmpty());
+    }
+
+    // entries without an owner are treated as owned by all users
+    private Strain createUnownedStrain(Account account) throws Exception {
+        Strain strain = TestEntryCreator.createTestStrain(account);
+        strain.setOwnerEmail(null);
+        DAOFactory.getEntryDAO().update(strain);
+        return strain;
+    }
+
+    private Folder createFolder(Account owner, FolderType type) {
+        Folder folder = new Folder("EntryAuthorizationTest");
+        folder.setOwnerEmail(owner.getEmail());
+        folder.setType(type);
+        folder.setCreationTime(new Date());
+        return DAOFactory.getFolderDAO().create(folder);
+    }
+}
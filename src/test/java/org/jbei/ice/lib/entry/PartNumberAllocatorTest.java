@@ -0,0 +1,82 @@
+package org.jbei.ice.lib.entry;
+
+import org.jbei.ice.lib.AccountCreator;
+import org.jbei.ice.lib.TestEntryCreator;
+import org.jbei.ice.storage.DAOFactory;
+import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.jbei.ice.storage.model.Account;
+import org.jbei.ice.storage.model.Strain;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * @author Hector Plahar
+ */
+public class PartNumberAllocatorTest {
+
+    @Before
+    public void setUp() throws Exception {
+        HibernateUtil.initializeMock();
+        HibernateUtil.beginTransaction();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        HibernateUtil.commitTransaction();
+    }
+
+    @Test
+    public void testNext() throws Exception {
+        Account account = AccountCreator.createTestAccount("PartNumberAllocatorTest.testNext", false);
+        String prefix = "PNA" + System.nanoTime() + "_";
+        Strain strain = TestEntryCreator.createTestStrain(account);
+        strain.setName(prefix + "41");
+        DAOFactory.getEntryDAO().update(strain);
+        HibernateUtil.commitTransaction();
+        HibernateUtil.beginTransaction();
+
+        // continues from existing names
+        Assert.assertEquals(42, PartNumberAllocator.next(prefix));
+        Assert.assertEquals(43, PartNumberAllocator.next(prefix));
+
+        strain = (Strain) DAOFactory.getEntryDAO().get(strain.getId());
+        DAOFactory.getEntryDAO().generateNextStrainNameForEntry(strain, prefix);
+        Assert.assertEquals(prefix + "44", strain.getName());
+
+        // other prefixes are independent
+        Assert.assertEquals(1, PartNumberAllocator.next(prefix + "other"));
+    }
+
+    @Test
+    public void testConcurrentAllocation() throws Exception {
+        String prefix = "PNA" + System.nanoTime() + "_";
+        int threads = 4;
+        int count = PartNumberAllocator.BLOCK_SIZE * 3;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i += 1) {
+                futures.add(executor.submit(() -> {
+                    List<Long> numbers = new ArrayList<>();
+                    for (int j = 0; j < count; j += 1) {
+                        numbers.add(PartNumberAllocator.next(prefix));
+                    }
+                    return numbers;
+                }));
+            }
+
+            Set<Long> all = new HashSet<>();
+            for (Future<List<Long>> future : futures) {
+                all.addAll(future.get(1, TimeUnit.MINUTES));
+            }
+            Assert.assertEquals(threads * count, all.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
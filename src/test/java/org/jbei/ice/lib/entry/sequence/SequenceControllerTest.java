@@ -0,0 +1,91 @@
+package org.jbei.ice.lib.entry.sequence;
+
+import org.jbei.ice.lib.AccountCreator;
+import org.jbei.ice.lib.TestEntryCreator;
+import org.jbei.ice.lib.dto.FeaturedDNASequence;
+import org.jbei.ice.lib.parsers.GeneralParser;
+import org.jbei.ice.lib.search.blast.RebuildBlastIndexTask;
+import org.jbei.ice.storage.DAOFactory;
+import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.jbei.ice.storage.hibernate.dao.JobDAO;
+import org.jbei.ice.storage.model.*;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * @author Hector Plahar
+ */
+public class SequenceControllerTest {
+
+    @Before
+    public void setUp() throws Exception {
+        HibernateUtil.initializeMock();
+        HibernateUtil.beginTransaction();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        HibernateUtil.commitTransaction();
+    }
+
+    @Test
+    public void testUpdateFeatureName() throws Exception {
+        Account account = AccountCreator.createTestAccount("SequenceControllerTest.testUpdateFeatureName", false);
+        Plasmid plasmid = TestEntryCreator.createTestPlasmid(account);
+        SequenceController controller = new SequenceController();
+        Sequence sequence = SequenceController.dnaSequenceToSequence(GeneralParser.getInstance().parse(genbank));
+        sequence.setEntry(plasmid);
+        sequence = controller.save(account.getEmail(), sequence);
+        String fwdHash = sequence.getFwdHash();
+        String revHash = sequence.getRevHash();
+        List<SequenceFeature> features = DAOFactory.getSequenceFeatureDAO().getEntrySequenceFeatures(plasmid);
+        Assert.assertEquals(1, features.size());
+        long featureId = features.get(0).getId();
+
+        // the save schedules a blast rebuild
+        String rebuildKey = new RebuildBlastIndexTask(true).getKey();
+        JobDAO jobDAO = DAOFactory.getJobDAO();
+        Assert.assertFalse(jobDAO.getPendingJobs(rebuildKey).isEmpty());
+        for (JobModel job : jobDAO.getPendingJobs(rebuildKey)) {
+            jobDAO.delete(job);
+        }
+        Date modificationTime = new Date(plasmid.getModificationTime().getTime());
+
+        // rename the feature; the bases only differ in case
+        FeaturedDNASequence dnaSequence = controller.sequenceToDNASequence(sequence);
+        dnaSequence.setSequence(dnaSequence.getSequence().toUpperCase());
+        dnaSequence.getFeatures().get(0).setName("renamed");
+        Assert.assertNotNull(controller.updateSequence(account.getEmail(), plasmid.getId(), dnaSequence, false));
+
+        Assert.assertTrue(jobDAO.getPendingJobs(rebuildKey).isEmpty());
+        Assert.assertEquals(modificationTime, plasmid.getModificationTime());
+        sequence = DAOFactory.getSequenceDAO().getByEntry(plasmid);
+        Assert.assertEquals(fwdHash, sequence.getFwdHash());
+        Assert.assertEquals(revHash, sequence.getRevHash());
+
+        features = DAOFactory.getSequenceFeatureDAO().getEntrySequenceFeatures(plasmid);
+        Assert.assertEquals(1, features.size());
+        Assert.assertEquals(featureId, features.get(0).getId());
+        Assert.assertEquals("renamed", features.get(0).getName());
+    }
+
+    private static String genbank =
+            "LOCUS       pTrc                     234 bp    DNA     linear\n" +
+                    "ACCESSION   pTrc\n" +
+                    "VERSION     pTrc.1\n" +
+                    "KEYWORDS    .\n" +
+                    "FEATURES             Location/Qualifiers\n" +
+                    "     promoter        1..234\n" +
+                    "                     /label=pTrc promoter\n" +
+                    "ORIGIN\n" +
+                    "        1 cgactgcacg gtgcaccaat gcttctggcg tcaggcagcc atcggaagct gtggtatggc\n" +
+                    "       61 tgtgcaggtc gtaaatcact gcataattcg tgtcgctcaa ggcgcactcc cgttctggat\n" +
+                    "      121 aatgtttttt gcgccgacat cataacggtt ctggcaaata ttctgaaatg agctgttgac\n" +
+                    "      181 aattaatcat ccggctcgta taatgtgtgg aattgtgagc ggataacaat ttca\n" +
+                    "//";
+}
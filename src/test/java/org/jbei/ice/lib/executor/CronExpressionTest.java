@@ -0,0 +1,69 @@
+package org.jbei.ice.lib.executor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * @author Hector Plahar
+ */
+public class CronExpressionTest {
+
+    @Test
+    public void testDaily() throws Exception {
+        CronExpression expression = new CronExpression("0 1 * * *");
+        Assert.assertEquals(date(2016, Calendar.MARCH, 10, 1, 0), expression.next(date(2016, Calendar.MARCH, 10, 0, 30)));
+        Assert.assertEquals(date(2016, Calendar.MARCH, 11, 1, 0), expression.next(date(2016, Calendar.MARCH, 10, 1, 0)));
+        Assert.assertEquals(date(2017, Calendar.JANUARY, 1, 1, 0), expression.next(date(2016, Calendar.DECEMBER, 31, 2, 0)));
+    }
+
+    @Test
+    public void testStepsAndLists() throws Exception {
+        CronExpression expression = new CronExpression("*/15 9-17 * * *");
+        Assert.assertEquals(date(2016, Calendar.MARCH, 10, 9, 15), expression.next(date(2016, Calendar.MARCH, 10, 9, 0)));
+        Assert.assertEquals(date(2016, Calendar.MARCH, 11, 9, 0), expression.next(date(2016, Calendar.MARCH, 10, 17, 45)));
+
+        expression = new CronExpression("5,10 0 1 1,7 *");
+        Assert.assertEquals(date(2016, Calendar.JULY, 1, 0, 5), expression.next(date(2016, Calendar.JANUARY, 1, 0, 10)));
+    }
+
+    @Test
+    public void testDayOfWeek() throws Exception {
+        // March 10, 2016 is a Thursday
+        CronExpression expression = new CronExpression("0 2 * * 0");
+        Assert.assertEquals(date(2016, Calendar.MARCH, 13, 2, 0), expression.next(date(2016, Calendar.MARCH, 10, 0, 0)));
+        Assert.assertEquals(date(2016, Calendar.MARCH, 13, 2, 0), new CronExpression("0 2 * * 7").next(date(2016, Calendar.MARCH, 10, 0, 0)));
+
+        // either day of month or day of week matches when both are restricted
+        expression = new CronExpression("0 0 15 * 5");
+        Assert.assertEquals(date(2016, Calendar.MARCH, 11, 0, 0), expression.next(date(2016, Calendar.MARCH, 10, 0, 0)));
+        Assert.assertEquals(date(2016, Calendar.MARCH, 15, 0, 0), expression.next(date(2016, Calendar.MARCH, 12, 0, 0)));
+    }
+
+    @Test
+    public void testNoMatch() throws Exception {
+        Assert.assertNull(new CronExpression("0 0 30 2 *").next(new Date()));
+    }
+
+    @Test
+    public void testInvalid() throws Exception {
+        String[] invalid = {"", "* * * *", "60 * * * *", "* 24 * * *", "a * * * *", "5-1 * * * *", "*/0 * * * *"};
+        for (String value : invalid) {
+            try {
+                new CronExpression(value);
+                Assert.fail("Expected \"" + value + "\" to be invalid");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    private Date date(int year, int month, int day, int hour, int minute) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month, day, hour, minute);
+        return calendar.getTime();
+    }
+}
@@ -0,0 +1,92 @@
+package org.jbei.ice.lib.executor;
+
+import org.jbei.ice.lib.dto.TaskStatistics;
+import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Hector Plahar
+ */
+public class IceExecutorServiceTest {
+
+    @Before
+    public void setUp() throws Exception {
+        HibernateUtil.initializeMock();
+    }
+
+    @Test
+    public void testRunTask() throws Exception {
+        CountingTask task = new CountingTask();
+        CompletableFuture<Task> future = IceExecutorService.getInstance().runTask(task);
+        Assert.assertNotNull(future);
+        Assert.assertSame(task, future.get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(1, task.count);
+        Assert.assertEquals(TaskStatus.COMPLETED, task.getStatus());
+
+        TaskStatistics statistics = getStatistics(CountingTask.class);
+        Assert.assertNotNull(statistics);
+        Assert.assertEquals(TaskCategory.DEFAULT.name(), statistics.getCategory());
+        Assert.assertEquals(1, statistics.getCompleted());
+        Assert.assertEquals(0, statistics.getQueued());
+    }
+
+    @Test
+    public void testFailedTask() throws Exception {
+        FailingTask task = new FailingTask();
+        CompletableFuture<Task> future = IceExecutorService.getInstance().runTask(task);
+        try {
+            future.join();
+            Assert.fail("Expected task failure");
+        } catch (CompletionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        Assert.assertEquals(TaskStatus.EXCEPTION, task.getStatus());
+        Assert.assertEquals(1, getStatistics(FailingTask.class).getFailed());
+    }
+
+    @Test
+    public void testPriorityOrder() throws Exception {
+        TaskHandler low = new TaskHandler(new CountingTask(), new TaskMetrics("low", TaskCategory.DEFAULT), null);
+        TaskHandler high = new TaskHandler(new CountingTask() {
+            @Override
+            public int getPriority() {
+                return 10;
+            }
+        }, new TaskMetrics("high", TaskCategory.DEFAULT), null);
+        TaskHandler later = new TaskHandler(new CountingTask(), new TaskMetrics("later", TaskCategory.DEFAULT), null);
+
+        Assert.assertTrue(high.compareTo(low) < 0);
+        Assert.assertTrue(low.compareTo(later) < 0);
+    }
+
+    private TaskStatistics getStatistics(Class<?> clazz) {
+        for (TaskStatistics statistics : IceExecutorService.getInstance().getStatistics()) {
+            if (statistics.getTaskName().equals(clazz.getSimpleName()))
+                return statistics;
+        }
+        return null;
+    }
+
+    private static class CountingTask extends Task {
+        int count;
+
+        @Override
+        public void execute() {
+            count += 1;
+        }
+    }
+
+    private static class FailingTask extends Task {
+
+        @Override
+        public void execute() {
+            throw new IllegalStateException("failed");
+        }
+    }
+}
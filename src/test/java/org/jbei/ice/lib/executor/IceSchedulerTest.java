@@ -0,0 +1,113 @@
+package org.jbei.ice.lib.executor;
+
+import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Hector Plahar
+ */
+public class IceSchedulerTest {
+
+    private IceScheduler scheduler;
+
+    @Before
+    public void setUp() throws Exception {
+        HibernateUtil.initializeMock();
+        scheduler = new IceScheduler();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        scheduler.stop();
+    }
+
+    @Test
+    public void testJitter() throws Exception {
+        Date now = new Date();
+        Date next = new Date(now.getTime() + 60000);
+        Assert.assertEquals(60000, IceScheduler.getDelay(now, next, 0));
+
+        boolean jittered = false;
+        for (int i = 0; i < 100; i += 1) {
+            long delay = IceScheduler.getDelay(now, next, 5000);
+            Assert.assertTrue(delay >= 60000 && delay <= 65000);
+            jittered |= delay != 60000;
+        }
+        Assert.assertTrue(jittered);
+    }
+
+    @Test
+    public void testSkipIfRunning() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        scheduler.schedule("IceSchedulerTest.skip", new CronExpression("0 0 1 1 *"), 0, () -> {
+            created.incrementAndGet();
+            return new BlockingTask(release);
+        });
+
+        scheduler.runNow("IceSchedulerTest.skip").get(10, TimeUnit.SECONDS);
+        scheduler.runNow("IceSchedulerTest.skip").get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(1, created.get());
+
+        // runs again once the previous run has completed
+        release.countDown();
+        for (int i = 0; i < 100 && created.get() == 1; i += 1) {
+            scheduler.runNow("IceSchedulerTest.skip").get(10, TimeUnit.SECONDS);
+            Thread.sleep(50);
+        }
+        Assert.assertEquals(2, created.get());
+    }
+
+    @Test
+    public void testRunsOnExecutorThread() throws Exception {
+        ThreadRecordingTask task = new ThreadRecordingTask();
+        String[] firedOn = new String[1];
+        scheduler.schedule("IceSchedulerTest.thread", new CronExpression("0 0 1 1 *"), 0, () -> {
+            firedOn[0] = Thread.currentThread().getName();
+            return task;
+        });
+
+        scheduler.runNow("IceSchedulerTest.thread").get(10, TimeUnit.SECONDS);
+        task.getFuture().get(10, TimeUnit.SECONDS);
+
+        // the schedule fires on the scheduler's own thread and the task is run by the executor service
+        Assert.assertEquals("ice-scheduler", firedOn[0]);
+        Assert.assertNotNull(task.threadName);
+        Assert.assertNotEquals("ice-scheduler", task.threadName);
+        Assert.assertNotNull(scheduler.getNextRun("IceSchedulerTest.thread"));
+    }
+
+    private static class BlockingTask extends Task {
+        private final CountDownLatch release;
+
+        BlockingTask(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void execute() {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class ThreadRecordingTask extends Task {
+        private volatile String threadName;
+
+        @Override
+        public void execute() {
+            threadName = Thread.currentThread().getName();
+        }
+    }
+}
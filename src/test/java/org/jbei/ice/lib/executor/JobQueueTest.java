@@ -0,0 +1,58 @@
+package org.jbei.ice.lib.executor;
+
+import org.jbei.ice.storage.DAOFactory;
+import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.jbei.ice.storage.model.JobModel;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Hector Plahar
+ */
+public class JobQueueTest {
+
+    @Before
+    public void setUp() throws Exception {
+        HibernateUtil.initializeMock();
+    }
+
+    @Test
+    public void testFailedJobIsRetried() throws Exception {
+        HibernateUtil.beginTransaction();
+        JobQueue.getInstance().submit(new FailingDurableTask());
+        HibernateUtil.commitTransaction();
+
+        JobQueue.getInstance().poll(FailingDurableTask.KEY).get(10, TimeUnit.SECONDS);
+
+        HibernateUtil.beginTransaction();
+        List<JobModel> pending = DAOFactory.getJobDAO().getPendingJobs(FailingDurableTask.KEY);
+        HibernateUtil.commitTransaction();
+
+        Assert.assertEquals(1, pending.size());
+        JobModel job = pending.get(0);
+        Assert.assertEquals(JobStatus.PENDING, job.getStatus());
+        Assert.assertEquals(1, job.getAttempts());
+        Assert.assertTrue(job.getNextAttempt().after(new Date()));
+        Assert.assertTrue(job.getLastError().contains("rebuild failed"));
+    }
+
+    public static class FailingDurableTask extends DurableTask {
+
+        static final String KEY = "JobQueueTest.failing";
+
+        @Override
+        public String getKey() {
+            return KEY;
+        }
+
+        @Override
+        public void execute() {
+            throw new IllegalStateException("rebuild failed");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.jbei.ice.lib.executor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Hector Plahar
+ */
+public class TaskCoalescerTest {
+
+    @Test
+    public void testMergeWithPending() throws Exception {
+        TaskCoalescer coalescer = new TaskCoalescer();
+        KeyedTask first = new KeyedTask("key", 1);
+        KeyedTask second = new KeyedTask("key", 2);
+        KeyedTask other = new KeyedTask("other", 4);
+
+        Assert.assertTrue(coalescer.submit(first));
+        Assert.assertFalse(coalescer.submit(second));
+        Assert.assertTrue(coalescer.submit(other));
+        Assert.assertEquals(3, first.value);
+
+        // duplicate completes with the task it was merged into
+        coalescer.started(first);
+        Assert.assertNull(coalescer.finished(first));
+        first.getFuture().complete(first);
+        Assert.assertSame(second, second.getFuture().get());
+        Assert.assertEquals(TaskStatus.COMPLETED, second.getStatus());
+
+        // key is released
+        Assert.assertTrue(coalescer.submit(new KeyedTask("key", 0)));
+    }
+
+    @Test
+    public void testDeferWhileRunning() throws Exception {
+        TaskCoalescer coalescer = new TaskCoalescer();
+        KeyedTask running = new KeyedTask("key", 1);
+        Assert.assertTrue(coalescer.submit(running));
+        coalescer.started(running);
+
+        // submissions while running result in exactly one more run
+        KeyedTask deferred = new KeyedTask("key", 2);
+        Assert.assertFalse(coalescer.submit(deferred));
+        Assert.assertFalse(coalescer.submit(new KeyedTask("key", 4)));
+        Assert.assertFalse(coalescer.submit(new KeyedTask("key", 8)));
+        Assert.assertEquals(14, deferred.value);
+
+        Assert.assertSame(deferred, coalescer.finished(running));
+        Assert.assertTrue(coalescer.submit(deferred));
+    }
+
+    @Test
+    public void testUnkeyedTasks() throws Exception {
+        TaskCoalescer coalescer = new TaskCoalescer();
+        KeyedTask task = new KeyedTask(null, 1);
+        Assert.assertTrue(coalescer.submit(task));
+        Assert.assertTrue(coalescer.submit(task));
+        coalescer.started(task);
+        Assert.assertNull(coalescer.finished(task));
+    }
+
+    private static class KeyedTask extends Task {
+        private final String key;
+        int value;
+
+        KeyedTask(String key, int value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        protected void merge(Task duplicate) {
+            this.value += ((KeyedTask) duplicate).value;
+        }
+
+        @Override
+        public void execute() {
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.jbei.ice.lib.group;
+
+import org.jbei.ice.lib.AccountCreator;
+import org.jbei.ice.lib.dto.group.GroupType;
+import org.jbei.ice.storage.DAOFactory;
+import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.jbei.ice.storage.model.Account;
+import org.jbei.ice.storage.model.Group;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+/**
+ * @author Hector Plahar
+ */
+public class GroupHierarchyTest {
+
+    @Before
+    public void setUp() throws Exception {
+        HibernateUtil.initializeMock();
+        HibernateUtil.beginTransaction();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        HibernateUtil.commitTransaction();
+    }
+
+    @Test
+    public void testGetClosure() throws Exception {
+        Account account = AccountCreator.createTestAccount("GroupHierarchyTest.testGetClosure", false);
+        Group department = createGroup(account, null);
+        Group lab = createGroup(account, department);
+        Group project = createGroup(account, lab);
+        Group other = createGroup(account, null);
+
+        Set<Long> expected = new HashSet<>(Arrays.asList(department.getId(), lab.getId(), project.getId()));
+        Assert.assertEquals(expected, GroupHierarchy.getClosure(Collections.singleton(project.getId())));
+        Assert.assertEquals(Collections.singleton(other.getId()),
+                GroupHierarchy.getClosure(Collections.singleton(other.getId())));
+
+        // re-parenting is reflected
+        lab.setParent(other);
+        DAOFactory.getGroupDAO().update(lab);
+        expected = new HashSet<>(Arrays.asList(other.getId(), lab.getId(), project.getId()));
+        Assert.assertEquals(expected, GroupHierarchy.getClosure(Collections.singleton(project.getId())));
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList(lab.getUuid(), other.getUuid())),
+                GroupHierarchy.getUUIDs(Arrays.asList(lab.getId(), other.getId())));
+    }
+
+    @Test
+    public void testAccountGroups() throws Exception {
+        Account owner = AccountCreator.createTestAccount("GroupHierarchyTest.testAccountGroups", false);
+        Account member = AccountCreator.createTestAccount("GroupHierarchyTest.testAccountGroups2", false);
+        Group department = createGroup(owner, null);
+        Group lab = createGroup(owner, department);
+
+        member.getGroups().add(lab);
+        DAOFactory.getAccountDAO().update(member);
+
+        GroupController controller = new GroupController();
+        Set<Group> groups = controller.getAllGroups(member);
+        Assert.assertTrue(groups.contains(department));
+        Assert.assertTrue(groups.contains(lab));
+        Assert.assertTrue(groups.contains(controller.createOrRetrievePublicGroup()));
+        Assert.assertEquals(3, groups.size());
+
+        Set<String> uuids = controller.retrieveAccountGroupUUIDs(member.getEmail());
+        Assert.assertEquals(new HashSet<>(Arrays.asList(department.getUuid(), lab.getUuid(),
+                GroupController.PUBLIC_GROUP_UUID)), uuids);
+    }
+
+    private Group createGroup(Account owner, Group parent) {
+        Group group = new Group();
+        group.setUuid(UUID.randomUUID().toString());
+        group.setLabel("GroupHierarchyTest");
+        group.setDescription("test");
+        group.setType(GroupType.PRIVATE);
+        group.setOwner(owner);
+        group.setParent(parent);
+        group.setCreationTime(new Date());
+        return DAOFactory.getGroupDAO().create(group);
+    }
+}
@@ -0,0 +1,92 @@
+package org.jbei.ice.lib.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Random;
+
+/**
+ * @author Hector Plahar
+ */
+public class PackedSequenceTest {
+
+    private static final String SEQUENCE = "atgcgtnnnnnacgtrykacgttaGCatg-acgtwsmbdhvacgtacgtacgtc";
+
+    @Test
+    public void testPack() throws Exception {
+        PackedSequence packed = PackedSequence.pack(SEQUENCE);
+        Assert.assertEquals(SEQUENCE.length(), packed.length());
+        Assert.assertEquals(SEQUENCE, packed.toString());
+        for (int i = 0; i < SEQUENCE.length(); i += 1) {
+            Assert.assertEquals(SEQUENCE.charAt(i), packed.charAt(i));
+        }
+        Assert.assertEquals(SEQUENCE.substring(5, 20), packed.subSequence(5, 20));
+
+        // n run, r, y, k, G, C, gap and each of w, s, m, b, d, h, v
+        Assert.assertEquals(14, packed.getExceptionCount());
+        Assert.assertEquals("", PackedSequence.pack("").toString());
+    }
+
+    @Test
+    public void testToBytes() throws Exception {
+        PackedSequence packed = PackedSequence.pack(SEQUENCE);
+        PackedSequence restored = PackedSequence.fromBytes(packed.toBytes());
+        Assert.assertEquals(SEQUENCE, restored.toString());
+        Assert.assertEquals(packed, restored);
+
+        // about a quarter of the text for acgt
+        String bases = randomBases(100000);
+        Assert.assertTrue(PackedSequence.pack(bases).toBytes().length <= bases.length() / 4 + 16);
+
+        try {
+            PackedSequence.fromBytes(new byte[]{1, 2, 3});
+            Assert.fail("Expected invalid packed sequence");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testReadWrite() throws Exception {
+        String bases = randomBases(20000) + "nnnn" + randomBases(333);
+        PackedSequence packed = PackedSequence.read(new StringReader(bases));
+        Assert.assertEquals(bases, packed.toString());
+
+        StringWriter writer = new StringWriter();
+        packed.write(writer);
+        Assert.assertEquals(bases, writer.toString());
+    }
+
+    @Test
+    public void testReverseComplement() throws Exception {
+        String sequence = SEQUENCE.replace("-", "") + randomBases(10000);
+        PackedSequence packed = PackedSequence.pack(sequence);
+        Assert.assertEquals(SequenceUtils.reverseComplement(sequence),
+                SequenceUtils.reverseComplement(packed).toString());
+
+        try {
+            SequenceUtils.reverseComplement(PackedSequence.pack("acgtqacgt"));
+            Assert.fail("Expected invalid symbol");
+        } catch (UtilityException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCalculateGCContent() throws Exception {
+        String sequence = "  " + SEQUENCE + randomBases(5000) + "\n";
+        Assert.assertEquals(SequenceUtils.calculateGCContent(sequence),
+                SequenceUtils.calculateGCContent(PackedSequence.pack(sequence)), 0.0);
+    }
+
+    private static String randomBases(int length) {
+        Random random = new Random(length);
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i += 1) {
+            builder.append("acgt".charAt(random.nextInt(4)));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,98 @@
+package org.jbei.ice.servlet.filter;
+
+import org.jbei.ice.lib.admission.AdmissionController;
+import org.jbei.ice.lib.dto.ConfigurationKey;
+import org.jbei.ice.services.rest.Headers;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * @author Hector Plahar
+ */
+public class AdmissionControlFilterTest {
+
+    @Test
+    public void testVaryingTokenIsThrottled() throws Exception {
+        AdmissionController controller = new AdmissionController();
+        AdmissionControlFilter filter = new AdmissionControlFilter(controller);
+
+        // each token fails verification, as it would when the request is handled
+        FilterChain chain = Mockito.mock(FilterChain.class);
+        Mockito.doAnswer(invocation -> {
+            controller.verificationFailed("192.0.2.36");
+            return null;
+        }).when(chain).doFilter(Mockito.any(), Mockito.any());
+
+        // default unverified rate of 60 per minute allows a burst of 10 requests
+        int rejected = 0;
+        for (int i = 0; i < 50; i += 1) {
+            HttpServletRequest request = createRequest("192.0.2.36");
+            Mockito.when(request.getHeader(Headers.API_KEY_CLIENT_ID)).thenReturn("client");
+            Mockito.when(request.getHeader(Headers.API_KEY_TOKEN)).thenReturn(UUID.randomUUID().toString());
+            if (isRejected(filter, request, chain))
+                rejected += 1;
+        }
+        Assert.assertEquals(40, rejected);
+
+        // requests from other addresses are not affected
+        HttpServletRequest request = createRequest("192.0.2.37");
+        Mockito.when(request.getHeader(Headers.API_KEY_TOKEN)).thenReturn(UUID.randomUUID().toString());
+        Assert.assertFalse(isRejected(filter, request, Mockito.mock(FilterChain.class)));
+    }
+
+    @Test
+    public void testAnonymousByProxyHeader() throws Exception {
+        AdmissionController controller = new AdmissionController();
+        Map<ConfigurationKey, String> values = new EnumMap<>(ConfigurationKey.class);
+        for (ConfigurationKey key : ConfigurationKey.values()) {
+            values.put(key, key.getDefaultValue());
+        }
+        values.put(ConfigurationKey.RATE_LIMIT_ANONYMOUS, "12");   // burst of 2
+        values.put(ConfigurationKey.CLIENT_ADDRESS_HEADER, "X-Forwarded-For");
+        controller.configure(values::get);
+        AdmissionControlFilter filter = new AdmissionControlFilter(controller);
+        FilterChain chain = Mockito.mock(FilterChain.class);
+
+        // all requests come through the proxy; clients are identified by the last forwarded address
+        for (int i = 0; i < 2; i += 1) {
+            HttpServletRequest request = createRequest("10.0.0.1");
+            Mockito.when(request.getHeader("X-Forwarded-For")).thenReturn("198.51.100.7, 192.0.2.1");
+            Assert.assertFalse(isRejected(filter, request, chain));
+        }
+        HttpServletRequest request = createRequest("10.0.0.1");
+        Mockito.when(request.getHeader("X-Forwarded-For")).thenReturn("192.0.2.1");
+        Assert.assertTrue(isRejected(filter, request, chain));
+
+        request = createRequest("10.0.0.1");
+        Mockito.when(request.getHeader("X-Forwarded-For")).thenReturn("192.0.2.2");
+        Assert.assertFalse(isRejected(filter, request, chain));
+    }
+
+    private HttpServletRequest createRequest(String remoteAddress) {
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getRequestURI()).thenReturn("/rest/parts/1");
+        Mockito.when(request.getContextPath()).thenReturn("");
+        Mockito.when(request.getRemoteAddr()).thenReturn(remoteAddress);
+        return request;
+    }
+
+    private boolean isRejected(AdmissionControlFilter filter, HttpServletRequest request, FilterChain chain)
+            throws Exception {
+        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        filter.doFilter(request, response, chain);
+        if (Mockito.mockingDetails(response).getInvocations().isEmpty())
+            return false;
+
+        Mockito.verify(response).setHeader(Mockito.eq("Retry-After"), Mockito.anyString());
+        Mockito.verify(response).sendError(Mockito.eq(AdmissionControlFilter.TOO_MANY_REQUESTS), Mockito.anyString());
+        return true;
+    }
+}
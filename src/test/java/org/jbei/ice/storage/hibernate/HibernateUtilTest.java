@@ -0,0 +1,81 @@
+package org.jbei.ice.storage.hibernate;
+
+import org.jbei.ice.storage.hibernate.dao.ConfigurationDAO;
+import org.jbei.ice.storage.model.Configuration;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Hector Plahar
+ */
+public class HibernateUtilTest {
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        HibernateUtil.initializeMock();
+    }
+
+    @Test
+    public void testCompletionActionsWithoutDatabaseAccess() throws Exception {
+        AtomicInteger committed = new AtomicInteger();
+        AtomicInteger rolledBack = new AtomicInteger();
+
+        HibernateUtil.beginTransaction();
+        HibernateUtil.afterCommit(committed::incrementAndGet);
+        HibernateUtil.afterRollback(rolledBack::incrementAndGet);
+        HibernateUtil.commitTransaction();
+        Assert.assertEquals(1, committed.get());
+        Assert.assertEquals(0, rolledBack.get());
+
+        HibernateUtil.beginTransaction();
+        HibernateUtil.afterCommit(committed::incrementAndGet);
+        HibernateUtil.afterRollback(rolledBack::incrementAndGet);
+        HibernateUtil.rollbackTransaction();
+        Assert.assertEquals(1, committed.get());
+        Assert.assertEquals(1, rolledBack.get());
+    }
+
+    @Test
+    public void testCompletionActionsRegisteredBeforeStart() throws Exception {
+        AtomicInteger committed = new AtomicInteger();
+
+        HibernateUtil.beginTransaction();
+        HibernateUtil.afterCommit(committed::incrementAndGet);
+        ConfigurationDAO dao = new ConfigurationDAO();
+        Configuration configuration = new Configuration();
+        configuration.setKey("lazy.transaction");
+        configuration.setValue("value");
+        dao.create(configuration);
+        Assert.assertEquals(0, committed.get());
+        HibernateUtil.commitTransaction();
+        Assert.assertEquals(1, committed.get());
+
+        HibernateUtil.beginTransaction();
+        Assert.assertEquals("value", dao.get("lazy.transaction").getValue());
+        HibernateUtil.commitTransaction();
+    }
+
+    @Test
+    public void testReadOnlyTransaction() throws Exception {
+        ConfigurationDAO dao = new ConfigurationDAO();
+        HibernateUtil.beginTransaction();
+        Configuration configuration = new Configuration();
+        configuration.setKey("read.only.transaction");
+        configuration.setValue("original");
+        dao.create(configuration);
+        HibernateUtil.commitTransaction();
+
+        // changes are not saved
+        HibernateUtil.beginTransaction(true);
+        configuration = dao.get("read.only.transaction");
+        configuration.setValue("changed");
+        HibernateUtil.commitTransaction();
+
+        HibernateUtil.beginTransaction();
+        Assert.assertEquals("original", dao.get("read.only.transaction").getValue());
+        HibernateUtil.commitTransaction();
+    }
+}
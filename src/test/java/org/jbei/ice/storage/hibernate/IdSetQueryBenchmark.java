@@ -0,0 +1,111 @@
+package org.jbei.ice.storage.hibernate;
+
+import org.hibernate.HibernateException;
+import org.jbei.ice.storage.model.EntryReadAccessModel;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the latency of restricting a query to sets of 10 to 100,000 ids using a single <code>IN</code> list,
+ * chunked <code>IN</code> lists, the scratch table and the strategy that {@link IdSetQuery} picks by default.
+ * <p>
+ * Not run as part of the tests; run the <code>main</code> method with the test classpath. Uses the in-memory
+ * database unless <code>-Dbenchmark.configured=true</code> is set, in which case the database configured in
+ * <code>hibernate.cfg.xml</code> is used (point it at a scratch database). Benchmark rows use negative ids and
+ * are removed afterwards
+ *
+ * @author Hector Plahar
+ */
+public class IdSetQueryBenchmark {
+
+    private static final int ROWS = 100000;
+    private static final int[] SIZES = {10, 100, 1000, 10000, 100000};
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) throws Exception {
+        if (!Boolean.getBoolean("benchmark.configured"))
+            HibernateUtil.initializeMock();
+
+        HibernateUtil.beginTransaction();
+        populate();
+        HibernateUtil.commitTransaction();
+
+        try {
+            System.out.printf("%8s %12s %12s %12s %12s %14s%n", "ids", "in-list ms", "chunked ms", "table ms",
+                    "default ms", "default us/id");
+            for (int size : SIZES) {
+                List<Long> ids = new ArrayList<>(size);
+                for (long id = 1; id <= size; id += 1) {
+                    // spread over the table
+                    ids.add(-id * (ROWS / size));
+                }
+
+                double defaultTime = time(ids, IdSetQuery.DEFAULT_IN_LIST_LIMIT,
+                        IdSetQuery.DEFAULT_TEMP_TABLE_THRESHOLD);
+                System.out.printf("%8d %12.2f %12.2f %12.2f %12.2f %14.2f%n", size,
+                        time(ids, Integer.MAX_VALUE, Integer.MAX_VALUE),
+                        time(ids, IdSetQuery.DEFAULT_IN_LIST_LIMIT, Integer.MAX_VALUE),
+                        time(ids, 0, 0), defaultTime, defaultTime * 1000 / size);
+            }
+        } finally {
+            HibernateUtil.beginTransaction();
+            HibernateUtil.currentSession().createQuery("delete from " + EntryReadAccessModel.class.getName()
+                    + " where id < 0").executeUpdate();
+            HibernateUtil.commitTransaction();
+            HibernateUtil.close();
+        }
+    }
+
+    private static void populate() {
+        HibernateUtil.currentSession().doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "insert into entry_read_acl (id, entry_id, account_id) values (?, ?, ?)")) {
+                for (long id = 1; id <= ROWS; id += 1) {
+                    statement.setLong(1, -id);
+                    statement.setLong(2, -id);
+                    statement.setLong(3, id % 100);
+                    statement.addBatch();
+                    if (id % 1000 == 0)
+                        statement.executeBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    // median latency in ms of the query with the specified limits; NaN if the database rejects the query
+    private static double time(List<Long> ids, int inListLimit, int tempTableThreshold) {
+        IdSetQuery.setLimits(inListLimit, tempTableThreshold);
+        double[] times = new double[RUNS];
+        try {
+            for (int i = -1; i < RUNS; i += 1) {
+                // a transaction per run, as per request
+                HibernateUtil.beginTransaction();
+                try {
+                    long start = System.nanoTime();
+                    List<Long> result = IdSetQuery.list(ids, set -> "select a.entryId from "
+                            + EntryReadAccessModel.class.getName() + " a where a.entryId in " + set, null);
+                    if (result.size() != ids.size())
+                        throw new IllegalStateException("expected results for " + ids.size() + " ids");
+                    // first run is a warm up
+                    if (i >= 0)
+                        times[i] = (System.nanoTime() - start) / 1e6;
+                    HibernateUtil.commitTransaction();
+                } catch (HibernateException he) {
+                    HibernateUtil.rollbackTransaction();
+                    throw he;
+                }
+            }
+        } catch (HibernateException he) {
+            // e.g. too many bind parameters for a single in list
+            return Double.NaN;
+        } finally {
+            IdSetQuery.setLimits(IdSetQuery.DEFAULT_IN_LIST_LIMIT, IdSetQuery.DEFAULT_TEMP_TABLE_THRESHOLD);
+        }
+        Arrays.sort(times);
+        return times[RUNS / 2];
+    }
+}
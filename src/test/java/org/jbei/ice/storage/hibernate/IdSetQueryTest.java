@@ -0,0 +1,78 @@
+package org.jbei.ice.storage.hibernate;
+
+import org.jbei.ice.lib.AccountCreator;
+import org.jbei.ice.lib.TestEntryCreator;
+import org.jbei.ice.storage.model.Account;
+import org.jbei.ice.storage.model.Entry;
+import org.jbei.ice.storage.model.QueryIdSetModel;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Hector Plahar
+ */
+public class IdSetQueryTest {
+
+    @Before
+    public void setUp() throws Exception {
+        HibernateUtil.initializeMock();
+        HibernateUtil.beginTransaction();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        HibernateUtil.commitTransaction();
+        IdSetQuery.setLimits(IdSetQuery.DEFAULT_IN_LIST_LIMIT, IdSetQuery.DEFAULT_TEMP_TABLE_THRESHOLD);
+    }
+
+    @Test
+    public void testGetStrategy() throws Exception {
+        Assert.assertEquals(IdSetQuery.Strategy.IN_LIST, IdSetQuery.getStrategy(10, false));
+        Assert.assertEquals(IdSetQuery.Strategy.CHUNKED,
+                IdSetQuery.getStrategy(IdSetQuery.DEFAULT_IN_LIST_LIMIT + 1, false));
+        Assert.assertEquals(IdSetQuery.Strategy.TEMP_TABLE, IdSetQuery.getStrategy(100000, false));
+        Assert.assertEquals(IdSetQuery.Strategy.CHUNKED, IdSetQuery.getStrategy(100000, true));
+    }
+
+    @Test
+    public void testList() throws Exception {
+        Account account = AccountCreator.createTestAccount("IdSetQueryTest.testList", false);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i += 1) {
+            ids.add(TestEntryCreator.createTestPart(account.getEmail()));
+        }
+        List<Long> query = new ArrayList<>(ids);
+        Collections.reverse(query);
+        query.add(ids.get(0));
+        query.add(Long.MAX_VALUE);
+
+        // single in list, chunks of two and scratch table
+        int[][] limits = {{10, 10}, {2, 10}, {2, 3}};
+        for (int[] limit : limits) {
+            IdSetQuery.setLimits(limit[0], limit[1]);
+            List<Long> result = IdSetQuery.list(query, set -> "select e.id from " + Entry.class.getName()
+                    + " e where e.id in " + set + " and e.ownerEmail = :owner order by e.id",
+                    q -> q.setParameter("owner", account.getEmail()));
+            Assert.assertEquals(ids, result);
+
+            Assert.assertEquals(5, IdSetQuery.executeUpdate(ids, set -> "update " + Entry.class.getName()
+                    + " e set e.alias = :alias where e.id in " + set, q -> q.setParameter("alias", "alias")));
+        }
+
+        // scratch rows are removed
+        Number count = (Number) HibernateUtil.currentSession().createQuery("select count(*) from "
+                + QueryIdSetModel.class.getName()).uniqueResult();
+        Assert.assertEquals(0, count.intValue());
+        Assert.assertTrue(IdSetQuery.list(Collections.emptyList(), set -> "from " + Entry.class.getName()
+                + " e where e.id in " + set, null).isEmpty());
+        Assert.assertEquals(Arrays.asList(Arrays.asList(1L, 2L), Collections.singletonList(3L)),
+                IdSetQuery.chunks(Arrays.asList(3L, 1L, 2L, 1L)));
+    }
+}
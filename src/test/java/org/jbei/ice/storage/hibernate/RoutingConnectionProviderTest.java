@@ -0,0 +1,107 @@
+package org.jbei.ice.storage.hibernate;
+
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.junit.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Uses two in-memory H2 databases as the primary and the replica
+ *
+ * @author Hector Plahar
+ */
+public class RoutingConnectionProviderTest {
+
+    private StandardServiceRegistry registry;
+    private ConnectionProvider provider;
+
+    @Before
+    public void setUp() throws Exception {
+        registry = new StandardServiceRegistryBuilder()
+                .applySetting("hibernate.connection.provider_class", RoutingConnectionProvider.class.getName())
+                .applySetting("hibernate.connection.url", "jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1")
+                .applySetting("hibernate.connection.username", "sa")
+                .applySetting("hibernate.dialect", "org.hibernate.dialect.H2Dialect")
+                .applySetting(RoutingConnectionProvider.REPLICA_URLS, "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1")
+                .build();
+        provider = registry.getService(ConnectionProvider.class);
+
+        createDatabase(false, "primary");
+        createDatabase(true, "replica");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ReplicaRouting.setReadOnly(false);
+        ReplicaRouting.clearClient();
+        ReplicaRouting.transactionCompleted(false);
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    @Test
+    public void testRouting() throws Exception {
+        ReplicaRouting.transactionStarted();
+        Assert.assertEquals("primary", getDatabase(false));
+        Assert.assertFalse(ReplicaRouting.isUsingReplica());
+        Assert.assertEquals("replica", getDatabase(true));
+        Assert.assertTrue(ReplicaRouting.isUsingReplica());
+
+        // cleared for the next transaction
+        ReplicaRouting.transactionCompleted(false);
+        Assert.assertFalse(ReplicaRouting.isUsingReplica());
+    }
+
+    @Test
+    public void testReadYourWrites() throws Exception {
+        ReplicaRouting.setClient("client1");
+        ReplicaRouting.transactionStarted();
+        ReplicaRouting.written();
+        ReplicaRouting.transactionCompleted(true);
+        Assert.assertEquals("primary", getDatabase(true));
+
+        // other clients are not affected
+        ReplicaRouting.setClient("client2");
+        Assert.assertEquals("replica", getDatabase(true));
+
+        // transactions that roll back or do not write do not stick
+        ReplicaRouting.transactionStarted();
+        ReplicaRouting.written();
+        ReplicaRouting.transactionCompleted(false);
+        Assert.assertEquals("replica", getDatabase(true));
+
+        ReplicaRouting.setClient("client3");
+        ReplicaRouting.transactionStarted();
+        ReplicaRouting.transactionCompleted(true);
+        Assert.assertEquals("replica", getDatabase(true));
+    }
+
+    private void createDatabase(boolean replica, String name) throws Exception {
+        ReplicaRouting.setReadOnly(replica);
+        Connection connection = provider.getConnection();
+        ReplicaRouting.setReadOnly(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists database_name");
+            statement.execute("create table database_name (name varchar(20))");
+            statement.execute("insert into database_name values ('" + name + "')");
+        } finally {
+            provider.closeConnection(connection);
+        }
+    }
+
+    private String getDatabase(boolean readOnly) throws Exception {
+        ReplicaRouting.setReadOnly(readOnly);
+        Connection connection = provider.getConnection();
+        ReplicaRouting.setReadOnly(false);
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select name from database_name")) {
+            Assert.assertTrue(resultSet.next());
+            return resultSet.getString(1);
+        } finally {
+            provider.closeConnection(connection);
+        }
+    }
+}
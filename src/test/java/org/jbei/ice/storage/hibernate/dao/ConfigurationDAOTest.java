@@ -55,4 +55,29 @@ public class ConfigurationDAOTest {
         Assert.assertNotNull(config);
         Assert.assertEquals("true", config.getValue());
     }
+
+    @Test
+    public void testCachedGetReflectsUpdate() throws Exception {
+        Configuration config = new Configuration();
+        config.setKey("cached");
+        config.setValue("foo");
+        config = dao.create(config);
+        HibernateUtil.commitTransaction();
+
+        // load into the second level and query caches
+        HibernateUtil.beginTransaction();
+        Assert.assertEquals("foo", dao.get("cached").getValue());
+        HibernateUtil.commitTransaction();
+        Assert.assertTrue(HibernateUtil.getSessionFactory().getCache().containsEntity(Configuration.class,
+                config.getId()));
+
+        HibernateUtil.beginTransaction();
+        config = dao.get("cached");
+        config.setValue("bar");
+        dao.update(config);
+        HibernateUtil.commitTransaction();
+
+        HibernateUtil.beginTransaction();
+        Assert.assertEquals("bar", dao.get("cached").getValue());
+    }
 }
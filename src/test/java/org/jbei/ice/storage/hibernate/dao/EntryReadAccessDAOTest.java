@@ -0,0 +1,182 @@
+package org.jbei.ice.storage.hibernate.dao;
+
+import org.jbei.ice.lib.AccountCreator;
+import org.jbei.ice.lib.TestEntryCreator;
+import org.jbei.ice.lib.dto.folder.FolderType;
+import org.jbei.ice.lib.dto.group.GroupType;
+import org.jbei.ice.storage.DAOFactory;
+import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.jbei.ice.storage.model.*;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+/**
+ * @author Hector Plahar
+ */
+public class EntryReadAccessDAOTest {
+
+    private EntryReadAccessDAO dao;
+    private PermissionDAO permissionDAO;
+    private FolderDAO folderDAO;
+
+    @Before
+    public void setUp() {
+        HibernateUtil.initializeMock();
+        HibernateUtil.beginTransaction();
+        dao = DAOFactory.getEntryReadAccessDAO();
+        permissionDAO = DAOFactory.getPermissionDAO();
+        folderDAO = DAOFactory.getFolderDAO();
+    }
+
+    @After
+    public void tearDown() {
+        HibernateUtil.commitTransaction();
+        EntryReadAccessDAO.resetBuilt();
+    }
+
+    @Test
+    public void testEntryPermission() throws Exception {
+        Account owner = AccountCreator.createTestAccount("EntryReadAccessDAOTest.testEntryPermission", false);
+        Account reader = AccountCreator.createTestAccount("EntryReadAccessDAOTest.testEntryPermission2", false);
+        Account other = AccountCreator.createTestAccount("EntryReadAccessDAOTest.testEntryPermission3", false);
+        Strain strain = TestEntryCreator.createTestStrain(owner);
+        Assert.assertFalse(dao.hasAccess(strain.getId(), reader.getId(), Collections.emptySet()));
+
+        Permission permission = createPermission(strain, null, reader, null, true, false);
+        Assert.assertTrue(dao.hasAccess(strain.getId(), reader.getId(), Collections.emptySet()));
+        Assert.assertFalse(dao.hasAccess(strain.getId(), other.getId(), Collections.emptySet()));
+
+        List<Long> ids = Collections.singletonList(strain.getId());
+        Assert.assertEquals(ids, dao.getReadableEntries(owner.getId(), owner.getEmail(), Collections.emptySet(), ids, true));
+        Assert.assertTrue(dao.getReadableEntries(other.getId(), other.getEmail(), Collections.emptySet(), ids, true)
+                .isEmpty());
+        Assert.assertEquals(ids, dao.getReadableEntries(reader.getId(), reader.getEmail(), Collections.emptySet(), ids, true));
+
+        permissionDAO.delete(permission);
+        Assert.assertFalse(dao.hasAccess(strain.getId(), reader.getId(), Collections.emptySet()));
+        Assert.assertTrue(dao.getReadableEntries(reader.getId(), reader.getEmail(), Collections.emptySet(), ids, true)
+                .isEmpty());
+    }
+
+    @Test
+    public void testOwnership() throws Exception {
+        Account owner = AccountCreator.createTestAccount("EntryReadAccessDAOTest.testOwnership", false);
+        Account other = AccountCreator.createTestAccount("EntryReadAccessDAOTest.testOwnership2", false);
+        Strain unowned = TestEntryCreator.createTestStrain(owner);
+        unowned.setOwnerEmail(null);
+        DAOFactory.getEntryDAO().update(unowned);
+        Strain owned = TestEntryCreator.createTestStrain(owner);
+        owned.setOwnerEmail(owner.getEmail().toUpperCase());
+        DAOFactory.getEntryDAO().update(owned);
+
+        // owner email is compared ignoring case and entries without an owner are readable by all
+        List<Long> ids = Arrays.asList(unowned.getId(), owned.getId());
+        Assert.assertEquals(ids, dao.getReadableEntries(owner.getId(), owner.getEmail(), Collections.emptySet(), ids, true));
+        Assert.assertEquals(Collections.singletonList(unowned.getId()),
+                dao.getReadableEntries(other.getId(), other.getEmail(), Collections.emptySet(), ids, true));
+    }
+
+    @Test
+    public void testGroupPermission() throws Exception {
+        Account owner = AccountCreator.createTestAccount("EntryReadAccessDAOTest.testGroupPermission", false);
+        Account reader = AccountCreator.createTestAccount("EntryReadAccessDAOTest.testGroupPermission2", false);
+        Strain strain = TestEntryCreator.createTestStrain(owner);
+        Group group = createGroup(owner);
+        Set<Long> groupIds = Collections.singleton(group.getId());
+
+        // write permission implies read
+        createPermission(strain, null, null, group, false, true);
+        Assert.assertTrue(dao.hasAccess(strain.getId(), reader.getId(), groupIds));
+        Assert.assertFalse(dao.hasAccess(strain.getId(), reader.getId(), Collections.emptySet()));
+
+        permissionDAO.clearPermissions(group);
+        Assert.assertFalse(dao.hasAccess(strain.getId(), reader.getId(), groupIds));
+    }
+
+    @Test
+    public void testFolderPermission() throws Exception {
+        Account owner = AccountCreator.createTestAccount("EntryReadAccessDAOTest.testFolderPermission", false);
+        Account reader = AccountCreator.createTestAccount("EntryReadAccessDAOTest.testFolderPermission2", false);
+        Strain strain = TestEntryCreator.createTestStrain(owner);
+        Folder folder = createFolder(owner);
+        createPermission(null, folder, reader, null, true, false);
+        Assert.assertFalse(dao.hasAccess(strain.getId(), reader.getId(), Collections.emptySet()));
+
+        folderDAO.addFolderContents(folder, Collections.singletonList(strain));
+        Assert.assertTrue(dao.hasAccess(strain.getId(), reader.getId(), Collections.emptySet()));
+
+        folderDAO.removeFolderEntries(folder, Collections.singletonList(strain.getId()));
+        Assert.assertFalse(dao.hasAccess(strain.getId(), reader.getId(), Collections.emptySet()));
+    }
+
+    @Test
+    public void testPublicFolder() throws Exception {
+        Account owner = AccountCreator.createTestAccount("EntryReadAccessDAOTest.testPublicFolder", false);
+        Account reader = AccountCreator.createTestAccount("EntryReadAccessDAOTest.testPublicFolder2", false);
+        Strain strain = TestEntryCreator.createTestStrain(owner);
+        Folder folder = createFolder(owner);
+        folderDAO.addFolderContents(folder, Collections.singletonList(strain));
+        Assert.assertFalse(dao.hasAccess(strain.getId(), reader.getId(), Collections.emptySet()));
+
+        folder.setType(FolderType.PUBLIC);
+        dao.rebuild(folderDAO.update(folder));
+        Assert.assertTrue(dao.hasAccess(strain.getId(), reader.getId(), Collections.emptySet()));
+
+        folder.setType(FolderType.PRIVATE);
+        dao.rebuild(folderDAO.update(folder));
+        Assert.assertFalse(dao.hasAccess(strain.getId(), reader.getId(), Collections.emptySet()));
+    }
+
+    @Test
+    public void testRebuildAll() throws Exception {
+        Account owner = AccountCreator.createTestAccount("EntryReadAccessDAOTest.testRebuildAll", false);
+        Account reader = AccountCreator.createTestAccount("EntryReadAccessDAOTest.testRebuildAll2", false);
+        Strain strain = TestEntryCreator.createTestStrain(owner);
+        createPermission(strain, null, reader, null, true, false);
+
+        // simulate rows missing for entries that existed before the table
+        HibernateUtil.currentSession().flush();
+        HibernateUtil.currentSession().createQuery("delete from " + EntryReadAccessModel.class.getName())
+                .executeUpdate();
+        Assert.assertFalse(dao.hasAccess(strain.getId(), reader.getId(), Collections.emptySet()));
+
+        Assert.assertTrue(dao.rebuildAll() > 0);
+        Assert.assertTrue(dao.hasAccess(strain.getId(), reader.getId(), Collections.emptySet()));
+        Assert.assertFalse(dao.isBuilt());
+    }
+
+    private Permission createPermission(Entry entry, Folder folder, Account account, Group group, boolean canRead,
+                                        boolean canWrite) {
+        Permission permission = new Permission();
+        permission.setEntry(entry);
+        permission.setFolder(folder);
+        permission.setAccount(account);
+        permission.setGroup(group);
+        permission.setCanRead(canRead);
+        permission.setCanWrite(canWrite);
+        return permissionDAO.create(permission);
+    }
+
+    private Folder createFolder(Account owner) {
+        Folder folder = new Folder("EntryReadAccessDAOTest");
+        folder.setOwnerEmail(owner.getEmail());
+        folder.setType(FolderType.PRIVATE);
+        folder.setCreationTime(new Date());
+        return folderDAO.create(folder);
+    }
+
+    private Group createGroup(Account owner) {
+        Group group = new Group();
+        group.setUuid(UUID.randomUUID().toString());
+        group.setLabel("EntryReadAccessDAOTest");
+        group.setDescription("test");
+        group.setType(GroupType.PRIVATE);
+        group.setOwner(owner);
+        group.setCreationTime(new Date());
+        return DAOFactory.getGroupDAO().create(group);
+    }
+}
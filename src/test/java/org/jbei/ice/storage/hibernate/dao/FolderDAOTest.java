@@ -5,6 +5,7 @@ import org.jbei.ice.lib.dto.common.PageParameters;
 import org.jbei.ice.lib.entry.EntryCreator;
 import org.jbei.ice.lib.shared.ColumnField;
 import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.jbei.ice.storage.hibernate.KeysetPage;
 import org.jbei.ice.storage.model.Account;
 import org.jbei.ice.storage.model.Entry;
 import org.jbei.ice.storage.model.Folder;
@@ -14,7 +15,9 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 
 /**
@@ -223,6 +226,92 @@ public class FolderDAOTest {
         }
     }
 
+    @Test
+    public void testRetrieveFolderContentsWithCursor() throws Exception {
+        Account account = AccountCreator.createTestAccount("testRetrieveFolderContentsWithCursor", false);
+        Folder folder = dao.create(createFolderObject(account.getEmail()));
+
+        // duplicate and missing names
+        EntryCreator creator = new EntryCreator();
+        List<Entry> entries = new ArrayList<>();
+        String[] names = {"b", "a", null, "c", "a", null, "b", "a"};
+        for (String name : names) {
+            Part part = new Part();
+            part.setName(name);
+            part.setOwnerEmail(account.getEmail());
+            entries.add(creator.createEntry(account, part, null));
+        }
+        folder = dao.addFolderContents(folder, entries);
+
+        for (boolean asc : new boolean[]{true, false}) {
+            List<Entry> all = dao.retrieveFolderContents(folder.getId(),
+                    new PageParameters(0, 20, ColumnField.NAME, asc, null), false);
+            Assert.assertEquals(names.length, all.size());
+            if (asc)
+                Assert.assertNull(all.get(all.size() - 1).getName());
+            else
+                Assert.assertNull(all.get(0).getName());
+
+            // page through using the cursor; offset is ignored once a cursor is set
+            List<Entry> paged = new ArrayList<>();
+            PageParameters parameters = new PageParameters(0, 3, ColumnField.NAME, asc, null);
+            while (true) {
+                List<Entry> page = dao.retrieveFolderContents(folder.getId(), parameters, false);
+                paged.addAll(page);
+                String cursor = page.isEmpty() ? null
+                        : KeysetPage.nextCursor(parameters, page.get(page.size() - 1).getId(), page.size());
+                if (cursor == null)
+                    break;
+                parameters.setCursor(cursor);
+                parameters.setOffset(1000);
+            }
+            Assert.assertEquals(all, paged);
+        }
+    }
+
+    @Test
+    public void testFolderContentsCursorConsistency() throws Exception {
+        Account account = AccountCreator.createTestAccount("testFolderContentsCursorConsistency", false);
+        Folder folder = dao.create(createFolderObject(account.getEmail()));
+        EntryCreator creator = new EntryCreator();
+        List<Entry> entries = new ArrayList<>();
+        for (String name : new String[]{"a", "b", "c", "d", "e", "f"}) {
+            Part part = new Part();
+            part.setName(name);
+            part.setOwnerEmail(account.getEmail());
+            entries.add(creator.createEntry(account, part, null));
+        }
+        folder = dao.addFolderContents(folder, entries);
+
+        PageParameters parameters = new PageParameters(0, 3, ColumnField.NAME, true, null);
+        List<Entry> first = dao.retrieveFolderContents(folder.getId(), parameters, false);
+        Entry last = first.get(first.size() - 1);
+        String cursor = KeysetPage.nextCursor(parameters, last.getId(), first.size());
+
+        // the next page continues from where the last row was when the cursor was issued
+        last.setName("z");
+        HibernateUtil.currentSession().flush();
+        parameters.setCursor(cursor);
+        List<Entry> second = dao.retrieveFolderContents(folder.getId(), parameters, false);
+        Assert.assertEquals(3, second.size());
+        Assert.assertEquals("d", second.get(0).getName());
+
+        // cursors that have been modified are rejected
+        String[] parts = cursor.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[0]), StandardCharsets.UTF_8);
+        String forged = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                payload.replace(Long.toString(last.getId()), "1").getBytes(StandardCharsets.UTF_8)) + "." + parts[1];
+        for (String invalid : new String[]{forged, parts[0], cursor + "x"}) {
+            parameters.setCursor(invalid);
+            try {
+                dao.retrieveFolderContents(folder.getId(), parameters, false);
+                Assert.fail("Accepted invalid cursor " + invalid);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
     private Folder createFolderObject(String ownerEmail) {
         Folder folder = new Folder();
         folder.setDescription("test");
@@ -0,0 +1,104 @@
+package org.jbei.ice.storage.hibernate.dao;
+
+import org.jbei.ice.lib.executor.JobStatus;
+import org.jbei.ice.storage.hibernate.HibernateUtil;
+import org.jbei.ice.storage.model.JobModel;
+import org.junit.*;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * @author Hector Plahar
+ */
+public class JobDAOTest {
+
+    private JobDAO dao;
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        HibernateUtil.initializeMock();
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        HibernateUtil.beginTransaction();
+        dao = new JobDAO();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        HibernateUtil.commitTransaction();
+    }
+
+    @Test
+    public void testClaim() throws Exception {
+        Date now = new Date();
+        JobModel job = createJob("testClaim", now);
+        Date lease = new Date(now.getTime() + 60000);
+
+        Assert.assertTrue(containsJob(dao.getClaimableJobs(now, 100), job));
+        Assert.assertTrue(dao.claim(job.getId(), "owner1", lease, now));
+
+        // cannot be claimed again while lease is valid
+        Assert.assertFalse(dao.claim(job.getId(), "owner2", lease, now));
+        Assert.assertEquals(1, dao.renewLeases(Collections.singletonList(job.getId()), "owner1",
+                new Date(lease.getTime() + 60000)));
+        Assert.assertEquals(0, dao.renewLeases(Collections.singletonList(job.getId()), "owner2", lease));
+
+        // can be claimed once the lease expires
+        Date later = new Date(lease.getTime() + 120000);
+        Assert.assertTrue(containsJob(dao.getClaimableJobs(later, 100), job));
+        Assert.assertTrue(dao.claim(job.getId(), "owner2", new Date(later.getTime() + 60000), later));
+    }
+
+    @Test
+    public void testRetryNotClaimableUntilNextAttempt() throws Exception {
+        Date now = new Date();
+        JobModel job = createJob("testRetry", new Date(now.getTime() + 30000));
+        Assert.assertFalse(containsJob(dao.getClaimableJobs(now, 100), job));
+        Assert.assertFalse(dao.claim(job.getId(), "owner", new Date(now.getTime() + 60000), now));
+    }
+
+    @Test
+    public void testGetPendingJobs() throws Exception {
+        Date now = new Date();
+        JobModel job = createJob("testGetPendingJobs", now);
+        List<JobModel> pending = dao.getPendingJobs("testGetPendingJobs");
+        Assert.assertEquals(1, pending.size());
+        Assert.assertEquals(job.getId(), pending.get(0).getId());
+        Assert.assertTrue(dao.getPendingJobs("unknown").isEmpty());
+    }
+
+    @Test
+    public void testDeleteFinishedJobs() throws Exception {
+        Date now = new Date();
+        JobModel job = createJob("testDeleteFinishedJobs", now);
+        job.setStatus(JobStatus.COMPLETED);
+        job.setLastModified(new Date(now.getTime() - 60000));
+        dao.update(job);
+
+        Assert.assertEquals(1, dao.deleteFinishedJobs(now));
+    }
+
+    private JobModel createJob(String key, Date nextAttempt) {
+        JobModel job = new JobModel();
+        job.setType("org.jbei.ice.lib.search.RebuildLuceneIndexTask");
+        job.setKey(key);
+        job.setStatus(JobStatus.PENDING);
+        job.setMaxAttempts(5);
+        job.setNextAttempt(nextAttempt);
+        job.setCreationTime(new Date());
+        job.setLastModified(new Date());
+        return dao.create(job);
+    }
+
+    private boolean containsJob(List<JobModel> jobs, JobModel job) {
+        for (JobModel model : jobs) {
+            if (model.getId() == job.getId())
+                return true;
+        }
+        return false;
+    }
+}
@@ -1,10 +1,14 @@
 package org.jbei.ice.storage.hibernate.dao;
 
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.metadata.ClassMetadata;
 import org.jbei.ice.lib.AccountCreator;
 import org.jbei.ice.lib.TestEntryCreator;
 import org.jbei.ice.lib.dto.DNASequence;
 import org.jbei.ice.lib.entry.sequence.SequenceController;
 import org.jbei.ice.lib.parsers.GeneralParser;
+import org.jbei.ice.lib.utils.SequenceUtils;
 import org.jbei.ice.storage.DAOFactory;
 import org.jbei.ice.storage.hibernate.HibernateUtil;
 import org.jbei.ice.storage.model.*;
@@ -13,8 +17,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
-import java.util.HashSet;
-import java.util.List;
+import java.util.*;
 
 /**
  * @author Hector Plahar
@@ -96,6 +99,139 @@ public class SequenceDAOTest {
         Assert.assertNotEquals(newFeatures.get(0).getFeature(), newFeatures.get(1).getFeature());
     }
 
+    @Test
+    public void testSaveSequenceResolvesFeaturesInBatch() throws Exception {
+        Account account = AccountCreator.createTestAccount("SequenceDAOTest.testSaveSequenceResolvesFeaturesInBatch",
+                false);
+        String existing = "gattacaccgtaggctaacgt";
+        String repeated = "ccgtttaagcgcatatcgatgg";
+
+        Strain strain = TestEntryCreator.createTestStrain(account);
+        Sequence sequence = new Sequence();
+        sequence.setSequence(existing + repeated);
+        sequence.setEntry(strain);
+        sequence.setSequenceFeatures(new HashSet<>(Collections.singletonList(
+                createSequenceFeature(existing, "existing"))));
+        sequenceDAO.saveSequence(sequence);
+        Feature existingFeature = DAOFactory.getSequenceFeatureDAO().getEntrySequenceFeatures(strain).get(0)
+                .getFeature();
+
+        // reverse complement of an existing feature and the same new feature twice
+        Strain strain2 = TestEntryCreator.createTestStrain(account);
+        Sequence sequence2 = new Sequence();
+        sequence2.setSequence(existing + repeated);
+        sequence2.setEntry(strain2);
+        sequence2.setSequenceFeatures(new HashSet<>(Arrays.asList(
+                createSequenceFeature(SequenceUtils.reverseComplement(existing), "reverse"),
+                createSequenceFeature(repeated, "first"),
+                createSequenceFeature(repeated.toUpperCase(), "second"))));
+        sequenceDAO.saveSequence(sequence2);
+
+        List<SequenceFeature> features = DAOFactory.getSequenceFeatureDAO().getEntrySequenceFeatures(strain2);
+        Assert.assertEquals(3, features.size());
+        Feature repeatedFeature = null;
+        for (SequenceFeature sequenceFeature : features) {
+            if ("reverse".equals(sequenceFeature.getName())) {
+                Assert.assertEquals(existingFeature, sequenceFeature.getFeature());
+                continue;
+            }
+            if (repeatedFeature == null)
+                repeatedFeature = sequenceFeature.getFeature();
+            Assert.assertEquals(repeatedFeature, sequenceFeature.getFeature());
+        }
+
+        Map<String, Feature> saved = DAOFactory.getFeatureDAO().getByHashes(Arrays.asList(
+                SequenceUtils.calculateSequenceHash(existing), SequenceUtils.calculateSequenceHash(repeated),
+                SequenceUtils.calculateReverseComplementSequenceHash(existing)));
+        Assert.assertEquals(2, saved.size());
+        Assert.assertEquals(repeatedFeature, saved.get(SequenceUtils.calculateSequenceHash(repeated)));
+    }
+
+    @Test
+    public void testUpdateSequenceFeatures() throws Exception {
+        Account account = AccountCreator.createTestAccount("SequenceDAOTest.testUpdateSequenceFeatures", false);
+        Plasmid plasmid = TestEntryCreator.createTestPlasmid(account);
+        String kept = "ttgacaggctagctcagtcct";
+        String renamed = "aggaggtactagatgcgtaaa";
+        String removed = "gcatcgatcgtacgtagctag";
+        String added = "ctaggtcgcgtcgactgatcg";
+
+        Sequence sequence = new Sequence();
+        sequence.setSequence(kept + renamed + removed + added);
+        sequence.setEntry(plasmid);
+        sequence.setSequenceFeatures(new HashSet<>(Arrays.asList(createSequenceFeature(kept, "kept"),
+                createSequenceFeature(renamed, "old name"), createSequenceFeature(removed, "removed"))));
+        sequenceDAO.saveSequence(sequence);
+        Map<String, Long> ids = new HashMap<>();
+        for (SequenceFeature sequenceFeature : DAOFactory.getSequenceFeatureDAO().getEntrySequenceFeatures(plasmid)) {
+            ids.put(sequenceFeature.getName(), sequenceFeature.getId());
+        }
+        Assert.assertEquals(3, ids.size());
+
+        sequence = sequenceDAO.getByEntry(plasmid);
+        sequence = sequenceDAO.updateSequence(sequence, new HashSet<>(Arrays.asList(
+                createSequenceFeature(kept, "kept"), createSequenceFeature(renamed, "new name"),
+                createSequenceFeature(added, "added"))));
+        Assert.assertEquals(3, sequence.getFeatureCount().intValue());
+        HibernateUtil.currentSession().flush();
+        HibernateUtil.currentSession().clear();
+
+        Map<String, Long> updated = new HashMap<>();
+        for (SequenceFeature sequenceFeature : DAOFactory.getSequenceFeatureDAO().getEntrySequenceFeatures(plasmid)) {
+            updated.put(sequenceFeature.getName(), sequenceFeature.getId());
+        }
+        Assert.assertEquals(3, updated.size());
+        Assert.assertEquals(ids.get("kept"), updated.get("kept"));
+        Assert.assertEquals(ids.get("old name"), updated.get("new name"));
+        Assert.assertFalse(updated.containsKey("removed"));
+        Assert.assertFalse(ids.containsValue(updated.get("added")));
+        Assert.assertNull(DAOFactory.getSequenceFeatureDAO().get(ids.get("removed")));
+        Assert.assertNotNull(sequenceDAO.getByEntry(plasmid));
+    }
+
+    @Test
+    public void testPackedSequence() throws Exception {
+        Account account = AccountCreator.createTestAccount("SequenceDAOTest.testPackedSequence", false);
+        Strain strain = TestEntryCreator.createTestStrain(account);
+        DNASequence dnaSequence = GeneralParser.getInstance().parse(sequenceString);
+        Sequence sequence = SequenceController.dnaSequenceToSequence(dnaSequence);
+        sequence.setEntry(strain);
+        String text = sequence.getSequence();
+        sequence.packSequence();
+        sequence = sequenceDAO.saveSequence(sequence);
+
+        Session session = HibernateUtil.currentSession();
+        session.flush();
+        session.clear();
+
+        Object packed = session.createQuery("select c.packedSequence from " + Sequence.class.getName()
+                + " s join s.content c where s.entry = :entry").setParameter("entry", strain).uniqueResult();
+        Assert.assertNotNull(packed);
+        Assert.assertEquals(text, sequenceDAO.getSequenceString(strain));
+        sequence = sequenceDAO.getByEntry(strain);
+        Assert.assertEquals(text, sequence.getSequence());
+        Assert.assertSame(sequence.getSequence(), sequence.getSequence());   // decoded once
+        Assert.assertEquals(text, sequence.getPackedSequence().toString());
+        Assert.assertEquals(text.length(), sequence.getSequenceLength().intValue());
+
+        // setting the text stores it unpacked again
+        sequence.setSequence(text + "acgt");
+        Assert.assertEquals(text + "acgt", sequence.getSequence());
+    }
+
+    private SequenceFeature createSequenceFeature(String dna, String name) {
+        Feature feature = new Feature(name, "", dna, "misc_feature");
+        SequenceFeature sequenceFeature = new SequenceFeature();
+        sequenceFeature.setName(name);
+        sequenceFeature.setFeature(feature);
+        AnnotationLocation location = new AnnotationLocation();
+        location.setGenbankStart(1);
+        location.setEnd(dna.length());
+        location.setSequenceFeature(sequenceFeature);
+        sequenceFeature.getAnnotationLocations().add(location);
+        return sequenceFeature;
+    }
+
     @Test
     public void testDeleteSequence() throws Exception {
 
@@ -136,6 +272,101 @@ public class SequenceDAOTest {
         Assert.assertTrue(sequenceDAO.hasSequence(plasmid.getId()));
     }
 
+    @Test
+    public void testGetMetadata() throws Exception {
+        Account account = AccountCreator.createTestAccount("SequenceDAOTest.testGetMetadata", false);
+        Plasmid plasmid = TestEntryCreator.createTestPlasmid(account);
+        Assert.assertNull(sequenceDAO.getMetadata(plasmid.getId()));
+
+        DNASequence dnaSequence = GeneralParser.getInstance().parse(sequenceString);
+        Sequence sequence = SequenceController.dnaSequenceToSequence(dnaSequence);
+        sequence.setEntry(plasmid);
+        sequence = sequenceDAO.saveSequence(sequence);
+        Assert.assertEquals(0.4, sequence.getGcContent(), 0.1);
+
+        Object[] metadata = sequenceDAO.getMetadata(plasmid.getId());
+        Assert.assertNotNull(metadata);
+        Assert.assertEquals(804, metadata[0]);
+        Assert.assertEquals(1, metadata[1]);
+        Assert.assertEquals(sequenceDAO.hasOriginalSequence(plasmid.getId()), metadata[2]);
+    }
+
+    @Test
+    public void testBackfillMetadata() throws Exception {
+        Account account = AccountCreator.createTestAccount("SequenceDAOTest.testBackfillMetadata", false);
+        Plasmid plasmid = TestEntryCreator.createTestPlasmid(account);
+        DNASequence dnaSequence = GeneralParser.getInstance().parse(sequenceString);
+        Sequence sequence = SequenceController.dnaSequenceToSequence(dnaSequence);
+        sequence.setEntry(plasmid);
+        sequence.setSequenceUser(sequenceString);
+        sequence = sequenceDAO.saveSequence(sequence);
+        double gcContent = sequence.getGcContent();
+
+        // as saved before the metadata columns were introduced
+        HibernateUtil.currentSession().createQuery("update " + Sequence.class.getName() + " set sequenceLength = null,"
+                + " gcContent = null, featureCount = null, hasOriginal = null where id = :id")
+                .setParameter("id", sequence.getId()).executeUpdate();
+        Assert.assertTrue(sequenceDAO.hasMissingMetadata());
+        Assert.assertNull(sequenceDAO.getMetadata(plasmid.getId())[0]);
+        Assert.assertTrue(sequenceDAO.hasOriginalSequence(plasmid.getId()));
+
+        Assert.assertTrue(sequenceDAO.backfillMetadata() >= 1);
+        Assert.assertFalse(sequenceDAO.hasMissingMetadata());
+        Object[] metadata = sequenceDAO.getMetadata(plasmid.getId());
+        Assert.assertEquals(804, metadata[0]);
+        Assert.assertEquals(1, metadata[1]);
+        Assert.assertEquals(true, metadata[2]);
+
+        HibernateUtil.currentSession().clear();
+        Assert.assertEquals(gcContent, sequenceDAO.get(sequence.getId()).getGcContent(), 0.0001);
+    }
+
+    @Test
+    public void testContentLoadedLazily() throws Exception {
+        Account account = AccountCreator.createTestAccount("SequenceDAOTest.testContentLoadedLazily", false);
+        Plasmid plasmid = TestEntryCreator.createTestPlasmid(account);
+        DNASequence dnaSequence = GeneralParser.getInstance().parse(sequenceString);
+        Sequence sequence = SequenceController.dnaSequenceToSequence(dnaSequence);
+        sequence.setEntry(plasmid);
+        sequence = sequenceDAO.saveSequence(sequence);
+        String text = sequence.getSequence();
+        HibernateUtil.currentSession().flush();
+        HibernateUtil.currentSession().clear();
+
+        sequence = sequenceDAO.get(sequence.getId());
+        ClassMetadata metadata = HibernateUtil.getSessionFactory().getClassMetadata(Sequence.class);
+        Assert.assertFalse(Hibernate.isInitialized(metadata.getPropertyValue(sequence, "content")));
+        Assert.assertEquals(text, sequenceDAO.getSequenceString(plasmid));
+        Assert.assertEquals(text, sequence.getSequence());
+        Assert.assertEquals(plasmid.getId(), sequence.getEntry().getId());
+        Assert.assertTrue(sequence.getEntry() instanceof Plasmid);
+    }
+
+    @Test
+    public void testMigrateContent() throws Exception {
+        Account account = AccountCreator.createTestAccount("SequenceDAOTest.testMigrateContent", false);
+        Plasmid plasmid = TestEntryCreator.createTestPlasmid(account);
+        Sequence sequence = new Sequence("atgc", "", "fwd", "rev", plasmid);
+        sequence = sequenceDAO.saveSequence(sequence);
+        HibernateUtil.currentSession().flush();
+
+        // as stored before the text was moved to a separate table
+        Session session = HibernateUtil.currentSession();
+        session.createSQLQuery("alter table sequences add column if not exists sequence clob").executeUpdate();
+        session.createSQLQuery("alter table sequences add column if not exists sequence_user clob").executeUpdate();
+        session.createSQLQuery("update sequences set sequence = 'ggcc', sequence_user = 'LOCUS', content_id = null"
+                + " where id = :id").setParameter("id", sequence.getId()).executeUpdate();
+
+        // the text is moved in separate transactions
+        HibernateUtil.commitTransaction();
+        Assert.assertTrue(sequenceDAO.migrateContent() >= 1);
+        Assert.assertEquals(0, sequenceDAO.migrateContent());
+        HibernateUtil.beginTransaction();
+        sequence = sequenceDAO.get(sequence.getId());
+        Assert.assertEquals("ggcc", sequence.getSequence());
+        Assert.assertEquals("LOCUS", sequence.getSequenceUser());
+    }
+
     @Test
     public void testGetSequenceFilename() throws Exception {
 